@@ -0,0 +1,110 @@
+package benchmarks;
+
+import domain.entities.Libro;
+import domain.entities.Reserva;
+import domain.entities.Usuario;
+import domain.valueObject.DocumentoRut;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generador de datos de prueba para los benchmarks. Usa semillas fijas para
+ * que los conjuntos de datos, y por lo tanto los resultados, sean comparables
+ * entre ejecuciones.
+ */
+public final class DatosBenchmark {
+  public static final long SEMILLA = 20240601L;
+
+  private static final String[] PALABRAS = {
+      "Amor", "Tiempo", "Soledad", "Ciudad", "Perros", "Casa", "Espiritus", "Muerte", "Cronica", "Noticias",
+      "Heroes", "Tumbas", "Laberinto", "Sombra", "Viento", "Rio", "Montaña", "Noche", "Dia", "Mar",
+      "Guerra", "Paz", "Memoria", "Olvido", "Camino", "Jardin", "Senderos", "Espejo", "Fuego", "Agua"};
+  private static final String[] AUTORES = {
+      "Gabriel Garcia Marquez", "Mario Vargas Llosa", "Isabel Allende", "Julio Cortazar", "Jorge Luis Borges",
+      "Carlos Fuentes", "Juan Rulfo", "Ernesto Sabato", "Pablo Neruda", "Gabriela Mistral",
+      "Roberto Bolaño", "Octavio Paz", "Laura Esquivel", "Elena Poniatowska", "Jose Donoso"};
+  private static final String[] GENEROS = {
+      "Novela", "Cuento", "Poesia", "Ensayo", "Realismo Magico", "Historia", "Biografia", "Teatro"};
+  private static final String[] EDITORIALES = {
+      "Sudamericana", "Alfaguara", "Seix Barral", "Anagrama", "Planeta", "Mondadori",
+      "Fondo de Cultura Economica", "Emece", "Lumen", "Tusquets"};
+
+  private DatosBenchmark() {
+  }
+
+  /**
+   * Genera libros con títulos de dos o tres palabras y columnas repetidas
+   * como en un catálogo real
+   */
+  public static List<Libro> libros(int cantidad) {
+    Random random = new Random(SEMILLA);
+    List<Libro> libros = new ArrayList<>(cantidad);
+    for (int i = 0; i < cantidad; i++) {
+      String titulo = PALABRAS[random.nextInt(PALABRAS.length)] + " "
+          + PALABRAS[random.nextInt(PALABRAS.length)]
+          + (random.nextBoolean() ? " " + PALABRAS[random.nextInt(PALABRAS.length)] : "");
+      libros.add(new Libro(
+          titulo,
+          AUTORES[random.nextInt(AUTORES.length)],
+          GENEROS[random.nextInt(GENEROS.length)],
+          EDITORIALES[random.nextInt(EDITORIALES.length)]));
+    }
+    return libros;
+  }
+
+  /**
+   * Genera usuarios con RUTs válidos y distintos
+   */
+  public static List<Usuario> usuarios(int cantidad) {
+    List<Usuario> usuarios = new ArrayList<>(cantidad);
+    for (int i = 0; i < cantidad; i++) {
+      usuarios.add(new Usuario("Usuario " + PALABRAS[i % PALABRAS.length], rut(10_000_000 + i)));
+    }
+    return usuarios;
+  }
+
+  /**
+   * Genera una reserva por libro, repartidas entre los usuarios
+   */
+  public static List<Reserva> reservas(List<Libro> libros, List<Usuario> usuarios) {
+    Random random = new Random(SEMILLA);
+    LocalDate base = LocalDate.of(2024, 6, 1);
+    List<Reserva> reservas = new ArrayList<>(libros.size());
+    for (int i = 0; i < libros.size(); i++) {
+      reservas.add(new Reserva(i + 1, usuarios.get(i % usuarios.size()), libros.get(i),
+          base.plusDays(random.nextInt(60))));
+    }
+    return reservas;
+  }
+
+  /**
+   * Textos de entrada como los que se escriben en el mesón de atención
+   */
+  public static String[] textosDeEntrada(int cantidad) {
+    Random random = new Random(SEMILLA);
+    String[] textos = new String[cantidad];
+    for (int i = 0; i < cantidad; i++) {
+      textos[i] = "  " + PALABRAS[random.nextInt(PALABRAS.length)].toLowerCase() + "   de "
+          + AUTORES[random.nextInt(AUTORES.length)].toUpperCase() + " ";
+    }
+    return textos;
+  }
+
+  /**
+   * Construye un RUT válido calculando su dígito verificador
+   */
+  public static DocumentoRut rut(int numero) {
+    int suma = 0;
+    int multiplicador = 2;
+    for (int n = numero; n > 0; n /= 10) {
+      suma += (n % 10) * multiplicador;
+      multiplicador = multiplicador == 7 ? 2 : multiplicador + 1;
+    }
+    int digito = 11 - (suma % 11);
+    char dv = digito == 11 ? '0' : digito == 10 ? 'K' : (char) ('0' + digito);
+    return DocumentoRut.definir(numero + "-" + dv);
+  }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import domain.valueObject.DocumentoRut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks del parseo y formateo de DocumentoRut
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DocumentoRutBenchmark {
+  private static final int CANTIDAD = 1024;
+
+  @Param({"formateado", "sinFormato"})
+  public String formato;
+
+  private String[] entradas;
+  private DocumentoRut[] ruts;
+  private int siguiente;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    entradas = new String[CANTIDAD];
+    ruts = new DocumentoRut[CANTIDAD];
+    for (int i = 0; i < CANTIDAD; i++) {
+      ruts[i] = DatosBenchmark.rut(10_000_000 + i * 7919);
+      entradas[i] = formato.equals("formateado") ? ruts[i].getFormateado() : ruts[i].getSinFormato();
+    }
+  }
+
+  @Benchmark
+  public DocumentoRut definir() {
+    siguiente = (siguiente + 1) % CANTIDAD;
+    return DocumentoRut.definir(entradas[siguiente]);
+  }
+
+  @Benchmark
+  public String getFormateado() {
+    siguiente = (siguiente + 1) % CANTIDAD;
+    return ruts[siguiente].getFormateado();
+  }
+}
@@ -0,0 +1,123 @@
+package benchmarks;
+
+import domain.entities.Libro;
+import domain.entities.Reserva;
+import domain.entities.Usuario;
+import domain.services.ServicioPersistencia;
+import infraestructure.repositories.RepositorioLibros;
+import infraestructure.repositories.RepositorioReservas;
+import infraestructure.repositories.RepositorioUsuarios;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de carga y guardado de los CSV en ServicioPersistencia. Los
+ * archivos se generan una vez por trial en un directorio temporal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistenciaBenchmark {
+
+  @Param({"10000", "500000"})
+  public int filas;
+
+  private final ServicioPersistencia servicioPersistencia = new ServicioPersistencia();
+  private Path directorio;
+  private String rutaLibros;
+  private String rutaUsuarios;
+  private String rutaReservas;
+  private List<Libro> libros;
+  private List<Usuario> usuarios;
+  private List<Reserva> reservas;
+  private RepositorioLibros repositorioLibros;
+  private RepositorioUsuarios repositorioUsuarios;
+
+  @Setup(Level.Trial)
+  public void preparar() throws IOException {
+    directorio = Files.createTempDirectory("biblioteca-bench");
+    rutaLibros = directorio.resolve("libros.csv").toString();
+    rutaUsuarios = directorio.resolve("usuarios.csv").toString();
+    rutaReservas = directorio.resolve("reservas.csv").toString();
+
+    libros = DatosBenchmark.libros(filas);
+    usuarios = DatosBenchmark.usuarios(Math.max(1, filas / 10));
+    reservas = DatosBenchmark.reservas(libros.subList(0, filas / 10), usuarios);
+
+    servicioPersistencia.guardarLibrosEnCSV(rutaLibros, libros);
+    servicioPersistencia.guardarUsuariosEnCSV(rutaUsuarios, usuarios);
+    servicioPersistencia.guardarReservasEnCSV(rutaReservas, reservas);
+
+    // Repositorios ya cargados, necesarios para resolver las reservas
+    repositorioLibros = new RepositorioLibros();
+    servicioPersistencia.cargarLibrosDesdeCSV(rutaLibros, repositorioLibros);
+    repositorioUsuarios = new RepositorioUsuarios();
+    servicioPersistencia.cargarUsuariosDesdeCSV(rutaUsuarios, repositorioUsuarios);
+  }
+
+  @TearDown(Level.Trial)
+  public void limpiar() throws IOException {
+    try (var archivos = Files.list(directorio)) {
+      for (Path archivo : archivos.toList()) {
+        Files.deleteIfExists(archivo);
+      }
+    }
+    Files.deleteIfExists(directorio);
+  }
+
+  @Benchmark
+  public RepositorioLibros cargarLibros() {
+    RepositorioLibros repositorio = new RepositorioLibros();
+    servicioPersistencia.cargarLibrosDesdeCSV(rutaLibros, repositorio);
+    return repositorio;
+  }
+
+  @Benchmark
+  public RepositorioUsuarios cargarUsuarios() {
+    RepositorioUsuarios repositorio = new RepositorioUsuarios();
+    servicioPersistencia.cargarUsuariosDesdeCSV(rutaUsuarios, repositorio);
+    return repositorio;
+  }
+
+  @Benchmark
+  public RepositorioReservas cargarReservas() {
+    RepositorioReservas repositorio = new RepositorioReservas();
+    servicioPersistencia.cargarReservasDesdeCSV(rutaReservas, repositorio, repositorioUsuarios, repositorioLibros);
+    return repositorio;
+  }
+
+  @Benchmark
+  public void guardarLibros() {
+    servicioPersistencia.guardarLibrosEnCSV(rutaLibros, libros);
+  }
+
+  @Benchmark
+  public void guardarUsuarios() {
+    servicioPersistencia.guardarUsuariosEnCSV(rutaUsuarios, usuarios);
+  }
+
+  @Benchmark
+  public void guardarReservas() {
+    servicioPersistencia.guardarReservasEnCSV(rutaReservas, reservas);
+  }
+}
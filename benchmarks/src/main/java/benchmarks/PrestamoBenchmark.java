@@ -0,0 +1,87 @@
+package benchmarks;
+
+import application.usecases.DevolverLibroCasoUso;
+import application.usecases.PrestarLibroCasoUso;
+import domain.entities.Libro;
+import domain.entities.Reserva;
+import domain.entities.Usuario;
+import domain.services.ServicioLibros;
+import domain.services.ServicioPrestamos;
+import domain.services.ServicioUsuarios;
+import infraestructure.repositories.RepositorioLibros;
+import infraestructure.repositories.RepositorioReservas;
+import infraestructure.repositories.RepositorioUsuarios;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del ciclo completo de préstamo y devolución de un libro
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PrestamoBenchmark {
+
+  @Param({"1000", "100000"})
+  public int tamanoCatalogo;
+
+  @Param({"0", "10000"})
+  public int reservasActivas;
+
+  private PrestarLibroCasoUso prestarLibroCasoUso;
+  private DevolverLibroCasoUso devolverLibroCasoUso;
+  private List<Libro> libros;
+  private List<Usuario> usuarios;
+  private int siguiente;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    RepositorioLibros repositorioLibros = new RepositorioLibros();
+    RepositorioUsuarios repositorioUsuarios = new RepositorioUsuarios();
+    RepositorioReservas repositorioReservas = new RepositorioReservas();
+
+    libros = DatosBenchmark.libros(tamanoCatalogo);
+    libros.forEach(repositorioLibros::agregarLibro);
+    usuarios = DatosBenchmark.usuarios(1000);
+    usuarios.forEach(repositorioUsuarios::agregarUsuario);
+
+    ServicioLibros servicioLibros = new ServicioLibros(repositorioLibros);
+    ServicioUsuarios servicioUsuarios = new ServicioUsuarios(repositorioUsuarios);
+    ServicioPrestamos servicioPrestamos = new ServicioPrestamos(repositorioReservas, servicioLibros, servicioUsuarios);
+    prestarLibroCasoUso = new PrestarLibroCasoUso(servicioLibros, servicioPrestamos);
+    devolverLibroCasoUso = new DevolverLibroCasoUso(servicioPrestamos);
+
+    // Deja prestados los últimos libros para medir con un libro de reservas ocupado
+    int activas = Math.min(reservasActivas, tamanoCatalogo / 2);
+    for (int i = 0; i < activas; i++) {
+      Libro libro = libros.get(tamanoCatalogo - 1 - i);
+      prestarLibroCasoUso.ejecutar(libro.getUuid(), usuarios.get(i % usuarios.size()).getRut());
+    }
+    siguiente = 0;
+  }
+
+  @Benchmark
+  public Reserva prestarYDevolver() {
+    // Solo se recorren los libros libres (la primera mitad del catálogo)
+    siguiente = (siguiente + 1) % (tamanoCatalogo / 2);
+    Libro libro = libros.get(siguiente);
+    Reserva reserva = prestarLibroCasoUso.ejecutar(libro.getUuid(), usuarios.get(siguiente % usuarios.size()).getRut());
+    return devolverLibroCasoUso.ejecutar(reserva.getId());
+  }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import domain.entities.Libro;
+import infraestructure.repositories.RepositorioLibros;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de las operaciones calientes de RepositorioLibros
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RepositorioLibrosBenchmark {
+
+  @Param({"1000", "100000", "500000"})
+  public int tamanoCatalogo;
+
+  @Param({"ti", "soledad", "garcia marquez"})
+  public String criterio;
+
+  private RepositorioLibros repositorio;
+  private List<Libro> libros;
+  private Libro libroExtra;
+  private int siguiente;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    repositorio = new RepositorioLibros();
+    libros = DatosBenchmark.libros(tamanoCatalogo);
+    for (Libro libro : libros) {
+      repositorio.agregarLibro(libro);
+    }
+    libroExtra = new Libro("Libro Extra", "Autor Extra", "Novela", "Planeta");
+  }
+
+  @Benchmark
+  public ArrayList<Libro> buscarLibros() {
+    return repositorio.buscarLibros(criterio);
+  }
+
+  @Benchmark
+  public Libro buscarLibroPorId() {
+    siguiente = (siguiente + 1) % libros.size();
+    return repositorio.buscarLibroPorId(libros.get(siguiente).getUuid()).orElseThrow();
+  }
+
+  /**
+   * Upsert de un libro existente, reindexa sus campos
+   */
+  @Benchmark
+  public void agregarLibroExistente() {
+    siguiente = (siguiente + 1) % libros.size();
+    repositorio.agregarLibro(libros.get(siguiente));
+  }
+
+  /**
+   * Agrega y elimina un libro nuevo para mantener constante el tamaño del catálogo
+   */
+  @Benchmark
+  public void agregarYEliminarLibro() {
+    repositorio.agregarLibro(libroExtra);
+    repositorio.eliminarLibro(libroExtra);
+  }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.utils.Formateador;
+import shared.utils.Validaciones;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de la normalización y validación de textos de entrada
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TextoBenchmark {
+  private static final int CANTIDAD = 1024;
+
+  private String[] textos;
+  private int siguiente;
+
+  @Setup(Level.Trial)
+  public void preparar() {
+    textos = DatosBenchmark.textosDeEntrada(CANTIDAD);
+  }
+
+  @Benchmark
+  public void esAlfanumericoFlexible() {
+    siguiente = (siguiente + 1) % CANTIDAD;
+    Validaciones.esAlfanumericoFlexible(textos[siguiente]);
+  }
+
+  @Benchmark
+  public String normalizarString() {
+    siguiente = (siguiente + 1) % CANTIDAD;
+    return Formateador.normalizarString(textos[siguiente]);
+  }
+}
@@ -1,31 +1,84 @@
+import domain.services.ServicioCargaParalela;
+import domain.services.ServicioJournal;
 import domain.services.ServicioPersistencia;
 import domain.services.ServicioGenerador;
 import domain.services.ServicioLibros;
 import domain.services.ServicioPrestamos;
 import domain.services.ServicioUsuarios;
 import domain.valueObject.DocumentoRut;
+import infraestructure.indices.IndiceAutocompletado;
+import infraestructure.indices.IndiceBusquedaAproximada;
+import infraestructure.indices.IndiceFacetas;
+import infraestructure.indices.IndiceTituloAutor;
 import infraestructure.repositories.RepositorioLibros;
+import infraestructure.repositories.RepositorioLibrosColumnar;
+import infraestructure.repositories.RepositorioLibrosConcurrente;
+import infraestructure.repositories.RepositorioLibrosInstrumentado;
 import infraestructure.repositories.RepositorioReservas;
-import infraestructure.repositories.RepositorioUsuarios;
+import infraestructure.repositories.RepositorioReservasConcurrente;
+import infraestructure.repositories.RepositorioReservasInstrumentado;
+import infraestructure.repositories.RepositorioUsuariosCompacto;
+import infraestructure.repositories.RepositorioUsuariosConcurrente;
+import infraestructure.repositories.RepositorioUsuariosInstrumentado;
+import interfaces.infraestructure.IRepositorioLibros;
+import interfaces.infraestructure.IRepositorioReservas;
+import interfaces.infraestructure.IRepositorioUsuarios;
+import presentation.controller.LibrosHttpController;
 import presentation.controller.LibrosTerminalController;
+import presentation.controller.MetricasHttpController;
+import presentation.controller.MetricasTerminalController;
+import presentation.controller.UsuarioHttpController;
 import presentation.controller.UsuarioTerminalController;
 import presentation.services.BibliotecaApplicationService;
 import presentation.services.UsuarioApplicationService;
+import presentation.view.HttpApplication;
 import presentation.view.TerminalApplication;
 import shared.exceptions.UsuarioYaRegistradoException;
+import shared.metricas.RegistroMetricas;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.InputMismatchException;
+import java.util.List;
 
 public class Main {
   private static final String RUTA_ARCHIVO_LIBROS_CSV = "libros.csv";
   private static final String RUTA_ARCHIVO_USUARIOS_CSV = "usuarios.csv";
   private static final String RUTA_ARCHIVO_RESERVAS_CSV = "reservas.csv";
+  private static final String RUTA_ARCHIVO_JOURNAL = "operaciones.journal";
+  private static final int OPERACIONES_POR_CHECKPOINT = 1000;
+  private static final String ARGUMENTO_MODO_HTTP = "--http";
+  private static final int PUERTO_HTTP_POR_DEFECTO = 8080;
+  private static final String ARGUMENTO_CARGA_PARALELA = "--carga-paralela";
+  private static final String ARGUMENTO_JOURNAL_AGRUPADO = "--journal-agrupado";
+  private static final String ARGUMENTO_CATALOGO_COLUMNAR = "--catalogo-columnar";
+  // Escritura agrupada del journal: operaciones pendientes, espera máxima por lote y operaciones por escritura
+  private static final int CAPACIDAD_COLA_JOURNAL = 8192;
+  private static final long RETRASO_MAXIMO_JOURNAL_MS = 5;
+  private static final int LOTE_MAXIMO_JOURNAL = 512;
+  // Libros que se copian por vez al recorrer el catálogo para construir los índices
+  private static final int TAMANO_PAGINA_CARGA = 4096;
 
   public static void main(String[] args) {
-    // Inicializa los repositorios
-    RepositorioLibros repositorioLibros = new RepositorioLibros();
-    RepositorioUsuarios repositorioUsuarios = new RepositorioUsuarios();
-    RepositorioReservas repositorioReservas = new RepositorioReservas();
+    // --carga-paralela, --journal-agrupado y --catalogo-columnar pueden ir en cualquier posición,
+    // el resto de argumentos elige el modo
+    List<String> argumentos = new ArrayList<>(Arrays.asList(args));
+    boolean cargaParalela = argumentos.remove(ARGUMENTO_CARGA_PARALELA);
+    boolean journalAgrupado = argumentos.remove(ARGUMENTO_JOURNAL_AGRUPADO);
+    boolean catalogoColumnar = argumentos.remove(ARGUMENTO_CATALOGO_COLUMNAR);
+
+    // Registro de métricas de repositorios y casos de uso
+    RegistroMetricas registroMetricas = new RegistroMetricas();
+
+    // Inicializa los repositorios, seguros para ser usados desde varios hilos e instrumentados
+    // El catálogo columnar conviene para catálogos grandes con muchos recorridos completos
+    IRepositorioLibros repositorioLibros = new RepositorioLibrosInstrumentado(
+        new RepositorioLibrosConcurrente(catalogoColumnar ? new RepositorioLibrosColumnar() : new RepositorioLibros()),
+        registroMetricas);
+    IRepositorioUsuarios repositorioUsuarios = new RepositorioUsuariosInstrumentado(
+        new RepositorioUsuariosConcurrente(new RepositorioUsuariosCompacto()), registroMetricas);
+    IRepositorioReservas repositorioReservas = new RepositorioReservasInstrumentado(
+        new RepositorioReservasConcurrente(new RepositorioReservas()), registroMetricas);
 
     // Incializa los servicios de dominio
     ServicioLibros servicioLibros = new ServicioLibros(repositorioLibros);
@@ -36,22 +89,59 @@ public class Main {
 
     // 1. Intentar cargar datos desde archivos CSV (datos iniciales/backup)
     System.out.println("Intentando cargar datos desde CSV...");
-    servicioPersistencia.cargarUsuariosDesdeCSV(RUTA_ARCHIVO_USUARIOS_CSV, repositorioUsuarios);
-    servicioPersistencia.cargarLibrosDesdeCSV(RUTA_ARCHIVO_LIBROS_CSV, repositorioLibros);
-    // Cargar reservas DESPUÉS de libros y usuarios, ya que las reservas dependen de ellos
-    servicioPersistencia.cargarReservasDesdeCSV(RUTA_ARCHIVO_RESERVAS_CSV, repositorioReservas, repositorioUsuarios, repositorioLibros);
+    if (cargaParalela) {
+      // Modo paralelo: java Main --carga-paralela, pensado para catálogos grandes
+      new ServicioCargaParalela().cargarTodo(
+          RUTA_ARCHIVO_LIBROS_CSV, RUTA_ARCHIVO_USUARIOS_CSV, RUTA_ARCHIVO_RESERVAS_CSV,
+          repositorioLibros, repositorioUsuarios, repositorioReservas);
+    } else {
+      servicioPersistencia.cargarUsuariosDesdeCSV(RUTA_ARCHIVO_USUARIOS_CSV, repositorioUsuarios);
+      servicioPersistencia.cargarLibrosDesdeCSV(RUTA_ARCHIVO_LIBROS_CSV, repositorioLibros);
+      // Cargar reservas DESPUÉS de libros y usuarios, ya que las reservas dependen de ellos
+      servicioPersistencia.cargarReservasDesdeCSV(RUTA_ARCHIVO_RESERVAS_CSV, repositorioReservas, repositorioUsuarios, repositorioLibros);
+    }
+
+    // Reproduce las operaciones registradas después del último checkpoint
+    ServicioJournal servicioJournal = new ServicioJournal(
+        RUTA_ARCHIVO_JOURNAL, servicioPersistencia,
+        repositorioLibros, repositorioUsuarios, repositorioReservas,
+        RUTA_ARCHIVO_LIBROS_CSV, RUTA_ARCHIVO_USUARIOS_CSV, RUTA_ARCHIVO_RESERVAS_CSV,
+        OPERACIONES_POR_CHECKPOINT);
+    servicioJournal.reproducir();
+    if (journalAgrupado) {
+      // Las mutaciones no esperan la escritura del journal, se escriben en lotes en segundo plano
+      servicioJournal.iniciarEscrituraAgrupada(CAPACIDAD_COLA_JOURNAL, RETRASO_MAXIMO_JOURNAL_MS, LOTE_MAXIMO_JOURNAL);
+    }
+
+    // Conteos por faceta: se calculan una vez con el catálogo ya cargado y luego
+    // se mantienen con los avisos del repositorio
+    IndiceFacetas indiceFacetas = new IndiceFacetas();
+    indiceFacetas.reconstruir(repositorioLibros.recorrerLibros(TAMANO_PAGINA_CARGA));
+    repositorioLibros.registrarObservador(indiceFacetas);
+    // Orden alfabético por título y autor para los listados, se mantiene igual que las facetas
+    IndiceTituloAutor indiceTituloAutor = new IndiceTituloAutor();
+    indiceTituloAutor.reconstruir(repositorioLibros.recorrerLibros(TAMANO_PAGINA_CARGA));
+    repositorioLibros.registrarObservador(indiceTituloAutor);
+    // Vocabulario de títulos y autores para la búsqueda que tolera errores de tipeo
+    IndiceBusquedaAproximada indiceBusquedaAproximada = new IndiceBusquedaAproximada();
+    indiceBusquedaAproximada.reconstruir(repositorioLibros.recorrerLibros(TAMANO_PAGINA_CARGA));
+    repositorioLibros.registrarObservador(indiceBusquedaAproximada);
+    // Prefijos de títulos y autores para sugerir mientras se escribe
+    IndiceAutocompletado indiceAutocompletado = new IndiceAutocompletado();
+    indiceAutocompletado.reconstruir(repositorioLibros.recorrerLibros(TAMANO_PAGINA_CARGA));
+    repositorioLibros.registrarObservador(indiceAutocompletado);
 
     // Application Services
-    // Se inyecta ServicioPersistencia y las rutas de los archivos para guardado inmediato
+    // Se inyecta el journal para registrar cada operación sin reescribir los CSV
     BibliotecaApplicationService bibliotecaApplicationService = new BibliotecaApplicationService(
         repositorioLibros, servicioLibros, servicioPrestamos, servicioGenerador,
-        servicioPersistencia, repositorioReservas,
-        RUTA_ARCHIVO_LIBROS_CSV, RUTA_ARCHIVO_RESERVAS_CSV);
+        servicioJournal, repositorioReservas, indiceFacetas, indiceTituloAutor, indiceBusquedaAproximada,
+        indiceAutocompletado, registroMetricas);
     UsuarioApplicationService usuarioApplicationService = new UsuarioApplicationService(
-        servicioUsuarios, servicioPersistencia, repositorioUsuarios, RUTA_ARCHIVO_USUARIOS_CSV);
+        servicioUsuarios, servicioJournal, repositorioUsuarios, registroMetricas);
 
     // 2. Si aún no hay datos cargados desde CSV, agregar datos de ejemplo
-    if (repositorioUsuarios.obtenerTodosLosUsuarios().isEmpty()) {
+    if (repositorioUsuarios.obtenerPaginaUsuarios(null, 1).elementos().isEmpty()) {
       try {
         System.out.println("No se cargaron usuarios desde CSV. Registrando usuario de ejemplo...");
         usuarioApplicationService.registrarUsuario("Kevin Ejemplo", DocumentoRut.definir("11111111-1"));
@@ -62,7 +152,7 @@ public class Main {
         e.printStackTrace();
       }
     }
-    if (repositorioLibros.obtenerTodosLosLibros().isEmpty()) {
+    if (repositorioLibros.obtenerPaginaLibros(null, 1).elementos().isEmpty()) {
       try {
         System.out.println("No se cargaron libros desde CSV. Agregando libro de ejemplo...");
 
@@ -82,27 +172,52 @@ public class Main {
       }
     }
 
+    // Modo HTTP: java Main --http [puerto]
+    if (!argumentos.isEmpty() && argumentos.get(0).equals(ARGUMENTO_MODO_HTTP)) {
+      int puerto = argumentos.size() > 1 ? Integer.parseInt(argumentos.get(1)) : PUERTO_HTTP_POR_DEFECTO;
+
+      // Aplicación HTTP
+      HttpApplication httpApplication = new HttpApplication(
+          puerto,
+          new LibrosHttpController(bibliotecaApplicationService),
+          new UsuarioHttpController(usuarioApplicationService),
+          new MetricasHttpController(registroMetricas));
+
+      // Al detener el proceso (Ctrl+C) se guardan los datos en los CSV
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        httpApplication.stop();
+        System.out.println("Guardando datos antes de salir...");
+        servicioJournal.checkpoint();
+        servicioJournal.cerrar();
+        System.out.println("Datos guardados. Programa finalizado.");
+      }));
+
+      httpApplication.start();
+      return;
+    }
+
     // Controladores de Terminal
     LibrosTerminalController librosTerminalController = new LibrosTerminalController(
             bibliotecaApplicationService, usuarioApplicationService
     );
     UsuarioTerminalController usuarioTerminalController = new UsuarioTerminalController(usuarioApplicationService);
+    MetricasTerminalController metricasTerminalController = new MetricasTerminalController(registroMetricas);
 
     // Aplicación de Terminal
     TerminalApplication terminalApplication = new TerminalApplication(
         librosTerminalController,
-        usuarioTerminalController);
+        usuarioTerminalController,
+        metricasTerminalController);
+
+    // Con Ctrl+C no se llega al cierre de abajo, al menos se escriben las operaciones encoladas del journal
+    Runtime.getRuntime().addShutdownHook(new Thread(servicioJournal::cerrar));
 
     terminalApplication.start();
 
-    // Guardar datos al salir de la aplicación en archivos CSV
+    // Guardar datos al salir de la aplicación en archivos CSV y vaciar el journal
     System.out.println("Guardando datos antes de salir...");
-    servicioPersistencia.guardarLibrosEnCSV(RUTA_ARCHIVO_LIBROS_CSV,
-        repositorioLibros.obtenerTodosLosLibros());
-    servicioPersistencia.guardarUsuariosEnCSV(RUTA_ARCHIVO_USUARIOS_CSV,
-        repositorioUsuarios.obtenerTodosLosUsuarios());
-    servicioPersistencia.guardarReservasEnCSV(RUTA_ARCHIVO_RESERVAS_CSV,
-        repositorioReservas.obtenerTodasLasReservas());
+    servicioJournal.checkpoint();
+    servicioJournal.cerrar();
 
     System.out.println("Datos guardados. Programa finalizado.");
   }
@@ -2,25 +2,21 @@ package application.usecases;
 
 import domain.entities.Libro;
 import domain.services.ServicioGenerador;
-import domain.services.ServicioLibros;
 import interfaces.infraestructure.IRepositorioLibros;
-import shared.utils.Formateador;
+import shared.utils.Sanitizador;
 
 /**
  * Caso de uso para agregar un libro dentro del sistema
  */
 public class AgregarLibroCasoUso {
     private final IRepositorioLibros repositorioLibros;
-    private final ServicioLibros servicioLibros;
     private final ServicioGenerador servicioGenerador;
 
     public AgregarLibroCasoUso(
             IRepositorioLibros repositorioLibros,
-            ServicioLibros servicioLibros,
             ServicioGenerador servicioGenerador
     ) {
         this.repositorioLibros = repositorioLibros;
-        this.servicioLibros = servicioLibros;
         this.servicioGenerador = servicioGenerador;
     }
 
@@ -35,23 +31,17 @@ public class AgregarLibroCasoUso {
      * @param editorial editorial del libro
      */
     public Libro ejecutar(String titulo, String autor, String genero, String editorial) {
-        // normalizar los inputs
-        String tituloFormateado = Formateador.normalizarString(titulo);
-        String autorFormateado = Formateador.normalizarString(autor);
-        String generoFormateado = Formateador.normalizarString(genero);
-        String editorialFormateado = Formateador.normalizarString(editorial);
+        // normaliza y valida los inputs en una sola pasada o lanza excepción
+        String[] campos = Sanitizador.sanitizar(titulo, autor, genero, editorial);
 
-        // Genera el libro
+        // Genera el libro con los campos ya validados
         Libro libro = this.servicioGenerador.generarLibro(
-                tituloFormateado,
-                autorFormateado,
-                generoFormateado,
-                editorialFormateado
+                campos[0],
+                campos[1],
+                campos[2],
+                campos[3]
         );
 
-        // validar que el libro esté correcto o lanza excepción
-        this.servicioLibros.validarLibro(libro);
-
         // guarda libro en el repositorio de libros
         this.repositorioLibros.agregarLibro(libro);
 
@@ -25,13 +25,22 @@ public class BuscarLibroCasoUso {
    * @return Lista de libros encontrados.
    */
   public ArrayList<Libro> ejecutar(String criterio) {
+    return ejecutar(criterio, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Ejecuta la búsqueda de libros igual que ejecutar(criterio), entregando
+   * como máximo la cantidad de libros indicada.
+   *
+   * @param criterio término de búsqueda para título, autor o editorial.
+   * @param limite cantidad máxima de libros.
+   * @return Lista de hasta limite libros encontrados.
+   */
+  public ArrayList<Libro> ejecutar(String criterio, int limite) {
     // Validar que el campo introducido sea alfanumérico o lanza excepción
     Validaciones.esAlfanumericoFlexible(criterio);
 
-    // Prepara el criterio para la búsqueda (trim y lowercase)
-    String criterioProcesado = criterio.trim().toLowerCase();
-
-    // retorna los libros encontrados
-    return this.repositorioLibros.buscarLibros(criterioProcesado);
+    // El repositorio pliega el criterio (sin acentos ni mayúsculas) igual que los campos indexados
+    return this.repositorioLibros.buscarLibros(criterio.trim(), limite);
   }
 }
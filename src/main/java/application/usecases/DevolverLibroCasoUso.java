@@ -1,6 +1,5 @@
 package application.usecases;
 
-import domain.entities.Libro;
 import domain.entities.Reserva;
 import domain.services.ServicioPrestamos;
 
@@ -18,16 +17,16 @@ public class DevolverLibroCasoUso {
     /**
      * Ejecuta el caso de devolver un libro
      * @param idReserva id de la reserva
-     * @return libro de la reserva
+     * @return reserva devuelta, con el libro ya disponible
      */
-    public Libro ejecutar(int idReserva) {
+    public Reserva ejecutar(int idReserva) {
         // obtiene la reserva o lanza excepción ReservaNoEncontrada
         Reserva reserva = this.servicioPrestamos.buscarReservaPorId(idReserva);
 
-        // Elimina la reserva
+        // Elimina la reserva, si una devolución simultánea la quitó antes lanza ReservaNoEncontrada
         this.servicioPrestamos.eliminarReserva(reserva);
 
-        // retorna el libro ya disponible
-        return reserva.getLibro();
+        // retorna la reserva devuelta
+        return reserva;
     }
 }
@@ -0,0 +1,188 @@
+package application.usecases;
+
+import domain.entities.Libro;
+import domain.services.ServicioGenerador;
+import domain.valueObject.FilaImportacionLibro;
+import domain.valueObject.RechazoImportacion;
+import domain.valueObject.ResultadoImportacion;
+import interfaces.infraestructure.IRepositorioLibros;
+import shared.exceptions.ImportacionInterrumpidaException;
+import shared.utils.Sanitizador;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.InputMismatchException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Caso de uso para importar libros en forma masiva (por ejemplo una donación),
+ * las filas se normalizan y validan en paralelo, se agregan al repositorio en
+ * lote y se persiste una sola vez al final o cada cierta cantidad de filas
+ */
+public class ImportarLibrosCasoUso {
+    // Tamaño de lote cuando solo se persiste al final
+    private static final int TAMANO_LOTE = 10_000;
+    // Bajo esta cantidad de filas no conviene repartir el lote entre hilos
+    private static final int FILAS_MINIMAS_POR_PARTE = 512;
+    private static final String[] NOMBRES_CAMPOS = { "titulo", "autor", "genero", "editorial" };
+
+    private final IRepositorioLibros repositorioLibros;
+    private final ServicioGenerador servicioGenerador;
+
+    public ImportarLibrosCasoUso(
+            IRepositorioLibros repositorioLibros,
+            ServicioGenerador servicioGenerador
+    ) {
+        this.repositorioLibros = repositorioLibros;
+        this.servicioGenerador = servicioGenerador;
+    }
+
+    /**
+     * Método que ejecuta la importación de libros. Las filas inválidas no
+     * detienen la importación, se informan en el resultado con su motivo
+     * (numeradas por línea del archivo). Si la lectura de las filas falla a
+     * mitad de camino lo ya agregado se persiste igual y se informa como
+     * resultado parcial
+     *
+     * @param filas filas a importar, se recorren una sola vez
+     * @param filasPorCheckpoint cada cuántas filas se persiste, 0 para persistir
+     *                           solo al final
+     * @param persistir acción que persiste el estado del repositorio
+     * @return resultado con la cantidad importada y los rechazos
+     * @throws ImportacionInterrumpidaException si no se pudieron leer todas las filas
+     */
+    public ResultadoImportacion ejecutar(
+            Stream<FilaImportacionLibro> filas,
+            int filasPorCheckpoint,
+            Runnable persistir
+    ) {
+        if (filasPorCheckpoint < 0) {
+            throw new IllegalArgumentException("Las filas por checkpoint no pueden ser negativas");
+        }
+
+        int tamanoLote = filasPorCheckpoint > 0 ? filasPorCheckpoint : TAMANO_LOTE;
+        List<RechazoImportacion> rechazos = new ArrayList<>();
+        int importados = 0;
+        int checkpoints = 0;
+        boolean pendientes = false;
+
+        Iterator<FilaImportacionLibro> iterador = filas.iterator();
+        List<FilaImportacionLibro> lote = new ArrayList<>(Math.min(tamanoLote, TAMANO_LOTE));
+        try {
+            while (iterador.hasNext()) {
+                lote.add(iterador.next());
+                if (lote.size() < tamanoLote && iterador.hasNext()) {
+                    continue;
+                }
+
+                int agregados = importarLote(lote, rechazos);
+                lote.clear();
+                importados += agregados;
+                pendientes |= agregados > 0;
+
+                if (filasPorCheckpoint > 0 && pendientes) {
+                    persistir.run();
+                    checkpoints++;
+                    pendientes = false;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            // Las filas ya leídas se importan y lo agregado no queda solo en memoria (no pasa por el journal)
+            if (!lote.isEmpty()) {
+                int agregados = importarLote(lote, rechazos);
+                importados += agregados;
+                pendientes |= agregados > 0;
+            }
+            if (pendientes) {
+                persistir.run();
+                checkpoints++;
+            }
+            throw new ImportacionInterrumpidaException(
+                    new ResultadoImportacion(importados, rechazos, checkpoints), e.getCause());
+        }
+
+        if (pendientes) {
+            persistir.run();
+            checkpoints++;
+        }
+        return new ResultadoImportacion(importados, rechazos, checkpoints);
+    }
+
+    /**
+     * Normaliza y valida un lote repartiéndolo en partes que se procesan en
+     * paralelo, luego agrega los libros válidos en una sola operación
+     *
+     * @return cantidad de libros agregados
+     */
+    private int importarLote(List<FilaImportacionLibro> lote, List<RechazoImportacion> rechazos) {
+        int partes = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(),
+                lote.size() / FILAS_MINIMAS_POR_PARTE));
+        int tamanoParte = (lote.size() + partes - 1) / partes;
+
+        Libro[][] libros = IntStream.range(0, partes)
+                .parallel()
+                .mapToObj(parte -> generarLibros(lote.subList(
+                        Math.min(lote.size(), parte * tamanoParte),
+                        Math.min(lote.size(), (parte + 1) * tamanoParte))))
+                .toArray(Libro[][]::new);
+
+        // Se juntan las partes en el orden original para informar los rechazos en orden
+        List<Libro> validos = new ArrayList<>(lote.size());
+        int indice = 0;
+        for (Libro[] parte : libros) {
+            for (Libro libro : parte) {
+                if (libro != null) {
+                    validos.add(libro);
+                } else {
+                    FilaImportacionLibro fila = lote.get(indice);
+                    rechazos.add(new RechazoImportacion(fila.linea(), motivoRechazo(fila)));
+                }
+                indice++;
+            }
+        }
+
+        this.repositorioLibros.agregarLibros(validos);
+        return validos.size();
+    }
+
+    private Libro[] generarLibros(List<FilaImportacionLibro> filas) {
+        List<String[]> campos = new ArrayList<>(filas.size());
+        for (FilaImportacionLibro fila : filas) {
+            campos.add(fila.campos());
+        }
+
+        String[][] normalizados = Sanitizador.sanitizarLote(campos);
+        Libro[] libros = new Libro[normalizados.length];
+        for (int i = 0; i < normalizados.length; i++) {
+            String[] fila = normalizados[i];
+            if (fila != null && filas.get(i).formatoValido()) {
+                libros[i] = this.servicioGenerador.generarLibro(fila[0], fila[1], fila[2], fila[3]);
+            }
+        }
+        return libros;
+    }
+
+    /**
+     * Obtiene el motivo de rechazo de una fila, solo se llama para filas
+     * inválidas por lo que no afecta el camino normal
+     */
+    private static String motivoRechazo(FilaImportacionLibro fila) {
+        if (!fila.formatoValido()) {
+            return "Se esperaban " + FilaImportacionLibro.CAMPOS + " campos (titulo;autor;genero;editorial) y la línea tiene "
+                    + fila.cantidadCampos();
+        }
+        String[] campos = fila.campos();
+        for (int i = 0; i < campos.length; i++) {
+            try {
+                Sanitizador.sanitizar(campos[i]);
+            } catch (InputMismatchException e) {
+                return NOMBRES_CAMPOS[i] + ": " + e.getMessage();
+            }
+        }
+        return "Fila inválida";
+    }
+}
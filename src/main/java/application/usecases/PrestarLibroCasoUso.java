@@ -26,15 +26,18 @@ public class PrestarLibroCasoUso {
         // lanza un LibroNoEncontradoException
         Libro libro = this.servicioLibros.obtenerLibroPorId(uuid);
 
-        // valída que el libro se encuentre disponible, en caso de estar prestado
-        // lanza LibroYaPrestadoException
-        this.servicioLibros.validarLibroLibre(libro);
-
-        // Genera la reserva
-        Reserva reserva = this.servicioPrestamos.generarReserva(uuid, rut);
-
-        // cambiar estado del libro
-        libro.marcarComoReservado();
+        // reserva el libro de forma atómica (LIBRE -> RESERVADO), en caso de estar
+        // prestado, o de que otro préstamo lo tome antes, lanza LibroYaPrestadoException
+        this.servicioLibros.reservarLibro(libro);
+
+        // Genera la reserva, si falla se libera el libro
+        Reserva reserva;
+        try {
+            reserva = this.servicioPrestamos.generarReserva(uuid, rut);
+        } catch (RuntimeException e) {
+            libro.marcarComoDiponible();
+            throw e;
+        }
 
         return reserva;
     }
@@ -3,6 +3,7 @@ package application.usecases;
 import domain.entities.Usuario;
 import domain.services.ServicioUsuarios;
 import domain.valueObject.DocumentoRut;
+import shared.utils.Sanitizador;
 
 /**
  * Clase que ejecuta el caso de uso para registrar un usuario dentro del sistema
@@ -14,7 +15,16 @@ public class RegistrarUsuarioCasoUso {
         this.servicioUsuarios = servicioUsuarios;
     }
 
+    /**
+     * Método que ejecuta el caso de uso para registrar un usuario con el nombre
+     * normalizado, igual que los campos de un libro, así un salto de línea u otro
+     * espacio de control no llega al journal ni al CSV de usuarios. Si el nombre
+     * no es válido lanza excepción InputMismatchException
+     *
+     * @param nombre nombre del usuario
+     * @param rut RUT del usuario
+     */
     public Usuario ejecutar(String nombre, DocumentoRut rut) {
-        return this.servicioUsuarios.registrarUsuario(nombre, rut);
+        return this.servicioUsuarios.registrarUsuario(Sanitizador.sanitizar(nombre), rut);
     }
 }
@@ -1,38 +1,91 @@
 package domain.entities;
 
+import domain.enums.CampoLibro;
 import domain.enums.EstadoLibro;
+import domain.valueObject.UuidLibro;
+import shared.utils.DiccionarioCadenas;
 
 import java.util.Objects;
-import java.util.UUID;
 
 /**
- * Clase que modela un libro dentro del sistema
+ * Clase que modela un libro dentro del sistema. Para catálogos grandes la
+ * representación es compacta: el uuid se guarda como dos long (UuidLibro) y
+ * autor, género y editorial se comparten entre todos los libros a través de
+ * un diccionario, por lo que cada valor distinto existe una sola vez.
+ * Los cambios de estado y de campos se serializan con el monitor del libro y
+ * avisan al observador dentro de él, así un observador que lee el estado al
+ * recibir un cambio de campo (o un campo al recibir un cambio de estado) ve
+ * el mismo valor que el aviso que llega antes o después.
  */
 public class Libro {
-    private final String uuid;
+    // Autores, géneros y editoriales se repiten en miles de libros
+    private static final DiccionarioCadenas DICCIONARIO = new DiccionarioCadenas();
+
+    private final UuidLibro uuid;
     private String titulo;
     private String autor;
     private String genero;
     private String editorial;
-    private EstadoLibro estado;
+    private volatile EstadoLibro estado;
+    // Observador del repositorio que contiene al libro, nulo si no está en uno
+    private volatile ObservadorLibro observador;
 
     public Libro(String titulo, String autor, String genero, String editorial) {
         // propiedades autogeneradas
-        this.uuid = UUID.randomUUID().toString();
+        this(UuidLibro.generar(), titulo, autor, genero, editorial);
+    }
+
+    /**
+     * Constructor que restaura un libro ya registrado con su uuid original,
+     * se usa al cargar los datos persistidos (CSV y journal)
+     *
+     * @param uuid uuid original del libro
+     * @param titulo título del libro
+     * @param autor autor del libro
+     * @param genero género del libro
+     * @param editorial editorial del libro
+     */
+    public Libro(String uuid, String titulo, String autor, String genero, String editorial) {
+        this(UuidLibro.definir(uuid), titulo, autor, genero, editorial);
+    }
+
+    /**
+     * Constructor para vistas de libros guardados fuera del objeto (por ejemplo
+     * en columnas de un repositorio), la subclase debe sobrescribir los métodos
+     * de estado y de campos para leerlos desde su almacenamiento
+     *
+     * @param uuid identificador del libro
+     */
+    protected Libro(UuidLibro uuid) {
+        this.uuid = uuid;
+    }
+
+    private Libro(UuidLibro uuid, String titulo, String autor, String genero, String editorial) {
+        this.uuid = uuid;
         this.estado = EstadoLibro.LIBRE;
 
         this.titulo = titulo;
-        this.autor = autor;
-        this.genero = genero;
-        this.editorial = editorial;
+        this.autor = DICCIONARIO.internar(autor);
+        this.genero = DICCIONARIO.internar(genero);
+        this.editorial = DICCIONARIO.internar(editorial);
     }
 
     /**
-     * Obtiene el uuid del libro
+     * Obtiene el uuid del libro, el texto se genera en cada llamada
      * 
      * @return uuid del libro
      */
     public String getUuid() {
+        return uuid == null ? null : uuid.toString();
+    }
+
+    /**
+     * Obtiene el identificador compacto del libro, se usa como clave en los
+     * repositorios sin generar el texto del uuid
+     *
+     * @return identificador del libro
+     */
+    public UuidLibro getIdentificador() {
         return uuid;
     }
 
@@ -52,7 +105,7 @@ public class Libro {
         if (this.estado == EstadoLibro.LIBRE)
             return;
 
-        this.estado = EstadoLibro.LIBRE;
+        cambiarEstado(EstadoLibro.LIBRE);
     }
 
     /**
@@ -62,7 +115,38 @@ public class Libro {
         if (this.estado == EstadoLibro.RESERVADO)
             return;
 
-        this.estado = EstadoLibro.RESERVADO;
+        cambiarEstado(EstadoLibro.RESERVADO);
+    }
+
+    /**
+     * Método que reserva el libro solo si está libre, de forma atómica, por lo
+     * que dos préstamos simultáneos nunca reservan el mismo libro
+     *
+     * @return true si el libro pasó de LIBRE a RESERVADO, false si ya estaba reservado
+     */
+    public boolean intentarReservar() {
+        if (this.estado != EstadoLibro.LIBRE) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (this.estado != EstadoLibro.LIBRE) {
+                return false;
+            }
+            this.estado = EstadoLibro.RESERVADO;
+            avisarEstado(EstadoLibro.LIBRE, EstadoLibro.RESERVADO);
+            return true;
+        }
+    }
+
+    /**
+     * Método que asigna el observador de cambios del libro, lo usa el
+     * repositorio que contiene al libro
+     *
+     * @param observador observador de cambios, nulo para dejar de avisar
+     */
+    public void setObservador(ObservadorLibro observador) {
+        this.observador = observador;
     }
 
     /**
@@ -79,8 +163,10 @@ public class Libro {
      * 
      * @param titulo título actualizado del libro
      */
-    public void setTitulo(String titulo) {
+    public synchronized void setTitulo(String titulo) {
+        String anterior = this.titulo;
         this.titulo = titulo;
+        avisarCampo(CampoLibro.TITULO, anterior, titulo);
     }
 
     /**
@@ -97,8 +183,10 @@ public class Libro {
      * 
      * @param autor autor actualizado del libro
      */
-    public void setAutor(String autor) {
-        this.autor = autor;
+    public synchronized void setAutor(String autor) {
+        String anterior = this.autor;
+        this.autor = DICCIONARIO.internar(autor);
+        avisarCampo(CampoLibro.AUTOR, anterior, this.autor);
     }
 
     /**
@@ -115,8 +203,10 @@ public class Libro {
      * 
      * @param genero nuevo género del libro
      */
-    public void setGenero(String genero) {
-        this.genero = genero;
+    public synchronized void setGenero(String genero) {
+        String anterior = this.genero;
+        this.genero = DICCIONARIO.internar(genero);
+        avisarCampo(CampoLibro.GENERO, anterior, this.genero);
     }
 
     /**
@@ -133,17 +223,43 @@ public class Libro {
      * 
      * @param editorial nueva editorial del libro
      */
-    public void setEditorial(String editorial) {
-        this.editorial = editorial;
+    public synchronized void setEditorial(String editorial) {
+        String anterior = this.editorial;
+        this.editorial = DICCIONARIO.internar(editorial);
+        avisarCampo(CampoLibro.EDITORIAL, anterior, this.editorial);
+    }
+
+    private synchronized void cambiarEstado(EstadoLibro nuevo) {
+        EstadoLibro anterior = this.estado;
+        this.estado = nuevo;
+        avisarEstado(anterior, nuevo);
+    }
+
+    /**
+     * Avisa un cambio de estado, solo si el estado anterior era distinto (dos
+     * hilos que marcan el mismo estado no avisan dos veces)
+     */
+    private void avisarEstado(EstadoLibro anterior, EstadoLibro nuevo) {
+        ObservadorLibro actual = this.observador;
+        if (actual != null && anterior != nuevo) {
+            actual.estadoCambiado(this, anterior, nuevo);
+        }
+    }
+
+    private void avisarCampo(CampoLibro campo, String anterior, String nuevo) {
+        ObservadorLibro actual = this.observador;
+        if (actual != null && !Objects.equals(anterior, nuevo)) {
+            actual.campoCambiado(this, campo, anterior, nuevo);
+        }
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o)
             return true;
-        if (o == null || getClass() != o.getClass())
+        // Una vista y el libro original con el mismo uuid son el mismo libro
+        if (!(o instanceof Libro libro))
             return false;
-        Libro libro = (Libro) o;
         return Objects.equals(uuid, libro.uuid);
     }
 
@@ -0,0 +1,48 @@
+package domain.entities;
+
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
+
+/**
+ * Observador de los cambios de los libros de un repositorio, permite mantener
+ * índices derivados (por ejemplo conteos por faceta) sin recorrer el catálogo.
+ * Los avisos se entregan en el hilo que hizo el cambio, después de aplicarlo y
+ * antes de que otro cambio de estado o de campo del mismo libro pueda ocurrir,
+ * por lo que las implementaciones deben ser rápidas, seguras para varios hilos
+ * y no deben cambiar libros dentro del aviso.
+ */
+public interface ObservadorLibro {
+    /**
+     * Aviso de un libro agregado al repositorio
+     *
+     * @param libro libro agregado
+     */
+    void libroAgregado(Libro libro);
+
+    /**
+     * Aviso de un libro eliminado (o reemplazado) del repositorio, el libro
+     * conserva sus valores al momento de eliminarlo
+     *
+     * @param libro libro eliminado
+     */
+    void libroEliminado(Libro libro);
+
+    /**
+     * Aviso de un cambio de estado del libro
+     *
+     * @param libro libro modificado
+     * @param anterior estado anterior
+     * @param nuevo estado nuevo
+     */
+    void estadoCambiado(Libro libro, EstadoLibro anterior, EstadoLibro nuevo);
+
+    /**
+     * Aviso de un cambio en un campo de texto del libro
+     *
+     * @param libro libro modificado
+     * @param campo campo modificado
+     * @param anterior valor anterior
+     * @param nuevo valor nuevo
+     */
+    void campoCambiado(Libro libro, CampoLibro campo, String anterior, String nuevo);
+}
@@ -0,0 +1,8 @@
+package domain.enums;
+
+public enum CampoLibro {
+    TITULO, // título del libro
+    AUTOR, // autor del libro
+    GENERO, // género del libro
+    EDITORIAL // editorial del libro
+}
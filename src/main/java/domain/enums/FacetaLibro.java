@@ -0,0 +1,8 @@
+package domain.enums;
+
+public enum FacetaLibro {
+    GENERO, // género del libro
+    EDITORIAL, // editorial del libro
+    AUTOR, // autor del libro
+    ESTADO // estado del libro (LIBRE o RESERVADO)
+}
@@ -0,0 +1,6 @@
+package domain.enums;
+
+public enum OrdenSugerencia {
+    POPULARIDAD, // más ejemplares y préstamos primero
+    ALFABETICO // orden alfabético de lo que sigue al prefijo
+}
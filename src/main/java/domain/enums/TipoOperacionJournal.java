@@ -0,0 +1,9 @@
+package domain.enums;
+
+public enum TipoOperacionJournal {
+    LIBRO_AGREGADO, // libro agregado al catálogo
+    RESERVA_CREADA, // préstamo de un libro
+    RESERVA_DEVUELTA, // devolución de un préstamo
+    USUARIO_REGISTRADO, // usuario registrado en el sistema
+    SECUENCIA_RESERVAS // último id de la secuencia de reservas al hacer checkpoint
+}
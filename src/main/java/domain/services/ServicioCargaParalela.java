@@ -0,0 +1,380 @@
+package domain.services;
+
+import domain.entities.Libro;
+import domain.entities.Reserva;
+import domain.entities.Usuario;
+import domain.enums.EstadoLibro;
+import domain.valueObject.DocumentoRut;
+import interfaces.infraestructure.IRepositorioLibros;
+import interfaces.infraestructure.IRepositorioReservas;
+import interfaces.infraestructure.IRepositorioUsuarios;
+import shared.utils.TokenizadorCsv;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Servicio de carga paralela de los archivos CSV al iniciar. Cada archivo se
+ * divide en rangos de bytes alineados a fin de línea y cada rango se recorre
+ * con un TokenizadorCsv en un ForkJoinPool, sin escrituras a consola por línea. Las filas
+ * se insertan en lote en los repositorios. Usuarios y libros se cargan al mismo
+ * tiempo y las reservas después, ya que dependen de ambos.
+ * Los formatos son los mismos que usa ServicioPersistencia.
+ */
+public class ServicioCargaParalela {
+  private static final EstadoLibro[] ESTADOS_LIBRO = EstadoLibro.values();
+  // Bajo este tamaño no conviene dividir más el archivo
+  private static final int TAMANO_MINIMO_RANGO = 1 << 20;
+  private static final int TAMANO_BUFFER_BUSQUEDA = 8 * 1024;
+
+  private final ForkJoinPool pool;
+
+  public ServicioCargaParalela() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  public ServicioCargaParalela(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Carga usuarios y libros en paralelo y luego las reservas, al final informa
+   * el tiempo total y las filas por segundo
+   */
+  public void cargarTodo(
+      String rutaLibrosCsv,
+      String rutaUsuariosCsv,
+      String rutaReservasCsv,
+      IRepositorioLibros repoLibros,
+      IRepositorioUsuarios repoUsuarios,
+      IRepositorioReservas repoReservas) {
+    long inicio = System.nanoTime();
+
+    CompletableFuture<Integer> usuarios = CompletableFuture.supplyAsync(
+        () -> cargarUsuariosDesdeCSV(rutaUsuariosCsv, repoUsuarios), pool);
+    CompletableFuture<Integer> libros = CompletableFuture.supplyAsync(
+        () -> cargarLibrosDesdeCSV(rutaLibrosCsv, repoLibros), pool);
+    int filas = usuarios.join() + libros.join();
+    // Las reservas dependen de libros y usuarios ya cargados
+    filas += cargarReservasDesdeCSV(rutaReservasCsv, repoReservas, repoUsuarios, repoLibros);
+
+    long milisegundos = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+    System.out.println("Carga paralela completada: " + filas + " filas en " + milisegundos + " ms ("
+        + (filas * 1000L / milisegundos) + " filas/s)");
+  }
+
+  /**
+   * Carga libros desde un archivo CSV.
+   * Formato CSV esperado: uuid;titulo;autor;genero;editorial;estado
+   * @return cantidad de libros cargados
+   */
+  public int cargarLibrosDesdeCSV(String rutaArchivoCsv, IRepositorioLibros repoLibros) {
+    if (!new File(rutaArchivoCsv).exists()) {
+      System.out.println(
+          "Archivo de libros no encontrado: " + rutaArchivoCsv + ". Se iniciará sin datos de libros preexistentes.");
+      return 0;
+    }
+
+    Optional<Trozo<Libro>> resultado = leerEnParalelo(rutaArchivoCsv, (csv, errores) -> {
+      if (csv.lineaEnBlanco() || csv.lineaComienzaCon("uuid", false)) {
+        return null; // Saltar vacías o cabecera
+      }
+
+      if (csv.cantidadCampos() < 6) {
+        errores.add("Línea CSV de libro con formato incorrecto (datos insuficientes): " + csv.linea());
+        return null;
+      }
+      try {
+        EstadoLibro estado = csv.campoEnum(5, ESTADOS_LIBRO);
+        Libro libro = new Libro(csv.campoRecortado(0), csv.campo(1), csv.campo(2), csv.campo(3), csv.campo(4));
+        if (estado == EstadoLibro.RESERVADO) {
+          libro.marcarComoReservado();
+        }
+        return libro;
+      } catch (RuntimeException e) {
+        errores.add("Error procesando línea de libro CSV: " + csv.linea() + " - " + e.getMessage());
+        return null;
+      }
+    });
+    if (resultado.isEmpty()) {
+      return 0;
+    }
+
+    List<Libro> libros = resultado.get().filas;
+    repoLibros.agregarLibros(libros);
+    System.out.println("Libros cargados desde: " + rutaArchivoCsv + " (" + libros.size() + ")");
+    return libros.size();
+  }
+
+  /**
+   * Carga usuarios desde un archivo CSV, los RUT repetidos se descartan
+   * conservando la primera aparición.
+   * Formato CSV esperado: rutConFormato;nombre
+   * @return cantidad de usuarios cargados
+   */
+  public int cargarUsuariosDesdeCSV(String rutaArchivoCsv, IRepositorioUsuarios repoUsuarios) {
+    if (!new File(rutaArchivoCsv).exists()) {
+      System.out.println("Archivo de usuarios no encontrado: " + rutaArchivoCsv
+          + ". Se iniciará sin datos de usuarios preexistentes.");
+      return 0;
+    }
+
+    Optional<Trozo<Usuario>> resultado = leerEnParalelo(rutaArchivoCsv, (csv, errores) -> {
+      if (csv.lineaEnBlanco() || csv.lineaComienzaCon("rut", true)) {
+        return null; // Saltar vacías o cabecera
+      }
+
+      if (csv.cantidadCampos() < 2) {
+        errores.add("Línea CSV de usuario con formato incorrecto (datos insuficientes): " + csv.linea());
+        return null;
+      }
+      try {
+        return new Usuario(csv.campoRecortado(1), DocumentoRut.definir(csv.campoRecortado(0)));
+      } catch (RuntimeException e) {
+        errores.add("Error al parsear RUT o datos del usuario en línea CSV: " + csv.linea() + " - " + e.getMessage());
+        return null;
+      }
+    });
+    if (resultado.isEmpty()) {
+      return 0;
+    }
+
+    // Se descartan los RUT repetidos en el archivo o ya presentes en el repositorio, con un solo aviso
+    LinkedHashMap<String, Usuario> unicos = new LinkedHashMap<>();
+    int repetidos = 0;
+    for (Usuario usuario : resultado.get().filas) {
+      String clave = usuario.getRut().getSinFormato();
+      if (unicos.containsKey(clave) || repoUsuarios.obtenerUsuario(usuario.getRut()).isPresent()) {
+        repetidos++;
+        continue;
+      }
+      unicos.put(clave, usuario);
+    }
+    if (repetidos > 0) {
+      System.err.println(repetidos + " usuarios con RUT ya existente no se cargaron desde CSV para evitar duplicados.");
+    }
+
+    repoUsuarios.agregarUsuarios(new ArrayList<>(unicos.values()));
+    System.out.println("Usuarios cargados desde: " + rutaArchivoCsv + " (" + unicos.size() + ")");
+    return unicos.size();
+  }
+
+  /**
+   * Carga reservas desde un archivo CSV, se debe llamar después de cargar
+   * libros y usuarios. La secuencia de ids avanza aunque la reserva no se
+   * pueda cargar.
+   * Formato CSV esperado: id_reserva;rut_usuario;uuid_libro;fecha_vencimiento
+   * @return cantidad de reservas cargadas
+   */
+  public int cargarReservasDesdeCSV(String rutaArchivoCsv, IRepositorioReservas repoReservas,
+      IRepositorioUsuarios repoUsuarios, IRepositorioLibros repoLibros) {
+    if (!new File(rutaArchivoCsv).exists()) {
+      System.out.println(
+          "Archivo de reservas no encontrado: " + rutaArchivoCsv
+              + ". Se iniciará sin datos de reservas preexistentes.");
+      return 0;
+    }
+
+    Optional<Trozo<ReservaLeida>> resultado = leerEnParalelo(rutaArchivoCsv, (csv, errores) -> {
+      if (csv.lineaEnBlanco() || csv.lineaComienzaCon("id_reserva", true)) {
+        return null; // Saltar vacías o cabecera
+      }
+
+      if (csv.cantidadCampos() < 4) {
+        errores.add("Línea CSV de reserva con formato incorrecto (datos insuficientes): " + csv.linea());
+        return null;
+      }
+      int idReserva;
+      try {
+        idReserva = csv.campoEntero(0);
+      } catch (NumberFormatException e) {
+        errores.add("Error al parsear ID de reserva en línea CSV: " + csv.linea() + " - " + e.getMessage());
+        return null;
+      }
+      try {
+        LocalDate fechaVencimiento = csv.campoFecha(3);
+        Optional<Usuario> usuario = repoUsuarios.obtenerUsuario(DocumentoRut.definir(csv.campoRecortado(1)));
+        Optional<Libro> libro = repoLibros.buscarLibroPorId(csv.campoRecortado(2));
+        if (usuario.isEmpty() || libro.isEmpty()) {
+          errores.add("Usuario o libro no encontrado para reserva " + idReserva + ". Reserva no cargada.");
+          return new ReservaLeida(idReserva, null);
+        }
+
+        libro.get().marcarComoReservado();
+        return new ReservaLeida(idReserva, new Reserva(idReserva, usuario.get(), libro.get(), fechaVencimiento));
+      } catch (RuntimeException e) {
+        errores.add("Error procesando línea de reserva CSV: " + csv.linea() + " - " + e.getMessage());
+        return new ReservaLeida(idReserva, null);
+      }
+    });
+    if (resultado.isEmpty()) {
+      return 0;
+    }
+
+    int ultimoId = 0;
+    List<Reserva> reservas = new ArrayList<>(resultado.get().filas.size());
+    for (ReservaLeida leida : resultado.get().filas) {
+      ultimoId = Math.max(ultimoId, leida.id());
+      if (leida.reserva() != null) {
+        reservas.add(leida.reserva());
+      }
+    }
+
+    repoReservas.agregarReservas(reservas);
+    repoReservas.actualizarSecuenciaReservas(ultimoId);
+    System.out.println("Reservas cargadas desde: " + rutaArchivoCsv + " (" + reservas.size() + ")");
+    return reservas.size();
+  }
+
+  /**
+   * Divide el archivo en rangos alineados a fin de línea, los parsea en el pool
+   * y junta los resultados en el orden del archivo. Los errores se escriben al
+   * final, una vez juntados.
+   */
+  private <T> Optional<Trozo<T>> leerEnParalelo(String rutaArchivoCsv, ParserLinea<T> parser) {
+    try (FileChannel canal = FileChannel.open(Path.of(rutaArchivoCsv), StandardOpenOption.READ)) {
+      long[] cortes = calcularCortes(canal);
+      Trozo<T> trozo = pool.invoke(new TareaRangos<>(canal, cortes, 0, cortes.length - 1, parser));
+      for (String error : trozo.errores) {
+        System.err.println(error);
+      }
+      return Optional.of(trozo);
+    } catch (IOException | UncheckedIOException e) {
+      System.err.println("Error al leer el archivo CSV " + rutaArchivoCsv + ": " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Calcula los límites de los rangos: cada corte queda justo después de un
+   * salto de línea, así ninguna línea queda repartida entre dos rangos
+   * @return arreglo de posiciones, el rango i va de cortes[i] a cortes[i + 1]
+   */
+  private long[] calcularCortes(FileChannel canal) throws IOException {
+    long tamano = canal.size();
+    int rangos = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, tamano / TAMANO_MINIMO_RANGO));
+
+    long[] cortes = new long[rangos + 1];
+    cortes[rangos] = tamano;
+    ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER_BUSQUEDA);
+    for (int i = 1; i < rangos; i++) {
+      long posicion = Math.max(cortes[i - 1], tamano * i / rangos);
+      cortes[i] = siguienteInicioDeLinea(canal, posicion, buffer);
+    }
+    return cortes;
+  }
+
+  private static long siguienteInicioDeLinea(FileChannel canal, long posicion, ByteBuffer buffer) throws IOException {
+    long tamano = canal.size();
+    while (posicion < tamano) {
+      buffer.clear();
+      int leidos = canal.read(buffer, posicion);
+      if (leidos <= 0) {
+        break;
+      }
+      for (int i = 0; i < leidos; i++) {
+        if (buffer.get(i) == '\n') {
+          return posicion + i + 1;
+        }
+      }
+      posicion += leidos;
+    }
+    return tamano;
+  }
+
+  /**
+   * Parser de la línea actual del tokenizador, retorna null si la línea no
+   * produce fila y agrega a errores los mensajes que corresponda
+   */
+  @FunctionalInterface
+  private interface ParserLinea<T> {
+    T parsear(TokenizadorCsv csv, List<String> errores);
+  }
+
+  /**
+   * Filas y errores de un grupo de rangos consecutivos del archivo
+   */
+  private static final class Trozo<T> {
+    private final List<T> filas;
+    private final List<String> errores;
+
+    private Trozo(List<T> filas, List<String> errores) {
+      this.filas = filas;
+      this.errores = errores;
+    }
+
+    private Trozo<T> unir(Trozo<T> siguiente) {
+      filas.addAll(siguiente.filas);
+      errores.addAll(siguiente.errores);
+      return this;
+    }
+  }
+
+  /**
+   * Reserva leída del CSV, la reserva es nula si no se pudo resolver el
+   * usuario o el libro, pero el id igual cuenta para la secuencia
+   */
+  private record ReservaLeida(int id, Reserva reserva) {
+  }
+
+  /**
+   * Tarea que parsea los rangos [desde, hasta) dividiéndolos por la mitad
+   * hasta quedar con uno solo. Nunca se serializa, solo corre en el pool
+   */
+  @SuppressWarnings("serial")
+  private static final class TareaRangos<T> extends RecursiveTask<Trozo<T>> {
+    private final FileChannel canal;
+    private final long[] cortes;
+    private final int desde;
+    private final int hasta;
+    private final ParserLinea<T> parser;
+
+    private TareaRangos(FileChannel canal, long[] cortes, int desde, int hasta, ParserLinea<T> parser) {
+      this.canal = canal;
+      this.cortes = cortes;
+      this.desde = desde;
+      this.hasta = hasta;
+      this.parser = parser;
+    }
+
+    @Override
+    protected Trozo<T> compute() {
+      if (hasta - desde > 1) {
+        int medio = (desde + hasta) >>> 1;
+        TareaRangos<T> derecha = new TareaRangos<>(canal, cortes, medio, hasta, parser);
+        derecha.fork();
+        Trozo<T> izquierda = new TareaRangos<>(canal, cortes, desde, medio, parser).compute();
+        return izquierda.unir(derecha.join());
+      }
+      return parsearRango(cortes[desde], cortes[desde + 1]);
+    }
+
+    private Trozo<T> parsearRango(long inicio, long fin) {
+      Trozo<T> trozo = new Trozo<>(new ArrayList<>(), new ArrayList<>());
+      try (TokenizadorCsv csv = new TokenizadorCsv(canal, inicio, fin)) {
+        while (csv.siguienteLinea()) {
+          T fila = parser.parsear(csv, trozo.errores);
+          if (fila != null) {
+            trozo.filas.add(fila);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return trozo;
+    }
+  }
+}
@@ -0,0 +1,393 @@
+package domain.services;
+
+import domain.entities.Libro;
+import domain.entities.Reserva;
+import domain.entities.Usuario;
+import domain.enums.TipoOperacionJournal;
+import domain.valueObject.DocumentoRut;
+import interfaces.infraestructure.IRepositorioLibros;
+import interfaces.infraestructure.IRepositorioReservas;
+import interfaces.infraestructure.IRepositorioUsuarios;
+import shared.concurrencia.EscritorAgrupado;
+import shared.utils.EscrituraAtomica;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio que mantiene un journal de operaciones (write-ahead log) sobre los
+ * archivos CSV. Cada mutación agrega una sola línea al final del journal, por
+ * lo que su costo no depende del tamaño del catálogo. Al iniciar, el journal se
+ * reproduce sobre la última foto de los CSV y cada cierta cantidad de
+ * operaciones se hace un checkpoint que reescribe los CSV y vacía el journal.
+ * Formato del journal: TIPO;campo1;campo2;...
+ * El journal también persiste la secuencia de ids de reservas: cada checkpoint
+ * deja como primera línea el último id entregado, así un id devuelto y ya
+ * compactado fuera de reservas.csv no se vuelve a entregar.
+ * Por defecto cada línea se escribe en el hilo que hace la mutación. Con
+ * iniciarEscrituraAgrupada las líneas pasan a una cola acotada y un hilo en
+ * segundo plano las escribe en lotes con un solo flush y un solo fsync
+ * (group commit); cada registro entrega un futuro que se completa cuando la
+ * línea quedó en el disco. En la escritura directa cada línea hace su fsync.
+ */
+public class ServicioJournal {
+  private static final String SEPARADOR = ";";
+
+  private final String rutaJournal;
+  private final ServicioPersistencia servicioPersistencia;
+  private final IRepositorioLibros repositorioLibros;
+  private final IRepositorioUsuarios repositorioUsuarios;
+  private final IRepositorioReservas repositorioReservas;
+  private final String rutaLibrosCsv;
+  private final String rutaUsuariosCsv;
+  private final String rutaReservasCsv;
+  private final int operacionesPorCheckpoint;
+
+  private FileOutputStream salida;
+  private BufferedWriter escritor;
+  private int operacionesDesdeCheckpoint = 0;
+  private volatile EscritorAgrupado<String> escritorAgrupado;
+
+  public ServicioJournal(
+      String rutaJournal,
+      ServicioPersistencia servicioPersistencia,
+      IRepositorioLibros repositorioLibros,
+      IRepositorioUsuarios repositorioUsuarios,
+      IRepositorioReservas repositorioReservas,
+      String rutaLibrosCsv,
+      String rutaUsuariosCsv,
+      String rutaReservasCsv,
+      int operacionesPorCheckpoint) {
+    this.rutaJournal = rutaJournal;
+    this.servicioPersistencia = servicioPersistencia;
+    this.repositorioLibros = repositorioLibros;
+    this.repositorioUsuarios = repositorioUsuarios;
+    this.repositorioReservas = repositorioReservas;
+    this.rutaLibrosCsv = rutaLibrosCsv;
+    this.rutaUsuariosCsv = rutaUsuariosCsv;
+    this.rutaReservasCsv = rutaReservasCsv;
+    this.operacionesPorCheckpoint = operacionesPorCheckpoint;
+  }
+
+  /**
+   * Activa la escritura agrupada del journal. Las operaciones se encolan y un
+   * hilo en segundo plano las escribe juntando hasta loteMaximo líneas o las
+   * que lleguen dentro de retrasoMaximoMs desde la primera. Si la cola está
+   * llena quien registra espera. Quien inicia la escritura agrupada debe
+   * llamar cerrar() al terminar para escribir las operaciones pendientes.
+   * @param capacidadCola cantidad máxima de operaciones pendientes
+   * @param retrasoMaximoMs tiempo máximo que una operación espera a su lote
+   * @param loteMaximo cantidad máxima de operaciones por escritura
+   */
+  public synchronized void iniciarEscrituraAgrupada(int capacidadCola, long retrasoMaximoMs, int loteMaximo) {
+    if (escritorAgrupado != null) {
+      return;
+    }
+
+    this.escritorAgrupado = new EscritorAgrupado<>(
+        "escritor-journal", capacidadCola, retrasoMaximoMs, TimeUnit.MILLISECONDS, loteMaximo,
+        this::escribirLoteAgrupado);
+  }
+
+  /**
+   * Entrega un futuro que se completa cuando todas las operaciones
+   * registradas hasta ahora quedaron escritas en el journal
+   * @return futuro de durabilidad, ya completado si la escritura no es agrupada
+   */
+  public CompletableFuture<Void> sincronizar() {
+    EscritorAgrupado<String> agrupado = this.escritorAgrupado;
+    return agrupado == null ? CompletableFuture.completedFuture(null) : agrupado.sincronizar();
+  }
+
+  /**
+   * Registra en el journal un libro agregado al sistema
+   * @param libro libro agregado
+   * @return futuro que se completa cuando la operación quedó escrita en el journal
+   */
+  public CompletableFuture<Void> registrarLibroAgregado(Libro libro) {
+    return enviar(String.join(SEPARADOR,
+        TipoOperacionJournal.LIBRO_AGREGADO.name(),
+        libro.getUuid(),
+        libro.getTitulo(),
+        libro.getAutor(),
+        libro.getGenero(),
+        libro.getEditorial()));
+  }
+
+  /**
+   * Registra en el journal una reserva (préstamo) creada
+   * @param reserva reserva creada
+   * @return futuro que se completa cuando la operación quedó escrita en el journal
+   */
+  public CompletableFuture<Void> registrarReservaCreada(Reserva reserva) {
+    return enviar(String.join(SEPARADOR,
+        TipoOperacionJournal.RESERVA_CREADA.name(),
+        String.valueOf(reserva.getId()),
+        reserva.getUsuario().getRut().getFormateado(),
+        reserva.getLibro().getUuid(),
+        reserva.getFechaVencimiento().toString()));
+  }
+
+  /**
+   * Registra en el journal la devolución de una reserva
+   * @param reserva reserva devuelta
+   * @return futuro que se completa cuando la operación quedó escrita en el journal
+   */
+  public CompletableFuture<Void> registrarReservaDevuelta(Reserva reserva) {
+    return enviar(String.join(SEPARADOR,
+        TipoOperacionJournal.RESERVA_DEVUELTA.name(),
+        String.valueOf(reserva.getId()),
+        reserva.getLibro().getUuid()));
+  }
+
+  /**
+   * Registra en el journal un usuario registrado
+   * @param usuario usuario registrado
+   * @return futuro que se completa cuando la operación quedó escrita en el journal
+   */
+  public CompletableFuture<Void> registrarUsuarioRegistrado(Usuario usuario) {
+    return enviar(String.join(SEPARADOR,
+        TipoOperacionJournal.USUARIO_REGISTRADO.name(),
+        usuario.getRut().getFormateado(),
+        usuario.getNombre()));
+  }
+
+  /**
+   * Reproduce las operaciones del journal sobre los repositorios, se debe
+   * llamar al iniciar después de cargar los CSV. Las operaciones son
+   * idempotentes, por lo que reproducir un journal que ya estaba incluido en
+   * la foto de los CSV (por ejemplo tras una caída durante un checkpoint)
+   * deja el mismo estado final.
+   * Cada línea se escribe después de que su mutación terminó, por lo que dos
+   * préstamos y devoluciones simultáneos pueden quedar en otro orden. Las
+   * reservas no dependen de ese orden: una devolución recuerda el id (su
+   * creación, si llega después, se descarta) y solo libera el libro si quitó
+   * la reserva y el libro no quedó con otra activa.
+   */
+  public synchronized void reproducir() {
+    File archivo = new File(rutaJournal);
+    if (!archivo.exists()) {
+      return;
+    }
+
+    int operaciones = 0;
+    HashSet<Integer> devueltas = new HashSet<>();
+    try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
+      String linea;
+      while ((linea = br.readLine()) != null) {
+        if (linea.trim().isEmpty()) {
+          continue;
+        }
+
+        try {
+          reproducirLinea(linea.split(SEPARADOR), devueltas);
+          operaciones++;
+        } catch (RuntimeException e) {
+          // Una línea incompleta al final indica una escritura interrumpida
+          System.err.println("Operación del journal descartada: " + linea + " - " + e.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Error al leer el journal de operaciones: " + e.getMessage());
+    }
+
+    this.operacionesDesdeCheckpoint = operaciones;
+    System.out.println("Operaciones reproducidas desde el journal: " + operaciones);
+  }
+
+  /**
+   * Compacta el journal reescribiendo los CSV con el estado actual de los
+   * repositorios y vaciando el journal
+   */
+  public void checkpoint() {
+    // Las operaciones encoladas se escriben antes para no agregarlas al journal ya vaciado
+    esperarPendientes();
+    compactar();
+  }
+
+  /**
+   * Cierra el journal liberando el archivo, antes escribe las operaciones
+   * pendientes de la escritura agrupada
+   */
+  public void cerrar() {
+    EscritorAgrupado<String> agrupado = this.escritorAgrupado;
+    if (agrupado != null) {
+      agrupado.cerrar();
+      // Lo que se registre después se escribe directo en el hilo que llama
+      this.escritorAgrupado = null;
+    }
+    synchronized (this) {
+      cerrarEscritor();
+    }
+  }
+
+  private synchronized void compactar() {
+    // Cada CSV se reemplaza de forma atómica, una caída deja la foto anterior o la nueva
+    boolean guardados = servicioPersistencia.guardarLibrosEnCSV(rutaLibrosCsv, repositorioLibros.obtenerTodosLosLibros())
+        & servicioPersistencia.guardarUsuariosEnCSV(rutaUsuariosCsv, repositorioUsuarios.obtenerTodosLosUsuarios())
+        & servicioPersistencia.guardarReservasEnCSV(rutaReservasCsv, repositorioReservas.obtenerTodasLasReservas());
+    if (!guardados) {
+      // Sin los tres CSV al día el journal sigue siendo necesario para recuperar el estado
+      System.err.println("Checkpoint incompleto, el journal de operaciones se conserva");
+      return;
+    }
+
+    // Solo con los CSV ya escritos se puede vaciar el journal, conservando la secuencia
+    cerrarEscritor();
+    try {
+      EscrituraAtomica.reemplazar(rutaJournal, bw -> {
+        bw.write(TipoOperacionJournal.SECUENCIA_RESERVAS.name() + SEPARADOR
+            + repositorioReservas.obtenerUltimoIdSecuencia());
+        bw.newLine();
+      });
+    } catch (IOException e) {
+      System.err.println("Error al vaciar el journal de operaciones: " + e.getMessage());
+      return;
+    }
+    this.operacionesDesdeCheckpoint = 0;
+  }
+
+  private CompletableFuture<Void> enviar(String linea) {
+    EscritorAgrupado<String> agrupado = this.escritorAgrupado;
+    if (agrupado != null) {
+      try {
+        return agrupado.enviar(linea);
+      } catch (IllegalStateException e) {
+        // El escritor se cerró mientras se registraba, se escribe directo
+      }
+    }
+
+    synchronized (this) {
+      try {
+        escribirLineas(List.of(linea));
+      } catch (IOException e) {
+        System.err.println("Error al escribir en el journal de operaciones: " + e.getMessage());
+      }
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Escribe un lote del escritor agrupado, un error hace fallar los futuros del lote
+   */
+  private synchronized void escribirLoteAgrupado(List<String> lineas) {
+    try {
+      escribirLineas(lineas);
+    } catch (IOException e) {
+      System.err.println("Error al escribir en el journal de operaciones: " + e.getMessage());
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void escribirLineas(List<String> lineas) throws IOException {
+    if (escritor == null) {
+      salida = new FileOutputStream(rutaJournal, true);
+      escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+    }
+    for (String linea : lineas) {
+      escritor.write(linea);
+      escritor.newLine();
+    }
+    // Un solo flush y un solo fsync para todo el lote, sin el fsync la línea solo llega al caché del sistema
+    escritor.flush();
+    salida.getChannel().force(false);
+
+    operacionesDesdeCheckpoint += lineas.size();
+    if (operacionesDesdeCheckpoint >= operacionesPorCheckpoint) {
+      compactar();
+    }
+  }
+
+  private void esperarPendientes() {
+    try {
+      sincronizar().join();
+    } catch (RuntimeException e) {
+      // El error ya se informó al escribir el lote, el checkpoint igual deja los CSV al día
+    }
+  }
+
+  private void cerrarEscritor() {
+    if (escritor == null) {
+      return;
+    }
+    try {
+      escritor.close();
+    } catch (IOException e) {
+      System.err.println("Error al cerrar el journal de operaciones: " + e.getMessage());
+    }
+    escritor = null;
+    salida = null;
+  }
+
+  /**
+   * @param devueltas ids de las reservas devueltas ya reproducidas
+   */
+  private void reproducirLinea(String[] datos, HashSet<Integer> devueltas) {
+    TipoOperacionJournal tipo = TipoOperacionJournal.valueOf(datos[0].trim());
+
+    switch (tipo) {
+      case LIBRO_AGREGADO: {
+        Libro libro = new Libro(datos[1], datos[2], datos[3], datos[4], datos[5]);
+        // Si el libro ya existe (foto posterior) se conserva su estado
+        if (repositorioLibros.buscarLibroPorId(libro.getUuid()).isEmpty()) {
+          repositorioLibros.agregarLibro(libro);
+        }
+        break;
+      }
+      case RESERVA_CREADA: {
+        int idReserva = Integer.parseInt(datos[1]);
+        if (devueltas.contains(idReserva)) {
+          // Su devolución se escribió antes que la creación, la reserva ya no está activa
+          break;
+        }
+        DocumentoRut rut = DocumentoRut.definir(datos[2]);
+        Optional<Usuario> usuario = repositorioUsuarios.obtenerUsuario(rut);
+        Optional<Libro> libro = repositorioLibros.buscarLibroPorId(datos[3]);
+        if (usuario.isEmpty() || libro.isEmpty()) {
+          throw new IllegalArgumentException("Usuario o libro inexistente para la reserva " + idReserva);
+        }
+        libro.get().marcarComoReservado();
+        repositorioReservas.agregarReserva(
+            new Reserva(idReserva, usuario.get(), libro.get(), LocalDate.parse(datos[4])));
+        break;
+      }
+      case RESERVA_DEVUELTA: {
+        int idReserva = Integer.parseInt(datos[1]);
+        devueltas.add(idReserva);
+        // Si el libro ya se volvió a prestar (esa reserva puede estar antes en el journal) sigue reservado
+        if (repositorioReservas.eliminarReservaPorId(idReserva)) {
+          Optional<Libro> libro = repositorioLibros.buscarLibroPorId(datos[2]);
+          if (libro.isPresent()
+              && repositorioReservas.buscarReservaActivaPorLibro(libro.get().getIdentificador()).isEmpty()) {
+            libro.get().marcarComoDiponible();
+          }
+        }
+        break;
+      }
+      case USUARIO_REGISTRADO: {
+        DocumentoRut rut = DocumentoRut.definir(datos[1]);
+        if (repositorioUsuarios.obtenerUsuario(rut).isEmpty()) {
+          repositorioUsuarios.agregarUsuario(new Usuario(datos[2], rut));
+        }
+        break;
+      }
+      case SECUENCIA_RESERVAS: {
+        repositorioReservas.actualizarSecuenciaReservas(Integer.parseInt(datos[1]));
+        break;
+      }
+    }
+  }
+}
@@ -2,10 +2,10 @@ package domain.services;
 
 import domain.entities.Libro;
 import domain.enums.EstadoLibro;
+import domain.valueObject.UuidLibro;
 import interfaces.infraestructure.IRepositorioLibros;
 import shared.exceptions.LibroNoEncontradoException;
 import shared.exceptions.LibroYaPrestadoException;
-import shared.utils.Validaciones;
 
 import java.util.Optional;
 
@@ -21,20 +21,6 @@ public class ServicioLibros {
     this.repositorioLibros = repositorioLibros;
   }
 
-  /**
-   * Valída que la información del libro esté seteada correctamente
-   * 
-   * @param libro libro a validar
-   */
-  public void validarLibro(Libro libro) {
-    // valída que el título sea alfanumérico, en caso de que estuviera incorrecto
-    // lanza excepción
-    Validaciones.esAlfanumericoFlexible(libro.getTitulo());
-    Validaciones.esAlfanumericoFlexible(libro.getAutor());
-    Validaciones.esAlfanumericoFlexible(libro.getEditorial());
-    Validaciones.esAlfanumericoFlexible(libro.getGenero());
-  }
-
   /**
    * Método que obtiene un libro por ID registrado dentro del sistema, en caso
    * de no haber libro, lanza una excepción LibroNoEncontradoException
@@ -62,13 +48,29 @@ public class ServicioLibros {
     }
   }
 
+  /**
+   * Método que reserva un libro de forma atómica, en caso de que el libro ya
+   * esté reservado (incluso por otro préstamo simultáneo) lanza
+   * LibroYaPrestadoException
+   * @param libro libro a reservar
+   */
+  public void reservarLibro(Libro libro) {
+    if (!libro.intentarReservar()) {
+      throw new LibroYaPrestadoException(String.format("Libro %s ya esta reservado", libro.getTitulo()));
+    }
+  }
+
   /**
    * Método que disponibiliza un libro reservado dentro del sistema
-   * @param uuid uuid del libro
+   * @param uuid identificador del libro
    */
-  public void disponibilizarLibro(String uuid) {
+  public void disponibilizarLibro(UuidLibro uuid) {
     // buscar el libro dentro del repositorio
-    Libro libro = this.obtenerLibroPorId(uuid);
+    Optional<Libro> libroOptional = this.repositorioLibros.buscarLibroPorIdentificador(uuid);
+    if (libroOptional.isEmpty()) {
+      throw new LibroNoEncontradoException(String.format("No se encontró el libro con ID %s", uuid));
+    }
+    Libro libro = libroOptional.get();
 
     // cambiar el estado del libro
     libro.marcarComoDiponible();
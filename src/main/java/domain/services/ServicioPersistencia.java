@@ -7,31 +7,30 @@ import domain.valueObject.DocumentoRut;
 import interfaces.infraestructure.IRepositorioLibros;
 import interfaces.infraestructure.IRepositorioUsuarios;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.FileWriter;
-import java.io.BufferedWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import domain.entities.Reserva;
 import interfaces.infraestructure.IRepositorioReservas;
+import shared.utils.EscrituraAtomica;
+import shared.utils.TokenizadorCsv;
 
 public class ServicioPersistencia {
 
   private static final String SEPARADOR_CSV = ";";
+  private static final EstadoLibro[] ESTADOS_LIBRO = EstadoLibro.values();
 
   /**
    * Carga libros desde un archivo CSV.
    * Formato CSV esperado: uuid,titulo,autor,genero,editorial,estado
-   * ADVERTENCIA: Debido al diseño actual de la entidad Libro (UUID final y
-   * autogenerado),
-   * el UUID original del CSV no puede ser restaurado. Se creará un nuevo Libro
-   * con
-   * un nuevo UUID, y se intentará restaurar el estado.
+   * Se restaura el UUID original para que las reservas y el journal de
+   * operaciones sigan apuntando al mismo libro. El archivo se recorre mapeado
+   * en memoria con TokenizadorCsv, sin crear un String por línea.
    */
   public void cargarLibrosDesdeCSV(String rutaArchivoCsv, IRepositorioLibros repoLibros) {
     File archivo = new File(rutaArchivoCsv);
@@ -41,22 +40,21 @@ public class ServicioPersistencia {
       return;
     }
 
-    try (BufferedReader br = new BufferedReader(new FileReader(rutaArchivoCsv))) {
-      String linea;
-      while ((linea = br.readLine()) != null) {
-        if (linea.trim().isEmpty() || linea.startsWith("uuid"))
+    try (TokenizadorCsv csv = TokenizadorCsv.abrir(Path.of(rutaArchivoCsv))) {
+      while (csv.siguienteLinea()) {
+        if (csv.lineaEnBlanco() || csv.lineaComienzaCon("uuid", false))
           continue; // Saltar vacías o cabecera
 
-        String[] datos = linea.split(SEPARADOR_CSV);
-        if (datos.length >= 6) {
+        if (csv.cantidadCampos() >= 6) {
           try {
-            String titulo = datos[1];
-            String autor = datos[2];
-            String genero = datos[3];
-            String editorial = datos[4];
-            EstadoLibro estado = EstadoLibro.valueOf(datos[5].trim().toUpperCase());
+            String uuid = csv.campoRecortado(0);
+            String titulo = csv.campo(1);
+            String autor = csv.campo(2);
+            String genero = csv.campo(3);
+            String editorial = csv.campo(4);
+            EstadoLibro estado = csv.campoEnum(5, ESTADOS_LIBRO);
 
-            Libro libro = new Libro(titulo, autor, genero, editorial);
+            Libro libro = new Libro(uuid, titulo, autor, genero, editorial);
             if (estado == EstadoLibro.RESERVADO) {
               libro.marcarComoReservado();
             } else {
@@ -65,16 +63,16 @@ public class ServicioPersistencia {
             repoLibros.agregarLibro(libro);
           } catch (IllegalArgumentException e) {
             System.err
-                .println("Error al parsear estado o datos del libro en línea CSV: " + linea + " - " + e.getMessage());
+                .println("Error al parsear estado o datos del libro en línea CSV: " + csv.linea() + " - " + e.getMessage());
           } catch (RuntimeException e) {
-            System.err.println("Error procesando línea de libro CSV: " + linea + " - " + e.getMessage());
+            System.err.println("Error procesando línea de libro CSV: " + csv.linea() + " - " + e.getMessage());
           }
         } else {
-          System.err.println("Línea CSV de libro con formato incorrecto (datos insuficientes): " + linea);
+          System.err.println("Línea CSV de libro con formato incorrecto (datos insuficientes): " + csv.linea());
         }
       }
       System.out.println("Libros cargados desde: " + rutaArchivoCsv);
-    } catch (IOException e) {
+    } catch (IOException | UncheckedIOException e) {
       System.err.println("Error al leer el archivo de libros CSV: " + e.getMessage());
     }
   }
@@ -92,17 +90,15 @@ public class ServicioPersistencia {
       return;
     }
 
-    try (BufferedReader br = new BufferedReader(new FileReader(rutaArchivoCsv))) {
-      String linea;
-      while ((linea = br.readLine()) != null) {
-        if (linea.trim().isEmpty() || linea.toLowerCase().startsWith("rut"))
+    try (TokenizadorCsv csv = TokenizadorCsv.abrir(Path.of(rutaArchivoCsv))) {
+      while (csv.siguienteLinea()) {
+        if (csv.lineaEnBlanco() || csv.lineaComienzaCon("rut", true))
           continue; // Saltar vacías o cabecera
 
-        String[] datos = linea.split(SEPARADOR_CSV);
-        if (datos.length >= 2) {
+        if (csv.cantidadCampos() >= 2) {
           try {
-            String rutCompleto = datos[0].trim();
-            String nombre = datos[1].trim();
+            String rutCompleto = csv.campoRecortado(0);
+            String nombre = csv.campoRecortado(1);
 
             DocumentoRut rut = DocumentoRut.definir(rutCompleto);
             Usuario usuario = new Usuario(nombre, rut);
@@ -114,16 +110,16 @@ public class ServicioPersistencia {
             }
           } catch (IllegalArgumentException e) {
             System.err
-                .println("Error al parsear RUT o datos del usuario en línea CSV: " + linea + " - " + e.getMessage());
+                .println("Error al parsear RUT o datos del usuario en línea CSV: " + csv.linea() + " - " + e.getMessage());
           } catch (RuntimeException e) {
-            System.err.println("Error procesando línea de usuario CSV: " + linea + " - " + e.getMessage());
+            System.err.println("Error procesando línea de usuario CSV: " + csv.linea() + " - " + e.getMessage());
           }
         } else {
-          System.err.println("Línea CSV de usuario con formato incorrecto (datos insuficientes): " + linea);
+          System.err.println("Línea CSV de usuario con formato incorrecto (datos insuficientes): " + csv.linea());
         }
       }
       System.out.println("Usuarios cargados desde: " + rutaArchivoCsv);
-    } catch (IOException e) {
+    } catch (IOException | UncheckedIOException e) {
       System.err.println("Error al leer el archivo de usuarios CSV: " + e.getMessage());
     }
   }
@@ -131,53 +127,68 @@ public class ServicioPersistencia {
   /**
    * Guarda la lista de libros en un archivo CSV.
    * Formato CSV: uuid,titulo,autor,genero,editorial,estado
+   * El archivo se reemplaza de forma atómica: si la escritura falla, el CSV
+   * anterior queda intacto.
+   *
+   * @return true si el archivo quedó reemplazado
    */
-  public void guardarLibrosEnCSV(String rutaArchivoCsv, List<Libro> libros) {
-    try (BufferedWriter bw = new BufferedWriter(new FileWriter(rutaArchivoCsv))) {
-      // Escribir la cabecera
-      bw.write("uuid" + SEPARADOR_CSV + "titulo" + SEPARADOR_CSV + "autor" + SEPARADOR_CSV + "genero" + SEPARADOR_CSV
-          + "editorial" + SEPARADOR_CSV + "estado");
-      bw.newLine();
-
-      // Escribir cada libro
-      for (Libro libro : libros) {
-        String linea = String.join(SEPARADOR_CSV,
-            libro.getUuid(),
-            libro.getTitulo(),
-            libro.getAutor(),
-            libro.getGenero(),
-            libro.getEditorial(),
-            libro.getEstado().toString());
-        bw.write(linea);
+  public boolean guardarLibrosEnCSV(String rutaArchivoCsv, List<Libro> libros) {
+    try {
+      EscrituraAtomica.reemplazar(rutaArchivoCsv, bw -> {
+        // Escribir la cabecera
+        bw.write("uuid" + SEPARADOR_CSV + "titulo" + SEPARADOR_CSV + "autor" + SEPARADOR_CSV + "genero" + SEPARADOR_CSV
+            + "editorial" + SEPARADOR_CSV + "estado");
         bw.newLine();
-      }
+
+        // Escribir cada libro
+        for (Libro libro : libros) {
+          String linea = String.join(SEPARADOR_CSV,
+              libro.getUuid(),
+              libro.getTitulo(),
+              libro.getAutor(),
+              libro.getGenero(),
+              libro.getEditorial(),
+              libro.getEstado().toString());
+          bw.write(linea);
+          bw.newLine();
+        }
+      });
       System.out.println("[🤖 SISTEMA ] Libros guardados en: " + rutaArchivoCsv);
+      return true;
     } catch (IOException e) {
       System.err.println("Error al escribir el archivo de libros CSV: " + e.getMessage());
+      return false;
     }
   }
 
   /**
    * Guarda la lista de usuarios en un archivo CSV.
    * Formato CSV: rut_formateado,nombre
+   * El archivo se reemplaza de forma atómica, igual que en guardarLibrosEnCSV.
+   *
+   * @return true si el archivo quedó reemplazado
    */
-  public void guardarUsuariosEnCSV(String rutaArchivoCsv, List<Usuario> usuarios) {
-    try (BufferedWriter bw = new BufferedWriter(new FileWriter(rutaArchivoCsv))) {
-      // Escribir la cabecera
-      bw.write("rut_formateado" + SEPARADOR_CSV + "nombre");
-      bw.newLine();
-
-      // Escribir cada usuario
-      for (Usuario usuario : usuarios) {
-        String linea = String.join(SEPARADOR_CSV,
-            usuario.getRut().getFormateado(),
-            usuario.getNombre());
-        bw.write(linea);
+  public boolean guardarUsuariosEnCSV(String rutaArchivoCsv, List<Usuario> usuarios) {
+    try {
+      EscrituraAtomica.reemplazar(rutaArchivoCsv, bw -> {
+        // Escribir la cabecera
+        bw.write("rut_formateado" + SEPARADOR_CSV + "nombre");
         bw.newLine();
-      }
+
+        // Escribir cada usuario
+        for (Usuario usuario : usuarios) {
+          String linea = String.join(SEPARADOR_CSV,
+              usuario.getRut().getFormateado(),
+              usuario.getNombre());
+          bw.write(linea);
+          bw.newLine();
+        }
+      });
       System.out.println("Usuarios guardados en: " + rutaArchivoCsv);
+      return true;
     } catch (IOException e) {
       System.err.println("Error al escribir el archivo de usuarios CSV: " + e.getMessage());
+      return false;
     }
   }
 
@@ -195,20 +206,20 @@ public class ServicioPersistencia {
       return;
     }
 
-    try (BufferedReader br = new BufferedReader(new FileReader(rutaArchivoCsv))) {
-      String linea;
-      while ((linea = br.readLine()) != null) {
-        if (linea.trim().isEmpty() || linea.toLowerCase().startsWith("id_reserva")) {
+    try (TokenizadorCsv csv = TokenizadorCsv.abrir(Path.of(rutaArchivoCsv))) {
+      while (csv.siguienteLinea()) {
+        if (csv.lineaEnBlanco() || csv.lineaComienzaCon("id_reserva", true)) {
           continue; // Saltar vacías o cabecera
         }
 
-        String[] datos = linea.split(SEPARADOR_CSV);
-        if (datos.length >= 4) {
+        if (csv.cantidadCampos() >= 4) {
           try {
-            int idReserva = Integer.parseInt(datos[0].trim());
-            String rutUsuarioStr = datos[1].trim();
-            String uuidLibro = datos[2].trim();
-            LocalDate fechaVencimiento = LocalDate.parse(datos[3].trim());
+            int idReserva = csv.campoEntero(0);
+            // La secuencia avanza aunque la reserva no se pueda cargar
+            repoReservas.actualizarSecuenciaReservas(idReserva);
+            String rutUsuarioStr = csv.campoRecortado(1);
+            String uuidLibro = csv.campoRecortado(2);
+            LocalDate fechaVencimiento = csv.campoFecha(3);
 
             DocumentoRut rutUsuario = DocumentoRut.definir(rutUsuarioStr);
             Optional<Usuario> usuarioOpt = repoUsuarios.obtenerUsuario(rutUsuario);
@@ -240,21 +251,21 @@ public class ServicioPersistencia {
               }
             }
           } catch (NumberFormatException e) {
-            System.err.println("Error al parsear ID de reserva en línea CSV: " + linea + " - " + e.getMessage());
+            System.err.println("Error al parsear ID de reserva en línea CSV: " + csv.linea() + " - " + e.getMessage());
           } catch (DateTimeParseException e) {
-            System.err.println("Error al parsear fecha de vencimiento en línea CSV: " + linea + " - " + e.getMessage());
+            System.err.println("Error al parsear fecha de vencimiento en línea CSV: " + csv.linea() + " - " + e.getMessage());
           } catch (IllegalArgumentException e) {
             System.err
-                .println("Error al parsear RUT o datos de reserva en línea CSV: " + linea + " - " + e.getMessage());
+                .println("Error al parsear RUT o datos de reserva en línea CSV: " + csv.linea() + " - " + e.getMessage());
           } catch (RuntimeException e) {
-            System.err.println("Error procesando línea de reserva CSV: " + linea + " - " + e.getMessage());
+            System.err.println("Error procesando línea de reserva CSV: " + csv.linea() + " - " + e.getMessage());
           }
         } else {
-          System.err.println("Línea CSV de reserva con formato incorrecto (datos insuficientes): " + linea);
+          System.err.println("Línea CSV de reserva con formato incorrecto (datos insuficientes): " + csv.linea());
         }
       }
       System.out.println("Reservas cargadas desde: " + rutaArchivoCsv);
-    } catch (IOException e) {
+    } catch (IOException | UncheckedIOException e) {
       System.err.println("Error al leer el archivo de reservas CSV: " + e.getMessage());
     }
   }
@@ -262,26 +273,33 @@ public class ServicioPersistencia {
   /**
    * Guarda la lista de reservas en un archivo CSV.
    * Formato CSV: id_reserva;rut_usuario;uuid_libro;fecha_vencimiento
+   * El archivo se reemplaza de forma atómica, igual que en guardarLibrosEnCSV.
+   *
+   * @return true si el archivo quedó reemplazado
    */
-  public void guardarReservasEnCSV(String rutaArchivoCsv, List<Reserva> reservas) {
-    try (BufferedWriter bw = new BufferedWriter(new FileWriter(rutaArchivoCsv))) {
-      // Escribir la cabecera
-      bw.write("id_reserva" + SEPARADOR_CSV + "rut_usuario" + SEPARADOR_CSV + "uuid_libro" + SEPARADOR_CSV + "fecha_vencimiento");
-      bw.newLine();
-
-      // Escribir cada reserva
-      for (Reserva reserva : reservas) {
-        String linea = String.join(SEPARADOR_CSV,
-            String.valueOf(reserva.getId()),
-            reserva.getUsuario().getRut().getFormateado(),
-            reserva.getLibro().getUuid(),
-            reserva.getFechaVencimiento().toString());
-        bw.write(linea);
+  public boolean guardarReservasEnCSV(String rutaArchivoCsv, List<Reserva> reservas) {
+    try {
+      EscrituraAtomica.reemplazar(rutaArchivoCsv, bw -> {
+        // Escribir la cabecera
+        bw.write("id_reserva" + SEPARADOR_CSV + "rut_usuario" + SEPARADOR_CSV + "uuid_libro" + SEPARADOR_CSV + "fecha_vencimiento");
         bw.newLine();
-      }
+
+        // Escribir cada reserva
+        for (Reserva reserva : reservas) {
+          String linea = String.join(SEPARADOR_CSV,
+              String.valueOf(reserva.getId()),
+              reserva.getUsuario().getRut().getFormateado(),
+              reserva.getLibro().getUuid(),
+              reserva.getFechaVencimiento().toString());
+          bw.write(linea);
+          bw.newLine();
+        }
+      });
       System.out.println("[🤖 SISTEMA] Reservas guardadas en: " + rutaArchivoCsv);
+      return true;
     } catch (IOException e) {
       System.err.println("Error al escribir el archivo de reservas CSV: " + e.getMessage());
+      return false;
     }
   }
 }
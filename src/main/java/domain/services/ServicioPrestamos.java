@@ -4,9 +4,14 @@ import domain.entities.Libro;
 import domain.entities.Reserva;
 import domain.entities.Usuario;
 import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
 import interfaces.infraestructure.IRepositorioReservas;
 import shared.exceptions.ReservaNoEncontradaException;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Optional;
 
 /**
@@ -39,10 +44,8 @@ public class ServicioPrestamos {
     // busca el usuario
     Usuario usuario = this.servicioUsuarios.obtenerUsuarioPorRut(rutUsuario);
 
-    // obtiene último id de reserva generado
-    int ultimoIdDeReserva = this.obtenerUltimoIdReserva();
-    // incrementa en 1 el id de reserva
-    int idReserva = ultimoIdDeReserva + 1;
+    // obtiene el siguiente id de la secuencia de reservas
+    int idReserva = this.repositorioReservas.siguienteIdReserva();
 
     // Genera la reserva
     Reserva reserva = new Reserva(idReserva, usuario, libro);
@@ -73,35 +76,127 @@ public class ServicioPrestamos {
   }
 
   /**
-   * Método que elimina una reserva dentro del sistema, disponibilizando el libro
-   * reservado, y eliminando la reserva dentro del repositorio de reservas
+   * Método que elimina una reserva dentro del sistema y disponibiliza el libro
+   * reservado. La reserva se quita primero del repositorio y solo quien la
+   * quitó libera el libro, así dos devoluciones simultáneas de la misma
+   * reserva no liberan un libro que entretanto se prestó a otro usuario
    * @param reserva reserva a cancelar
+   * @throws ReservaNoEncontradaException si la reserva ya no está (otra devolución la quitó)
    */
   public void eliminarReserva(Reserva reserva) {
     // obtiene el id de la reserva
     int idReserva = reserva.getId();
 
-    // Marca como disponible el libro de la reserva
-    Libro libroReservado = reserva.getLibro();
-    String uuidLibroReservado = libroReservado.getUuid();
-    this.servicioLibros.disponibilizarLibro(uuidLibroReservado);
+    // elimina la reserva del repositorio, si otra devolución la quitó antes no hace nada más
+    if (!this.repositorioReservas.eliminarReservaPorId(idReserva)) {
+      throw new ReservaNoEncontradaException(String.format("Reserva %d no encontrada", idReserva));
+    }
+
+    // Marca como disponible el libro de la reserva, se busca por su identificador sin pasar por texto
+    this.servicioLibros.disponibilizarLibro(reserva.getLibro().getIdentificador());
+  }
+
+  /**
+   * Método que obtiene las reservas activas de un usuario
+   * @param rut rut del usuario
+   * @return ArrayList de reservas del usuario
+   */
+  public ArrayList<Reserva> obtenerReservasPorUsuario(DocumentoRut rut) {
+    return this.repositorioReservas.buscarReservasPorRut(rut);
+  }
 
-    // con el libro disponible procede a eliminar la reserva del
-    // repositorio de reservas
-    this.repositorioReservas.eliminarReservaPorId(idReserva);
+  /**
+   * Método que obtiene la reserva activa de un libro
+   * @param uuidLibro uuid del libro
+   * @return Opcional de la reserva que tiene el libro
+   */
+  public Optional<Reserva> obtenerReservaPorLibro(String uuidLibro) {
+    return this.repositorioReservas.buscarReservaActivaPorLibro(UuidLibro.definir(uuidLibro));
   }
 
   /**
-   * Método que obtiene el último id de reserva generado
-   * 
-   * @return obtiene el último id generado
+   * Método que obtiene las reservas ordenadas por fecha de vencimiento
+   * @param despuesDe última reserva de la página anterior, null para la primera página
+   * @param limite tamaño de la página
+   * @return ArrayList de reservas ordenadas por vencimiento
    */
-  private int obtenerUltimoIdReserva() {
-    Optional<Reserva> ultimaReserva = this.repositorioReservas.obtenerUltimaReserva();
+  public ArrayList<Reserva> obtenerReservasPorVencimiento(Reserva despuesDe, int limite) {
+    return this.repositorioReservas.buscarReservasPorVencimiento(null, null, despuesDe, limite);
+  }
 
-    // obtiene id de la reserva más alta, en caso de que no exista alguna reserva
-    // devuelve 0
-    return ultimaReserva.map(Reserva::getId).orElse(0);
+  /**
+   * Método que obtiene una página de las reservas ordenadas por fecha de
+   * vencimiento. El cursor es "fecha_id" de la última reserva entregada, así
+   * la página siguiente no depende de que esa reserva siga activa
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite tamaño de la página
+   * @return página de reservas con el cursor de la siguiente
+   */
+  public Pagina<Reserva> obtenerPaginaReservasPorVencimiento(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    // Pide una reserva de más para saber si hay página siguiente
+    ArrayList<Reserva> reservas = this.repositorioReservas.buscarReservasPorVencimiento(
+        null, null, leerCursorVencimiento(cursor), limite == Integer.MAX_VALUE ? limite : limite + 1);
+    if (reservas.size() <= limite) {
+      return new Pagina<>(reservas, null);
+    }
+    reservas.remove(limite);
+    Reserva ultima = reservas.get(limite - 1);
+    return new Pagina<>(reservas, ultima.getFechaVencimiento() + "_" + ultima.getId());
+  }
 
+  /**
+   * Método que obtiene las reservas vencidas a una fecha, es decir con fecha
+   * de vencimiento anterior a la fecha dada
+   * @param fecha fecha de corte
+   * @param despuesDe última reserva de la página anterior, null para la primera página
+   * @param limite tamaño de la página
+   * @return ArrayList de reservas vencidas, de la más antigua a la más reciente
+   */
+  public ArrayList<Reserva> obtenerReservasVencidas(LocalDate fecha, Reserva despuesDe, int limite) {
+    return this.repositorioReservas.buscarReservasPorVencimiento(null, fecha, despuesDe, limite);
+  }
+
+  /**
+   * Método que obtiene las reservas que vencen dentro de los próximos días
+   * @param fecha fecha desde la que se cuenta (inclusiva)
+   * @param dias cantidad de días hacia adelante (inclusiva)
+   * @param despuesDe última reserva de la página anterior, null para la primera página
+   * @param limite tamaño de la página
+   * @return ArrayList de reservas por vencer ordenadas por vencimiento
+   */
+  public ArrayList<Reserva> obtenerReservasPorVencer(LocalDate fecha, int dias, Reserva despuesDe, int limite) {
+    return this.repositorioReservas.buscarReservasPorVencimiento(fecha, fecha.plusDays(dias + 1L), despuesDe, limite);
+  }
+
+  /**
+   * Método que obtiene las próximas reservas en vencer a partir de una fecha
+   * @param fecha fecha desde la que se cuenta (inclusiva)
+   * @param cantidad cantidad de reservas
+   * @return ArrayList de reservas ordenadas por vencimiento
+   */
+  public ArrayList<Reserva> obtenerProximasAVencer(LocalDate fecha, int cantidad) {
+    return this.repositorioReservas.buscarReservasPorVencimiento(fecha, null, null, cantidad);
+  }
+
+  /**
+   * Lee un cursor "fecha_id" como una reserva que solo tiene la fecha de
+   * vencimiento y el id, lo único que compara el índice por vencimiento
+   */
+  private static Reserva leerCursorVencimiento(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    int separador = cursor.indexOf('_');
+    try {
+      if (separador > 0) {
+        return new Reserva(Integer.parseInt(cursor.substring(separador + 1).trim()), null, null,
+            LocalDate.parse(cursor.substring(0, separador).trim()));
+      }
+    } catch (NumberFormatException | DateTimeParseException e) {
+      // Se informa abajo igual que un cursor sin separador
+    }
+    throw new IllegalArgumentException("Cursor inválido: " + cursor);
   }
 }
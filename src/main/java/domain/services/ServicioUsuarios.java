@@ -48,29 +48,14 @@ public class ServicioUsuarios {
         // Valída que el nombre sea válido
         Validaciones.esAlfanumericoFlexible(nombre);
 
-        // valída que el usuario no se encuentre registrado
-        this.validaUsuarioExiste(rut);
-
         // genera un usuario
         Usuario usuario = new Usuario(nombre, rut);
 
-        // agrega el usuario al repositorio de usuarios
-        this.repositorioUsuarios.agregarUsuario(usuario);
-
-        return usuario;
-    }
-
-    /**
-     * Método que valída si un usuario existe dentro del repositorio de
-     * usuarios, lanza UsuarioYaRegistradoException en caso de que el usuario
-     * ya esté registrado dentro del sistema
-     * @param rut rut del usuario a validar
-     */
-    private void validaUsuarioExiste(DocumentoRut rut) {
-        Optional<Usuario> usuario = this.repositorioUsuarios.obtenerUsuario(rut);
-
-        if (usuario.isPresent()) {
+        // agrega el usuario si el rut no está registrado, la validación y el alta son atómicas
+        if (!this.repositorioUsuarios.agregarUsuarioSiNoExiste(usuario)) {
             throw new UsuarioYaRegistradoException(String.format("Usuario %s ya registrado", rut.getFormateado()));
         }
+
+        return usuario;
     }
 }
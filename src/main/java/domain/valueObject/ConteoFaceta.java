@@ -0,0 +1,9 @@
+package domain.valueObject;
+
+/**
+ * Cantidad de libros con un valor de faceta
+ * @param valor valor de la faceta (por ejemplo un género)
+ * @param cantidad cantidad de libros
+ */
+public record ConteoFaceta(String valor, long cantidad) {
+}
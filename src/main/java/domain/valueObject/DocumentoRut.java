@@ -1,22 +1,24 @@
 package domain.valueObject;
 
-import java.util.Objects;
-
 /**
  * Value Object que representa un RUT chileno válido.
  * Garantiza que solo existan instancias con RUTs válidos en el dominio.
  * Es inmutable y encapsula las reglas de validación y formateo del RUT.
  */
-public class DocumentoRut {
+public class DocumentoRut implements Comparable<DocumentoRut> {
 
-    private final String numero;
+    private final int numero;
     private final char digitoVerificador;
+    // Formas de texto cacheadas, se calculan una sola vez (si dos hilos las
+    // calculan a la vez ambos obtienen el mismo valor inmutable)
+    private String sinFormato;
+    private String formateado;
 
     /**
      * Constructor privado para garantizar que solo se creen instancias válidas
      * a través del método factory 'definir'
      */
-    private DocumentoRut(String numero, char digitoVerificador) {
+    private DocumentoRut(int numero, char digitoVerificador) {
         this.numero = numero;
         this.digitoVerificador = digitoVerificador;
     }
@@ -37,68 +39,78 @@ public class DocumentoRut {
     }
 
     /**
-     * Método privado que ejecuta las validaciones y crea la instancia
+     * Método privado que ejecuta las validaciones y crea la instancia. Recorre
+     * el RUT una sola vez ignorando puntos, guiones y espacios, acumulando el
+     * número como entero; el último carácter significativo es el dígito
+     * verificador
      *
      * @param rut RUT a validar
      * @return DocumentoRut válido
      * @throws IllegalArgumentException si el RUT no es válido
      */
     private static DocumentoRut of(String rut) {
-        // Limpiar el RUT (remover puntos, guiones y espacios)
-        String rutLimpio = limpiarRut(rut);
+        int largo = 0;
+        long numero = 0;
+        boolean numerico = true;
+        char pendiente = 0;
+
+        for (int i = 0; i < rut.length(); i++) {
+            char c = rut.charAt(i);
+            if (esIgnorado(c)) {
+                continue;
+            }
+
+            // El carácter anterior ya no es el último, pasa a ser parte del número
+            if (largo > 0) {
+                if (pendiente >= '0' && pendiente <= '9') {
+                    numero = numero * 10 + (pendiente - '0');
+                } else {
+                    numerico = false;
+                }
+            }
+            pendiente = c;
+            if (++largo > 9) {
+                break;
+            }
+        }
 
         // Validar formato básico
-        if (!esFormatoValido(rutLimpio)) {
+        if (largo < 8 || largo > 9) {
             throw new IllegalArgumentException("Formato de RUT inválido: " + rut + ". Formato esperado: 12.345.678-9");
         }
 
-        // Separar número y dígito verificador
-        String numero = rutLimpio.substring(0, rutLimpio.length() - 1);
-        char digitoVerificador = rutLimpio.charAt(rutLimpio.length() - 1);
-
         // Validar que el número sea numérico
-        if (!esNumerico(numero)) {
+        if (!numerico) {
             throw new IllegalArgumentException("El número del RUT debe ser numérico: " + rut);
         }
 
         // Validar rango del número
-        int numeroInt = Integer.parseInt(numero);
-        if (numeroInt < 1000000 || numeroInt > 99999999) {
+        if (numero < 1000000 || numero > 99999999) {
             throw new IllegalArgumentException("El número del RUT debe estar entre 1.000.000 y 99.999.999: " + rut);
         }
 
         // Validar dígito verificador
-        if (!esDigitoVerificadorValido(numeroInt, digitoVerificador)) {
+        char digitoVerificador = pendiente == 'k' ? 'K' : pendiente;
+        if (!esDigitoVerificadorValido((int) numero, digitoVerificador)) {
             throw new IllegalArgumentException("Dígito verificador inválido para el RUT: " + rut);
         }
 
-        return new DocumentoRut(numero, digitoVerificador);
-    }
-
-    /**
-     * Limpia el RUT removiendo puntos, guiones y espacios
-     */
-    private static String limpiarRut(String rut) {
-        return rut.replaceAll("[.\\-\\s]", "").toUpperCase();
-    }
-
-    /**
-     * Valida que el RUT tenga un formato básico correcto
-     */
-    private static boolean esFormatoValido(String rutLimpio) {
-        return rutLimpio.length() >= 8 && rutLimpio.length() <= 9;
+        DocumentoRut documento = new DocumentoRut((int) numero, digitoVerificador);
+        // Si el texto recibido ya es una de las formas canónicas se reutiliza
+        if (documento.coincideConFormateado(rut)) {
+            documento.formateado = rut;
+        } else if (documento.coincideConSinFormato(rut)) {
+            documento.sinFormato = rut;
+        }
+        return documento;
     }
 
     /**
-     * Valida que una cadena sea completamente numérica
+     * Indica si el carácter se ignora al leer el RUT: puntos, guiones y
+     * espacios (los mismos que \s en una expresión regular)
      */
-    private static boolean esNumerico(String str) {
-        try {
-            Integer.parseInt(str);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+    private static boolean esIgnorado(char c) {
+        return c == '.' || c == '-' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
     }
 
     /**
@@ -136,6 +148,15 @@ public class DocumentoRut {
      * @return número del RUT
      */
     public String getNumero() {
+        return Integer.toString(numero);
+    }
+
+    /**
+     * Obtiene el número del RUT como entero, sin el dígito verificador
+     *
+     * @return número del RUT
+     */
+    public int getNumeroEntero() {
         return numero;
     }
 
@@ -154,7 +175,12 @@ public class DocumentoRut {
      * @return RUT sin formato
      */
     public String getSinFormato() {
-        return numero + digitoVerificador;
+        String valor = sinFormato;
+        if (valor == null) {
+            valor = Integer.toString(numero) + digitoVerificador;
+            sinFormato = valor;
+        }
+        return valor;
     }
 
     /**
@@ -163,21 +189,78 @@ public class DocumentoRut {
      * @return RUT formateado
      */
     public String getFormateado() {
-        StringBuilder sb = new StringBuilder();
-        String numeroStr = numero;
+        String valor = formateado;
+        if (valor == null) {
+            valor = formatear();
+            formateado = valor;
+        }
+        return valor;
+    }
 
-        // Agregar puntos desde la derecha
-        for (int i = numeroStr.length() - 1, contador = 0; i >= 0; i--, contador++) {
+    /**
+     * Construye el RUT formateado escribiendo desde la derecha en un solo arreglo
+     */
+    private String formatear() {
+        char[] caracteres = new char[12];
+        int i = caracteres.length;
+        caracteres[--i] = digitoVerificador;
+        caracteres[--i] = '-';
+
+        int resto = numero;
+        int contador = 0;
+        do {
             if (contador > 0 && contador % 3 == 0) {
-                sb.insert(0, ".");
+                caracteres[--i] = '.';
             }
-            sb.insert(0, numeroStr.charAt(i));
+            caracteres[--i] = (char) ('0' + resto % 10);
+            resto /= 10;
+            contador++;
+        } while (resto > 0);
+
+        return new String(caracteres, i, caracteres.length - i);
+    }
+
+    /**
+     * Compara un texto con la forma formateada sin construirla
+     */
+    private boolean coincideConFormateado(String texto) {
+        int i = texto.length() - 1;
+        if (i < 2 || texto.charAt(i--) != digitoVerificador || texto.charAt(i--) != '-') {
+            return false;
         }
 
-        // Agregar guión y dígito verificador
-        sb.append("-").append(digitoVerificador);
+        int resto = numero;
+        int contador = 0;
+        do {
+            if (contador > 0 && contador % 3 == 0 && (i < 0 || texto.charAt(i--) != '.')) {
+                return false;
+            }
+            if (i < 0 || texto.charAt(i--) != (char) ('0' + resto % 10)) {
+                return false;
+            }
+            resto /= 10;
+            contador++;
+        } while (resto > 0);
+        return i < 0;
+    }
+
+    /**
+     * Compara un texto con la forma sin formato sin construirla
+     */
+    private boolean coincideConSinFormato(String texto) {
+        int i = texto.length() - 1;
+        if (i < 1 || texto.charAt(i--) != digitoVerificador) {
+            return false;
+        }
 
-        return sb.toString();
+        int resto = numero;
+        do {
+            if (i < 0 || texto.charAt(i--) != (char) ('0' + resto % 10)) {
+                return false;
+            }
+            resto /= 10;
+        } while (resto > 0);
+        return i < 0;
     }
 
     /**
@@ -188,18 +271,26 @@ public class DocumentoRut {
         return getFormateado();
     }
 
+    /**
+     * Orden por número de RUT, el dígito verificador se deriva del número
+     */
+    @Override
+    public int compareTo(DocumentoRut otro) {
+        int comparacion = Integer.compare(numero, otro.numero);
+        return comparacion != 0 ? comparacion : Character.compare(digitoVerificador, otro.digitoVerificador);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
 
         DocumentoRut that = (DocumentoRut) obj;
-        return digitoVerificador == that.digitoVerificador &&
-                Objects.equals(numero, that.numero);
+        return numero == that.numero && digitoVerificador == that.digitoVerificador;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(numero, digitoVerificador);
+        return 31 * numero + digitoVerificador;
     }
 }
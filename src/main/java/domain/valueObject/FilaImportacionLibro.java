@@ -0,0 +1,70 @@
+package domain.valueObject;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Fila de una importación masiva de libros, con los campos tal como vienen del
+ * archivo o de la API (sin normalizar). Un campo faltante queda nulo y la fila
+ * se rechaza al validar, igual que una línea con más campos de los esperados.
+ * @param linea número de la línea en el archivo (desde 1, contando la cabecera)
+ * @param titulo título
+ * @param autor autor
+ * @param genero género
+ * @param editorial editorial
+ * @param cantidadCampos cantidad de campos que traía la línea
+ */
+public record FilaImportacionLibro(
+        long linea, String titulo, String autor, String genero, String editorial, int cantidadCampos) {
+    private static final String SEPARADOR_CSV = ";";
+    private static final String CABECERA = "titulo" + SEPARADOR_CSV;
+    public static final int CAMPOS = 4;
+
+    /**
+     * Convierte líneas CSV (titulo;autor;genero;editorial) en filas de
+     * importación numeradas por línea. Solo la primera línea puede ser la
+     * cabecera, una fila de datos con título "titulo" se importa igual
+     * @param lineas líneas del archivo o del cuerpo de la petición
+     * @return filas de importación, en el mismo orden
+     */
+    public static Stream<FilaImportacionLibro> desdeLineasCsv(Stream<String> lineas) {
+        long[] leidas = { 0 };
+        return lineas
+                .map(linea -> {
+                    long numero = ++leidas[0];
+                    boolean cabecera = numero == 1 && linea.regionMatches(true, 0, CABECERA, 0, CABECERA.length());
+                    return cabecera ? null : desdeLineaCsv(numero, linea);
+                })
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Convierte una línea CSV en una fila de importación
+     * @param numero número de la línea en el archivo
+     * @param linea línea titulo;autor;genero;editorial
+     * @return fila de importación
+     */
+    public static FilaImportacionLibro desdeLineaCsv(long numero, String linea) {
+        String[] datos = linea.split(SEPARADOR_CSV, -1);
+        return new FilaImportacionLibro(
+                numero, campo(datos, 0), campo(datos, 1), campo(datos, 2), campo(datos, 3), datos.length);
+    }
+
+    /**
+     * @return true si la línea traía exactamente los campos esperados
+     */
+    public boolean formatoValido() {
+        return cantidadCampos == CAMPOS;
+    }
+
+    /**
+     * @return los campos en el orden titulo, autor, genero, editorial
+     */
+    public String[] campos() {
+        return new String[] { titulo, autor, genero, editorial };
+    }
+
+    private static String campo(String[] datos, int indice) {
+        return indice < datos.length ? datos[indice] : null;
+    }
+}
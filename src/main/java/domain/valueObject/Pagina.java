@@ -0,0 +1,96 @@
+package domain.valueObject;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Página de un listado recorrido por cursor (keyset). El cursor es la clave
+ * del último elemento entregado, la página siguiente empieza en la primera
+ * clave mayor, así los elementos agregados o eliminados mientras se recorre
+ * no desplazan ni repiten los que ya se entregaron.
+ * @param elementos elementos de la página, en orden de clave
+ * @param cursorSiguiente cursor para pedir la página siguiente, nulo si es la última
+ * @param <T> tipo de los elementos
+ */
+public record Pagina<T>(List<T> elementos, String cursorSiguiente) {
+
+    /**
+     * @return true si hay una página siguiente
+     */
+    public boolean hayMas() {
+        return cursorSiguiente != null;
+    }
+
+    /**
+     * Lee la clave de un cursor entregado en una página anterior
+     *
+     * @param cursor cursor recibido, nulo o vacío para la primera página
+     * @return clave del último elemento entregado, -1 para la primera página
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static long leerCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return -1;
+        }
+        try {
+            long clave = Long.parseLong(cursor.trim());
+            if (clave >= 0) {
+                return clave;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo igual que un cursor negativo
+        }
+        throw new IllegalArgumentException("Cursor inválido: " + cursor);
+    }
+
+    /**
+     * Valida la cantidad de elementos pedida para una página
+     *
+     * @param limite cantidad máxima de elementos de la página
+     * @throws IllegalArgumentException si el límite no es positivo
+     */
+    public static void validarLimite(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("El límite de la página debe ser positivo: " + limite);
+        }
+    }
+
+    /**
+     * Recorre un listado completo como Stream pidiendo una página a la vez, la
+     * página siguiente se pide recién cuando se consumió la anterior
+     *
+     * @param paginador entrega la página que sigue al cursor recibido (nulo para la primera)
+     * @param <T> tipo de los elementos
+     * @return Stream secuencial de todos los elementos del listado
+     */
+    public static <T> Stream<T> recorrer(Function<String, Pagina<T>> paginador) {
+        Spliterator<T> elementos = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Iterator<T> actual = null;
+            private String cursor = null;
+            private boolean terminado = false;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                while (actual == null || !actual.hasNext()) {
+                    if (terminado) {
+                        return false;
+                    }
+                    Pagina<T> pagina = paginador.apply(cursor);
+                    actual = pagina.elementos().iterator();
+                    cursor = pagina.cursorSiguiente();
+                    terminado = cursor == null;
+                }
+                accion.accept(actual.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(elementos, false);
+    }
+}
@@ -0,0 +1,9 @@
+package domain.valueObject;
+
+/**
+ * Fila rechazada en una importación masiva
+ * @param fila número de la línea del archivo (desde 1, contando la cabecera)
+ * @param motivo motivo del rechazo
+ */
+public record RechazoImportacion(long fila, String motivo) {
+}
@@ -0,0 +1,12 @@
+package domain.valueObject;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de libros
+ * @param importados cantidad de libros agregados al repositorio
+ * @param rechazos filas rechazadas con su motivo
+ * @param checkpoints cantidad de veces que se persistió durante la importación
+ */
+public record ResultadoImportacion(int importados, List<RechazoImportacion> rechazos, int checkpoints) {
+}
@@ -0,0 +1,12 @@
+package domain.valueObject;
+
+import domain.enums.CampoLibro;
+
+/**
+ * Sugerencia de autocompletado: un título o un autor del catálogo
+ * @param texto título o autor tal como está registrado
+ * @param campo TITULO o AUTOR
+ * @param popularidad ejemplares con ese título o autor más sus préstamos
+ */
+public record SugerenciaLibro(String texto, CampoLibro campo, long popularidad) {
+}
@@ -0,0 +1,138 @@
+package domain.valueObject;
+
+import java.util.UUID;
+
+/**
+ * Value Object que representa el identificador de un libro.
+ * Un UUID en forma canónica (36 caracteres, hexadecimal en minúsculas) se
+ * guarda como dos long y su texto se genera solo cuando se pide, así cada
+ * libro no retiene un String de 36 caracteres. Cualquier otro texto (ids de
+ * archivos antiguos o escritos a mano) se conserva tal cual, por lo que el
+ * texto entregado siempre es el mismo que se recibió.
+ * Es inmutable y se usa como clave de los repositorios de libros.
+ */
+public final class UuidLibro implements Comparable<UuidLibro> {
+    private static final int LARGO_CANONICO = 36;
+
+    private final long alto;
+    private final long bajo;
+    // Texto original cuando no es un UUID canónico, nulo en el caso normal
+    private final String noCanonico;
+
+    private UuidLibro(long alto, long bajo, String noCanonico) {
+        this.alto = alto;
+        this.bajo = bajo;
+        this.noCanonico = noCanonico;
+    }
+
+    /**
+     * Método factory que crea el identificador a partir de su texto
+     *
+     * @param texto texto del identificador
+     * @return identificador, nulo si el texto es nulo
+     */
+    public static UuidLibro definir(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        if (!esCanonico(texto)) {
+            return new UuidLibro(0, 0, texto);
+        }
+        return new UuidLibro(hexadecimal(texto, 0, 18), hexadecimal(texto, 19, LARGO_CANONICO), null);
+    }
+
+    /**
+     * Método factory que genera un identificador aleatorio (UUID versión 4)
+     *
+     * @return identificador nuevo
+     */
+    public static UuidLibro generar() {
+        UUID uuid = UUID.randomUUID();
+        return new UuidLibro(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), null);
+    }
+
+    /**
+     * Indica si el identificador está vacío o solo tiene espacios
+     *
+     * @return true si está en blanco
+     */
+    public boolean estaEnBlanco() {
+        return noCanonico != null && noCanonico.trim().isEmpty();
+    }
+
+    /**
+     * @return texto del identificador, igual al recibido en definir
+     */
+    @Override
+    public String toString() {
+        return noCanonico != null ? noCanonico : new UUID(alto, bajo).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        UuidLibro otro = (UuidLibro) o;
+        if (noCanonico != null || otro.noCanonico != null) {
+            return noCanonico != null && noCanonico.equals(otro.noCanonico);
+        }
+        return alto == otro.alto && bajo == otro.bajo;
+    }
+
+    /**
+     * Orden total de los identificadores: los canónicos primero en el mismo
+     * orden que su texto, luego los demás por su texto
+     */
+    @Override
+    public int compareTo(UuidLibro otro) {
+        if (noCanonico != null || otro.noCanonico != null) {
+            if (noCanonico == null) {
+                return -1;
+            }
+            return otro.noCanonico == null ? 1 : noCanonico.compareTo(otro.noCanonico);
+        }
+        int comparacion = Long.compareUnsigned(alto, otro.alto);
+        return comparacion != 0 ? comparacion : Long.compareUnsigned(bajo, otro.bajo);
+    }
+
+    @Override
+    public int hashCode() {
+        return noCanonico != null ? noCanonico.hashCode() : Long.hashCode(alto * 31 + bajo);
+    }
+
+    /**
+     * Un texto es canónico si UUID.toString lo entrega igual: guiones en las
+     * posiciones 8, 13, 18 y 23 y dígitos hexadecimales en minúsculas
+     */
+    private static boolean esCanonico(String texto) {
+        if (texto.length() != LARGO_CANONICO) {
+            return false;
+        }
+        for (int i = 0; i < LARGO_CANONICO; i++) {
+            char c = texto.charAt(i);
+            boolean valido = i == 8 || i == 13 || i == 18 || i == 23
+                    ? c == '-'
+                    : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+            if (!valido) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lee los dígitos hexadecimales de un rango ignorando los guiones
+     */
+    private static long hexadecimal(String texto, int desde, int hasta) {
+        long valor = 0;
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c != '-') {
+                valor = (valor << 4) | Character.digit(c, 16);
+            }
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,704 @@
+package infraestructure.indices;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
+import domain.enums.OrdenSugerencia;
+import domain.valueObject.SugerenciaLibro;
+import shared.utils.PlegadorTexto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Autocompletado de títulos y autores mientras se escribe, sin recorrer el
+ * catálogo en cada tecla. Los títulos y autores distintos se guardan plegados
+ * (sin acentos y en minúsculas) en un árbol de prefijos compacto (radix): cada
+ * nodo guarda un tramo de letras y los textos que comparten un prefijo
+ * comparten los nodos. Cada texto se inserta desde el inicio y desde cada
+ * palabra de tres o más letras, así "quij" sugiere "El Quijote".
+ * La popularidad de un texto son sus ejemplares más sus préstamos. Los nodos
+ * con muchas claves debajo guardan sus {@value #MAXIMO_SUGERENCIAS} textos más
+ * populares y se mantienen con cada cambio, los demás se recorren al
+ * consultar (son pocas claves), por lo que una consulta nunca recorre más
+ * de unas decenas de nodos y la memoria extra queda acotada.
+ * Se registra como observador del repositorio de libros. Las consultas toman
+ * el candado de lectura y los avisos el de escritura.
+ */
+public class IndiceAutocompletado implements ObservadorLibro {
+  public static final int MAXIMO_SUGERENCIAS = 10;
+  // Los nodos con más claves debajo guardan sus más populares, los demás se recorren
+  private static final int UMBRAL_MEJORES = 64;
+  // Además del inicio del texto se sugiere desde cada palabra de al menos este largo
+  private static final int LARGO_MINIMO_PALABRA = 3;
+  private static final Nodo[] SIN_HIJOS = new Nodo[0];
+  private static final char[] SIN_PRIMERAS = new char[0];
+  // Más ejemplares y préstamos primero, a igual popularidad alfabético
+  private static final Comparator<Entrada> POR_POPULARIDAD = Comparator
+      .comparingLong(Entrada::popularidad).reversed()
+      .thenComparing(entrada -> entrada.plegado)
+      .thenComparing(entrada -> entrada.campo);
+  private static final Comparator<Entrada> ALFABETICO = Comparator
+      .comparing((Entrada entrada) -> entrada.plegado)
+      .thenComparing(entrada -> entrada.campo);
+
+  private final StampedLock candado = new StampedLock();
+  // texto plegado -> entrada, uno por campo
+  private final HashMap<String, Entrada> titulos = new HashMap<>();
+  private final HashMap<String, Entrada> autores = new HashMap<>();
+  private Nodo raiz = new Nodo("", 0, 0);
+  // Durante la reconstrucción solo se cuentan los textos, el árbol se arma al final
+  private boolean reconstruyendo = false;
+
+  /**
+   * Vuelve a indexar todos los libros del repositorio, se llama al iniciar
+   * antes de registrar el índice como observador. Los libros que ya están
+   * reservados cuentan como un préstamo. Primero se cuentan los textos y
+   * luego se insertan en orden alfabético, así cada entrada queda al final de
+   * las que terminan en su nodo, y los más populares se calculan una vez
+   *
+   * @param libros recorrido de todos los libros del repositorio
+   */
+  public void reconstruir(Stream<Libro> libros) {
+    long sello = candado.writeLock();
+    try {
+      titulos.clear();
+      autores.clear();
+      raiz = new Nodo("", 0, 0);
+      reconstruyendo = true;
+      libros.forEach(this::agregar);
+      reconstruyendo = false;
+
+      List<Entrada> entradas = new ArrayList<>(titulos.size() + autores.size());
+      entradas.addAll(titulos.values());
+      entradas.addAll(autores.values());
+      entradas.sort(ALFABETICO);
+      for (Entrada entrada : entradas) {
+        for (int inicio : inicios(entrada.plegado)) {
+          insertar(entrada, inicio, false);
+        }
+      }
+      calcularTodos(raiz);
+    } finally {
+      reconstruyendo = false;
+      candado.unlockWrite(sello);
+    }
+  }
+
+  /**
+   * Sugiere títulos y autores que tienen una palabra que empieza con el
+   * prefijo (o el texto completo empieza con él)
+   *
+   * @param prefijo lo escrito hasta ahora, sin distinguir acentos ni mayúsculas
+   * @param cantidad cantidad máxima de sugerencias, a lo más {@value #MAXIMO_SUGERENCIAS}
+   * @param orden por popularidad o alfabético
+   * @return sugerencias en el orden pedido
+   */
+  public List<SugerenciaLibro> sugerir(String prefijo, int cantidad, OrdenSugerencia orden) {
+    List<SugerenciaLibro> sugerencias = new ArrayList<>();
+    int limite = Math.min(cantidad, MAXIMO_SUGERENCIAS);
+    if (limite <= 0) {
+      return sugerencias;
+    }
+    String buscado = prefijo == null ? "" : PlegadorTexto.plegar(prefijo.stripLeading());
+
+    long sello = candado.readLock();
+    try {
+      Nodo nodo = ubicar(buscado);
+      if (nodo == null) {
+        return sugerencias;
+      }
+      List<Entrada> elegidas = orden == OrdenSugerencia.ALFABETICO
+          ? primerasEnOrden(nodo, limite)
+          : masPopulares(nodo, limite);
+      for (Entrada entrada : elegidas) {
+        sugerencias.add(new SugerenciaLibro(entrada.texto, entrada.campo, entrada.popularidad()));
+      }
+      return sugerencias;
+    } finally {
+      candado.unlockRead(sello);
+    }
+  }
+
+  @Override
+  public void libroAgregado(Libro libro) {
+    long sello = candado.writeLock();
+    try {
+      agregar(libro);
+    } finally {
+      candado.unlockWrite(sello);
+    }
+  }
+
+  @Override
+  public void libroEliminado(Libro libro) {
+    long sello = candado.writeLock();
+    try {
+      sumar(CampoLibro.TITULO, libro.getTitulo(), -1, 0);
+      sumar(CampoLibro.AUTOR, libro.getAutor(), -1, 0);
+    } finally {
+      candado.unlockWrite(sello);
+    }
+  }
+
+  @Override
+  public void estadoCambiado(Libro libro, EstadoLibro anterior, EstadoLibro nuevo) {
+    if (nuevo != EstadoLibro.RESERVADO) {
+      return;
+    }
+
+    // Cada préstamo suma popularidad al título y al autor
+    long sello = candado.writeLock();
+    try {
+      sumar(CampoLibro.TITULO, libro.getTitulo(), 0, 1);
+      sumar(CampoLibro.AUTOR, libro.getAutor(), 0, 1);
+    } finally {
+      candado.unlockWrite(sello);
+    }
+  }
+
+  @Override
+  public void campoCambiado(Libro libro, CampoLibro campo, String anterior, String nuevo) {
+    if (campo != CampoLibro.TITULO && campo != CampoLibro.AUTOR) {
+      return;
+    }
+
+    // El ejemplar pasa al texto nuevo, los préstamos quedan con el anterior
+    long sello = candado.writeLock();
+    try {
+      sumar(campo, anterior, -1, 0);
+      sumar(campo, nuevo, 1, 0);
+    } finally {
+      candado.unlockWrite(sello);
+    }
+  }
+
+  private void agregar(Libro libro) {
+    int prestamos = libro.getEstado() == EstadoLibro.RESERVADO ? 1 : 0;
+    sumar(CampoLibro.TITULO, libro.getTitulo(), 1, prestamos);
+    sumar(CampoLibro.AUTOR, libro.getAutor(), 1, prestamos);
+  }
+
+  /**
+   * Suma ejemplares y préstamos a un texto. El texto entra al árbol con su
+   * primer ejemplar y sale cuando no le quedan
+   */
+  private void sumar(CampoLibro campo, String texto, int copias, int prestamos) {
+    if (texto == null || texto.isBlank()) {
+      return;
+    }
+    String plegado = PlegadorTexto.plegar(texto.trim());
+    HashMap<String, Entrada> entradas = campo == CampoLibro.TITULO ? titulos : autores;
+    Entrada entrada = entradas.get(plegado);
+
+    if (entrada == null) {
+      // Un aviso de un texto que no está (ejemplar ya quitado) no lo crea
+      if (copias <= 0) {
+        return;
+      }
+      entrada = new Entrada(campo, plegado, texto.trim());
+      entrada.copias = copias;
+      entrada.prestamos = prestamos;
+      entradas.put(plegado, entrada);
+      if (!reconstruyendo) {
+        for (int inicio : inicios(plegado)) {
+          insertar(entrada, inicio, true);
+        }
+      }
+      return;
+    }
+
+    entrada.copias += copias;
+    entrada.prestamos += prestamos;
+    if (reconstruyendo) {
+      return;
+    }
+    if (entrada.copias <= 0) {
+      // Se marca antes de quitar sus claves para que no vuelva a los más populares
+      entrada.eliminada = true;
+      entradas.remove(plegado);
+      for (int inicio : inicios(plegado)) {
+        quitar(entrada, inicio);
+      }
+    } else if (copias < 0) {
+      for (int inicio : inicios(plegado)) {
+        recalcularRuta(ruta(plegado, inicio), entrada);
+      }
+    } else {
+      for (int inicio : inicios(plegado)) {
+        for (Nodo nodo : ruta(plegado, inicio)) {
+          if (nodo.mejores != null) {
+            nodo.ofrecer(entrada);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Inserta la clave del texto desde una posición, partiendo el tramo de un
+   * nodo cuando la clave se separa a la mitad de él
+   *
+   * @param actualizarMejores false si los más populares se calculan después para todo el árbol
+   */
+  private void insertar(Entrada entrada, int inicio, boolean actualizarMejores) {
+    String clave = entrada.plegado;
+    ArrayList<Nodo> ruta = actualizarMejores ? new ArrayList<>() : null;
+    Nodo nodo = raiz;
+    int i = inicio;
+    while (true) {
+      nodo.claves++;
+      if (ruta != null) {
+        ruta.add(nodo);
+      }
+      if (i == clave.length()) {
+        nodo.agregarTerminal(entrada);
+        break;
+      }
+
+      int posicion = nodo.buscarHijo(clave.charAt(i));
+      if (posicion < 0) {
+        Nodo hoja = new Nodo(clave, i, clave.length());
+        hoja.claves = 1;
+        hoja.agregarTerminal(entrada);
+        nodo.insertarHijo(-posicion - 1, hoja);
+        if (ruta != null) {
+          ruta.add(hoja);
+        }
+        break;
+      }
+
+      Nodo hijo = nodo.hijos[posicion];
+      int comun = hijo.prefijoComun(clave, i);
+      if (comun < hijo.largo()) {
+        hijo = hijo.dividir(comun);
+        nodo.hijos[posicion] = hijo;
+      }
+      i += comun;
+      nodo = hijo;
+    }
+
+    if (ruta == null) {
+      return;
+    }
+    // De abajo hacia arriba, así un nodo que pasa el umbral usa los más populares ya listos de sus hijos
+    for (int k = ruta.size() - 1; k >= 0; k--) {
+      Nodo visitado = ruta.get(k);
+      if (visitado.mejores != null) {
+        visitado.ofrecer(entrada);
+      } else if (visitado.claves > UMBRAL_MEJORES) {
+        visitado.mejores = calcularMejores(visitado);
+      }
+    }
+  }
+
+  /**
+   * Quita la clave del texto desde una posición. Los nodos que quedan sin
+   * claves se eliminan y los que quedan con un solo hijo se unen a él
+   */
+  private void quitar(Entrada entrada, int inicio) {
+    List<Nodo> ruta = ruta(entrada.plegado, inicio);
+    ruta.get(ruta.size() - 1).quitarTerminal(entrada);
+    for (Nodo nodo : ruta) {
+      nodo.claves--;
+    }
+
+    for (int k = ruta.size() - 1; k > 0; k--) {
+      Nodo nodo = ruta.get(k);
+      Nodo padre = ruta.get(k - 1);
+      if (nodo.terminales != null || nodo.hijos.length > 1) {
+        break;
+      }
+      if (nodo.hijos.length == 0) {
+        padre.quitarHijo(nodo);
+        ruta.remove(k);
+        continue;
+      }
+      // El tramo del hijo viene del mismo texto que pasó por este nodo, basta con alargarlo hacia atrás
+      Nodo unico = nodo.hijos[0];
+      unico.desde -= nodo.largo();
+      padre.reemplazarHijo(nodo, unico);
+      ruta.remove(k);
+      break;
+    }
+    recalcularRuta(ruta, entrada);
+  }
+
+  /**
+   * Actualiza de abajo hacia arriba los más populares de una ruta después de
+   * que la entrada bajó su popularidad o salió del árbol
+   */
+  private void recalcularRuta(List<Nodo> ruta, Entrada entrada) {
+    for (int k = ruta.size() - 1; k >= 0; k--) {
+      Nodo nodo = ruta.get(k);
+      if (nodo.claves <= UMBRAL_MEJORES) {
+        nodo.mejores = null;
+      } else if (nodo.mejores == null || nodo.contieneMejor(entrada)) {
+        nodo.mejores = calcularMejores(nodo);
+      }
+    }
+  }
+
+  /**
+   * Nodos desde la raíz hasta donde termina la clave del texto desde una posición
+   */
+  private List<Nodo> ruta(String clave, int inicio) {
+    ArrayList<Nodo> ruta = new ArrayList<>();
+    Nodo nodo = raiz;
+    int i = inicio;
+    ruta.add(nodo);
+    while (i < clave.length()) {
+      nodo = nodo.hijos[nodo.buscarHijo(clave.charAt(i))];
+      i += nodo.largo();
+      ruta.add(nodo);
+    }
+    return ruta;
+  }
+
+  /**
+   * Nodo bajo el cual están todas las claves que empiezan con el prefijo
+   *
+   * @return nodo, o nulo si ninguna clave empieza con el prefijo
+   */
+  private Nodo ubicar(String prefijo) {
+    Nodo nodo = raiz;
+    int i = 0;
+    while (i < prefijo.length()) {
+      int posicion = nodo.buscarHijo(prefijo.charAt(i));
+      if (posicion < 0) {
+        return null;
+      }
+      nodo = nodo.hijos[posicion];
+      int comun = nodo.prefijoComun(prefijo, i);
+      if (comun < nodo.largo() && i + comun < prefijo.length()) {
+        return null;
+      }
+      i += comun;
+    }
+    return nodo;
+  }
+
+  private List<Entrada> masPopulares(Nodo nodo, int limite) {
+    if (nodo.mejores != null) {
+      return Arrays.asList(nodo.mejores).subList(0, Math.min(limite, nodo.mejores.length));
+    }
+    List<Entrada> entradas = new ArrayList<>(recolectar(nodo, new LinkedHashSet<>()));
+    entradas.sort(POR_POPULARIDAD);
+    return entradas.subList(0, Math.min(limite, entradas.size()));
+  }
+
+  /**
+   * Recorre el subárbol en orden de letras hasta juntar las entradas pedidas,
+   * un texto que aparece por varias palabras se sugiere una vez
+   */
+  private List<Entrada> primerasEnOrden(Nodo nodo, int limite) {
+    LinkedHashSet<Entrada> elegidas = new LinkedHashSet<>();
+    juntarEnOrden(nodo, limite, elegidas);
+    return new ArrayList<>(elegidas);
+  }
+
+  private void juntarEnOrden(Nodo nodo, int limite, Set<Entrada> elegidas) {
+    for (int i = 0; i < nodo.cantidadTerminales; i++) {
+      if (elegidas.size() == limite) {
+        return;
+      }
+      elegidas.add(nodo.terminales[i]);
+    }
+    for (Nodo hijo : nodo.hijos) {
+      if (elegidas.size() == limite) {
+        return;
+      }
+      juntarEnOrden(hijo, limite, elegidas);
+    }
+  }
+
+  /**
+   * Más populares de un nodo desde sus terminales y los más populares de
+   * cada hijo: un texto que está entre los primeros del nodo también lo está
+   * en el hijo que lo contiene
+   */
+  private Entrada[] calcularMejores(Nodo nodo) {
+    Set<Entrada> candidatas = new HashSet<>();
+    for (int i = 0; i < nodo.cantidadTerminales; i++) {
+      candidatas.add(nodo.terminales[i]);
+    }
+    for (Nodo hijo : nodo.hijos) {
+      if (hijo.mejores != null) {
+        candidatas.addAll(Arrays.asList(hijo.mejores));
+      } else {
+        recolectar(hijo, candidatas);
+      }
+    }
+    candidatas.removeIf(entrada -> entrada.eliminada);
+
+    Entrada[] mejores = candidatas.toArray(new Entrada[0]);
+    Arrays.sort(mejores, POR_POPULARIDAD);
+    return Arrays.copyOf(mejores, Math.min(MAXIMO_SUGERENCIAS, mejores.length));
+  }
+
+  /**
+   * Calcula los más populares de todos los nodos sobre el umbral, de las
+   * hojas hacia la raíz
+   */
+  private void calcularTodos(Nodo nodo) {
+    if (nodo.claves <= UMBRAL_MEJORES) {
+      nodo.mejores = null;
+      return;
+    }
+    for (Nodo hijo : nodo.hijos) {
+      calcularTodos(hijo);
+    }
+    nodo.mejores = calcularMejores(nodo);
+  }
+
+  /**
+   * Junta todas las entradas del subárbol, solo se usa en nodos bajo el umbral
+   */
+  private static Set<Entrada> recolectar(Nodo nodo, Set<Entrada> entradas) {
+    for (int i = 0; i < nodo.cantidadTerminales; i++) {
+      if (!nodo.terminales[i].eliminada) {
+        entradas.add(nodo.terminales[i]);
+      }
+    }
+    for (Nodo hijo : nodo.hijos) {
+      recolectar(hijo, entradas);
+    }
+    return entradas;
+  }
+
+  /**
+   * Posiciones desde las que se inserta un texto: el inicio y cada palabra
+   * de al menos LARGO_MINIMO_PALABRA letras
+   */
+  private static int[] inicios(String plegado) {
+    int[] inicios = new int[plegado.length() + 1];
+    int cantidad = 0;
+    inicios[cantidad++] = 0;
+    for (int i = 1; i < plegado.length(); i++) {
+      if (!Character.isLetterOrDigit(plegado.charAt(i)) || Character.isLetterOrDigit(plegado.charAt(i - 1))) {
+        continue;
+      }
+      int fin = i;
+      while (fin < plegado.length() && Character.isLetterOrDigit(plegado.charAt(fin))) {
+        fin++;
+      }
+      if (fin - i >= LARGO_MINIMO_PALABRA) {
+        inicios[cantidad++] = i;
+      }
+    }
+    return Arrays.copyOf(inicios, cantidad);
+  }
+
+  /**
+   * Título o autor distinto del catálogo
+   */
+  private static final class Entrada {
+    private final CampoLibro campo;
+    private final String plegado;
+    // Texto como lo escribió el primer libro que lo trajo
+    private final String texto;
+    private int copias;
+    private long prestamos;
+    private boolean eliminada;
+
+    private Entrada(CampoLibro campo, String plegado, String texto) {
+      this.campo = campo;
+      this.plegado = plegado;
+      this.texto = texto;
+    }
+
+    private long popularidad() {
+      return copias + prestamos;
+    }
+  }
+
+  /**
+   * Nodo del árbol. Su tramo son las letras fuente[desde, hasta), tomadas del
+   * texto plegado que lo creó sin copiarlas. Los hijos se ordenan por su
+   * primera letra, que se guarda aparte para buscarlos sin leer cada hijo
+   */
+  private static final class Nodo {
+    private final String fuente;
+    private int desde;
+    private final int hasta;
+    private Nodo[] hijos = SIN_HIJOS;
+    private char[] primeras = SIN_PRIMERAS;
+    // Entradas cuya clave termina en este nodo en orden alfabético, nulo si ninguna.
+    // El arreglo crece al doble, solo las primeras cantidadTerminales están en uso
+    private Entrada[] terminales;
+    private int cantidadTerminales;
+    // Claves que terminan en este nodo o debajo
+    private int claves;
+    // Más populares del subárbol de mayor a menor, solo sobre el umbral
+    private Entrada[] mejores;
+
+    private Nodo(String fuente, int desde, int hasta) {
+      this.fuente = fuente;
+      this.desde = desde;
+      this.hasta = hasta;
+    }
+
+    private int largo() {
+      return hasta - desde;
+    }
+
+    private char primera() {
+      return fuente.charAt(desde);
+    }
+
+    /**
+     * @return posición del hijo que empieza con la letra, o -(posición de inserción) - 1
+     */
+    private int buscarHijo(char letra) {
+      int bajo = 0;
+      int alto = primeras.length - 1;
+      while (bajo <= alto) {
+        int medio = (bajo + alto) >>> 1;
+        char otra = primeras[medio];
+        if (otra < letra) {
+          bajo = medio + 1;
+        } else if (otra > letra) {
+          alto = medio - 1;
+        } else {
+          return medio;
+        }
+      }
+      return -bajo - 1;
+    }
+
+    /**
+     * @return cantidad de letras del tramo que coinciden con el texto desde la posición
+     */
+    private int prefijoComun(String texto, int posicion) {
+      int comun = 0;
+      while (comun < largo() && posicion + comun < texto.length()
+          && fuente.charAt(desde + comun) == texto.charAt(posicion + comun)) {
+        comun++;
+      }
+      return comun;
+    }
+
+    /**
+     * Parte el tramo: el nodo nuevo toma las primeras letras y queda como
+     * padre de este, con el mismo subárbol
+     *
+     * @return nodo nuevo que reemplaza a este en su padre
+     */
+    private Nodo dividir(int letras) {
+      Nodo padre = new Nodo(fuente, desde, desde + letras);
+      padre.hijos = new Nodo[] {this};
+      padre.claves = claves;
+      padre.mejores = mejores == null ? null : mejores.clone();
+      desde += letras;
+      padre.primeras = new char[] {primera()};
+      return padre;
+    }
+
+    private void insertarHijo(int posicion, Nodo hijo) {
+      Nodo[] nuevos = new Nodo[hijos.length + 1];
+      System.arraycopy(hijos, 0, nuevos, 0, posicion);
+      nuevos[posicion] = hijo;
+      System.arraycopy(hijos, posicion, nuevos, posicion + 1, hijos.length - posicion);
+      hijos = nuevos;
+
+      char[] nuevas = new char[primeras.length + 1];
+      System.arraycopy(primeras, 0, nuevas, 0, posicion);
+      nuevas[posicion] = hijo.primera();
+      System.arraycopy(primeras, posicion, nuevas, posicion + 1, primeras.length - posicion);
+      primeras = nuevas;
+    }
+
+    private void quitarHijo(Nodo hijo) {
+      int posicion = buscarHijo(hijo.primera());
+      Nodo[] nuevos = new Nodo[hijos.length - 1];
+      System.arraycopy(hijos, 0, nuevos, 0, posicion);
+      System.arraycopy(hijos, posicion + 1, nuevos, posicion, nuevos.length - posicion);
+      hijos = nuevos.length == 0 ? SIN_HIJOS : nuevos;
+
+      char[] nuevas = new char[primeras.length - 1];
+      System.arraycopy(primeras, 0, nuevas, 0, posicion);
+      System.arraycopy(primeras, posicion + 1, nuevas, posicion, nuevas.length - posicion);
+      primeras = nuevas.length == 0 ? SIN_PRIMERAS : nuevas;
+    }
+
+    private void reemplazarHijo(Nodo anterior, Nodo nuevo) {
+      hijos[buscarHijo(anterior.primera())] = nuevo;
+    }
+
+    private void agregarTerminal(Entrada entrada) {
+      if (terminales == null) {
+        terminales = new Entrada[] {entrada};
+        cantidadTerminales = 1;
+        return;
+      }
+      if (cantidadTerminales == terminales.length) {
+        terminales = Arrays.copyOf(terminales, cantidadTerminales * 2);
+      }
+      int posicion = -Arrays.binarySearch(terminales, 0, cantidadTerminales, entrada, ALFABETICO) - 1;
+      System.arraycopy(terminales, posicion, terminales, posicion + 1, cantidadTerminales - posicion);
+      terminales[posicion] = entrada;
+      cantidadTerminales++;
+    }
+
+    private void quitarTerminal(Entrada entrada) {
+      for (int i = 0; i < cantidadTerminales; i++) {
+        if (terminales[i] == entrada) {
+          System.arraycopy(terminales, i + 1, terminales, i, cantidadTerminales - i - 1);
+          terminales[--cantidadTerminales] = null;
+          if (cantidadTerminales == 0) {
+            terminales = null;
+          }
+          return;
+        }
+      }
+    }
+
+    private boolean contieneMejor(Entrada entrada) {
+      for (Entrada mejor : mejores) {
+        if (mejor == entrada) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Ubica una entrada que subió su popularidad o es nueva en el subárbol
+     */
+    private void ofrecer(Entrada entrada) {
+      int posicion = -1;
+      for (int i = 0; i < mejores.length; i++) {
+        if (mejores[i] == entrada) {
+          posicion = i;
+          break;
+        }
+      }
+      if (posicion < 0) {
+        if (mejores.length < MAXIMO_SUGERENCIAS) {
+          mejores = Arrays.copyOf(mejores, mejores.length + 1);
+          posicion = mejores.length - 1;
+        } else if (POR_POPULARIDAD.compare(entrada, mejores[mejores.length - 1]) < 0) {
+          posicion = mejores.length - 1;
+        } else {
+          return;
+        }
+        mejores[posicion] = entrada;
+      }
+      while (posicion > 0 && POR_POPULARIDAD.compare(mejores[posicion], mejores[posicion - 1]) < 0) {
+        Entrada intercambio = mejores[posicion - 1];
+        mejores[posicion - 1] = mejores[posicion];
+        mejores[posicion] = intercambio;
+        posicion--;
+      }
+    }
+  }
+}
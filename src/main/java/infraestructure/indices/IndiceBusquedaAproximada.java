@@ -0,0 +1,655 @@
+package infraestructure.indices;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
+import domain.valueObject.UuidLibro;
+import shared.utils.PlegadorTexto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Búsqueda aproximada por título y autor que tolera errores de tipeo
+ * ("quijte" encuentra "El Quijote", "migel cerbantes" a "Miguel de Cervantes").
+ * Los libros con el mismo título y autor forman un solo documento, y de cada
+ * documento se indexan sus palabras plegadas (sin acentos y en minúsculas).
+ * Cada palabra buscada se compara solo con el vocabulario, que es mucho menor
+ * que el catálogo:
+ * <ol>
+ * <li>candidatos: palabras del vocabulario que comparten suficientes trigramas
+ * (cada error cambia unos pocos, así las que no los comparten no pueden estar
+ * a la distancia permitida);</li>
+ * <li>verificación: distancia de Levenshtein acotada (con intercambio de
+ * letras vecinas), que abandona la comparación en cuanto la fila supera el
+ * máximo de errores;</li>
+ * <li>ranking: se recorren los documentos de la palabra buscada más escasa,
+ * deben contener una candidata de cada palabra, y un montículo de tamaño fijo
+ * guarda los mejores sin ordenar todos los encontrados.</li>
+ * </ol>
+ * Se registra como observador del repositorio de libros. Las búsquedas toman
+ * el candado de lectura y los avisos el de escritura.
+ */
+public class IndiceBusquedaAproximada implements ObservadorLibro {
+  // Palabras de hasta 3 letras deben coincidir exactas, hasta 7 admiten un error y las demás dos
+  private static final int LARGO_MAXIMO_EXACTA = 3;
+  private static final int LARGO_MAXIMO_UN_ERROR = 7;
+  private static final int LONGITUD_TRIGRAMA = IndiceTrigramas.LONGITUD_GRAMA;
+  // Un intercambio de letras vecinas cambia hasta cuatro trigramas, las demás ediciones tres
+  private static final int TRIGRAMAS_POR_ERROR = LONGITUD_TRIGRAMA + 1;
+  private static final char BORDE = ' ';
+  // Las marcas guardan 2 bits por palabra buscada, las palabras siguientes del criterio se ignoran
+  private static final int MAXIMO_PALABRAS_BUSCADAS = Integer.SIZE / 2;
+  private static final Comparator<Resultado> POR_RELEVANCIA = IndiceBusquedaAproximada::compararRelevancia;
+  // Candidatas de la palabra más escasa en el orden en que se recorren: menor distancia y luego menor id
+  private static final Comparator<Map.Entry<Palabra, Integer>> ORDEN_RECORRIDO = Map.Entry
+      .<Palabra, Integer>comparingByValue()
+      .thenComparingInt(candidata -> candidata.getKey().id);
+  // Arreglos por id de palabra que se guardan para reutilizar, los que sobran se descartan
+  private static final int MAXIMO_ARREGLOS_LIBRES = 2 * Runtime.getRuntime().availableProcessors();
+
+  private final StampedLock candado = new StampedLock();
+  // título y autor plegados -> documento
+  private final HashMap<String, Documento> documentos = new HashMap<>();
+  // Documento de cada libro indexado, para moverlo sin depender de sus campos anteriores
+  private final HashMap<UuidLibro, Documento> documentoPorLibro = new HashMap<>();
+  // Vocabulario: palabra plegada -> palabra con sus documentos
+  private final HashMap<String, Palabra> vocabulario = new HashMap<>();
+  // Palabras por id, los ids de las palabras descartadas se reutilizan
+  private final ArrayList<Palabra> palabrasPorId = new ArrayList<>();
+  private final ArrayDeque<Integer> idsLibres = new ArrayDeque<>();
+  // trigrama (con bordes) y largo de la palabra -> ids de las palabras que lo contienen,
+  // separar por largo descarta sin recorrerlas las que no pueden estar a la distancia permitida
+  private final HashMap<String, ListaIds> trigramas = new HashMap<>();
+  // Arreglos indexados por id de palabra (contadores de trigramas y marcas) que las búsquedas toman
+  // y devuelven en cero. Cada búsqueda HTTP corre en un hilo virtual nuevo, con un arreglo por hilo
+  // se asignarían dos del tamaño del vocabulario en cada una
+  private final ArrayBlockingQueue<int[]> arreglosLibres = new ArrayBlockingQueue<>(MAXIMO_ARREGLOS_LIBRES);
+
+  /**
+   * Vuelve a indexar todos los libros del repositorio, se llama al iniciar
+   * antes de registrar el índice como observador
+   *
+   * @param libros recorrido de todos los libros del repositorio
+   */
+  public void reconstruir(Stream<Libro> libros) {
+    long sello = candado.writeLock();
+    try {
+      documentos.clear();
+      documentoPorLibro.clear();
+      vocabulario.clear();
+      palabrasPorId.clear();
+      idsLibres.clear();
+      trigramas.clear();
+    } finally {
+      candado.unlockWrite(sello);
+    }
+    libros.forEach(this::libroAgregado);
+  }
+
+  /**
+   * Busca libros por título y autor tolerando errores de tipeo. Todas las
+   * palabras del criterio deben aparecer (exactas o con pocos errores) en el
+   * título o el autor del libro. Las palabras de hasta tres letras no admiten
+   * errores, si el criterio solo tiene palabras cortas no se busca (la
+   * búsqueda exacta ya las cubre y recorrería casi todo el catálogo)
+   *
+   * @param criterio término de búsqueda
+   * @param limite cantidad máxima de libros
+   * @return libros encontrados, del más al menos parecido
+   */
+  public ArrayList<Libro> buscar(String criterio, int limite) {
+    ArrayList<Libro> encontrados = new ArrayList<>();
+    List<String> buscadas = criterio == null || limite <= 0
+        ? List.of()
+        : separarPalabras(PlegadorTexto.plegar(criterio));
+    if (buscadas.size() > MAXIMO_PALABRAS_BUSCADAS) {
+      buscadas = buscadas.subList(0, MAXIMO_PALABRAS_BUSCADAS);
+    }
+    if (buscadas.stream().allMatch(buscada -> erroresPermitidos(buscada) == 0)) {
+      return encontrados;
+    }
+
+    long sello = candado.readLock();
+    // Por id de palabra, la distancia + 1 a cada palabra buscada (2 bits por palabra, 0 si no es candidata)
+    int[] marcas = tomarArreglo();
+    int[] contadores = tomarArreglo();
+    List<Map<Palabra, Integer>> candidatas = new ArrayList<>(buscadas.size());
+    try {
+      // Por cada palabra buscada, sus candidatas del vocabulario con la distancia
+      for (String buscada : buscadas) {
+        Map<Palabra, Integer> distancias = candidatas(buscada, contadores);
+        if (distancias.isEmpty()) {
+          return encontrados;
+        }
+        candidatas.add(distancias);
+      }
+
+      // La palabra más escasa va primero, sus documentos son los únicos que se recorren
+      candidatas.sort(Comparator.comparingLong(IndiceBusquedaAproximada::cantidadDocumentos));
+      for (int i = 0; i < candidatas.size(); i++) {
+        for (Map.Entry<Palabra, Integer> candidata : candidatas.get(i).entrySet()) {
+          marcas[candidata.getKey().id] |= (candidata.getValue() + 1) << (2 * i);
+        }
+      }
+
+      // Las candidatas de la más escasa se recorren de menor a mayor distancia, cuando los mejores
+      // ya tienen menos errores que la distancia de la candidata sus documentos no pueden entrar
+      List<Map.Entry<Palabra, Integer>> recorridas = new ArrayList<>(candidatas.get(0).entrySet());
+      recorridas.sort(ORDEN_RECORRIDO);
+      PriorityQueue<Resultado> mejores = new PriorityQueue<>(POR_RELEVANCIA.reversed());
+      for (Map.Entry<Palabra, Integer> recorrida : recorridas) {
+        if (mejores.size() == limite && mejores.peek().distancia() < recorrida.getValue()) {
+          break;
+        }
+        Palabra palabra = recorrida.getKey();
+        for (int d = 0; d < palabra.cantidadDocumentos; d++) {
+          Documento documento = palabra.documentos[d];
+          Resultado resultado = puntuar(documento, recorrida, candidatas.size(), marcas);
+          if (resultado == null) {
+            continue;
+          }
+          if (mejores.size() < limite) {
+            mejores.add(resultado);
+          } else if (compararRelevancia(resultado, mejores.peek()) < 0) {
+            mejores.poll();
+            mejores.add(resultado);
+          }
+        }
+      }
+
+      // Cada documento aporta al menos un libro, con "limite" documentos alcanza
+      Resultado[] ordenados = mejores.toArray(new Resultado[0]);
+      Arrays.sort(ordenados, POR_RELEVANCIA);
+      for (Resultado resultado : ordenados) {
+        for (Libro libro : resultado.documento().libros) {
+          if (encontrados.size() == limite) {
+            return encontrados;
+          }
+          encontrados.add(libro);
+        }
+      }
+      return encontrados;
+    } finally {
+      // Las marcas quedan en cero para la próxima búsqueda que tome el arreglo
+      for (Map<Palabra, Integer> distancias : candidatas) {
+        for (Palabra palabra : distancias.keySet()) {
+          marcas[palabra.id] = 0;
+        }
+      }
+      arreglosLibres.offer(marcas);
+      arreglosLibres.offer(contadores);
+      candado.unlockRead(sello);
+    }
+  }
+
+  @Override
+  public void libroAgregado(Libro libro) {
+    long sello = candado.writeLock();
+    try {
+      mover(libro);
+    } finally {
+      candado.unlockWrite(sello);
+    }
+  }
+
+  @Override
+  public void libroEliminado(Libro libro) {
+    long sello = candado.writeLock();
+    try {
+      quitar(libro.getIdentificador());
+    } finally {
+      candado.unlockWrite(sello);
+    }
+  }
+
+  @Override
+  public void estadoCambiado(Libro libro, EstadoLibro anterior, EstadoLibro nuevo) {
+    // El estado no es parte de la búsqueda
+  }
+
+  @Override
+  public void campoCambiado(Libro libro, CampoLibro campo, String anterior, String nuevo) {
+    if (campo != CampoLibro.TITULO && campo != CampoLibro.AUTOR) {
+      return;
+    }
+
+    long sello = candado.writeLock();
+    try {
+      // Si se eliminó en paralelo no se vuelve a indexar
+      if (documentoPorLibro.containsKey(libro.getIdentificador())) {
+        mover(libro);
+      }
+    } finally {
+      candado.unlockWrite(sello);
+    }
+  }
+
+  /**
+   * Deja el libro en el documento de su título y autor actuales
+   */
+  private void mover(Libro libro) {
+    quitar(libro.getIdentificador());
+
+    String titulo = PlegadorTexto.plegar(libro.getTitulo() == null ? "" : libro.getTitulo());
+    String autor = PlegadorTexto.plegar(libro.getAutor() == null ? "" : libro.getAutor());
+    Documento documento = documentos.get(titulo + '\u0000' + autor);
+    if (documento == null) {
+      documento = crearDocumento(titulo, autor);
+    }
+    documento.libros.add(libro);
+    documentoPorLibro.put(libro.getIdentificador(), documento);
+  }
+
+  private void quitar(UuidLibro uuid) {
+    Documento documento = documentoPorLibro.remove(uuid);
+    if (documento == null) {
+      return;
+    }
+    documento.libros.removeIf(libro -> libro.getIdentificador().equals(uuid));
+    if (!documento.libros.isEmpty()) {
+      return;
+    }
+
+    // Sin libros el documento se descarta, y las palabras que solo estaban en él
+    documentos.remove(documento.titulo + '\u0000' + documento.autor);
+    for (int i = 0; i < documento.palabras.length; i++) {
+      Palabra palabra = documento.palabras[i];
+      palabra.quitar(documento, i);
+      if (palabra.cantidadDocumentos == 0) {
+        vocabulario.remove(palabra.texto);
+        for (String trigrama : trigramasDe(palabra.texto)) {
+          String clave = claveTrigrama(trigrama, palabra.texto.length());
+          ListaIds ids = trigramas.get(clave);
+          ids.quitar(palabra.id);
+          if (ids.cantidad == 0) {
+            trigramas.remove(clave);
+          }
+        }
+        palabrasPorId.set(palabra.id, null);
+        idsLibres.push(palabra.id);
+      }
+    }
+  }
+
+  private Documento crearDocumento(String titulo, String autor) {
+    List<String> deTitulo = separarPalabras(titulo);
+    LinkedHashSet<String> todas = new LinkedHashSet<>(deTitulo);
+    todas.addAll(separarPalabras(autor));
+
+    Palabra[] palabras = new Palabra[todas.size()];
+    int i = 0;
+    for (String texto : todas) {
+      Palabra palabra = vocabulario.get(texto);
+      if (palabra == null) {
+        palabra = crearPalabra(texto);
+      }
+      palabras[i++] = palabra;
+    }
+
+    Documento documento = new Documento(titulo, autor, palabras, deTitulo.size());
+    for (int j = 0; j < palabras.length; j++) {
+      palabras[j].agregar(documento, j);
+    }
+    documentos.put(titulo + '\u0000' + autor, documento);
+    return documento;
+  }
+
+  private Palabra crearPalabra(String texto) {
+    Integer libre = idsLibres.poll();
+    Palabra palabra = new Palabra(libre != null ? libre : palabrasPorId.size(), texto);
+    if (libre != null) {
+      palabrasPorId.set(libre, palabra);
+    } else {
+      palabrasPorId.add(palabra);
+    }
+    vocabulario.put(texto, palabra);
+    for (String trigrama : trigramasDe(texto)) {
+      trigramas.computeIfAbsent(claveTrigrama(trigrama, texto.length()), clave -> new ListaIds()).agregar(palabra.id);
+    }
+    return palabra;
+  }
+
+  /**
+   * Palabras del vocabulario a la distancia permitida de la buscada
+   *
+   * @param buscada palabra plegada
+   * @param compartidos contadores por id de palabra, en cero, quedan en cero al terminar
+   * @return palabra del vocabulario -> distancia de edición
+   */
+  private Map<Palabra, Integer> candidatas(String buscada, int[] compartidos) {
+    HashMap<Palabra, Integer> distancias = new HashMap<>();
+    int maximo = erroresPermitidos(buscada);
+    if (maximo == 0) {
+      Palabra exacta = vocabulario.get(buscada);
+      if (exacta != null) {
+        distancias.put(exacta, 0);
+      }
+      return distancias;
+    }
+
+    // Cantidad de trigramas compartidos de cada palabra de largo cercano
+    List<String> propios = trigramasDe(buscada);
+    ListaIds tocadas = new ListaIds();
+    int largoMinimo = Math.max(1, buscada.length() - maximo);
+    for (int largo = largoMinimo; largo <= buscada.length() + maximo; largo++) {
+      for (String trigrama : propios) {
+        ListaIds ids = trigramas.get(claveTrigrama(trigrama, largo));
+        if (ids == null) {
+          continue;
+        }
+        for (int i = 0; i < ids.cantidad; i++) {
+          if (compartidos[ids.ids[i]]++ == 0) {
+            tocadas.agregar(ids.ids[i]);
+          }
+        }
+      }
+    }
+
+    // Cada palabra tiene tantos trigramas como letras, y cada error cambia a lo más
+    // TRIGRAMAS_POR_ERROR de la más larga. Se verifican solo las que comparten el mínimo, y
+    // los contadores quedan en cero para la próxima búsqueda
+    int[][] filas = new int[3][buscada.length() + 1];
+    for (int i = 0; i < tocadas.cantidad; i++) {
+      int id = tocadas.ids[i];
+      Palabra palabra = palabrasPorId.get(id);
+      int minimoCompartidos = Math.max(propios.size(), palabra.texto.length()) - TRIGRAMAS_POR_ERROR * maximo;
+      if (compartidos[id] >= minimoCompartidos) {
+        int distancia = distanciaAcotada(palabra.texto, buscada, maximo, filas);
+        if (distancia <= maximo) {
+          distancias.put(palabra, distancia);
+        }
+      }
+      compartidos[id] = 0;
+    }
+    return distancias;
+  }
+
+  /**
+   * Arreglo indexado por id de palabra con todas sus posiciones en cero. Se
+   * reutiliza uno devuelto por otra búsqueda, si no hay o quedó chico porque
+   * el vocabulario creció se asigna uno nuevo con holgura. Se llama con el
+   * candado tomado, así el vocabulario no crece mientras se usa
+   */
+  private int[] tomarArreglo() {
+    int[] arreglo = arreglosLibres.poll();
+    while (arreglo != null && arreglo.length < palabrasPorId.size()) {
+      arreglo = arreglosLibres.poll();
+    }
+    return arreglo != null ? arreglo : new int[palabrasPorId.size() + palabrasPorId.size() / 2];
+  }
+
+  /**
+   * Verifica que el documento tenga una candidata de cada palabra buscada,
+   * la puntuación es la suma de las menores distancias
+   *
+   * @param documento documento a puntuar
+   * @param recorrida candidata de la palabra más escasa (y su distancia) por la que se llegó al documento
+   * @param buscadas cantidad de palabras buscadas
+   * @param marcas distancia + 1 a cada palabra buscada por id de palabra
+   * @return resultado, o nulo si le falta alguna palabra o ya se puntuó por otra candidata
+   */
+  private static Resultado puntuar(
+      Documento documento, Map.Entry<Palabra, Integer> recorrida, int buscadas, int[] marcas) {
+    int idRecorrida = recorrida.getKey().id;
+    int distanciaRecorrida = recorrida.getValue();
+    int total = 0;
+    int enTitulo = 0;
+    for (int i = 0; i < buscadas; i++) {
+      int menor = Integer.MAX_VALUE;
+      boolean titulo = false;
+      for (int j = 0; j < documento.ids.length; j++) {
+        int marca = (marcas[documento.ids[j]] >>> (2 * i)) & 3;
+        if (marca == 0) {
+          continue;
+        }
+        // Con varias candidatas de la más escasa el documento se puntúa solo desde la primera que
+        // se recorre (ORDEN_RECORRIDO), que ya lo puntuó si es otra y el recorrido no se cortó antes
+        if (i == 0 && documento.ids[j] != idRecorrida && (marca - 1 < distanciaRecorrida
+            || marca - 1 == distanciaRecorrida && documento.ids[j] < idRecorrida)) {
+          return null;
+        }
+        if (marca - 1 < menor) {
+          menor = marca - 1;
+          titulo = j < documento.palabrasTitulo;
+        }
+      }
+      if (menor == Integer.MAX_VALUE) {
+        return null;
+      }
+      total += menor;
+      enTitulo += titulo ? 1 : 0;
+    }
+    return new Resultado(documento, total, enTitulo);
+  }
+
+  /**
+   * Mejor primero: menos errores, más palabras en el título, documento más
+   * corto y luego alfabético por título y autor
+   */
+  private static int compararRelevancia(Resultado a, Resultado b) {
+    int comparacion = Integer.compare(a.distancia(), b.distancia());
+    if (comparacion == 0) {
+      comparacion = Integer.compare(b.enTitulo(), a.enTitulo());
+    }
+    if (comparacion == 0) {
+      comparacion = Integer.compare(a.documento().ids.length, b.documento().ids.length);
+    }
+    if (comparacion == 0) {
+      comparacion = a.documento().titulo.compareTo(b.documento().titulo);
+    }
+    return comparacion != 0 ? comparacion : a.documento().autor.compareTo(b.documento().autor);
+  }
+
+  private static long cantidadDocumentos(Map<Palabra, Integer> candidatas) {
+    long cantidad = 0;
+    for (Palabra palabra : candidatas.keySet()) {
+      cantidad += palabra.cantidadDocumentos;
+    }
+    return cantidad;
+  }
+
+  private static int erroresPermitidos(String palabra) {
+    if (palabra.length() <= LARGO_MAXIMO_EXACTA) {
+      return 0;
+    }
+    return palabra.length() <= LARGO_MAXIMO_UN_ERROR ? 1 : 2;
+  }
+
+  /**
+   * Trigramas de una palabra con un borde a cada lado, así también las
+   * letras de los extremos y las palabras cortas tienen trigramas
+   */
+  private static List<String> trigramasDe(String palabra) {
+    String conBordes = BORDE + palabra + BORDE;
+    List<String> resultado = new ArrayList<>(conBordes.length());
+    for (int i = 0; i + LONGITUD_TRIGRAMA <= conBordes.length(); i++) {
+      resultado.add(conBordes.substring(i, i + LONGITUD_TRIGRAMA));
+    }
+    return resultado;
+  }
+
+  private static String claveTrigrama(String trigrama, int largoPalabra) {
+    return trigrama + (char) largoPalabra;
+  }
+
+  /**
+   * Separa un texto plegado en sus palabras (letras y dígitos), sin repetir
+   */
+  private static List<String> separarPalabras(String texto) {
+    LinkedHashSet<String> palabras = new LinkedHashSet<>();
+    int inicio = -1;
+    for (int i = 0; i <= texto.length(); i++) {
+      boolean letra = i < texto.length() && Character.isLetterOrDigit(texto.charAt(i));
+      if (letra && inicio < 0) {
+        inicio = i;
+      } else if (!letra && inicio >= 0) {
+        palabras.add(texto.substring(inicio, i));
+        inicio = -1;
+      }
+    }
+    return new ArrayList<>(palabras);
+  }
+
+  /**
+   * Distancia de Levenshtein acotada que cuenta como un solo error el
+   * intercambio de dos letras vecinas ("soledda" está a uno de "soledad"),
+   * el error de tipeo más común. Solo calcula la franja de ancho
+   * 2 * maximo + 1 alrededor de la diagonal y se detiene cuando toda la fila
+   * supera el máximo
+   *
+   * @param filas tres arreglos de al menos b.length() + 1, se reutilizan entre llamadas
+   * @return distancia, o maximo + 1 si es mayor que el máximo
+   */
+  private static int distanciaAcotada(String a, String b, int maximo, int[][] filas) {
+    if (Math.abs(a.length() - b.length()) > maximo) {
+      return maximo + 1;
+    }
+
+    int[] antepenultima = filas[0];
+    int[] anterior = filas[1];
+    int[] actual = filas[2];
+    for (int j = 0; j <= b.length(); j++) {
+      anterior[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      int desde = Math.max(1, i - maximo);
+      int hasta = Math.min(b.length(), i + maximo);
+      actual[desde - 1] = desde == 1 ? i : maximo + 1;
+      int menorFila = actual[desde - 1];
+      char letra = a.charAt(i - 1);
+      for (int j = desde; j <= hasta; j++) {
+        int costo = letra == b.charAt(j - 1) ? 0 : 1;
+        int distancia = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+        if (i > 1 && j > 1 && letra == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+          distancia = Math.min(distancia, antepenultima[j - 2] + 1);
+        }
+        actual[j] = distancia;
+        menorFila = Math.min(menorFila, distancia);
+      }
+      if (menorFila > maximo) {
+        return maximo + 1;
+      }
+      // Fuera de la franja la distancia ya supera el máximo
+      if (hasta < b.length()) {
+        actual[hasta + 1] = maximo + 1;
+      }
+      int[] intercambio = antepenultima;
+      antepenultima = anterior;
+      anterior = actual;
+      actual = intercambio;
+    }
+    return Math.min(anterior[b.length()], maximo + 1);
+  }
+
+  /**
+   * Palabra del vocabulario y los documentos que la contienen
+   */
+  private static final class Palabra {
+    private final int id;
+    private final String texto;
+    // Arreglo y no conjunto: las búsquedas lo recorren en orden de memoria
+    private Documento[] documentos = new Documento[1];
+    private int cantidadDocumentos;
+
+    private Palabra(int id, String texto) {
+      this.id = id;
+      this.texto = texto;
+    }
+
+    /**
+     * @param documento documento que contiene la palabra
+     * @param indice posición de la palabra en el documento
+     */
+    private void agregar(Documento documento, int indice) {
+      if (cantidadDocumentos == documentos.length) {
+        documentos = Arrays.copyOf(documentos, cantidadDocumentos * 2);
+      }
+      documento.posiciones[indice] = cantidadDocumentos;
+      documentos[cantidadDocumentos++] = documento;
+    }
+
+    /**
+     * Quita el documento moviendo el último a su lugar, el documento guarda su
+     * posición en cada palabra así no hay que buscarlo
+     */
+    private void quitar(Documento documento, int indice) {
+      int posicion = documento.posiciones[indice];
+      Documento ultimo = documentos[--cantidadDocumentos];
+      documentos[posicion] = ultimo;
+      documentos[cantidadDocumentos] = null;
+      for (int j = 0; j < ultimo.ids.length; j++) {
+        if (ultimo.ids[j] == id) {
+          ultimo.posiciones[j] = posicion;
+        }
+      }
+    }
+  }
+
+  /**
+   * Lista de ids sin encajonar. Quitar es lineal, solo ocurre cuando una
+   * palabra deja de estar en el catálogo
+   */
+  private static final class ListaIds {
+    private int[] ids = new int[4];
+    private int cantidad;
+
+    private void agregar(int id) {
+      if (cantidad == ids.length) {
+        ids = Arrays.copyOf(ids, cantidad * 2);
+      }
+      ids[cantidad++] = id;
+    }
+
+    private void quitar(int id) {
+      for (int i = 0; i < cantidad; i++) {
+        if (ids[i] == id) {
+          ids[i] = ids[--cantidad];
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Libros con un mismo título y autor plegados. Las primeras palabrasTitulo
+   * palabras son del título y las demás solo del autor
+   */
+  private static final class Documento {
+    private final String titulo;
+    private final String autor;
+    private final Palabra[] palabras;
+    // Ids de las palabras, se leen al puntuar sin pasar por cada Palabra
+    private final int[] ids;
+    // Posición del documento en el arreglo de documentos de cada una de sus palabras
+    private final int[] posiciones;
+    private final int palabrasTitulo;
+    private final ArrayList<Libro> libros = new ArrayList<>(1);
+
+    private Documento(String titulo, String autor, Palabra[] palabras, int palabrasTitulo) {
+      this.titulo = titulo;
+      this.autor = autor;
+      this.palabras = palabras;
+      this.ids = new int[palabras.length];
+      this.posiciones = new int[palabras.length];
+      for (int i = 0; i < palabras.length; i++) {
+        this.ids[i] = palabras[i].id;
+      }
+      this.palabrasTitulo = palabrasTitulo;
+    }
+  }
+
+  private record Resultado(Documento documento, int distancia, int enTitulo) {
+  }
+}
@@ -0,0 +1,252 @@
+package infraestructure.indices;
+
+import domain.valueObject.Pagina;
+
+import java.nio.charset.StandardCharsets;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Índice ordenado alfabéticamente según las reglas del español: los acentos
+ * solo desempatan (árbol va junto a arbol, antes que b) y la ñ va entre la n
+ * y la o. Cada entrada guarda la CollationKey de sus campos, calculada una
+ * sola vez al indexar, así comparar dos entradas es comparar sus claves ya
+ * calculadas y no volver a aplicar las reglas del idioma. Se mantiene con cada alta y baja,
+ * por lo que un listado ordenado o una página se leen directo del índice
+ * sin ordenar nada.
+ * Calcular una CollationKey es lo costoso (microsegundos por texto), los
+ * campos marcados como compartidos (pocos valores distintos, como el autor)
+ * la calculan una vez por valor y todas sus entradas usan la misma.
+ * A igual texto según el idioma desempata el texto exacto y luego el id, así
+ * el orden es total y las entradas con los mismos campos quedan juntas.
+ * Es seguro para varios hilos; las operaciones de un mismo id son atómicas y
+ * leen los campos dentro de la operación, por lo que si dos hilos cambian la
+ * misma entrada queda en la posición de sus campos más recientes.
+ *
+ * @param <K> tipo del id de las entradas
+ * @param <V> tipo de los valores indexados
+ */
+public class IndiceColacion<K extends Comparable<K>, V> {
+  private static final Locale ESPANOL = Locale.forLanguageTag("es");
+  private static final char SEPARADOR_CURSOR = '\u0000';
+  // RuleBasedCollator sincroniza getCollationKey, cada hilo usa su propia copia
+  private static final ThreadLocal<Collator> COLADOR =
+      ThreadLocal.withInitial(() -> Collator.getInstance(ESPANOL));
+
+  private final ConcurrentSkipListMap<Clave<K>, V> orden = new ConcurrentSkipListMap<>();
+  private final ConcurrentHashMap<K, Clave<K>> clavePorId = new ConcurrentHashMap<>();
+  // Claves ya calculadas de los valores de campos compartidos
+  private final ConcurrentHashMap<String, CollationKey> clavesCompartidas = new ConcurrentHashMap<>();
+  private final Function<V, String[]> campos;
+  private final boolean[] compartidos;
+  private final Function<String, K> leerId;
+
+  /**
+   * @param campos textos de un valor por los que se ordena, en orden de prioridad
+   * @param compartidos por cada campo, true si tiene pocos valores distintos y su clave se comparte
+   * @param leerId reconstruye un id desde su texto (toString), se usa al leer los cursores
+   */
+  public IndiceColacion(Function<V, String[]> campos, boolean[] compartidos, Function<String, K> leerId) {
+    this.campos = campos;
+    this.compartidos = compartidos.clone();
+    this.leerId = leerId;
+  }
+
+  /**
+   * Indexa un valor, si el id ya estaba se reemplaza su posición
+   *
+   * @param id id de la entrada
+   * @param valor valor a indexar
+   */
+  public void indexar(K id, V valor) {
+    clavePorId.compute(id, (k, anterior) -> mover(anterior, id, valor));
+  }
+
+  /**
+   * Vuelve a calcular la posición de una entrada después de cambiar sus
+   * campos, si el id no está (por ejemplo se eliminó en paralelo) no hace nada
+   *
+   * @param id id de la entrada
+   * @param valor valor indexado
+   */
+  public void reindexar(K id, V valor) {
+    clavePorId.computeIfPresent(id, (k, anterior) -> mover(anterior, id, valor));
+  }
+
+  /**
+   * Quita una entrada del índice
+   *
+   * @param id id de la entrada
+   */
+  public void desindexar(K id) {
+    clavePorId.computeIfPresent(id, (k, anterior) -> {
+      orden.remove(anterior);
+      return null;
+    });
+  }
+
+  /**
+   * Quita todas las entradas
+   */
+  public void limpiar() {
+    clavePorId.clear();
+    orden.clear();
+    clavesCompartidas.clear();
+  }
+
+  /**
+   * @return cantidad de entradas
+   */
+  public int cantidad() {
+    return clavePorId.size();
+  }
+
+  /**
+   * Obtiene una página en orden alfabético. El cursor guarda los campos y el
+   * id de la última entrada, así sigue siendo válido aunque esa entrada se
+   * elimine o cambie antes de pedir la página siguiente
+   *
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite cantidad máxima de entradas
+   * @return página de valores con el cursor de la siguiente
+   */
+  public Pagina<V> obtenerPagina(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    Map<Clave<K>, V> siguientes = cursor == null || cursor.isBlank()
+        ? orden
+        : orden.tailMap(leerCursor(cursor), false);
+    ArrayList<V> pagina = new ArrayList<>(Math.min(limite, 1024));
+    Iterator<Map.Entry<Clave<K>, V>> entradas = siguientes.entrySet().iterator();
+    Clave<K> ultima = null;
+    while (pagina.size() < limite && entradas.hasNext()) {
+      Map.Entry<Clave<K>, V> entrada = entradas.next();
+      pagina.add(entrada.getValue());
+      ultima = entrada.getKey();
+    }
+    return new Pagina<>(pagina, entradas.hasNext() ? escribirCursor(ultima) : null);
+  }
+
+  /**
+   * Obtiene una página con una sola entrada por cada combinación distinta de
+   * campos, la primera en orden. Las entradas con los mismos campos quedan
+   * juntas en el índice, basta con saltar las repetidas consecutivas; el
+   * cursor apunta a la última entrada del último grupo, así la página
+   * siguiente empieza en el grupo que sigue
+   *
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite cantidad máxima de combinaciones distintas
+   * @return página de valores con el cursor de la siguiente
+   */
+  public Pagina<V> obtenerPaginaDistintos(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    Clave<K> desde = cursor == null || cursor.isBlank() ? null : leerCursor(cursor);
+    Map<Clave<K>, V> siguientes = desde == null ? orden : orden.tailMap(desde, false);
+    ArrayList<V> pagina = new ArrayList<>(Math.min(limite, 1024));
+    Iterator<Map.Entry<Clave<K>, V>> entradas = siguientes.entrySet().iterator();
+    String[] grupo = desde == null ? null : desde.textos();
+    Clave<K> ultima = null;
+    while (entradas.hasNext()) {
+      Map.Entry<Clave<K>, V> entrada = entradas.next();
+      if (!Arrays.equals(grupo, entrada.getKey().textos())) {
+        if (pagina.size() == limite) {
+          return new Pagina<>(pagina, escribirCursor(ultima));
+        }
+        pagina.add(entrada.getValue());
+        grupo = entrada.getKey().textos();
+      }
+      ultima = entrada.getKey();
+    }
+    return new Pagina<>(pagina, null);
+  }
+
+  /**
+   * Recorre todas las entradas en orden alfabético sin copiarlas
+   *
+   * @return Stream de los valores en orden
+   */
+  public Stream<V> recorrer() {
+    return orden.values().stream();
+  }
+
+  private Clave<K> mover(Clave<K> anterior, K id, V valor) {
+    if (anterior != null) {
+      orden.remove(anterior);
+    }
+    Clave<K> clave = clave(id, campos.apply(valor));
+    orden.put(clave, valor);
+    return clave;
+  }
+
+  private Clave<K> clave(K id, String[] campos) {
+    Collator colador = COLADOR.get();
+    String[] textos = new String[campos.length];
+    CollationKey[] claves = new CollationKey[campos.length];
+    for (int i = 0; i < campos.length; i++) {
+      textos[i] = campos[i] == null ? "" : campos[i];
+      claves[i] = i < compartidos.length && compartidos[i]
+          ? clavesCompartidas.computeIfAbsent(textos[i], colador::getCollationKey)
+          : colador.getCollationKey(textos[i]);
+    }
+    return new Clave<>(claves, textos, id);
+  }
+
+  private String escribirCursor(Clave<K> clave) {
+    StringBuilder texto = new StringBuilder();
+    for (String campo : clave.textos()) {
+      texto.append(campo).append(SEPARADOR_CURSOR);
+    }
+    texto.append(clave.id());
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(texto.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Clave<K> leerCursor(String cursor) {
+    try {
+      String texto = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+      String[] partes = texto.split(String.valueOf(SEPARADOR_CURSOR), -1);
+      if (partes.length >= 2) {
+        return clave(leerId.apply(partes[partes.length - 1]), Arrays.copyOf(partes, partes.length - 1));
+      }
+    } catch (IllegalArgumentException e) {
+      // Base64 o id mal formado, se informa abajo
+    }
+    throw new IllegalArgumentException("Cursor inválido: " + cursor);
+  }
+
+  /**
+   * Clave de orden: campos según el idioma, luego el texto exacto y luego el id
+   */
+  private record Clave<K extends Comparable<K>>(CollationKey[] claves, String[] textos, K id)
+      implements Comparable<Clave<K>> {
+    @Override
+    public int compareTo(Clave<K> otra) {
+      int campos = Math.min(claves.length, otra.claves.length);
+      for (int i = 0; i < campos; i++) {
+        int comparacion = claves[i].compareTo(otra.claves[i]);
+        if (comparacion != 0) {
+          return comparacion;
+        }
+      }
+      for (int i = 0; i < campos; i++) {
+        int comparacion = textos[i].compareTo(otra.textos[i]);
+        if (comparacion != 0) {
+          return comparacion;
+        }
+      }
+      int largo = Integer.compare(claves.length, otra.claves.length);
+      return largo != 0 ? largo : id.compareTo(otra.id);
+    }
+  }
+}
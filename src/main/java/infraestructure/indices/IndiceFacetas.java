@@ -0,0 +1,185 @@
+package infraestructure.indices;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
+import domain.enums.FacetaLibro;
+import domain.valueObject.ConteoFaceta;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Conteos de libros por faceta (género, editorial, autor y estado) que se
+ * mantienen con cada cambio del repositorio en lugar de recorrer el catálogo.
+ * Cada valor de faceta guarda un contador por estado, así "cuántas novelas
+ * están libres" es una búsqueda en un mapa y una lectura atómica.
+ * Se registra como observador del repositorio de libros; los contadores son
+ * atómicos, por lo que los avisos pueden llegar desde varios hilos a la vez.
+ */
+public class IndiceFacetas implements ObservadorLibro {
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+  private static final FacetaLibro[] FACETAS = FacetaLibro.values();
+  private static final Comparator<ConteoFaceta> POR_CANTIDAD = Comparator
+      .comparingLong(ConteoFaceta::cantidad)
+      .thenComparing(ConteoFaceta::valor, Comparator.reverseOrder());
+
+  // faceta -> valor -> cantidad de libros por estado
+  private final EnumMap<FacetaLibro, ConcurrentHashMap<String, AtomicLongArray>> conteos =
+      new EnumMap<>(FacetaLibro.class);
+
+  public IndiceFacetas() {
+    for (FacetaLibro faceta : FACETAS) {
+      conteos.put(faceta, new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * Vuelve a calcular todos los conteos desde los libros del repositorio, se
+   * llama al iniciar antes de registrar el índice como observador
+   *
+   * @param libros recorrido de todos los libros del repositorio
+   */
+  public void reconstruir(Stream<Libro> libros) {
+    for (ConcurrentHashMap<String, AtomicLongArray> valores : conteos.values()) {
+      valores.clear();
+    }
+    libros.forEach(this::libroAgregado);
+  }
+
+  /**
+   * Cantidad de libros con un valor de faceta
+   *
+   * @param faceta faceta a consultar
+   * @param valor valor de la faceta, por ejemplo "Novela" (en la faceta estado
+   *              sin distinguir mayúsculas, "libre" cuenta los LIBRE)
+   * @param estado estado de los libros a contar, nulo para todos
+   * @return cantidad de libros
+   */
+  public long contar(FacetaLibro faceta, String valor, EstadoLibro estado) {
+    if (faceta == FacetaLibro.ESTADO && valor != null) {
+      // Los valores de la faceta estado son los nombres del enum
+      valor = valor.toUpperCase();
+    }
+    AtomicLongArray porEstado = valor == null ? null : conteos.get(faceta).get(valor);
+    if (porEstado == null) {
+      return 0;
+    }
+    return estado != null ? porEstado.get(estado.ordinal()) : total(porEstado);
+  }
+
+  /**
+   * Valores de una faceta con más libros, ordenados de mayor a menor cantidad
+   * (a igual cantidad por valor)
+   *
+   * @param faceta faceta a listar
+   * @param estado estado de los libros a contar, nulo para todos
+   * @param limite cantidad máxima de valores
+   * @return conteos de los valores con al menos un libro
+   */
+  public List<ConteoFaceta> obtenerMasFrecuentes(FacetaLibro faceta, EstadoLibro estado, int limite) {
+    if (limite <= 0) {
+      return new ArrayList<>();
+    }
+
+    // Montículo de los "limite" mayores, la raíz es el menor de ellos
+    PriorityQueue<ConteoFaceta> mayores = new PriorityQueue<>(POR_CANTIDAD);
+    for (Map.Entry<String, AtomicLongArray> entrada : conteos.get(faceta).entrySet()) {
+      AtomicLongArray porEstado = entrada.getValue();
+      long cantidad = estado != null ? porEstado.get(estado.ordinal()) : total(porEstado);
+      if (cantidad <= 0) {
+        continue;
+      }
+
+      ConteoFaceta conteo = new ConteoFaceta(entrada.getKey(), cantidad);
+      if (mayores.size() < limite) {
+        mayores.add(conteo);
+      } else if (POR_CANTIDAD.compare(conteo, mayores.peek()) > 0) {
+        mayores.poll();
+        mayores.add(conteo);
+      }
+    }
+
+    List<ConteoFaceta> resultado = new ArrayList<>(mayores);
+    resultado.sort(POR_CANTIDAD.reversed());
+    return resultado;
+  }
+
+  @Override
+  public void libroAgregado(Libro libro) {
+    EstadoLibro estado = libro.getEstado();
+    for (FacetaLibro faceta : FACETAS) {
+      sumar(faceta, valor(libro, faceta, estado), estado, 1);
+    }
+  }
+
+  @Override
+  public void libroEliminado(Libro libro) {
+    EstadoLibro estado = libro.getEstado();
+    for (FacetaLibro faceta : FACETAS) {
+      sumar(faceta, valor(libro, faceta, estado), estado, -1);
+    }
+  }
+
+  @Override
+  public void estadoCambiado(Libro libro, EstadoLibro anterior, EstadoLibro nuevo) {
+    for (FacetaLibro faceta : FACETAS) {
+      sumar(faceta, valor(libro, faceta, anterior), anterior, -1);
+      sumar(faceta, valor(libro, faceta, nuevo), nuevo, 1);
+    }
+  }
+
+  @Override
+  public void campoCambiado(Libro libro, CampoLibro campo, String anterior, String nuevo) {
+    FacetaLibro faceta = switch (campo) {
+      case AUTOR -> FacetaLibro.AUTOR;
+      case GENERO -> FacetaLibro.GENERO;
+      case EDITORIAL -> FacetaLibro.EDITORIAL;
+      case TITULO -> null;
+    };
+    if (faceta == null) {
+      return;
+    }
+
+    EstadoLibro estado = libro.getEstado();
+    sumar(faceta, anterior, estado, -1);
+    sumar(faceta, nuevo, estado, 1);
+  }
+
+  private void sumar(FacetaLibro faceta, String valor, EstadoLibro estado, int delta) {
+    if (valor == null) {
+      return;
+    }
+    ConcurrentHashMap<String, AtomicLongArray> valores = conteos.get(faceta);
+    AtomicLongArray porEstado = valores.get(valor);
+    if (porEstado == null) {
+      porEstado = valores.computeIfAbsent(valor, v -> new AtomicLongArray(ESTADOS.length));
+    }
+    porEstado.addAndGet(estado.ordinal(), delta);
+  }
+
+  private static String valor(Libro libro, FacetaLibro faceta, EstadoLibro estado) {
+    return switch (faceta) {
+      case GENERO -> libro.getGenero();
+      case EDITORIAL -> libro.getEditorial();
+      case AUTOR -> libro.getAutor();
+      case ESTADO -> estado.name();
+    };
+  }
+
+  private static long total(AtomicLongArray porEstado) {
+    long total = 0;
+    for (int i = 0; i < porEstado.length(); i++) {
+      total += porEstado.get(i);
+    }
+    return total;
+  }
+}
@@ -0,0 +1,108 @@
+package infraestructure.indices;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
+import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Libros ordenados por título y luego por autor con las reglas del español.
+ * Se registra como observador del repositorio de libros, así los listados
+ * ordenados y el catálogo se leen en orden sin ordenar el catálogo completo
+ * en cada consulta. Si cambia el título o el autor de un libro se mueve a su
+ * nueva posición.
+ */
+public class IndiceTituloAutor implements ObservadorLibro {
+  private final IndiceColacion<UuidLibro, Libro> libros = new IndiceColacion<>(
+      libro -> new String[] {libro.getTitulo(), libro.getAutor()}, new boolean[] {false, true}, UuidLibro::definir);
+
+  /**
+   * Vuelve a indexar todos los libros del repositorio, se llama al iniciar
+   * antes de registrar el índice como observador. Las claves de colación se
+   * calculan en paralelo, el índice admite altas desde varios hilos
+   *
+   * @param libros recorrido de todos los libros del repositorio
+   */
+  public void reconstruir(Stream<Libro> libros) {
+    this.libros.limpiar();
+    libros.parallel().forEach(this::libroAgregado);
+  }
+
+  /**
+   * Página de libros ordenados por título y autor
+   *
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite cantidad máxima de libros
+   * @return página de libros con el cursor de la siguiente
+   */
+  public Pagina<Libro> obtenerPagina(String cursor, int limite) {
+    return libros.obtenerPagina(cursor, limite);
+  }
+
+  /**
+   * Página del catálogo (pares título y autor distintos) en orden
+   *
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite cantidad máxima de entradas
+   * @return página de entradas del catálogo con el cursor de la siguiente
+   */
+  public Pagina<LibroCatalogoEntry> obtenerPaginaCatalogo(String cursor, int limite) {
+    Pagina<Libro> pagina = libros.obtenerPaginaDistintos(cursor, limite);
+    return new Pagina<>(
+        pagina.elementos().stream().map(libro -> new LibroCatalogoEntry(libro.getTitulo(), libro.getAutor())).toList(),
+        pagina.cursorSiguiente());
+  }
+
+  /**
+   * @return Stream de todos los libros ordenados por título y autor
+   */
+  public Stream<Libro> recorrer() {
+    return libros.recorrer();
+  }
+
+  /**
+   * Recorre el catálogo (pares título y autor distintos) en orden. Los libros
+   * con el mismo título y autor quedan juntos en el índice, basta con saltar
+   * los repetidos consecutivos
+   *
+   * @return Stream de las entradas del catálogo ordenadas por título y autor
+   */
+  public Stream<LibroCatalogoEntry> recorrerCatalogo() {
+    LibroCatalogoEntry[] anterior = new LibroCatalogoEntry[1];
+    return libros.recorrer()
+        .map(libro -> new LibroCatalogoEntry(libro.getTitulo(), libro.getAutor()))
+        .filter(entrada -> {
+          boolean repetida = Objects.equals(entrada, anterior[0]);
+          anterior[0] = entrada;
+          return !repetida;
+        });
+  }
+
+  @Override
+  public void libroAgregado(Libro libro) {
+    libros.indexar(libro.getIdentificador(), libro);
+  }
+
+  @Override
+  public void libroEliminado(Libro libro) {
+    libros.desindexar(libro.getIdentificador());
+  }
+
+  @Override
+  public void estadoCambiado(Libro libro, EstadoLibro anterior, EstadoLibro nuevo) {
+    // El estado no cambia la posición en el orden
+  }
+
+  @Override
+  public void campoCambiado(Libro libro, CampoLibro campo, String anterior, String nuevo) {
+    if (campo == CampoLibro.TITULO || campo == CampoLibro.AUTOR) {
+      libros.reindexar(libro.getIdentificador(), libro);
+    }
+  }
+}
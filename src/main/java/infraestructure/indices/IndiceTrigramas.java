@@ -0,0 +1,135 @@
+package infraestructure.indices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice invertido de trigramas para búsquedas por subcadena.
+ * Cada documento (identificado por un id, por ejemplo el UUID de un libro)
+ * registra uno o más campos de texto ya normalizados en minúsculas; por cada
+ * trigrama de esos campos se guarda la lista de documentos que lo contienen.
+ * Una búsqueda intersecta las listas de los trigramas del término y luego
+ * verifica la subcadena sobre los campos guardados, por lo que el resultado
+ * es exactamente el mismo que un String.contains sobre todos los documentos.
+ *
+ * @param <K> tipo del id de los documentos
+ */
+public class IndiceTrigramas<K> {
+  public static final int LONGITUD_GRAMA = 3;
+
+  // trigrama -> ids de los documentos que lo contienen
+  private final HashMap<String, Set<K>> postings = new HashMap<>();
+  // id -> campos indexados (se usan para desindexar y para verificar)
+  private final HashMap<K, String[]> camposIndexados = new HashMap<>();
+
+  /**
+   * Indexa (o reindexa) los campos de un documento
+   *
+   * @param id     id del documento
+   * @param campos campos de texto en minúsculas, pueden ser nulos
+   */
+  public void indexar(K id, String... campos) {
+    desindexar(id);
+
+    String[] copia = Arrays.copyOf(campos, campos.length);
+    camposIndexados.put(id, copia);
+
+    for (String campo : copia) {
+      if (campo == null) {
+        continue;
+      }
+      for (int i = 0; i + LONGITUD_GRAMA <= campo.length(); i++) {
+        postings.computeIfAbsent(campo.substring(i, i + LONGITUD_GRAMA), k -> new HashSet<>()).add(id);
+      }
+    }
+  }
+
+  /**
+   * Quita un documento del índice
+   *
+   * @param id id del documento
+   */
+  public void desindexar(K id) {
+    String[] campos = camposIndexados.remove(id);
+    if (campos == null) {
+      return;
+    }
+
+    for (String campo : campos) {
+      if (campo == null) {
+        continue;
+      }
+      for (int i = 0; i + LONGITUD_GRAMA <= campo.length(); i++) {
+        String trigrama = campo.substring(i, i + LONGITUD_GRAMA);
+        Set<K> ids = postings.get(trigrama);
+        if (ids != null) {
+          ids.remove(id);
+          if (ids.isEmpty()) {
+            postings.remove(trigrama);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Busca los documentos que contienen el término en alguno de sus campos.
+   * Para términos de menos de tres caracteres recorre los campos guardados.
+   *
+   * @param termino término de búsqueda ya normalizado en minúsculas
+   * @return ids de los documentos encontrados
+   */
+  public List<K> buscar(String termino) {
+    List<K> encontrados = new ArrayList<>();
+
+    if (termino.length() < LONGITUD_GRAMA) {
+      for (Map.Entry<K, String[]> entrada : camposIndexados.entrySet()) {
+        if (contiene(entrada.getValue(), termino)) {
+          encontrados.add(entrada.getKey());
+        }
+      }
+      return encontrados;
+    }
+
+    // Obtiene las listas de cada trigrama del término, si alguna no existe no hay resultados
+    List<Set<K>> listas = new ArrayList<>();
+    for (int i = 0; i + LONGITUD_GRAMA <= termino.length(); i++) {
+      Set<K> ids = postings.get(termino.substring(i, i + LONGITUD_GRAMA));
+      if (ids == null) {
+        return encontrados;
+      }
+      listas.add(ids);
+    }
+
+    // Intersecta partiendo de la lista más corta
+    listas.sort(Comparator.comparingInt(Set::size));
+    Set<K> menor = listas.get(0);
+    for (K id : menor) {
+      boolean enTodas = true;
+      for (int i = 1; i < listas.size() && enTodas; i++) {
+        enTodas = listas.get(i).contains(id);
+      }
+
+      // Verifica la subcadena completa, los trigramas solo filtran candidatos
+      if (enTodas && contiene(camposIndexados.get(id), termino)) {
+        encontrados.add(id);
+      }
+    }
+    return encontrados;
+  }
+
+  private boolean contiene(String[] campos, String termino) {
+    for (String campo : campos) {
+      if (campo != null && campo.contains(termino)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
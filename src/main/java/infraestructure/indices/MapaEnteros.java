@@ -0,0 +1,207 @@
+package infraestructure.indices;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Mapa de claves int positivas a valores, con direccionamiento abierto y
+ * sondeo lineal sobre dos arreglos paralelos. No encajona las claves ni crea
+ * un nodo por entrada, por lo que ocupa mucho menos que un HashMap y una
+ * búsqueda no asigna memoria. La clave 0 se usa para marcar casillas libres,
+ * las eliminaciones desplazan hacia atrás las entradas siguientes del mismo
+ * grupo para no dejar marcas de borrado.
+ *
+ * @param <V> tipo de los valores
+ */
+public class MapaEnteros<V> {
+  private static final int CAPACIDAD_INICIAL = 16;
+  // Se duplica la tabla al superar 2/3 de ocupación
+  private static final int NUMERADOR_CARGA = 2;
+  private static final int DENOMINADOR_CARGA = 3;
+
+  private int[] claves;
+  private Object[] valores;
+  private int cantidad;
+  private int umbral;
+
+  public MapaEnteros() {
+    this(CAPACIDAD_INICIAL);
+  }
+
+  /**
+   * @param capacidadEsperada cantidad de entradas que se espera guardar sin redimensionar
+   */
+  public MapaEnteros(int capacidadEsperada) {
+    asignarTabla(capacidadParaEntradas(capacidadEsperada));
+  }
+
+  /**
+   * Obtiene el valor de una clave
+   *
+   * @param clave clave positiva
+   * @return valor o null si no existe
+   */
+  @SuppressWarnings("unchecked")
+  public V obtener(int clave) {
+    validarClave(clave);
+    int mascara = claves.length - 1;
+    for (int i = indiceInicial(clave, mascara); claves[i] != 0; i = (i + 1) & mascara) {
+      if (claves[i] == clave) {
+        return (V) valores[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Guarda o reemplaza el valor de una clave
+   *
+   * @param clave clave positiva
+   * @param valor valor a guardar, no nulo
+   * @return valor anterior o null
+   */
+  @SuppressWarnings("unchecked")
+  public V guardar(int clave, V valor) {
+    validarClave(clave);
+    if (valor == null) {
+      throw new IllegalArgumentException("El valor no puede ser nulo");
+    }
+
+    int mascara = claves.length - 1;
+    int i = indiceInicial(clave, mascara);
+    for (; claves[i] != 0; i = (i + 1) & mascara) {
+      if (claves[i] == clave) {
+        V anterior = (V) valores[i];
+        valores[i] = valor;
+        return anterior;
+      }
+    }
+
+    claves[i] = clave;
+    valores[i] = valor;
+    if (++cantidad > umbral) {
+      redimensionar(claves.length * 2);
+    }
+    return null;
+  }
+
+  /**
+   * Elimina una clave
+   *
+   * @param clave clave positiva
+   * @return valor eliminado o null si no existía
+   */
+  @SuppressWarnings("unchecked")
+  public V eliminar(int clave) {
+    validarClave(clave);
+    int mascara = claves.length - 1;
+    int i = indiceInicial(clave, mascara);
+    while (claves[i] != clave) {
+      if (claves[i] == 0) {
+        return null;
+      }
+      i = (i + 1) & mascara;
+    }
+
+    V eliminado = (V) valores[i];
+    // Desplazamiento hacia atrás: se mueven las entradas que quedarían inalcanzables
+    int libre = i;
+    for (int j = (i + 1) & mascara; claves[j] != 0; j = (j + 1) & mascara) {
+      int ideal = indiceInicial(claves[j], mascara);
+      if (((j - ideal) & mascara) >= ((j - libre) & mascara)) {
+        claves[libre] = claves[j];
+        valores[libre] = valores[j];
+        libre = j;
+      }
+    }
+    claves[libre] = 0;
+    valores[libre] = null;
+    cantidad--;
+    return eliminado;
+  }
+
+  /**
+   * Asegura capacidad para una cantidad de entradas sin redimensionar
+   *
+   * @param entradas cantidad total de entradas esperada
+   */
+  public void asegurarCapacidad(int entradas) {
+    int capacidad = capacidadParaEntradas(entradas);
+    if (capacidad > claves.length) {
+      redimensionar(capacidad);
+    }
+  }
+
+  public int cantidad() {
+    return cantidad;
+  }
+
+  /**
+   * Recorre los valores en el orden de la tabla
+   *
+   * @param accion acción a aplicar a cada valor
+   */
+  @SuppressWarnings("unchecked")
+  public void recorrer(Consumer<? super V> accion) {
+    for (int i = 0; i < claves.length; i++) {
+      if (claves[i] != 0) {
+        accion.accept((V) valores[i]);
+      }
+    }
+  }
+
+  /**
+   * @return lista con todos los valores
+   */
+  public ArrayList<V> valores() {
+    ArrayList<V> lista = new ArrayList<>(cantidad);
+    recorrer(lista::add);
+    return lista;
+  }
+
+  private void redimensionar(int capacidad) {
+    int[] clavesAnteriores = claves;
+    Object[] valoresAnteriores = valores;
+    asignarTabla(capacidad);
+
+    int mascara = claves.length - 1;
+    for (int k = 0; k < clavesAnteriores.length; k++) {
+      int clave = clavesAnteriores[k];
+      if (clave == 0) {
+        continue;
+      }
+      int i = indiceInicial(clave, mascara);
+      while (claves[i] != 0) {
+        i = (i + 1) & mascara;
+      }
+      claves[i] = clave;
+      valores[i] = valoresAnteriores[k];
+    }
+  }
+
+  private void asignarTabla(int capacidad) {
+    claves = new int[capacidad];
+    valores = new Object[capacidad];
+    umbral = (int) ((long) capacidad * NUMERADOR_CARGA / DENOMINADOR_CARGA);
+  }
+
+  private static int capacidadParaEntradas(int entradas) {
+    long minimo = Math.max(CAPACIDAD_INICIAL, (long) entradas * DENOMINADOR_CARGA / NUMERADOR_CARGA + 1);
+    if (minimo > (1 << 30)) {
+      throw new IllegalArgumentException("Demasiadas entradas para el mapa: " + entradas);
+    }
+    return Integer.highestOneBit((int) (minimo - 1)) << 1;
+  }
+
+  private static int indiceInicial(int clave, int mascara) {
+    // Mezcla de bits (constante de Fibonacci) para repartir claves consecutivas
+    int h = clave * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mascara;
+  }
+
+  private static void validarClave(int clave) {
+    if (clave <= 0) {
+      throw new IllegalArgumentException("La clave debe ser positiva: " + clave);
+    }
+  }
+}
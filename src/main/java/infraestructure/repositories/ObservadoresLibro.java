@@ -0,0 +1,53 @@
+package infraestructure.repositories;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Observadores registrados en un repositorio de libros. Cada libro del
+ * repositorio apunta a esta única instancia, así registrar un observador
+ * nuevo no obliga a recorrer los libros.
+ */
+final class ObservadoresLibro implements ObservadorLibro {
+  private final CopyOnWriteArrayList<ObservadorLibro> observadores = new CopyOnWriteArrayList<>();
+
+  void registrar(ObservadorLibro observador) {
+    observadores.add(observador);
+  }
+
+  boolean hayObservadores() {
+    return !observadores.isEmpty();
+  }
+
+  @Override
+  public void libroAgregado(Libro libro) {
+    for (ObservadorLibro observador : observadores) {
+      observador.libroAgregado(libro);
+    }
+  }
+
+  @Override
+  public void libroEliminado(Libro libro) {
+    for (ObservadorLibro observador : observadores) {
+      observador.libroEliminado(libro);
+    }
+  }
+
+  @Override
+  public void estadoCambiado(Libro libro, EstadoLibro anterior, EstadoLibro nuevo) {
+    for (ObservadorLibro observador : observadores) {
+      observador.estadoCambiado(libro, anterior, nuevo);
+    }
+  }
+
+  @Override
+  public void campoCambiado(Libro libro, CampoLibro campo, String anterior, String nuevo) {
+    for (ObservadorLibro observador : observadores) {
+      observador.campoCambiado(libro, campo, anterior, nuevo);
+    }
+  }
+}
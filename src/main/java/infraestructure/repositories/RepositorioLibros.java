@@ -1,14 +1,27 @@
 package infraestructure.repositories;
 
 import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
 import interfaces.infraestructure.IRepositorioLibros;
 
 import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
+import infraestructure.indices.IndiceTrigramas;
+import shared.utils.DiccionarioCadenas;
+import shared.utils.PlegadorTexto;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -19,42 +32,71 @@ import java.util.stream.Collectors;
  * para uso de otros repositorios como BBDD, caché, etc.
  */
 public class RepositorioLibros implements IRepositorioLibros {
-  private final ArrayList<Libro> libros = new ArrayList<>();
+  // Libros por número de inserción, el orden de los listados y la clave de los cursores
+  private final TreeMap<Long, Libro> libros = new TreeMap<>();
+  // Índice primario: número de inserción de cada UUID
+  private final HashMap<UuidLibro, Long> secuencias = new HashMap<>();
+  private long ultimaSecuencia = 0;
+  // Índice de trigramas sobre título, autor y editorial plegados (sin acentos, en minúsculas)
+  private final IndiceTrigramas<UuidLibro> indiceTrigramas = new IndiceTrigramas<>();
+  // Autor y editorial plegados se repiten igual que los originales
+  private final DiccionarioCadenas plegados = new DiccionarioCadenas();
+  // Libros cuyos campos de búsqueda cambiaron con un setter y aún no se reindexan.
+  // Los setters no toman el candado del repositorio, el índice se actualiza en la
+  // próxima escritura y mientras tanto las búsquedas verifican estos libros directamente
+  private final Set<UuidLibro> pendientesDeIndexar = ConcurrentHashMap.newKeySet();
+  // Cada libro del repositorio avisa sus cambios a estos observadores
+  private final ObservadoresLibro observadores = new ObservadoresLibro();
+
+  public RepositorioLibros() {
+    observadores.registrar(new CamposDeBusqueda());
+  }
 
   @Override
-  public ArrayList<Libro> buscarLibros(String criterio) {
-    Set<Libro> librosEncontradosSet = new HashSet<>(); // Usa Set para evitar duplicados
+  public ArrayList<Libro> buscarLibros(String criterio, int limite) {
+    Pagina.validarLimite(limite);
+    ArrayList<Libro> librosEncontrados = new ArrayList<>();
 
     // Si no hay criterio o está vacío retorna el array vacío
     if (criterio == null || criterio.trim().isEmpty()) {
-      return new ArrayList<>(librosEncontradosSet);
+      return librosEncontrados;
     }
 
-    String terminoBusqueda = criterio.trim().toLowerCase();
+    // El término se pliega igual que los campos indexados
+    String terminoBusqueda = PlegadorTexto.plegar(criterio.trim());
+    if (terminoBusqueda.isEmpty()) {
+      return librosEncontrados;
+    }
 
-    for (Libro libro : libros) {
-      if (libro != null) {
-        boolean matched = false;
-        if (libro.getTitulo() != null && libro.getTitulo().toLowerCase().contains(terminoBusqueda)) {
-          matched = true;
-        }
-        if (!matched && libro.getAutor() != null && libro.getAutor().toLowerCase().contains(terminoBusqueda)) {
-          matched = true;
-        }
-        if (!matched && libro.getEditorial() != null && libro.getEditorial().toLowerCase().contains(terminoBusqueda)) {
-          matched = true;
-        }
-        if (matched) {
-          librosEncontradosSet.add(libro);
-        }
+    // Copia de los pendientes para que un setter concurrente no duplique un resultado
+    Set<UuidLibro> pendientes = pendientesDeIndexar.isEmpty() ? Set.of() : Set.copyOf(pendientesDeIndexar);
+
+    // El índice ya verifica la subcadena en título, autor o editorial
+    for (UuidLibro uuid : indiceTrigramas.buscar(terminoBusqueda)) {
+      if (librosEncontrados.size() >= limite) {
+        return librosEncontrados;
+      }
+      if (!pendientes.contains(uuid)) {
+        librosEncontrados.add(libros.get(secuencias.get(uuid)));
+      }
+    }
+
+    // Los libros modificados después de indexarse se verifican con sus campos actuales
+    for (UuidLibro uuid : pendientes) {
+      if (librosEncontrados.size() >= limite) {
+        break;
+      }
+      Long secuencia = secuencias.get(uuid);
+      if (secuencia != null && coincide(libros.get(secuencia), terminoBusqueda)) {
+        librosEncontrados.add(libros.get(secuencia));
       }
     }
-    return new ArrayList<>(librosEncontradosSet);
+    return librosEncontrados;
   }
 
   @Override
   public void agregarLibro(Libro libro) {
-    if (libro == null || libro.getUuid() == null || libro.getUuid().trim().isEmpty()) {
+    if (libro == null || libro.getIdentificador() == null || libro.getIdentificador().estaEnBlanco()) {
       throw new IllegalArgumentException("El libro y su UUID no pueden ser nulos o vacíos");
     }
 
@@ -62,23 +104,56 @@ public class RepositorioLibros implements IRepositorioLibros {
       throw new IllegalArgumentException("El título del libro no puede ser nulo o vacío");
     }
 
-    for (int i = 0; i < libros.size(); i++) {
-      if (libros.get(i).getUuid().equals(libro.getUuid())) {
-        libros.set(i, libro);
-        return;
+    indexarPendientes();
+
+    // Si el UUID ya existe se reemplaza el libro conservando su posición original
+    Long secuencia = secuencias.get(libro.getIdentificador());
+    if (secuencia == null) {
+      secuencia = ++ultimaSecuencia;
+      secuencias.put(libro.getIdentificador(), secuencia);
+    }
+    Libro anterior = libros.put(secuencia, libro);
+    indexarLibro(libro);
+
+    // Con el monitor del libro un setter o cambio de estado concurrente avisa antes
+    // del alta o después de la baja, nunca entre medio, y los conteos no se desfasan
+    if (anterior != null) {
+      synchronized (anterior) {
+        anterior.setObservador(null);
+        observadores.libroEliminado(anterior);
       }
     }
-    libros.add(libro);
+    synchronized (libro) {
+      libro.setObservador(observadores);
+      observadores.libroAgregado(libro);
+    }
+  }
+
+  @Override
+  public void agregarLibros(List<Libro> libros) {
+    for (Libro libro : libros) {
+      agregarLibro(libro);
+    }
   }
 
   @Override
   public void eliminarLibro(Libro libro) {
-    if (libro == null || libro.getUuid() == null) {
+    if (libro == null || libro.getIdentificador() == null) {
       return;
     }
 
+    indexarPendientes();
+
     // Eliminar usando el UUID como clave
-    libros.removeIf(l -> l.getUuid().equals(libro.getUuid()));
+    Long secuencia = secuencias.remove(libro.getIdentificador());
+    if (secuencia != null) {
+      Libro eliminado = libros.remove(secuencia);
+      indiceTrigramas.desindexar(libro.getIdentificador());
+      synchronized (eliminado) {
+        eliminado.setObservador(null);
+        observadores.libroEliminado(eliminado);
+      }
+    }
   }
 
   @Override
@@ -87,21 +162,113 @@ public class RepositorioLibros implements IRepositorioLibros {
       return Optional.empty();
     }
 
-    String trimmedId = id.trim();
-    return libros.stream()
-        .filter(libro -> libro.getUuid().equals(trimmedId))
-        .findFirst();
+    return buscarLibroPorIdentificador(UuidLibro.definir(id.trim()));
+  }
+
+  @Override
+  public Optional<Libro> buscarLibroPorIdentificador(UuidLibro uuid) {
+    Long secuencia = uuid == null ? null : secuencias.get(uuid);
+    return secuencia == null ? Optional.empty() : Optional.of(libros.get(secuencia));
   }
 
   @Override
   public ArrayList<Libro> obtenerTodosLosLibros() {
-    return new ArrayList<>(libros);
+    return new ArrayList<>(libros.values());
+  }
+
+  @Override
+  public Pagina<Libro> obtenerPaginaLibros(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    // Los números de inserción no se reutilizan, el cursor es el del último libro entregado
+    ArrayList<Libro> pagina = new ArrayList<>(Math.min(limite, libros.size()));
+    Iterator<Map.Entry<Long, Libro>> siguientes =
+        libros.tailMap(Pagina.leerCursor(cursor), false).entrySet().iterator();
+    long ultima = 0;
+    while (pagina.size() < limite && siguientes.hasNext()) {
+      Map.Entry<Long, Libro> entrada = siguientes.next();
+      pagina.add(entrada.getValue());
+      ultima = entrada.getKey();
+    }
+    return new Pagina<>(pagina, siguientes.hasNext() ? Long.toString(ultima) : null);
   }
 
   @Override
   public Set<LibroCatalogoEntry> obtenerCatalogoLibros() {
-    return libros.stream()
+    return libros.values().stream()
         .map(libro -> new LibroCatalogoEntry(libro.getTitulo(), libro.getAutor()))
         .collect(Collectors.toSet());
   }
+
+  @Override
+  public void registrarObservador(ObservadorLibro observador) {
+    observadores.registrar(observador);
+  }
+
+  /**
+   * Indexa los campos de búsqueda del libro plegados (sin acentos y en
+   * minúsculas), se calculan una sola vez por libro y no en cada búsqueda
+   * @param libro libro a indexar
+   */
+  private void indexarLibro(Libro libro) {
+    indiceTrigramas.indexar(libro.getIdentificador(),
+        PlegadorTexto.plegar(libro.getTitulo()),
+        plegados.internar(PlegadorTexto.plegar(libro.getAutor())),
+        plegados.internar(PlegadorTexto.plegar(libro.getEditorial())));
+  }
+
+  /**
+   * Reindexa los libros modificados con setters, se llama en las escrituras
+   * que ya tienen acceso exclusivo al índice
+   */
+  private void indexarPendientes() {
+    if (pendientesDeIndexar.isEmpty()) {
+      return;
+    }
+    for (UuidLibro uuid : pendientesDeIndexar) {
+      // Se quita antes de leer los campos, un cambio posterior lo vuelve a marcar
+      pendientesDeIndexar.remove(uuid);
+      Long secuencia = secuencias.get(uuid);
+      if (secuencia != null) {
+        indexarLibro(libros.get(secuencia));
+      }
+    }
+  }
+
+  private static boolean coincide(Libro libro, String termino) {
+    return contiene(libro.getTitulo(), termino)
+        || contiene(libro.getAutor(), termino)
+        || contiene(libro.getEditorial(), termino);
+  }
+
+  private static boolean contiene(String campo, String termino) {
+    return campo != null && PlegadorTexto.plegar(campo).contains(termino);
+  }
+
+  /**
+   * Marca para reindexar los libros cuyo título, autor o editorial cambian
+   */
+  private final class CamposDeBusqueda implements ObservadorLibro {
+    @Override
+    public void libroAgregado(Libro libro) {
+      // agregarLibro ya indexa el libro
+    }
+
+    @Override
+    public void libroEliminado(Libro libro) {
+      // eliminarLibro ya lo quita del índice
+    }
+
+    @Override
+    public void estadoCambiado(Libro libro, EstadoLibro anterior, EstadoLibro nuevo) {
+      // El estado no es parte de la búsqueda
+    }
+
+    @Override
+    public void campoCambiado(Libro libro, CampoLibro campo, String anterior, String nuevo) {
+      if (campo != CampoLibro.GENERO) {
+        pendientesDeIndexar.add(libro.getIdentificador());
+      }
+    }
+  }
 }
@@ -0,0 +1,551 @@
+package infraestructure.repositories;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.enums.CampoLibro;
+import domain.enums.EstadoLibro;
+import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
+import interfaces.infraestructure.IRepositorioLibros;
+import shared.utils.PlegadorTexto;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implementación de IRepositorioLibros que guarda el catálogo por columnas
+ * (struct-of-arrays) en lugar de un objeto Libro por fila:
+ * - estado: un byte por libro
+ * - autor, género y editorial: id de diccionario (int) por libro
+ * - título: bytes UTF-8 empaquetados en páginas, una copia original y otra
+ *   plegada (sin acentos, en minúsculas) para las búsquedas
+ * Las filas se agrupan en bloques de tamaño fijo que nunca se mueven, así que
+ * un recorrido completo es una pasada lineal sobre arreglos primitivos y una
+ * búsqueda por autor o editorial compara cada valor distinto una sola vez.
+ * Hacia el resto del sistema entrega vistas Libro que leen y escriben las
+ * columnas, por lo que reservar o devolver una vista cambia el catálogo.
+ * Igual que RepositorioLibros mantiene el orden de inserción y no es seguro
+ * para varios hilos por sí solo (se envuelve en RepositorioLibrosConcurrente),
+ * salvo las vistas: el estado de cada libro se cambia con compare-and-set y
+ * los demás campos se publican con release/acquire, así quien lee una fila
+ * mientras una vista la cambia ve el valor anterior o el nuevo completo.
+ * Los títulos solo se agregan: cada cambio de título (setTitulo o un
+ * reemplazo con otro título) deja sus dos copias anteriores sin uso hasta
+ * que el repositorio se vuelve a cargar desde los CSV.
+ */
+public class RepositorioLibrosColumnar implements IRepositorioLibros {
+  private static final int BITS_BLOQUE = 12;
+  private static final int FILAS_POR_BLOQUE = 1 << BITS_BLOQUE;
+  private static final int TAMANO_PAGINA = 1 << 16;
+  private static final int SIN_VALOR = -1;
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+  private static final VarHandle ESTADO = MethodHandles.arrayElementVarHandle(byte[].class);
+  // Las vistas escriben las columnas con el monitor del bloque y se leen sin candado,
+  // cada posición de título e id de diccionario se publica con release y se lee con acquire
+  private static final VarHandle POSICION = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final VarHandle ID = MethodHandles.arrayElementVarHandle(int[].class);
+
+  private Bloque[] bloques = new Bloque[16];
+  private int filas = 0;
+  // Índice primario uuid -> fila
+  private final HashMap<UuidLibro, Integer> filaPorUuid = new HashMap<>();
+
+  private final ColumnaDiccionario autores = new ColumnaDiccionario();
+  private final ColumnaDiccionario generos = new ColumnaDiccionario();
+  private final ColumnaDiccionario editoriales = new ColumnaDiccionario();
+  private final ColumnaTextos titulos = new ColumnaTextos();
+  // Las vistas avisan sus cambios a estos observadores
+  private final ObservadoresLibro observadores = new ObservadoresLibro();
+
+  @Override
+  public ArrayList<Libro> buscarLibros(String criterio, int limite) {
+    Pagina.validarLimite(limite);
+    ArrayList<Libro> librosEncontrados = new ArrayList<>();
+
+    // Si no hay criterio o está vacío retorna el array vacío
+    if (criterio == null || criterio.trim().isEmpty()) {
+      return librosEncontrados;
+    }
+
+    // El término se pliega igual que los títulos y valores de diccionario guardados
+    String terminoBusqueda = PlegadorTexto.plegar(criterio.trim());
+    if (terminoBusqueda.isEmpty()) {
+      return librosEncontrados;
+    }
+    byte[] termino = terminoBusqueda.getBytes(StandardCharsets.UTF_8);
+
+    // Autor y editorial se comparan una vez por valor distinto, no por libro
+    boolean[] autorCoincide = autores.coincidencias(terminoBusqueda);
+    boolean[] editorialCoincide = editoriales.coincidencias(terminoBusqueda);
+
+    for (int fila = 0; fila < filas && librosEncontrados.size() < limite; fila++) {
+      Bloque bloque = bloques[fila >>> BITS_BLOQUE];
+      int i = fila & (FILAS_POR_BLOQUE - 1);
+      if (bloque.eliminados[i]) {
+        continue;
+      }
+      if (coincide(autorCoincide, autores, leerId(bloque.autores, i), terminoBusqueda)
+          || coincide(editorialCoincide, editoriales, leerId(bloque.editoriales, i), terminoBusqueda)
+          || titulos.contiene(leerPosicion(bloque.titulosPlegados, i), termino)) {
+        librosEncontrados.add(new LibroVista(bloque, i));
+      }
+    }
+    return librosEncontrados;
+  }
+
+  @Override
+  public void agregarLibro(Libro libro) {
+    if (libro == null || libro.getIdentificador() == null || libro.getIdentificador().estaEnBlanco()) {
+      throw new IllegalArgumentException("El libro y su UUID no pueden ser nulos o vacíos");
+    }
+
+    if (libro.getTitulo() == null || libro.getTitulo().trim().isEmpty()) {
+      throw new IllegalArgumentException("El título del libro no puede ser nulo o vacío");
+    }
+
+    // Si el UUID ya existe se reemplaza la fila conservando su posición original,
+    // el título solo se vuelve a escribir si cambió
+    Integer existente = filaPorUuid.get(libro.getIdentificador());
+    int fila = existente != null ? existente : nuevaFila(libro.getIdentificador());
+    Bloque bloque = bloques[fila >>> BITS_BLOQUE];
+    int i = fila & (FILAS_POR_BLOQUE - 1);
+    // Con el monitor del bloque una vista de la misma fila no avisa cambios entre la baja y el alta
+    synchronized (bloque) {
+      if (existente != null && observadores.hayObservadores()) {
+        observadores.libroEliminado(new LibroVista(bloque, i));
+      }
+
+      ID.setRelease(bloque.autores, i, autores.id(libro.getAutor()));
+      ID.setRelease(bloque.generos, i, generos.id(libro.getGenero()));
+      ID.setRelease(bloque.editoriales, i, editoriales.id(libro.getEditorial()));
+      if (existente == null || !titulos.igual(leerPosicion(bloque.titulos, i), libro.getTitulo())) {
+        escribirTitulo(bloque, i, libro.getTitulo());
+      }
+      ESTADO.setVolatile(bloque.estados, i, (byte) libro.getEstado().ordinal());
+
+      if (observadores.hayObservadores()) {
+        observadores.libroAgregado(new LibroVista(bloque, i));
+      }
+    }
+  }
+
+  @Override
+  public void agregarLibros(List<Libro> libros) {
+    for (Libro libro : libros) {
+      agregarLibro(libro);
+    }
+  }
+
+  @Override
+  public void eliminarLibro(Libro libro) {
+    if (libro == null || libro.getIdentificador() == null) {
+      return;
+    }
+
+    // La fila queda marcada como eliminada, su posición no se reutiliza
+    Integer fila = filaPorUuid.remove(libro.getIdentificador());
+    if (fila != null) {
+      Bloque bloque = bloques[fila >>> BITS_BLOQUE];
+      int i = fila & (FILAS_POR_BLOQUE - 1);
+      // Las vistas revisan la marca con el monitor del bloque antes de avisar un cambio
+      synchronized (bloque) {
+        bloque.eliminados[i] = true;
+        observadores.libroEliminado(new LibroVista(bloque, i));
+      }
+    }
+  }
+
+  @Override
+  public Optional<Libro> buscarLibroPorId(String id) {
+    if (id == null || id.trim().isEmpty()) {
+      return Optional.empty();
+    }
+
+    return buscarLibroPorIdentificador(UuidLibro.definir(id.trim()));
+  }
+
+  @Override
+  public Optional<Libro> buscarLibroPorIdentificador(UuidLibro uuid) {
+    Integer fila = uuid == null ? null : filaPorUuid.get(uuid);
+    if (fila == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new LibroVista(bloques[fila >>> BITS_BLOQUE], fila & (FILAS_POR_BLOQUE - 1)));
+  }
+
+  @Override
+  public ArrayList<Libro> obtenerTodosLosLibros() {
+    ArrayList<Libro> libros = new ArrayList<>(filaPorUuid.size());
+    for (int fila = 0; fila < filas; fila++) {
+      Bloque bloque = bloques[fila >>> BITS_BLOQUE];
+      int i = fila & (FILAS_POR_BLOQUE - 1);
+      if (!bloque.eliminados[i]) {
+        libros.add(new LibroVista(bloque, i));
+      }
+    }
+    return libros;
+  }
+
+  @Override
+  public Pagina<Libro> obtenerPaginaLibros(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    // Las filas no se mueven ni se reutilizan, el cursor es la fila del último libro entregado
+    ArrayList<Libro> pagina = new ArrayList<>(Math.min(limite, filaPorUuid.size()));
+    int ultima = SIN_VALOR;
+    for (int fila = (int) Math.min(Pagina.leerCursor(cursor) + 1, filas); fila < filas; fila++) {
+      Bloque bloque = bloques[fila >>> BITS_BLOQUE];
+      int i = fila & (FILAS_POR_BLOQUE - 1);
+      if (bloque.eliminados[i]) {
+        continue;
+      }
+      if (pagina.size() == limite) {
+        return new Pagina<>(pagina, Integer.toString(ultima));
+      }
+      pagina.add(new LibroVista(bloque, i));
+      ultima = fila;
+    }
+    return new Pagina<>(pagina, null);
+  }
+
+  @Override
+  public Set<LibroCatalogoEntry> obtenerCatalogoLibros() {
+    Set<LibroCatalogoEntry> catalogo = new HashSet<>();
+    for (int fila = 0; fila < filas; fila++) {
+      Bloque bloque = bloques[fila >>> BITS_BLOQUE];
+      int i = fila & (FILAS_POR_BLOQUE - 1);
+      if (!bloque.eliminados[i]) {
+        catalogo.add(new LibroCatalogoEntry(
+            titulos.leer(leerPosicion(bloque.titulos, i)), autores.valor(leerId(bloque.autores, i))));
+      }
+    }
+    return catalogo;
+  }
+
+  @Override
+  public void registrarObservador(ObservadorLibro observador) {
+    observadores.registrar(observador);
+  }
+
+  private int nuevaFila(UuidLibro uuid) {
+    int fila = filas;
+    int indiceBloque = fila >>> BITS_BLOQUE;
+    if (indiceBloque == bloques.length) {
+      bloques = Arrays.copyOf(bloques, bloques.length * 2);
+    }
+    if (bloques[indiceBloque] == null) {
+      bloques[indiceBloque] = new Bloque();
+    }
+
+    bloques[indiceBloque].uuids[fila & (FILAS_POR_BLOQUE - 1)] = uuid;
+    filaPorUuid.put(uuid, fila);
+    filas++;
+    return fila;
+  }
+
+  private void escribirTitulo(Bloque bloque, int i, String titulo) {
+    // Los bytes ya están en la página cuando se publica la posición
+    POSICION.setRelease(bloque.titulos, i, titulos.agregar(titulo.getBytes(StandardCharsets.UTF_8)));
+    POSICION.setRelease(bloque.titulosPlegados, i,
+        titulos.agregar(PlegadorTexto.plegar(titulo).getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static long leerPosicion(long[] columna, int i) {
+    return (long) POSICION.getAcquire(columna, i);
+  }
+
+  private static int leerId(int[] columna, int i) {
+    return (int) ID.getAcquire(columna, i);
+  }
+
+  private static boolean coincide(boolean[] coincidencias, ColumnaDiccionario diccionario, int id, String termino) {
+    if (id == SIN_VALOR) {
+      return false;
+    }
+    // Un valor que una vista agregó después de calcular las coincidencias se compara aparte
+    return id < coincidencias.length ? coincidencias[id] : diccionario.coincide(id, termino);
+  }
+
+  /**
+   * Bloque de filas con una columna por campo, su tamaño es fijo para que las
+   * vistas entregadas sigan apuntando a los mismos arreglos
+   */
+  private static final class Bloque {
+    final UuidLibro[] uuids = new UuidLibro[FILAS_POR_BLOQUE];
+    final byte[] estados = new byte[FILAS_POR_BLOQUE];
+    final boolean[] eliminados = new boolean[FILAS_POR_BLOQUE];
+    final int[] autores = new int[FILAS_POR_BLOQUE];
+    final int[] generos = new int[FILAS_POR_BLOQUE];
+    final int[] editoriales = new int[FILAS_POR_BLOQUE];
+    // Posición en la columna de títulos: página en los 32 bits altos, desplazamiento en los bajos
+    final long[] titulos = new long[FILAS_POR_BLOQUE];
+    final long[] titulosPlegados = new long[FILAS_POR_BLOQUE];
+  }
+
+  /**
+   * Columna codificada por diccionario: cada valor distinto recibe un id y
+   * las filas guardan solo el id
+   */
+  private static final class ColumnaDiccionario {
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private volatile String[] valores = new String[64];
+    // Valores plegados (sin acentos, en minúsculas) por id, se calculan una vez para las búsquedas
+    private String[] plegados = new String[64];
+    private int cantidad = 0;
+
+    synchronized int id(String valor) {
+      if (valor == null) {
+        return SIN_VALOR;
+      }
+
+      Integer id = ids.get(valor);
+      if (id != null) {
+        return id;
+      }
+      String[] actuales = valores;
+      if (cantidad == actuales.length) {
+        actuales = Arrays.copyOf(actuales, actuales.length * 2);
+      }
+      actuales[cantidad] = valor;
+      valores = actuales;
+      if (cantidad == plegados.length) {
+        plegados = Arrays.copyOf(plegados, plegados.length * 2);
+      }
+      plegados[cantidad] = PlegadorTexto.plegar(valor);
+      ids.put(valor, cantidad);
+      return cantidad++;
+    }
+
+    String valor(int id) {
+      return id == SIN_VALOR ? null : valores[id];
+    }
+
+    /**
+     * @return por cada id, si el valor plegado contiene el término
+     */
+    synchronized boolean[] coincidencias(String termino) {
+      boolean[] coincidencias = new boolean[cantidad];
+      for (int id = 0; id < cantidad; id++) {
+        coincidencias[id] = plegados[id].contains(termino);
+      }
+      return coincidencias;
+    }
+
+    /**
+     * @return si el valor plegado del id contiene el término
+     */
+    synchronized boolean coincide(int id, String termino) {
+      return plegados[id].contains(termino);
+    }
+  }
+
+  /**
+   * Textos empaquetados como bytes UTF-8 con su largo delante, en páginas que
+   * solo crecen. Un texto que cambia se escribe de nuevo al final y la copia
+   * anterior no se recupera (no se compacta porque una vista o un lector
+   * pueden seguir leyendo la posición vieja).
+   */
+  private static final class ColumnaTextos {
+    private volatile byte[][] paginas = new byte[16][];
+    private int paginaActual = -1;
+    private int usado = TAMANO_PAGINA;
+
+    synchronized long agregar(byte[] texto) {
+      int largo = Integer.BYTES + texto.length;
+      byte[][] actuales = paginas;
+      if (paginaActual < 0 || usado + largo > actuales[paginaActual].length) {
+        if (paginaActual + 1 == actuales.length) {
+          actuales = Arrays.copyOf(actuales, actuales.length * 2);
+        }
+        actuales[++paginaActual] = new byte[Math.max(TAMANO_PAGINA, largo)];
+        paginas = actuales;
+        usado = 0;
+      }
+
+      byte[] pagina = actuales[paginaActual];
+      pagina[usado] = (byte) (texto.length >>> 24);
+      pagina[usado + 1] = (byte) (texto.length >>> 16);
+      pagina[usado + 2] = (byte) (texto.length >>> 8);
+      pagina[usado + 3] = (byte) texto.length;
+      System.arraycopy(texto, 0, pagina, usado + Integer.BYTES, texto.length);
+      long posicion = ((long) paginaActual << 32) | usado;
+      usado += largo;
+      return posicion;
+    }
+
+    String leer(long posicion) {
+      byte[] pagina = paginas[(int) (posicion >>> 32)];
+      int desde = (int) posicion;
+      return new String(pagina, desde + Integer.BYTES, largo(pagina, desde), StandardCharsets.UTF_8);
+    }
+
+    boolean igual(long posicion, String texto) {
+      byte[] pagina = paginas[(int) (posicion >>> 32)];
+      int desde = (int) posicion;
+      byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+      return largo(pagina, desde) == bytes.length
+          && Arrays.equals(pagina, desde + Integer.BYTES, desde + Integer.BYTES + bytes.length, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Busca el término como subcadena de bytes, en UTF-8 equivale a buscar
+     * la subcadena en el texto
+     */
+    boolean contiene(long posicion, byte[] termino) {
+      byte[] pagina = paginas[(int) (posicion >>> 32)];
+      int desde = (int) posicion + Integer.BYTES;
+      int ultimoInicio = desde + largo(pagina, (int) posicion) - termino.length;
+      byte primero = termino[0];
+
+      for (int i = desde; i <= ultimoInicio; i++) {
+        if (pagina[i] != primero) {
+          continue;
+        }
+        int j = 1;
+        while (j < termino.length && pagina[i + j] == termino[j]) {
+          j++;
+        }
+        if (j == termino.length) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static int largo(byte[] pagina, int desde) {
+      return ((pagina[desde] & 0xFF) << 24) | ((pagina[desde + 1] & 0xFF) << 16)
+          | ((pagina[desde + 2] & 0xFF) << 8) | (pagina[desde + 3] & 0xFF);
+    }
+  }
+
+  /**
+   * Vista de una fila como Libro, no guarda campos propios. Los cambios de
+   * campos quedan en las columnas; igual que con RepositorioLibros, para
+   * cambiar el contenido de un libro se recomienda volver a llamar agregarLibro.
+   * Una fila puede tener varias vistas a la vez, por eso los cambios de estado
+   * y de campos se serializan con el monitor del bloque en vez del de la vista
+   */
+  private final class LibroVista extends Libro {
+    private final Bloque bloque;
+    private final int indice;
+
+    LibroVista(Bloque bloque, int indice) {
+      super(bloque.uuids[indice]);
+      this.bloque = bloque;
+      this.indice = indice;
+    }
+
+    @Override
+    public EstadoLibro getEstado() {
+      return ESTADOS[(byte) ESTADO.getVolatile(bloque.estados, indice)];
+    }
+
+    @Override
+    public void marcarComoDiponible() {
+      cambiarEstado(EstadoLibro.LIBRE);
+    }
+
+    @Override
+    public void marcarComoReservado() {
+      cambiarEstado(EstadoLibro.RESERVADO);
+    }
+
+    @Override
+    public boolean intentarReservar() {
+      synchronized (bloque) {
+        if (!ESTADO.compareAndSet(bloque.estados, indice,
+            (byte) EstadoLibro.LIBRE.ordinal(), (byte) EstadoLibro.RESERVADO.ordinal())) {
+          return false;
+        }
+        avisarEstado(EstadoLibro.LIBRE, EstadoLibro.RESERVADO);
+        return true;
+      }
+    }
+
+    @Override
+    public String getTitulo() {
+      return titulos.leer(leerPosicion(bloque.titulos, indice));
+    }
+
+    @Override
+    public void setTitulo(String titulo) {
+      synchronized (bloque) {
+        String anterior = getTitulo();
+        escribirTitulo(bloque, indice, titulo);
+        avisarCampo(CampoLibro.TITULO, anterior, titulo);
+      }
+    }
+
+    @Override
+    public String getAutor() {
+      return autores.valor(leerId(bloque.autores, indice));
+    }
+
+    @Override
+    public void setAutor(String autor) {
+      synchronized (bloque) {
+        String anterior = getAutor();
+        ID.setRelease(bloque.autores, indice, autores.id(autor));
+        avisarCampo(CampoLibro.AUTOR, anterior, getAutor());
+      }
+    }
+
+    @Override
+    public String getGenero() {
+      return generos.valor(leerId(bloque.generos, indice));
+    }
+
+    @Override
+    public void setGenero(String genero) {
+      synchronized (bloque) {
+        String anterior = getGenero();
+        ID.setRelease(bloque.generos, indice, generos.id(genero));
+        avisarCampo(CampoLibro.GENERO, anterior, getGenero());
+      }
+    }
+
+    @Override
+    public String getEditorial() {
+      return editoriales.valor(leerId(bloque.editoriales, indice));
+    }
+
+    @Override
+    public void setEditorial(String editorial) {
+      synchronized (bloque) {
+        String anterior = getEditorial();
+        ID.setRelease(bloque.editoriales, indice, editoriales.id(editorial));
+        avisarCampo(CampoLibro.EDITORIAL, anterior, getEditorial());
+      }
+    }
+
+    private void cambiarEstado(EstadoLibro nuevo) {
+      synchronized (bloque) {
+        byte anterior = (byte) ESTADO.getAndSet(bloque.estados, indice, (byte) nuevo.ordinal());
+        avisarEstado(ESTADOS[anterior], nuevo);
+      }
+    }
+
+    private void avisarEstado(EstadoLibro anterior, EstadoLibro nuevo) {
+      // Las filas eliminadas ya no cuentan para los observadores
+      if (anterior != nuevo && !bloque.eliminados[indice]) {
+        observadores.estadoCambiado(this, anterior, nuevo);
+      }
+    }
+
+    private void avisarCampo(CampoLibro campo, String anterior, String nuevo) {
+      if (!bloque.eliminados[indice] && !Objects.equals(anterior, nuevo)) {
+        observadores.campoCambiado(this, campo, anterior, nuevo);
+      }
+    }
+  }
+}
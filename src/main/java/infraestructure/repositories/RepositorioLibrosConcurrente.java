@@ -0,0 +1,131 @@
+package infraestructure.repositories;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
+import interfaces.infraestructure.IRepositorioLibros;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Implementación segura para múltiples hilos de IRepositorioLibros. Envuelve
+ * otro repositorio (por ejemplo RepositorioLibros con sus índices) y protege
+ * cada llamada con un StampedLock: las lecturas comparten el candado de lectura
+ * y corren en paralelo, las escrituras toman el candado exclusivo.
+ */
+public class RepositorioLibrosConcurrente implements IRepositorioLibros {
+  private final IRepositorioLibros delegado;
+  private final StampedLock candado = new StampedLock();
+
+  public RepositorioLibrosConcurrente(IRepositorioLibros delegado) {
+    this.delegado = delegado;
+  }
+
+  @Override
+  public ArrayList<Libro> buscarLibros(String criterio, int limite) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.buscarLibros(criterio, limite);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void agregarLibro(Libro libro) {
+    long stamp = candado.writeLock();
+    try {
+      delegado.agregarLibro(libro);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void agregarLibros(List<Libro> libros) {
+    // Un solo candado exclusivo para todo el lote
+    long stamp = candado.writeLock();
+    try {
+      delegado.agregarLibros(libros);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void eliminarLibro(Libro libro) {
+    long stamp = candado.writeLock();
+    try {
+      delegado.eliminarLibro(libro);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Libro> buscarLibroPorId(String id) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.buscarLibroPorId(id);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Libro> buscarLibroPorIdentificador(UuidLibro uuid) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.buscarLibroPorIdentificador(uuid);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public ArrayList<Libro> obtenerTodosLosLibros() {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerTodosLosLibros();
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Pagina<Libro> obtenerPaginaLibros(String cursor, int limite) {
+    // Cada página toma el candado por separado, un recorrido largo no bloquea las escrituras
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerPaginaLibros(cursor, limite);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Set<LibroCatalogoEntry> obtenerCatalogoLibros() {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerCatalogoLibros();
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void registrarObservador(ObservadorLibro observador) {
+    long stamp = candado.writeLock();
+    try {
+      delegado.registrarObservador(observador);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+}
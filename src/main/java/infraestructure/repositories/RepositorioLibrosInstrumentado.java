@@ -0,0 +1,96 @@
+package infraestructure.repositories;
+
+import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
+import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
+import interfaces.infraestructure.IRepositorioLibros;
+import shared.metricas.MetricaOperacion;
+import shared.metricas.RegistroMetricas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decorador de IRepositorioLibros que registra llamadas, errores y latencias
+ * de cada operación en el registro de métricas
+ */
+public class RepositorioLibrosInstrumentado implements IRepositorioLibros {
+  private final IRepositorioLibros delegado;
+  private final MetricaOperacion buscarLibros;
+  private final MetricaOperacion agregarLibro;
+  private final MetricaOperacion agregarLibros;
+  private final MetricaOperacion eliminarLibro;
+  private final MetricaOperacion buscarLibroPorId;
+  private final MetricaOperacion buscarLibroPorIdentificador;
+  private final MetricaOperacion obtenerTodosLosLibros;
+  private final MetricaOperacion obtenerPaginaLibros;
+  private final MetricaOperacion obtenerCatalogoLibros;
+
+  public RepositorioLibrosInstrumentado(IRepositorioLibros delegado, RegistroMetricas metricas) {
+    this.delegado = delegado;
+    this.buscarLibros = metricas.metrica("IRepositorioLibros.buscarLibros");
+    this.agregarLibro = metricas.metrica("IRepositorioLibros.agregarLibro");
+    this.agregarLibros = metricas.metrica("IRepositorioLibros.agregarLibros");
+    this.eliminarLibro = metricas.metrica("IRepositorioLibros.eliminarLibro");
+    this.buscarLibroPorId = metricas.metrica("IRepositorioLibros.buscarLibroPorId");
+    this.buscarLibroPorIdentificador = metricas.metrica("IRepositorioLibros.buscarLibroPorIdentificador");
+    this.obtenerTodosLosLibros = metricas.metrica("IRepositorioLibros.obtenerTodosLosLibros");
+    this.obtenerPaginaLibros = metricas.metrica("IRepositorioLibros.obtenerPaginaLibros");
+    this.obtenerCatalogoLibros = metricas.metrica("IRepositorioLibros.obtenerCatalogoLibros");
+  }
+
+  @Override
+  public ArrayList<Libro> buscarLibros(String criterio, int limite) {
+    return buscarLibros.medir(() -> delegado.buscarLibros(criterio, limite));
+  }
+
+  @Override
+  public void agregarLibro(Libro libro) {
+    agregarLibro.medir(() -> delegado.agregarLibro(libro));
+  }
+
+  @Override
+  public void agregarLibros(List<Libro> libros) {
+    agregarLibros.medir(() -> delegado.agregarLibros(libros));
+  }
+
+  @Override
+  public void eliminarLibro(Libro libro) {
+    eliminarLibro.medir(() -> delegado.eliminarLibro(libro));
+  }
+
+  @Override
+  public Optional<Libro> buscarLibroPorId(String id) {
+    return buscarLibroPorId.medir(() -> delegado.buscarLibroPorId(id));
+  }
+
+  @Override
+  public Optional<Libro> buscarLibroPorIdentificador(UuidLibro uuid) {
+    return buscarLibroPorIdentificador.medir(() -> delegado.buscarLibroPorIdentificador(uuid));
+  }
+
+  @Override
+  public ArrayList<Libro> obtenerTodosLosLibros() {
+    return obtenerTodosLosLibros.medir(delegado::obtenerTodosLosLibros);
+  }
+
+  @Override
+  public Pagina<Libro> obtenerPaginaLibros(String cursor, int limite) {
+    return obtenerPaginaLibros.medir(() -> delegado.obtenerPaginaLibros(cursor, limite));
+  }
+
+  @Override
+  public Set<LibroCatalogoEntry> obtenerCatalogoLibros() {
+    return obtenerCatalogoLibros.medir(delegado::obtenerCatalogoLibros);
+  }
+
+  @Override
+  public void registrarObservador(ObservadorLibro observador) {
+    // Se llama una sola vez al iniciar, no se mide
+    delegado.registrarObservador(observador);
+  }
+}
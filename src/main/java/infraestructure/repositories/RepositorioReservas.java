@@ -1,13 +1,39 @@
 package infraestructure.repositories;
 
 import domain.entities.Reserva;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
 import interfaces.infraestructure.IRepositorioReservas;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RepositorioReservas implements IRepositorioReservas {
-  private final HashMap<Integer, Reserva> reservas = new HashMap<>();
+  // Orden por fecha de vencimiento, el id desempata reservas del mismo día
+  private static final Comparator<Reserva> POR_VENCIMIENTO = Comparator.comparing(Reserva::getFechaVencimiento)
+      .thenComparingInt(Reserva::getId);
+
+  // Ordenadas por id para recorrerlas por cursor
+  private final TreeMap<Integer, Reserva> reservas = new TreeMap<>();
+  // Índices secundarios: reservas de cada usuario y reserva activa de cada libro
+  private final HashMap<DocumentoRut, LinkedHashMap<Integer, Reserva>> reservasPorRut = new HashMap<>();
+  private final HashMap<UuidLibro, Reserva> reservaPorLibro = new HashMap<>();
+  // Índice ordenado por fecha de vencimiento
+  private final TreeSet<Reserva> reservasPorVencimiento = new TreeSet<>(POR_VENCIMIENTO);
+  // Secuencia monotónica de ids, no retrocede aunque se eliminen reservas
+  private final AtomicInteger secuencia = new AtomicInteger(0);
 
   @Override
   public Optional<Reserva> buscarReservaPorId(int id) {
@@ -18,6 +44,64 @@ public class RepositorioReservas implements IRepositorioReservas {
     return Optional.ofNullable(reservas.get(id));
   }
 
+  @Override
+  public ArrayList<Reserva> buscarReservasPorRut(DocumentoRut rut) {
+    if (rut == null) {
+      return new ArrayList<>();
+    }
+
+    Map<Integer, Reserva> reservasUsuario = reservasPorRut.get(rut);
+    return reservasUsuario == null ? new ArrayList<>() : new ArrayList<>(reservasUsuario.values());
+  }
+
+  @Override
+  public Optional<Reserva> buscarReservaActivaPorLibro(UuidLibro uuidLibro) {
+    if (uuidLibro == null) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(reservaPorLibro.get(uuidLibro));
+  }
+
+  @Override
+  public ArrayList<Reserva> buscarReservasPorVencimiento(LocalDate desde, LocalDate hasta, Reserva despuesDe,
+      int limite) {
+    ArrayList<Reserva> resultado = new ArrayList<>();
+    if (limite <= 0) {
+      return resultado;
+    }
+
+    // El borde inferior es el mayor entre el inicio del rango y el cursor, así el cursor puede
+    // quedar fuera del rango sin que la vista recortada lance excepción
+    Reserva inferior = desde == null ? null : centinela(desde);
+    boolean incluyeInferior = true;
+    if (despuesDe != null && (inferior == null || POR_VENCIMIENTO.compare(despuesDe, inferior) >= 0)) {
+      inferior = despuesDe;
+      incluyeInferior = false;
+    }
+    Reserva superior = hasta == null ? null : centinela(hasta);
+    if (inferior != null && superior != null && POR_VENCIMIENTO.compare(inferior, superior) >= 0) {
+      return resultado;
+    }
+
+    // Recorta el índice al rango pedido usando reservas "centinela" en los bordes
+    NavigableSet<Reserva> rango = reservasPorVencimiento;
+    if (inferior != null) {
+      rango = rango.tailSet(inferior, incluyeInferior);
+    }
+    if (superior != null) {
+      rango = rango.headSet(superior, false);
+    }
+
+    for (Reserva reserva : rango) {
+      if (resultado.size() >= limite) {
+        break;
+      }
+      resultado.add(reserva);
+    }
+    return resultado;
+  }
+
   @Override
   public boolean eliminarReservaPorId(int id) {
     if (id <= 0) {
@@ -25,7 +109,12 @@ public class RepositorioReservas implements IRepositorioReservas {
     }
 
     Reserva reservaEliminada = reservas.remove(id);
-    return reservaEliminada != null;
+    if (reservaEliminada == null) {
+      return false;
+    }
+
+    desindexar(reservaEliminada);
+    return true;
   }
 
   @Override
@@ -38,26 +127,88 @@ public class RepositorioReservas implements IRepositorioReservas {
       throw new IllegalArgumentException("El ID de la reserva debe ser positivo");
     }
 
-    reservas.put(reserva.getId(), reserva);
+    // Si se reemplaza una reserva con el mismo id se quita de los índices
+    Reserva reservaAnterior = reservas.put(reserva.getId(), reserva);
+    if (reservaAnterior != null) {
+      desindexar(reservaAnterior);
+    }
+    indexar(reserva);
+    actualizarSecuenciaReservas(reserva.getId());
   }
 
   @Override
-  public Optional<Reserva> obtenerUltimaReserva() {
-    if (reservas.isEmpty()) {
-      return Optional.empty();
+  public void agregarReservas(List<Reserva> reservas) {
+    for (Reserva reserva : reservas) {
+      agregarReserva(reserva);
     }
+  }
+
+  @Override
+  public int siguienteIdReserva() {
+    return secuencia.incrementAndGet();
+  }
 
-    // Encontrar el ID máximo
-    int maxId = reservas.keySet().stream()
-        .mapToInt(Integer::intValue)
-        .max()
-        .orElse(-1);
+  @Override
+  public void actualizarSecuenciaReservas(int idVisto) {
+    secuencia.accumulateAndGet(idVisto, Math::max);
+  }
 
-    return Optional.ofNullable(reservas.get(maxId));
+  @Override
+  public int obtenerUltimoIdSecuencia() {
+    return secuencia.get();
   }
 
   @Override
   public java.util.ArrayList<Reserva> obtenerTodasLasReservas() {
     return new java.util.ArrayList<>(reservas.values());
   }
+
+  @Override
+  public Pagina<Reserva> obtenerPaginaReservas(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    // Los ids no se reutilizan (secuencia monotónica), el cursor es el id de la última reserva entregada
+    long desde = Pagina.leerCursor(cursor);
+    ArrayList<Reserva> pagina = new ArrayList<>(Math.min(limite, reservas.size()));
+    if (desde >= Integer.MAX_VALUE) {
+      return new Pagina<>(pagina, null);
+    }
+    Iterator<Reserva> siguientes = reservas.tailMap((int) desde, false).values().iterator();
+    while (pagina.size() < limite && siguientes.hasNext()) {
+      pagina.add(siguientes.next());
+    }
+    String siguiente = siguientes.hasNext() ? Integer.toString(pagina.get(pagina.size() - 1).getId()) : null;
+    return new Pagina<>(pagina, siguiente);
+  }
+
+  private void indexar(Reserva reserva) {
+    reservasPorRut
+        .computeIfAbsent(reserva.getUsuario().getRut(), rut -> new LinkedHashMap<>())
+        .put(reserva.getId(), reserva);
+    reservaPorLibro.put(reserva.getLibro().getIdentificador(), reserva);
+    reservasPorVencimiento.add(reserva);
+  }
+
+  private void desindexar(Reserva reserva) {
+    DocumentoRut rut = reserva.getUsuario().getRut();
+    Map<Integer, Reserva> reservasUsuario = reservasPorRut.get(rut);
+    if (reservasUsuario != null) {
+      reservasUsuario.remove(reserva.getId());
+      if (reservasUsuario.isEmpty()) {
+        reservasPorRut.remove(rut);
+      }
+    }
+
+    // Solo se quita si el libro sigue apuntando a esta misma reserva
+    reservaPorLibro.remove(reserva.getLibro().getIdentificador(), reserva);
+    reservasPorVencimiento.remove(reserva);
+  }
+
+  /**
+   * Reserva que se ordena antes que cualquier reserva real de la fecha dada,
+   * los ids reales son siempre positivos
+   */
+  private static Reserva centinela(LocalDate fecha) {
+    return new Reserva(Integer.MIN_VALUE, null, null, fecha);
+  }
 }
@@ -0,0 +1,150 @@
+package infraestructure.repositories;
+
+import domain.entities.Reserva;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
+import interfaces.infraestructure.IRepositorioReservas;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Implementación segura para múltiples hilos de IRepositorioReservas. Envuelve
+ * otro repositorio (por ejemplo RepositorioReservas con sus índices) y protege
+ * cada llamada con un StampedLock, las lecturas corren en paralelo y las
+ * escrituras son exclusivas.
+ */
+public class RepositorioReservasConcurrente implements IRepositorioReservas {
+  private final IRepositorioReservas delegado;
+  private final StampedLock candado = new StampedLock();
+
+  public RepositorioReservasConcurrente(IRepositorioReservas delegado) {
+    this.delegado = delegado;
+  }
+
+  @Override
+  public Optional<Reserva> buscarReservaPorId(int id) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.buscarReservaPorId(id);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public ArrayList<Reserva> buscarReservasPorRut(DocumentoRut rut) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.buscarReservasPorRut(rut);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Optional<Reserva> buscarReservaActivaPorLibro(UuidLibro uuidLibro) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.buscarReservaActivaPorLibro(uuidLibro);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public ArrayList<Reserva> buscarReservasPorVencimiento(LocalDate desde, LocalDate hasta, Reserva despuesDe,
+      int limite) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.buscarReservasPorVencimiento(desde, hasta, despuesDe, limite);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public boolean eliminarReservaPorId(int id) {
+    long stamp = candado.writeLock();
+    try {
+      return delegado.eliminarReservaPorId(id);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void agregarReserva(Reserva reserva) {
+    long stamp = candado.writeLock();
+    try {
+      delegado.agregarReserva(reserva);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void agregarReservas(List<Reserva> reservas) {
+    // Un solo candado exclusivo para todo el lote
+    long stamp = candado.writeLock();
+    try {
+      delegado.agregarReservas(reservas);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public int siguienteIdReserva() {
+    long stamp = candado.writeLock();
+    try {
+      return delegado.siguienteIdReserva();
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void actualizarSecuenciaReservas(int idVisto) {
+    long stamp = candado.writeLock();
+    try {
+      delegado.actualizarSecuenciaReservas(idVisto);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public int obtenerUltimoIdSecuencia() {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerUltimoIdSecuencia();
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public ArrayList<Reserva> obtenerTodasLasReservas() {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerTodasLasReservas();
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Pagina<Reserva> obtenerPaginaReservas(String cursor, int limite) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerPaginaReservas(cursor, limite);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+}
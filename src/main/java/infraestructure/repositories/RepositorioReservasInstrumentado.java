@@ -0,0 +1,112 @@
+package infraestructure.repositories;
+
+import domain.entities.Reserva;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
+import interfaces.infraestructure.IRepositorioReservas;
+import shared.metricas.MetricaOperacion;
+import shared.metricas.RegistroMetricas;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decorador de IRepositorioReservas que registra llamadas, errores y
+ * latencias de cada operación en el registro de métricas
+ */
+public class RepositorioReservasInstrumentado implements IRepositorioReservas {
+  private final IRepositorioReservas delegado;
+  private final MetricaOperacion buscarReservaPorId;
+  private final MetricaOperacion buscarReservasPorRut;
+  private final MetricaOperacion buscarReservaActivaPorLibro;
+  private final MetricaOperacion buscarReservasPorVencimiento;
+  private final MetricaOperacion eliminarReservaPorId;
+  private final MetricaOperacion agregarReserva;
+  private final MetricaOperacion agregarReservas;
+  private final MetricaOperacion siguienteIdReserva;
+  private final MetricaOperacion actualizarSecuenciaReservas;
+  private final MetricaOperacion obtenerUltimoIdSecuencia;
+  private final MetricaOperacion obtenerTodasLasReservas;
+  private final MetricaOperacion obtenerPaginaReservas;
+
+  public RepositorioReservasInstrumentado(IRepositorioReservas delegado, RegistroMetricas metricas) {
+    this.delegado = delegado;
+    this.buscarReservaPorId = metricas.metrica("IRepositorioReservas.buscarReservaPorId");
+    this.buscarReservasPorRut = metricas.metrica("IRepositorioReservas.buscarReservasPorRut");
+    this.buscarReservaActivaPorLibro = metricas.metrica("IRepositorioReservas.buscarReservaActivaPorLibro");
+    this.buscarReservasPorVencimiento = metricas.metrica("IRepositorioReservas.buscarReservasPorVencimiento");
+    this.eliminarReservaPorId = metricas.metrica("IRepositorioReservas.eliminarReservaPorId");
+    this.agregarReserva = metricas.metrica("IRepositorioReservas.agregarReserva");
+    this.agregarReservas = metricas.metrica("IRepositorioReservas.agregarReservas");
+    this.siguienteIdReserva = metricas.metrica("IRepositorioReservas.siguienteIdReserva");
+    this.actualizarSecuenciaReservas = metricas.metrica("IRepositorioReservas.actualizarSecuenciaReservas");
+    this.obtenerUltimoIdSecuencia = metricas.metrica("IRepositorioReservas.obtenerUltimoIdSecuencia");
+    this.obtenerTodasLasReservas = metricas.metrica("IRepositorioReservas.obtenerTodasLasReservas");
+    this.obtenerPaginaReservas = metricas.metrica("IRepositorioReservas.obtenerPaginaReservas");
+  }
+
+  @Override
+  public Optional<Reserva> buscarReservaPorId(int id) {
+    return buscarReservaPorId.medir(() -> delegado.buscarReservaPorId(id));
+  }
+
+  @Override
+  public ArrayList<Reserva> buscarReservasPorRut(DocumentoRut rut) {
+    return buscarReservasPorRut.medir(() -> delegado.buscarReservasPorRut(rut));
+  }
+
+  @Override
+  public Optional<Reserva> buscarReservaActivaPorLibro(UuidLibro uuidLibro) {
+    return buscarReservaActivaPorLibro.medir(() -> delegado.buscarReservaActivaPorLibro(uuidLibro));
+  }
+
+  @Override
+  public ArrayList<Reserva> buscarReservasPorVencimiento(LocalDate desde, LocalDate hasta, Reserva despuesDe,
+      int limite) {
+    return buscarReservasPorVencimiento.medir(
+        () -> delegado.buscarReservasPorVencimiento(desde, hasta, despuesDe, limite));
+  }
+
+  @Override
+  public boolean eliminarReservaPorId(int id) {
+    return eliminarReservaPorId.medir(() -> delegado.eliminarReservaPorId(id));
+  }
+
+  @Override
+  public void agregarReserva(Reserva reserva) {
+    agregarReserva.medir(() -> delegado.agregarReserva(reserva));
+  }
+
+  @Override
+  public void agregarReservas(List<Reserva> reservas) {
+    agregarReservas.medir(() -> delegado.agregarReservas(reservas));
+  }
+
+  @Override
+  public int siguienteIdReserva() {
+    return siguienteIdReserva.medir(delegado::siguienteIdReserva);
+  }
+
+  @Override
+  public void actualizarSecuenciaReservas(int idVisto) {
+    actualizarSecuenciaReservas.medir(() -> delegado.actualizarSecuenciaReservas(idVisto));
+  }
+
+  @Override
+  public int obtenerUltimoIdSecuencia() {
+    return obtenerUltimoIdSecuencia.medir(delegado::obtenerUltimoIdSecuencia);
+  }
+
+  @Override
+  public ArrayList<Reserva> obtenerTodasLasReservas() {
+    return obtenerTodasLasReservas.medir(delegado::obtenerTodasLasReservas);
+  }
+
+  @Override
+  public Pagina<Reserva> obtenerPaginaReservas(String cursor, int limite) {
+    return obtenerPaginaReservas.medir(() -> delegado.obtenerPaginaReservas(cursor, limite));
+  }
+}
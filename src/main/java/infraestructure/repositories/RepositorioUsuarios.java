@@ -2,21 +2,30 @@ package infraestructure.repositories;
 
 import domain.entities.Usuario;
 import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import infraestructure.indices.IndiceColacion;
 import interfaces.infraestructure.IRepositorioUsuarios;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.TreeMap;
 
 public class RepositorioUsuarios implements IRepositorioUsuarios {
-  private final HashMap<String, Usuario> usuarios = new HashMap<>();
+  // Ordenados por el número del RUT (el dígito verificador se deriva de él) para recorrerlos por cursor
+  private final TreeMap<Integer, Usuario> usuarios = new TreeMap<>();
+  // Usuarios por nombre con las reglas del español, para los listados alfabéticos; la clave es
+  // el mismo DocumentoRut del usuario
+  private final IndiceColacion<DocumentoRut, Usuario> porNombre = new IndiceColacion<>(
+      usuario -> new String[] {usuario.getNombre()}, new boolean[] {false}, DocumentoRut::definir);
 
   @Override
   public Optional<Usuario> obtenerUsuario(DocumentoRut rut) {
     if (rut == null) {
       return Optional.empty();
     }
-    return Optional.ofNullable(usuarios.get(rut.getSinFormato()));
+    return Optional.ofNullable(usuarios.get(rut.getNumeroEntero()));
   }
 
   @Override
@@ -24,7 +33,15 @@ public class RepositorioUsuarios implements IRepositorioUsuarios {
     if (usuario == null || usuario.getRut() == null) {
       throw new IllegalArgumentException("Usuario y su RUT no pueden ser nulos.");
     }
-    usuarios.put(usuario.getRut().getSinFormato(), usuario);
+    usuarios.put(usuario.getRut().getNumeroEntero(), usuario);
+    porNombre.indexar(usuario.getRut(), usuario);
+  }
+
+  @Override
+  public void agregarUsuarios(List<Usuario> usuarios) {
+    for (Usuario usuario : usuarios) {
+      agregarUsuario(usuario);
+    }
   }
 
   @Override
@@ -32,11 +49,34 @@ public class RepositorioUsuarios implements IRepositorioUsuarios {
     if (rut == null) {
       return false;
     }
-    return usuarios.remove(rut.getSinFormato()) != null;
+    porNombre.desindexar(rut);
+    return usuarios.remove(rut.getNumeroEntero()) != null;
   }
 
   @Override
   public ArrayList<Usuario> obtenerTodosLosUsuarios() {
     return new ArrayList<>(usuarios.values());
   }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuarios(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    long desde = Pagina.leerCursor(cursor);
+    ArrayList<Usuario> pagina = new ArrayList<>(Math.min(limite, usuarios.size()));
+    if (desde >= Integer.MAX_VALUE) {
+      return new Pagina<>(pagina, null);
+    }
+    Iterator<Usuario> siguientes = usuarios.tailMap((int) desde, false).values().iterator();
+    while (pagina.size() < limite && siguientes.hasNext()) {
+      pagina.add(siguientes.next());
+    }
+    String siguiente = siguientes.hasNext() ? pagina.get(pagina.size() - 1).getRut().getNumero() : null;
+    return new Pagina<>(pagina, siguiente);
+  }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuariosPorNombre(String cursor, int limite) {
+    return porNombre.obtenerPagina(cursor, limite);
+  }
 }
@@ -0,0 +1,96 @@
+package infraestructure.repositories;
+
+import domain.entities.Usuario;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import infraestructure.indices.IndiceColacion;
+import infraestructure.indices.MapaEnteros;
+import interfaces.infraestructure.IRepositorioUsuarios;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de IRepositorioUsuarios pensada para registros de millones de
+ * usuarios. Indexa por la parte numérica del RUT (el dígito verificador se
+ * deriva del número) en un MapaEnteros, sin construir un String por búsqueda
+ * ni encajonar claves. Los listados por página recorren un mapa de bits con
+ * los números registrados, en orden de RUT y sin ordenar la tabla (los RUT
+ * tienen a lo más 8 dígitos, el mapa de bits ocupa menos de 12,5 MB).
+ * No es segura para varios hilos, se debe envolver en
+ * RepositorioUsuariosConcurrente.
+ */
+public class RepositorioUsuariosCompacto implements IRepositorioUsuarios {
+  private final MapaEnteros<Usuario> usuarios = new MapaEnteros<>();
+  // Bit encendido por cada número de RUT registrado
+  private final BitSet registrados = new BitSet();
+  // Orden alfabético por nombre, se mantiene con cada alta y baja. Usa como clave el RUT del
+  // usuario para no encajonar un Integer por entrada
+  private final IndiceColacion<DocumentoRut, Usuario> porNombre = new IndiceColacion<>(
+      usuario -> new String[] {usuario.getNombre()}, new boolean[] {false}, DocumentoRut::definir);
+
+  @Override
+  public Optional<Usuario> obtenerUsuario(DocumentoRut rut) {
+    if (rut == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(usuarios.obtener(rut.getNumeroEntero()));
+  }
+
+  @Override
+  public void agregarUsuario(Usuario usuario) {
+    if (usuario == null || usuario.getRut() == null) {
+      throw new IllegalArgumentException("Usuario y su RUT no pueden ser nulos.");
+    }
+    usuarios.guardar(usuario.getRut().getNumeroEntero(), usuario);
+    registrados.set(usuario.getRut().getNumeroEntero());
+    porNombre.indexar(usuario.getRut(), usuario);
+  }
+
+  @Override
+  public void agregarUsuarios(List<Usuario> usuarios) {
+    // Se reserva la tabla completa una sola vez antes de insertar el lote
+    this.usuarios.asegurarCapacidad(this.usuarios.cantidad() + usuarios.size());
+    for (Usuario usuario : usuarios) {
+      agregarUsuario(usuario);
+    }
+  }
+
+  @Override
+  public boolean eliminarUsuario(DocumentoRut rut) {
+    if (rut == null) {
+      return false;
+    }
+    registrados.clear(rut.getNumeroEntero());
+    porNombre.desindexar(rut);
+    return usuarios.eliminar(rut.getNumeroEntero()) != null;
+  }
+
+  @Override
+  public ArrayList<Usuario> obtenerTodosLosUsuarios() {
+    return usuarios.valores();
+  }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuarios(String cursor, int limite) {
+    Pagina.validarLimite(limite);
+
+    long desde = Pagina.leerCursor(cursor) + 1;
+    ArrayList<Usuario> pagina = new ArrayList<>(Math.min(limite, usuarios.cantidad()));
+    int numero = desde >= Integer.MAX_VALUE ? -1 : registrados.nextSetBit((int) desde);
+    int ultimo = -1;
+    while (numero >= 0 && pagina.size() < limite) {
+      pagina.add(usuarios.obtener(numero));
+      ultimo = numero;
+      numero = registrados.nextSetBit(numero + 1);
+    }
+    return new Pagina<>(pagina, numero >= 0 ? Integer.toString(ultimo) : null);
+  }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuariosPorNombre(String cursor, int limite) {
+    return porNombre.obtenerPagina(cursor, limite);
+  }
+}
@@ -0,0 +1,107 @@
+package infraestructure.repositories;
+
+import domain.entities.Usuario;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import interfaces.infraestructure.IRepositorioUsuarios;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Implementación segura para múltiples hilos de IRepositorioUsuarios. Envuelve
+ * otro repositorio y protege cada llamada con un StampedLock, las lecturas
+ * corren en paralelo y las escrituras son exclusivas.
+ */
+public class RepositorioUsuariosConcurrente implements IRepositorioUsuarios {
+  private final IRepositorioUsuarios delegado;
+  private final StampedLock candado = new StampedLock();
+
+  public RepositorioUsuariosConcurrente(IRepositorioUsuarios delegado) {
+    this.delegado = delegado;
+  }
+
+  @Override
+  public Optional<Usuario> obtenerUsuario(DocumentoRut rut) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerUsuario(rut);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void agregarUsuario(Usuario usuario) {
+    long stamp = candado.writeLock();
+    try {
+      delegado.agregarUsuario(usuario);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean agregarUsuarioSiNoExiste(Usuario usuario) {
+    // La búsqueda y el alta bajo el mismo candado exclusivo
+    long stamp = candado.writeLock();
+    try {
+      return delegado.agregarUsuarioSiNoExiste(usuario);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void agregarUsuarios(List<Usuario> usuarios) {
+    // Un solo candado exclusivo para todo el lote
+    long stamp = candado.writeLock();
+    try {
+      delegado.agregarUsuarios(usuarios);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean eliminarUsuario(DocumentoRut rut) {
+    long stamp = candado.writeLock();
+    try {
+      return delegado.eliminarUsuario(rut);
+    } finally {
+      candado.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public ArrayList<Usuario> obtenerTodosLosUsuarios() {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerTodosLosUsuarios();
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuarios(String cursor, int limite) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerPaginaUsuarios(cursor, limite);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuariosPorNombre(String cursor, int limite) {
+    long stamp = candado.readLock();
+    try {
+      return delegado.obtenerPaginaUsuariosPorNombre(cursor, limite);
+    } finally {
+      candado.unlockRead(stamp);
+    }
+  }
+}
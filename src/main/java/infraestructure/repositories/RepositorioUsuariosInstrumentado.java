@@ -0,0 +1,80 @@
+package infraestructure.repositories;
+
+import domain.entities.Usuario;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import interfaces.infraestructure.IRepositorioUsuarios;
+import shared.metricas.MetricaOperacion;
+import shared.metricas.RegistroMetricas;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decorador de IRepositorioUsuarios que registra llamadas, errores y
+ * latencias de cada operación en el registro de métricas
+ */
+public class RepositorioUsuariosInstrumentado implements IRepositorioUsuarios {
+  private final IRepositorioUsuarios delegado;
+  private final MetricaOperacion obtenerUsuario;
+  private final MetricaOperacion agregarUsuario;
+  private final MetricaOperacion agregarUsuarioSiNoExiste;
+  private final MetricaOperacion agregarUsuarios;
+  private final MetricaOperacion eliminarUsuario;
+  private final MetricaOperacion obtenerTodosLosUsuarios;
+  private final MetricaOperacion obtenerPaginaUsuarios;
+  private final MetricaOperacion obtenerPaginaUsuariosPorNombre;
+
+  public RepositorioUsuariosInstrumentado(IRepositorioUsuarios delegado, RegistroMetricas metricas) {
+    this.delegado = delegado;
+    this.obtenerUsuario = metricas.metrica("IRepositorioUsuarios.obtenerUsuario");
+    this.agregarUsuario = metricas.metrica("IRepositorioUsuarios.agregarUsuario");
+    this.agregarUsuarioSiNoExiste = metricas.metrica("IRepositorioUsuarios.agregarUsuarioSiNoExiste");
+    this.agregarUsuarios = metricas.metrica("IRepositorioUsuarios.agregarUsuarios");
+    this.eliminarUsuario = metricas.metrica("IRepositorioUsuarios.eliminarUsuario");
+    this.obtenerTodosLosUsuarios = metricas.metrica("IRepositorioUsuarios.obtenerTodosLosUsuarios");
+    this.obtenerPaginaUsuarios = metricas.metrica("IRepositorioUsuarios.obtenerPaginaUsuarios");
+    this.obtenerPaginaUsuariosPorNombre = metricas.metrica("IRepositorioUsuarios.obtenerPaginaUsuariosPorNombre");
+  }
+
+  @Override
+  public Optional<Usuario> obtenerUsuario(DocumentoRut rut) {
+    return obtenerUsuario.medir(() -> delegado.obtenerUsuario(rut));
+  }
+
+  @Override
+  public void agregarUsuario(Usuario usuario) {
+    agregarUsuario.medir(() -> delegado.agregarUsuario(usuario));
+  }
+
+  @Override
+  public boolean agregarUsuarioSiNoExiste(Usuario usuario) {
+    return agregarUsuarioSiNoExiste.medir(() -> delegado.agregarUsuarioSiNoExiste(usuario));
+  }
+
+  @Override
+  public void agregarUsuarios(List<Usuario> usuarios) {
+    agregarUsuarios.medir(() -> delegado.agregarUsuarios(usuarios));
+  }
+
+  @Override
+  public boolean eliminarUsuario(DocumentoRut rut) {
+    return eliminarUsuario.medir(() -> delegado.eliminarUsuario(rut));
+  }
+
+  @Override
+  public ArrayList<Usuario> obtenerTodosLosUsuarios() {
+    return obtenerTodosLosUsuarios.medir(delegado::obtenerTodosLosUsuarios);
+  }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuarios(String cursor, int limite) {
+    return obtenerPaginaUsuarios.medir(() -> delegado.obtenerPaginaUsuarios(cursor, limite));
+  }
+
+  @Override
+  public Pagina<Usuario> obtenerPaginaUsuariosPorNombre(String cursor, int limite) {
+    return obtenerPaginaUsuariosPorNombre.medir(() -> delegado.obtenerPaginaUsuariosPorNombre(cursor, limite));
+  }
+}
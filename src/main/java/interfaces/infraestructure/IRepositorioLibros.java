@@ -1,20 +1,40 @@
 package interfaces.infraestructure;
 
 import domain.entities.Libro;
+import domain.entities.ObservadorLibro;
 import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface IRepositorioLibros {
     /**
-     * Método que busca libros dado un criterio dentro del repositorio de libros
+     * Método que busca libros dado un criterio dentro del repositorio de libros,
+     * el criterio se busca como subcadena del título, autor o editorial sin
+     * distinguir acentos ni mayúsculas ("garcia" encuentra "García")
      *
      * @param criterio criterio de búsqueda
      * @return Array de libros
      */
-    ArrayList<Libro> buscarLibros(String criterio); // Renamed and purpose changed
+    default ArrayList<Libro> buscarLibros(String criterio) {
+        return buscarLibros(criterio, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Método que busca libros igual que buscarLibros(criterio) pero deja de
+     * juntar resultados al llegar al límite, así una búsqueda muy amplia no
+     * copia todas las coincidencias
+     *
+     * @param criterio criterio de búsqueda
+     * @param limite cantidad máxima de libros
+     * @return Array de hasta limite libros
+     */
+    ArrayList<Libro> buscarLibros(String criterio, int limite);
 
     /**
      * Método que agrega un libro dentro del repositorio
@@ -22,6 +42,13 @@ public interface IRepositorioLibros {
      */
     void agregarLibro(Libro libro);
 
+    /**
+     * Método que agrega varios libros al repositorio en una sola operación,
+     * pensado para la carga masiva inicial
+     * @param libros libros a agregar
+     */
+    void agregarLibros(List<Libro> libros);
+
     /**
      * Método que elimina un libro dentro del repositorio
      * @param libro libro a eliminar
@@ -35,15 +62,52 @@ public interface IRepositorioLibros {
      */
     Optional<Libro> buscarLibroPorId(String id);
 
+    /**
+     * Método que busca un libro por su identificador compacto, evita generar y
+     * volver a leer el texto del uuid cuando el libro ya se tiene a mano
+     * @param uuid identificador del libro
+     * @return Opcional del libro encontrado
+     */
+    Optional<Libro> buscarLibroPorIdentificador(UuidLibro uuid);
+
     /**
      * Método que obtiene todos los libros del repositorio
      * @return Arraylist de todos los libros del repositorio de libros
      */
     ArrayList<Libro> obtenerTodosLosLibros();
 
+    /**
+     * Método que obtiene una página de libros en orden de inserción. Un libro
+     * reemplazado conserva su posición y los agregados durante el recorrido
+     * aparecen en páginas posteriores
+     * @param cursor cursor de la página anterior, nulo para la primera
+     * @param limite cantidad máxima de libros de la página
+     * @return página de libros con el cursor de la siguiente
+     */
+    Pagina<Libro> obtenerPaginaLibros(String cursor, int limite);
+
+    /**
+     * Método que recorre todos los libros pidiendo una página a la vez, nunca
+     * copia más de una página del repositorio
+     * @param tamanoPagina cantidad de libros por página
+     * @return Stream de los libros en orden de inserción
+     */
+    default Stream<Libro> recorrerLibros(int tamanoPagina) {
+        Pagina.validarLimite(tamanoPagina);
+        return Pagina.recorrer(cursor -> obtenerPaginaLibros(cursor, tamanoPagina));
+    }
+
     /**
      * Método que obtiene un catálogo único de libros (título y autor)
      * @return Set de libros únicos
      */
     Set<LibroCatalogoEntry> obtenerCatalogoLibros();
+
+    /**
+     * Método que registra un observador de los libros del repositorio, recibe
+     * los libros agregados y eliminados y los cambios de estado y de campos de
+     * los libros que están en el repositorio
+     * @param observador observador a registrar
+     */
+    void registrarObservador(ObservadorLibro observador);
 }
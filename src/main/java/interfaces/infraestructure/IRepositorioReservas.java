@@ -1,8 +1,15 @@
 package interfaces.infraestructure;
 
 import domain.entities.Reserva;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
+import domain.valueObject.UuidLibro;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IRepositorioReservas {
     /**
@@ -12,6 +19,32 @@ public interface IRepositorioReservas {
      */
     Optional<Reserva> buscarReservaPorId(int id);
 
+    /**
+     * Método que busca las reservas que tiene un usuario
+     * @param rut rut del usuario
+     * @return ArrayList de reservas del usuario, vacío si no tiene reservas
+     */
+    ArrayList<Reserva> buscarReservasPorRut(DocumentoRut rut);
+
+    /**
+     * Método que busca la reserva activa de un libro
+     * @param uuidLibro identificador del libro
+     * @return Opcional de la reserva que tiene el libro
+     */
+    Optional<Reserva> buscarReservaActivaPorLibro(UuidLibro uuidLibro);
+
+    /**
+     * Método que obtiene reservas ordenadas por fecha de vencimiento (y luego por id)
+     * dentro de un rango de fechas, sin ordenar en cada llamada. Permite paginar
+     * entregando la última reserva de la página anterior.
+     * @param desde fecha de vencimiento inicial inclusiva, null para no acotar
+     * @param hasta fecha de vencimiento final exclusiva, null para no acotar
+     * @param despuesDe última reserva de la página anterior, null para partir del inicio
+     * @param limite cantidad máxima de reservas a retornar
+     * @return ArrayList de reservas ordenadas por fecha de vencimiento
+     */
+    ArrayList<Reserva> buscarReservasPorVencimiento(LocalDate desde, LocalDate hasta, Reserva despuesDe, int limite);
+
     /**
      * Método que elimina una reserva del repositorio de reservas
      * @param id id de la reserva
@@ -26,14 +59,53 @@ public interface IRepositorioReservas {
     void agregarReserva(Reserva reserva);
 
     /**
-     * Obtiene la última reserva (la que tiene el ID más alto)
-     * @return Optional con la última reserva o empty si no hay reservas
+     * Método que agrega varias reservas al repositorio en una sola operación,
+     * pensado para la carga masiva inicial
+     * @param reservas reservas a agregar
+     */
+    void agregarReservas(List<Reserva> reservas);
+
+    /**
+     * Método que entrega el siguiente id de la secuencia de reservas, es atómico
+     * por lo que dos llamadas nunca entregan el mismo id
+     * @return siguiente id de reserva
      */
-    Optional<Reserva> obtenerUltimaReserva();
+    int siguienteIdReserva();
+
+    /**
+     * Método que adelanta la secuencia de reservas si el id visto es mayor
+     * que el último entregado, se usa al cargar los datos persistidos
+     * @param idVisto id de reserva encontrado en los datos persistidos
+     */
+    void actualizarSecuenciaReservas(int idVisto);
+
+    /**
+     * Método que obtiene el último id entregado por la secuencia de reservas
+     * @return último id de la secuencia, 0 si no se ha entregado ninguno
+     */
+    int obtenerUltimoIdSecuencia();
 
     /**
      * Método que obtiene todas las reservas del repositorio de reservas
      * @return ArrayList de reservas registradas en el repositorio
      */
     java.util.ArrayList<Reserva> obtenerTodasLasReservas();
+
+    /**
+     * Método que obtiene una página de reservas ordenadas por id
+     * @param cursor cursor de la página anterior, nulo para la primera
+     * @param limite cantidad máxima de reservas de la página
+     * @return página de reservas con el cursor de la siguiente
+     */
+    Pagina<Reserva> obtenerPaginaReservas(String cursor, int limite);
+
+    /**
+     * Método que recorre todas las reservas pidiendo una página a la vez
+     * @param tamanoPagina cantidad de reservas por página
+     * @return Stream de las reservas ordenadas por id
+     */
+    default Stream<Reserva> recorrerReservas(int tamanoPagina) {
+        Pagina.validarLimite(tamanoPagina);
+        return Pagina.recorrer(cursor -> obtenerPaginaReservas(cursor, tamanoPagina));
+    }
 }
@@ -2,9 +2,12 @@ package interfaces.infraestructure;
 
 import domain.entities.Usuario;
 import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IRepositorioUsuarios {
     /**
@@ -20,6 +23,29 @@ public interface IRepositorioUsuarios {
      */
     void agregarUsuario(Usuario usuario);
 
+    /**
+     * Método que agrega un usuario solo si su RUT no está registrado. En las
+     * implementaciones seguras para varios hilos la búsqueda y el alta son
+     * una sola operación, así dos registros simultáneos del mismo RUT no se
+     * aceptan ambos
+     * @param usuario usuario a agregar al repositorio
+     * @return true si se agregó, false si el RUT ya estaba registrado
+     */
+    default boolean agregarUsuarioSiNoExiste(Usuario usuario) {
+        if (obtenerUsuario(usuario.getRut()).isPresent()) {
+            return false;
+        }
+        agregarUsuario(usuario);
+        return true;
+    }
+
+    /**
+     * Método que agrega varios usuarios al repositorio en una sola operación,
+     * pensado para la carga masiva inicial
+     * @param usuarios usuarios a agregar
+     */
+    void agregarUsuarios(List<Usuario> usuarios);
+
     /**
      * Método que elimina un usuario del repositorio de usuarios
      * @param rut rut del usuario a eliminar
@@ -32,4 +58,42 @@ public interface IRepositorioUsuarios {
      * @return Arraylist de usuarios
      */
     ArrayList<Usuario> obtenerTodosLosUsuarios();
+
+    /**
+     * Método que obtiene una página de usuarios ordenados por el número del RUT
+     * @param cursor cursor de la página anterior, nulo para la primera
+     * @param limite cantidad máxima de usuarios de la página
+     * @return página de usuarios con el cursor de la siguiente
+     */
+    Pagina<Usuario> obtenerPaginaUsuarios(String cursor, int limite);
+
+    /**
+     * Método que recorre todos los usuarios pidiendo una página a la vez
+     * @param tamanoPagina cantidad de usuarios por página
+     * @return Stream de los usuarios ordenados por el número del RUT
+     */
+    default Stream<Usuario> recorrerUsuarios(int tamanoPagina) {
+        Pagina.validarLimite(tamanoPagina);
+        return Pagina.recorrer(cursor -> obtenerPaginaUsuarios(cursor, tamanoPagina));
+    }
+
+    /**
+     * Método que obtiene una página de usuarios ordenados alfabéticamente por
+     * nombre (reglas del español, a igual nombre por RUT). El nombre se toma
+     * al agregar el usuario, si se cambia se debe volver a agregar
+     * @param cursor cursor de la página anterior, nulo para la primera
+     * @param limite cantidad máxima de usuarios de la página
+     * @return página de usuarios con el cursor de la siguiente
+     */
+    Pagina<Usuario> obtenerPaginaUsuariosPorNombre(String cursor, int limite);
+
+    /**
+     * Método que recorre todos los usuarios ordenados por nombre pidiendo una página a la vez
+     * @param tamanoPagina cantidad de usuarios por página
+     * @return Stream de los usuarios ordenados por nombre
+     */
+    default Stream<Usuario> recorrerUsuariosPorNombre(int tamanoPagina) {
+        Pagina.validarLimite(tamanoPagina);
+        return Pagina.recorrer(cursor -> obtenerPaginaUsuariosPorNombre(cursor, tamanoPagina));
+    }
 }
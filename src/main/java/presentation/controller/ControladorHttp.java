@@ -0,0 +1,168 @@
+package presentation.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import domain.valueObject.Pagina;
+import shared.exceptions.LibroNoEncontradoException;
+import shared.exceptions.LibroYaPrestadoException;
+import shared.exceptions.ReservaNoEncontradaException;
+import shared.exceptions.UsuarioNoEncontradoException;
+import shared.exceptions.UsuarioYaRegistradoException;
+import shared.utils.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.InputMismatchException;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Clase base de los controladores HTTP, se encarga de leer el cuerpo y los
+ * parámetros de la petición, escribir la respuesta JSON y traducir las
+ * excepciones del dominio a códigos HTTP
+ */
+public abstract class ControladorHttp implements HttpHandler {
+    private static final int LIMITE_PAGINA_POR_DEFECTO = 100;
+    private static final int LIMITE_PAGINA_MAXIMO = 1000;
+
+    /**
+     * Método que atiende la petición, retorna el cuerpo JSON de la respuesta
+     * exitosa y puede lanzar las excepciones del dominio
+     * @param exchange petición HTTP
+     * @return respuesta a enviar
+     */
+    protected abstract RespuestaHttp atender(HttpExchange exchange) throws IOException;
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        RespuestaHttp respuesta;
+        try {
+            respuesta = atender(exchange);
+        } catch (LibroNoEncontradoException | ReservaNoEncontradaException | UsuarioNoEncontradoException e) {
+            respuesta = RespuestaHttp.error(404, e.getMessage());
+        } catch (LibroYaPrestadoException | UsuarioYaRegistradoException e) {
+            respuesta = RespuestaHttp.error(409, e.getMessage());
+        } catch (InputMismatchException | IllegalArgumentException e) {
+            respuesta = RespuestaHttp.error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Error inesperado atendiendo " + exchange.getRequestURI() + ": " + e.getMessage());
+            respuesta = RespuestaHttp.error(500, "Error interno del servidor");
+        }
+
+        byte[] cuerpo = respuesta.cuerpo().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(respuesta.codigo(), cuerpo.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(cuerpo);
+        }
+    }
+
+    /**
+     * Lee el cuerpo de la petición como objeto JSON plano
+     * @param exchange petición HTTP
+     * @return mapa de campos del cuerpo
+     */
+    protected Map<String, String> leerCuerpo(HttpExchange exchange) throws IOException {
+        String cuerpo = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        return Json.parsearObjetoPlano(cuerpo);
+    }
+
+    /**
+     * Lee los parámetros de la query string de la petición
+     * @param exchange petición HTTP
+     * @return mapa de parámetros
+     */
+    protected Map<String, String> leerParametros(HttpExchange exchange) {
+        Map<String, String> parametros = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parametros;
+        }
+
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    /**
+     * Obtiene un campo obligatorio, lanza IllegalArgumentException si no viene
+     * @param campos campos de la petición
+     * @param nombre nombre del campo
+     * @return valor del campo
+     */
+    protected String campoObligatorio(Map<String, String> campos, String nombre) {
+        String valor = campos.get(nombre);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta el campo obligatorio '" + nombre + "'");
+        }
+        return valor;
+    }
+
+    /**
+     * Obtiene el segmento de la ruta que sigue al contexto del controlador,
+     * por ejemplo "15" en /prestamos/15
+     * @param exchange petición HTTP
+     * @return segmento de la ruta, vacío si no hay
+     */
+    protected String subRuta(HttpExchange exchange) {
+        String ruta = exchange.getRequestURI().getPath();
+        String contexto = exchange.getHttpContext().getPath();
+        String resto = ruta.substring(Math.min(contexto.length(), ruta.length()));
+        return resto.startsWith("/") ? resto.substring(1) : resto;
+    }
+
+    /**
+     * Lee el tamaño de página pedido, acotado al máximo permitido
+     * @param parametros parámetros de la petición
+     * @return cantidad de elementos de la página
+     */
+    protected int leerLimitePagina(Map<String, String> parametros) {
+        String limite = parametros.get("limite");
+        return limite == null
+                ? LIMITE_PAGINA_POR_DEFECTO
+                : Math.min(Integer.parseInt(limite), LIMITE_PAGINA_MAXIMO);
+    }
+
+    /**
+     * Serializa una página como {"elementos": [...], "cursor": ...}, el cursor
+     * es nulo en la última página
+     * @param pagina página a serializar
+     * @param serializador serializa cada elemento
+     * @return objeto JSON
+     */
+    protected <T> String paginaAJson(Pagina<T> pagina, Function<T, String> serializador) {
+        return "{\"elementos\":" + Json.arreglo(pagina.elementos(), serializador)
+                + ",\"cursor\":" + Json.texto(pagina.cursorSiguiente()) + "}";
+    }
+
+    /**
+     * Respuesta de un controlador HTTP
+     * @param codigo código de estado HTTP
+     * @param cuerpo cuerpo JSON
+     */
+    public record RespuestaHttp(int codigo, String cuerpo) {
+        public static RespuestaHttp ok(String cuerpo) {
+            return new RespuestaHttp(200, cuerpo);
+        }
+
+        public static RespuestaHttp creado(String cuerpo) {
+            return new RespuestaHttp(201, cuerpo);
+        }
+
+        public static RespuestaHttp error(int codigo, String mensaje) {
+            return new RespuestaHttp(codigo, "{\"error\":" + Json.texto(mensaje) + "}");
+        }
+
+        public static RespuestaHttp metodoNoPermitido() {
+            return error(405, "Método no permitido");
+        }
+    }
+}
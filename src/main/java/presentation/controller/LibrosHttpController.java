@@ -0,0 +1,284 @@
+package presentation.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import domain.entities.Libro;
+import domain.entities.Reserva;
+import domain.enums.EstadoLibro;
+import domain.enums.FacetaLibro;
+import domain.enums.OrdenSugerencia;
+import domain.valueObject.DocumentoRut;
+import domain.valueObject.FilaImportacionLibro;
+import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.ResultadoImportacion;
+import presentation.services.BibliotecaApplicationService;
+import shared.exceptions.ImportacionInterrumpidaException;
+import shared.utils.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Clase que expone por HTTP (JSON) los casos de uso de libros, catálogo y
+ * préstamos de la biblioteca. Atiende los contextos /libros, /catalogo,
+ * /facetas y /prestamos
+ */
+public class LibrosHttpController extends ControladorHttp {
+    public static final String CONTEXTO_LIBROS = "/libros";
+    public static final String CONTEXTO_CATALOGO = "/catalogo";
+    public static final String CONTEXTO_PRESTAMOS = "/prestamos";
+    public static final String CONTEXTO_FACETAS = "/facetas";
+    private static final int LIMITE_FACETAS_POR_DEFECTO = 10;
+    private static final int LIMITE_SUGERENCIAS_POR_DEFECTO = 10;
+
+    private final BibliotecaApplicationService bibliotecaApplicationService;
+
+    public LibrosHttpController(BibliotecaApplicationService bibliotecaApplicationService) {
+        this.bibliotecaApplicationService = bibliotecaApplicationService;
+    }
+
+    @Override
+    protected RespuestaHttp atender(HttpExchange exchange) throws IOException {
+        String contexto = exchange.getHttpContext().getPath();
+        String metodo = exchange.getRequestMethod();
+
+        switch (contexto) {
+            case CONTEXTO_LIBROS:
+                if (metodo.equals("GET") && subRuta(exchange).equals("sugerencias")) {
+                    return handleSugerirLibros(exchange);
+                }
+                if (metodo.equals("GET")) {
+                    return handleListarLibros(exchange);
+                }
+                if (metodo.equals("POST") && subRuta(exchange).equals("importar")) {
+                    return handleImportarLibros(exchange);
+                }
+                if (metodo.equals("POST")) {
+                    return handleAgregarLibro(exchange);
+                }
+                break;
+            case CONTEXTO_CATALOGO:
+                if (metodo.equals("GET")) {
+                    return handleMostrarCatalogo(exchange);
+                }
+                break;
+            case CONTEXTO_FACETAS:
+                if (metodo.equals("GET")) {
+                    return handleFacetas(exchange);
+                }
+                break;
+            case CONTEXTO_PRESTAMOS:
+                if (metodo.equals("GET")) {
+                    return handleListarPrestamos(exchange);
+                }
+                if (metodo.equals("POST")) {
+                    return handlePrestarLibro(exchange);
+                }
+                if (metodo.equals("DELETE")) {
+                    return handleDevolverLibro(exchange);
+                }
+                break;
+            default:
+                return RespuestaHttp.error(404, "Recurso no encontrado");
+        }
+        return RespuestaHttp.metodoNoPermitido();
+    }
+
+    /**
+     * GET /libros[?cursor=c&limite=n] lista una página de libros en orden de
+     * registro (el cursor viene en la página anterior, el límite por defecto
+     * es 100), con &orden=titulo la página se ordena por título y autor.
+     * GET /libros?criterio=x[&limite=n] busca por título, autor o editorial
+     * (hasta el límite de página, por defecto 100), con
+     * &orden=relevancia[&limite=n] busca por título y autor tolerando errores
+     * de tipeo y ordena del más al menos parecido
+     */
+    private RespuestaHttp handleListarLibros(HttpExchange exchange) {
+        Map<String, String> parametros = leerParametros(exchange);
+        String criterio = parametros.get("criterio");
+        if (criterio != null && "relevancia".equals(parametros.get("orden"))) {
+            return RespuestaHttp.ok(Json.arreglo(
+                    this.bibliotecaApplicationService.buscarLibroAproximado(criterio, leerLimitePagina(parametros)),
+                    LibrosHttpController::libroAJson));
+        }
+        if (criterio == null) {
+            String cursor = parametros.get("cursor");
+            int limite = leerLimitePagina(parametros);
+            return RespuestaHttp.ok(paginaAJson(
+                    "titulo".equals(parametros.get("orden"))
+                            ? this.bibliotecaApplicationService.obtenerPaginaLibrosOrdenados(cursor, limite)
+                            : this.bibliotecaApplicationService.obtenerPaginaLibros(cursor, limite),
+                    LibrosHttpController::libroAJson));
+        }
+
+        return RespuestaHttp.ok(Json.arreglo(
+                this.bibliotecaApplicationService.buscarLibro(criterio, leerLimitePagina(parametros)),
+                LibrosHttpController::libroAJson));
+    }
+
+    /**
+     * GET /libros/sugerencias?prefijo=x[&limite=n][&orden=alfabetico] sugiere
+     * títulos y autores con una palabra que empieza con el prefijo, por
+     * defecto los más populares (ejemplares y préstamos) primero
+     */
+    private RespuestaHttp handleSugerirLibros(HttpExchange exchange) {
+        Map<String, String> parametros = leerParametros(exchange);
+        String limite = parametros.get("limite");
+        String orden = parametros.get("orden");
+
+        return RespuestaHttp.ok(Json.arreglo(
+                this.bibliotecaApplicationService.sugerirLibros(
+                        campoObligatorio(parametros, "prefijo"),
+                        limite == null ? LIMITE_SUGERENCIAS_POR_DEFECTO : Integer.parseInt(limite),
+                        orden == null ? OrdenSugerencia.POPULARIDAD : OrdenSugerencia.valueOf(orden.toUpperCase())),
+                sugerencia -> "{\"texto\":" + Json.texto(sugerencia.texto())
+                        + ",\"campo\":" + Json.texto(sugerencia.campo().name().toLowerCase())
+                        + ",\"popularidad\":" + sugerencia.popularidad() + "}"));
+    }
+
+    /**
+     * POST /libros con {titulo, autor, genero, editorial}
+     */
+    private RespuestaHttp handleAgregarLibro(HttpExchange exchange) throws IOException {
+        Map<String, String> campos = leerCuerpo(exchange);
+
+        Libro libro = this.bibliotecaApplicationService.agrearLibro(
+                campoObligatorio(campos, "titulo"),
+                campoObligatorio(campos, "autor"),
+                campoObligatorio(campos, "genero"),
+                campoObligatorio(campos, "editorial"));
+
+        return RespuestaHttp.creado(libroAJson(libro));
+    }
+
+    /**
+     * POST /libros/importar[?checkpoint=n] con un cuerpo CSV
+     * (titulo;autor;genero;editorial por línea), el cuerpo se lee como stream.
+     * Si el cuerpo se corta a mitad de camino responde 400 con el resultado
+     * parcial, lo ya importado queda persistido
+     */
+    private RespuestaHttp handleImportarLibros(HttpExchange exchange) throws IOException {
+        String checkpoint = leerParametros(exchange).get("checkpoint");
+        int filasPorCheckpoint = checkpoint == null ? 0 : Integer.parseInt(checkpoint);
+
+        ResultadoImportacion resultado;
+        try (BufferedReader lector = new BufferedReader(
+                new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            resultado = this.bibliotecaApplicationService.importarLibros(
+                    FilaImportacionLibro.desdeLineasCsv(lector.lines()), filasPorCheckpoint);
+        } catch (ImportacionInterrumpidaException e) {
+            return new RespuestaHttp(400, "{\"error\":" + Json.texto(e.getMessage())
+                    + "," + camposResultadoImportacion(e.getResultadoParcial()) + "}");
+        }
+
+        return RespuestaHttp.ok("{" + camposResultadoImportacion(resultado) + "}");
+    }
+
+    private static String camposResultadoImportacion(ResultadoImportacion resultado) {
+        return "\"importados\":" + resultado.importados()
+                + ",\"checkpoints\":" + resultado.checkpoints()
+                + ",\"rechazos\":" + Json.arreglo(resultado.rechazos(), rechazo ->
+                        "{\"fila\":" + rechazo.fila() + ",\"motivo\":" + Json.texto(rechazo.motivo()) + "}");
+    }
+
+    /**
+     * GET /catalogo[?cursor=c&limite=n] lista una página de los pares únicos de
+     * título y autor ordenados, el límite por defecto es 100
+     */
+    private RespuestaHttp handleMostrarCatalogo(HttpExchange exchange) {
+        Map<String, String> parametros = leerParametros(exchange);
+        Pagina<LibroCatalogoEntry> catalogo = this.bibliotecaApplicationService.obtenerPaginaCatalogo(
+                parametros.get("cursor"), leerLimitePagina(parametros));
+
+        return RespuestaHttp.ok(paginaAJson(catalogo, entry ->
+                "{\"titulo\":" + Json.texto(entry.titulo()) + ",\"autor\":" + Json.texto(entry.autor()) + "}"));
+    }
+
+    /**
+     * GET /facetas/{faceta}[?estado=libre][&limite=n] lista los valores con más
+     * libros, GET /facetas/{faceta}?valor=x[&estado=libre] cuenta los libros
+     * de un valor. Facetas: genero, editorial, autor, estado
+     */
+    private RespuestaHttp handleFacetas(HttpExchange exchange) {
+        String nombreFaceta = subRuta(exchange);
+        if (nombreFaceta.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar la faceta: /facetas/{genero|editorial|autor|estado}");
+        }
+        FacetaLibro faceta = FacetaLibro.valueOf(nombreFaceta.toUpperCase());
+
+        Map<String, String> parametros = leerParametros(exchange);
+        String nombreEstado = parametros.get("estado");
+        EstadoLibro estado = nombreEstado == null ? null : EstadoLibro.valueOf(nombreEstado.toUpperCase());
+
+        String valor = parametros.get("valor");
+        if (valor != null) {
+            long cantidad = this.bibliotecaApplicationService.contarLibros(faceta, valor, estado);
+            return RespuestaHttp.ok("{\"valor\":" + Json.texto(valor) + ",\"cantidad\":" + cantidad + "}");
+        }
+
+        String limite = parametros.get("limite");
+        return RespuestaHttp.ok(Json.arreglo(
+                this.bibliotecaApplicationService.obtenerFacetas(
+                        faceta, estado, limite == null ? LIMITE_FACETAS_POR_DEFECTO : Integer.parseInt(limite)),
+                conteo -> "{\"valor\":" + Json.texto(conteo.valor()) + ",\"cantidad\":" + conteo.cantidad() + "}"));
+    }
+
+    /**
+     * GET /prestamos[?cursor=c&limite=n] lista una página de las reservas
+     * activas ordenadas por fecha de vencimiento, el límite por defecto es 100
+     */
+    private RespuestaHttp handleListarPrestamos(HttpExchange exchange) {
+        Map<String, String> parametros = leerParametros(exchange);
+
+        return RespuestaHttp.ok(paginaAJson(
+                this.bibliotecaApplicationService.verPaginaReservasPorVencimiento(
+                        parametros.get("cursor"), leerLimitePagina(parametros)),
+                LibrosHttpController::reservaAJson));
+    }
+
+    /**
+     * POST /prestamos con {uuid, rut}
+     */
+    private RespuestaHttp handlePrestarLibro(HttpExchange exchange) throws IOException {
+        Map<String, String> campos = leerCuerpo(exchange);
+        DocumentoRut rut = DocumentoRut.definir(campoObligatorio(campos, "rut"));
+
+        Reserva reserva = this.bibliotecaApplicationService.prestarLibro(campoObligatorio(campos, "uuid"), rut);
+
+        return RespuestaHttp.creado(reservaAJson(reserva));
+    }
+
+    /**
+     * DELETE /prestamos/{idReserva} devuelve el libro de la reserva
+     */
+    private RespuestaHttp handleDevolverLibro(HttpExchange exchange) {
+        String idReserva = subRuta(exchange);
+        if (idReserva.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar el ID de la reserva: /prestamos/{id}");
+        }
+
+        Libro libro = this.bibliotecaApplicationService.devolverLibro(Integer.parseInt(idReserva));
+
+        return RespuestaHttp.ok(libroAJson(libro));
+    }
+
+    private static String libroAJson(Libro libro) {
+        return "{\"uuid\":" + Json.texto(libro.getUuid())
+                + ",\"titulo\":" + Json.texto(libro.getTitulo())
+                + ",\"autor\":" + Json.texto(libro.getAutor())
+                + ",\"genero\":" + Json.texto(libro.getGenero())
+                + ",\"editorial\":" + Json.texto(libro.getEditorial())
+                + ",\"estado\":" + Json.texto(libro.getEstado().name()) + "}";
+    }
+
+    private static String reservaAJson(Reserva reserva) {
+        return "{\"id\":" + reserva.getId()
+                + ",\"rut\":" + Json.texto(reserva.getUsuario().getRut().getFormateado())
+                + ",\"uuidLibro\":" + Json.texto(reserva.getLibro().getUuid())
+                + ",\"titulo\":" + Json.texto(reserva.getLibro().getTitulo())
+                + ",\"fechaVencimiento\":" + Json.texto(reserva.getFechaVencimiento().toString()) + "}";
+    }
+}
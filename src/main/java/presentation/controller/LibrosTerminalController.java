@@ -2,20 +2,27 @@ package presentation.controller;
 
 import domain.entities.Libro;
 import domain.entities.Reserva;
+import domain.enums.OrdenSugerencia;
 import domain.valueObject.DocumentoRut;
 import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.RechazoImportacion;
+import domain.valueObject.ResultadoImportacion;
+import domain.valueObject.SugerenciaLibro;
 import presentation.services.BibliotecaApplicationService;
 import presentation.services.UsuarioApplicationService;
+import shared.exceptions.ImportacionInterrumpidaException;
 import shared.exceptions.LibroNoEncontradoException;
 import shared.exceptions.OperacionCanceladaException;
 import shared.exceptions.SinReservasActivasException;
 import shared.exceptions.UsuarioNoEncontradoException;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
-import java.util.Set;
 
 /**
  * Clase que controla toda la lógica por front (terminal) de los libros
@@ -24,6 +31,10 @@ import java.util.Set;
 public class LibrosTerminalController {
     private final BibliotecaApplicationService bibliotecaApplicationService;
     private final UsuarioApplicationService usuarioApplicationService;
+    private static final int MAXIMO_RECHAZOS_MOSTRADOS = 20;
+    // Libros parecidos que se sugieren cuando la búsqueda exacta no encuentra nada
+    private static final int MAXIMO_SUGERENCIAS = 10;
+
     private final Scanner scanner = new Scanner(System.in);
 
     public LibrosTerminalController(
@@ -55,6 +66,41 @@ public class LibrosTerminalController {
         );
     }
 
+    /**
+     * Método que maneja el caso de importar libros desde un archivo CSV
+     */
+    public void handleImportarLibros() {
+        System.out.print("Ruta del archivo CSV (titulo;autor;genero;editorial): ");
+        String rutaArchivo = scanner.nextLine().trim();
+
+        System.out.print("Filas por checkpoint (Enter para guardar solo al final): ");
+        String checkpoint = scanner.nextLine().trim();
+        int filasPorCheckpoint = checkpoint.isEmpty() ? 0 : Integer.parseInt(checkpoint);
+
+        ResultadoImportacion resultado;
+        try {
+            resultado = this.bibliotecaApplicationService.importarLibrosDesdeArchivo(rutaArchivo, filasPorCheckpoint);
+        } catch (IOException e) {
+            System.out.println("No se pudo leer el archivo: " + e.getMessage());
+            return;
+        } catch (ImportacionInterrumpidaException e) {
+            // Lo importado antes del error ya quedó guardado
+            System.out.println(e.getMessage());
+            resultado = e.getResultadoParcial();
+        }
+
+        System.out.printf("Libros importados: %d, rechazados: %d, checkpoints: %d%n",
+                resultado.importados(), resultado.rechazos().size(), resultado.checkpoints());
+        int mostrados = 0;
+        for (RechazoImportacion rechazo : resultado.rechazos()) {
+            if (mostrados++ == MAXIMO_RECHAZOS_MOSTRADOS) {
+                System.out.printf("  ... y %d rechazos más%n", resultado.rechazos().size() - MAXIMO_RECHAZOS_MOSTRADOS);
+                break;
+            }
+            System.out.printf("  Línea %d: %s%n", rechazo.fila(), rechazo.motivo());
+        }
+    }
+
     /**
      * Método que maneja buscar un libro dentro del sistema
      */
@@ -63,11 +109,18 @@ public class LibrosTerminalController {
         String criterioBusqueda = scanner.nextLine();
 
         ArrayList<Libro> librosEncontrados = this.bibliotecaApplicationService.buscarLibro(criterioBusqueda);
+        String encabezado = "Libros encontrados:";
+        if (librosEncontrados.isEmpty()) {
+            // Sin coincidencias exactas se sugieren los títulos y autores más parecidos
+            librosEncontrados = this.bibliotecaApplicationService.buscarLibroAproximado(
+                    criterioBusqueda, MAXIMO_SUGERENCIAS);
+            encabezado = "No hay coincidencias exactas, libros parecidos:";
+        }
 
         if (librosEncontrados.isEmpty()) {
             System.out.println("No se encontraron libros que coincidan con el término de búsqueda.");
         } else {
-            System.out.println("Libros encontrados:");
+            System.out.println(encabezado);
             for (Libro libro : librosEncontrados) {
                 System.out.printf("  ID: %s, Título: %s, Autor: %s, Estado: %s%n",
                         libro.getUuid(), libro.getTitulo(), libro.getAutor(), libro.getEstado());
@@ -75,6 +128,28 @@ public class LibrosTerminalController {
         }
     }
 
+    /**
+     * Método que maneja sugerir títulos y autores a partir de lo que se
+     * alcanzó a escribir, los más populares primero
+     */
+    public void handleSugerirLibros() {
+        System.out.print("Ingrese el comienzo del título o autor: ");
+        String prefijo = scanner.nextLine();
+
+        List<SugerenciaLibro> sugerencias = this.bibliotecaApplicationService.sugerirLibros(
+                prefijo, MAXIMO_SUGERENCIAS, OrdenSugerencia.POPULARIDAD);
+        if (sugerencias.isEmpty()) {
+            System.out.println("No hay títulos ni autores que comiencen así.");
+            return;
+        }
+
+        System.out.println("Sugerencias:");
+        for (SugerenciaLibro sugerencia : sugerencias) {
+            System.out.printf("  %s (%s, popularidad: %d)%n",
+                    sugerencia.texto(), sugerencia.campo().name().toLowerCase(), sugerencia.popularidad());
+        }
+    }
+
     /**
      * Método que maneja el caso de prestamo de libros
      */
@@ -134,6 +209,11 @@ public class LibrosTerminalController {
 
             // Buscar el libro
             ArrayList<Libro> librosEncontrados = this.bibliotecaApplicationService.buscarLibro(nombreLibro);
+            if (librosEncontrados.isEmpty()) {
+                // Un error de tipeo no obliga a escribir el título de nuevo, se ofrecen los parecidos
+                librosEncontrados = this.bibliotecaApplicationService.buscarLibroAproximado(
+                        nombreLibro, MAXIMO_SUGERENCIAS);
+            }
 
             if (librosEncontrados.isEmpty()) {
                 System.out.println("No se encontraron libros con el título '" + nombreLibro + "'. Por favor intente de nuevo.");
@@ -182,19 +262,20 @@ public class LibrosTerminalController {
      * Método que maneja el caso de devolver un libro del sistema
      */
     public void handleDevolverLibro() {
-        ArrayList<Reserva> reservasActivas = this.bibliotecaApplicationService.verReservasActivas();
+        // Las reservas ya vienen ordenadas por fecha de vencimiento desde el índice, una página a la vez
+        Iterator<Reserva> reservasActivas = this.bibliotecaApplicationService.recorrerReservasPorVencimiento()
+                .iterator();
 
-        if (reservasActivas.isEmpty()) {
+        if (!reservasActivas.hasNext()) {
             throw new SinReservasActivasException("No existen reservas activas dentro del sistema");
         }
 
-        // Ordenar las reservas por fecha de vencimiento
-        reservasActivas.sort((r1, r2) -> r1.getFechaVencimiento().compareTo(r2.getFechaVencimiento()));
-
         System.out.print("\n=== Mostrando reservas activas (ordenadas por fecha de vencimiento) ===\n");
 
-        for (Reserva reserva : reservasActivas) {
-            long diasRestantes = ChronoUnit.DAYS.between(LocalDate.now(), reserva.getFechaVencimiento());
+        LocalDate hoy = LocalDate.now();
+        while (reservasActivas.hasNext()) {
+            Reserva reserva = reservasActivas.next();
+            long diasRestantes = ChronoUnit.DAYS.between(hoy, reserva.getFechaVencimiento());
             String estadoVencimiento;
             if (diasRestantes < 0) {
                 estadoVencimiento = "Vencida hace " + Math.abs(diasRestantes) + " días";
@@ -221,23 +302,16 @@ public class LibrosTerminalController {
      * Método que maneja mostrar libros registrados dentro del sistema
      */
     public void handleMostrarLibros() {
-        ArrayList<Libro> libros = this.bibliotecaApplicationService.obtenerTodosLosLibros();
+        // El índice ya está ordenado por título y luego por autor
+        Iterator<Libro> libros = this.bibliotecaApplicationService.recorrerLibrosOrdenados().iterator();
 
-        if (libros.isEmpty()) {
+        if (!libros.hasNext()) {
             throw new LibroNoEncontradoException("No hay libros registrados en el sistema");
         }
 
-        // Ordenar los libros por título y luego por autor
-        libros.sort((l1, l2) -> {
-            int comp = l1.getTitulo().compareTo(l2.getTitulo());
-            if (comp == 0) {
-                return l1.getAutor().compareTo(l2.getAutor());
-            }
-            return comp;
-        });
-
         System.out.print("\n=== Libros registrados (ordenados por título) ===\n");
-        for (Libro libro : libros) {
+        while (libros.hasNext()) {
+            Libro libro = libros.next();
             System.out.println(libro.getUuid() + " - " + libro.getTitulo() + " - " + libro.getAutor() + " - " +  libro.getEditorial()  + " - "+ libro.getEstado());
         }
     }
@@ -246,25 +320,17 @@ public class LibrosTerminalController {
      * Método que maneja mostrar un catálogo único de libros (por título y autor)
      */
     public void handleMostrarCatalogoLibros() {
-        Set<LibroCatalogoEntry> catalogo = this.bibliotecaApplicationService.obtenerCatalogoDeLibros();
+        // Se lee en orden desde el índice, sin copiar ni ordenar el catálogo
+        Iterator<LibroCatalogoEntry> catalogo = this.bibliotecaApplicationService.recorrerCatalogoOrdenado().iterator();
 
-        if (catalogo.isEmpty()) {
+        if (!catalogo.hasNext()) {
             System.out.println("El catálogo de libros está vacío.");
             return;
         }
 
-        // Convertir a lista y ordenar para una presentación consistente
-        ArrayList<LibroCatalogoEntry> catalogoOrdenado = new ArrayList<>(catalogo);
-        catalogoOrdenado.sort((e1, e2) -> {
-            int comp = e1.titulo().compareTo(e2.titulo());
-            if (comp == 0) {
-                return e1.autor().compareTo(e2.autor());
-            }
-            return comp;
-        });
-
         System.out.print("\n=== Catálogo de Libros (Títulos Únicos) ===\n");
-        for (LibroCatalogoEntry entry : catalogoOrdenado) {
+        while (catalogo.hasNext()) {
+            LibroCatalogoEntry entry = catalogo.next();
             System.out.println("Título: " + entry.titulo() + " | Autor: " + entry.autor());
         }
     }
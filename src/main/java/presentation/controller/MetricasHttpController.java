@@ -0,0 +1,26 @@
+package presentation.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import shared.metricas.RegistroMetricas;
+
+/**
+ * Clase que expone por HTTP el volcado JSON de las métricas,
+ * atiende el contexto /metricas
+ */
+public class MetricasHttpController extends ControladorHttp {
+    public static final String CONTEXTO_METRICAS = "/metricas";
+
+    private final RegistroMetricas registroMetricas;
+
+    public MetricasHttpController(RegistroMetricas registroMetricas) {
+        this.registroMetricas = registroMetricas;
+    }
+
+    @Override
+    protected RespuestaHttp atender(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return RespuestaHttp.metodoNoPermitido();
+        }
+        return RespuestaHttp.ok(this.registroMetricas.volcarJson());
+    }
+}
@@ -0,0 +1,23 @@
+package presentation.controller;
+
+import shared.metricas.RegistroMetricas;
+
+/**
+ * Clase controladora que muestra por terminal las métricas de latencia y
+ * throughput de repositorios y casos de uso
+ */
+public class MetricasTerminalController {
+    private final RegistroMetricas registroMetricas;
+
+    public MetricasTerminalController(RegistroMetricas registroMetricas) {
+        this.registroMetricas = registroMetricas;
+    }
+
+    /**
+     * Método que maneja el caso de mostrar las métricas del sistema
+     */
+    public void handleMostrarMetricas() {
+        System.out.println("\n=== Métricas de operaciones ===");
+        System.out.print(this.registroMetricas.formatearTabla());
+    }
+}
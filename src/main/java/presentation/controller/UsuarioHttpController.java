@@ -0,0 +1,70 @@
+package presentation.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import domain.entities.Usuario;
+import domain.valueObject.DocumentoRut;
+import presentation.services.UsuarioApplicationService;
+import shared.utils.Json;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Clase que expone por HTTP (JSON) los casos de uso de usuarios,
+ * atiende el contexto /usuarios
+ */
+public class UsuarioHttpController extends ControladorHttp {
+    public static final String CONTEXTO_USUARIOS = "/usuarios";
+
+    private final UsuarioApplicationService usuarioApplicationService;
+
+    public UsuarioHttpController(UsuarioApplicationService usuarioApplicationService) {
+        this.usuarioApplicationService = usuarioApplicationService;
+    }
+
+    @Override
+    protected RespuestaHttp atender(HttpExchange exchange) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                return handleMostrarUsuarios(exchange);
+            case "POST":
+                return handleRegistrarUsuario(exchange);
+            default:
+                return RespuestaHttp.metodoNoPermitido();
+        }
+    }
+
+    /**
+     * POST /usuarios con {nombre, rut}
+     */
+    private RespuestaHttp handleRegistrarUsuario(HttpExchange exchange) throws IOException {
+        Map<String, String> campos = leerCuerpo(exchange);
+        DocumentoRut rut = DocumentoRut.definir(campoObligatorio(campos, "rut"));
+
+        Usuario usuario = this.usuarioApplicationService.registrarUsuario(campoObligatorio(campos, "nombre"), rut);
+
+        return RespuestaHttp.creado(usuarioAJson(usuario));
+    }
+
+    /**
+     * GET /usuarios[?cursor=c&limite=n] lista una página de usuarios ordenada
+     * por RUT (el cursor viene en la página anterior, el límite por defecto es
+     * 100), con &orden=nombre la página se ordena por nombre
+     */
+    private RespuestaHttp handleMostrarUsuarios(HttpExchange exchange) {
+        Map<String, String> parametros = leerParametros(exchange);
+        String cursor = parametros.get("cursor");
+        int limite = leerLimitePagina(parametros);
+
+        return RespuestaHttp.ok(paginaAJson(
+                "nombre".equals(parametros.get("orden"))
+                        ? this.usuarioApplicationService.obtenerPaginaUsuariosPorNombre(cursor, limite)
+                        : this.usuarioApplicationService.obtenerPaginaUsuarios(cursor, limite),
+                UsuarioHttpController::usuarioAJson));
+    }
+
+    private static String usuarioAJson(Usuario usuario) {
+        return "{\"rut\":" + Json.texto(usuario.getRut().getFormateado())
+                + ",\"nombre\":" + Json.texto(usuario.getNombre()) + "}";
+    }
+}
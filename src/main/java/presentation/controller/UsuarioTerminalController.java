@@ -4,7 +4,7 @@ import domain.entities.Usuario;
 import domain.valueObject.DocumentoRut;
 import presentation.services.UsuarioApplicationService;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Scanner;
 
 /**
@@ -38,18 +38,17 @@ public class UsuarioTerminalController {
      * Método que maneja el caso de mostrar usuarios registrados
      */
     public void handleMostrarUsuarios() {
-        ArrayList<Usuario> usuarios = this.usuarioApplicationService.obtenerTodosLosUsuarios();
+        // El repositorio entrega los usuarios ya ordenados por nombre, una página a la vez
+        Iterator<Usuario> usuarios = this.usuarioApplicationService.recorrerUsuariosPorNombre().iterator();
 
-        if (usuarios.isEmpty()) {
+        if (!usuarios.hasNext()) {
             System.out.println("No hay usuarios registrados en el sistema.");
             return;
         }
 
-        // Ordenar los usuarios por nombre
-        usuarios.sort((u1, u2) -> u1.getNombre().compareTo(u2.getNombre()));
-
         System.out.println("\n=== Usuarios registrados (ordenados por nombre) ===");
-        for (Usuario usuario : usuarios) {
+        while (usuarios.hasNext()) {
+            Usuario usuario = usuarios.next();
             System.out.println("RUT: " + usuario.getRut().getFormateado() + " - Nombre: " + usuario.getNombre());
         }
     }
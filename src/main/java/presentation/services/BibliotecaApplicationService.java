@@ -3,54 +3,108 @@ package presentation.services;
 import application.usecases.AgregarLibroCasoUso;
 import application.usecases.BuscarLibroCasoUso;
 import application.usecases.DevolverLibroCasoUso;
+import application.usecases.ImportarLibrosCasoUso;
 import application.usecases.PrestarLibroCasoUso;
 import domain.entities.Libro;
 import domain.entities.Reserva;
+import domain.enums.EstadoLibro;
+import domain.enums.FacetaLibro;
+import domain.enums.OrdenSugerencia;
 import domain.services.ServicioGenerador;
+import domain.services.ServicioJournal;
 import domain.services.ServicioLibros;
-import domain.services.ServicioPersistencia;
 import domain.services.ServicioPrestamos;
+import domain.valueObject.ConteoFaceta;
 import domain.valueObject.DocumentoRut;
+import domain.valueObject.FilaImportacionLibro;
 import domain.valueObject.LibroCatalogoEntry;
+import domain.valueObject.Pagina;
+import domain.valueObject.ResultadoImportacion;
+import domain.valueObject.SugerenciaLibro;
+import infraestructure.indices.IndiceAutocompletado;
+import infraestructure.indices.IndiceBusquedaAproximada;
+import infraestructure.indices.IndiceFacetas;
+import infraestructure.indices.IndiceTituloAutor;
 import interfaces.infraestructure.IRepositorioLibros;
 import interfaces.infraestructure.IRepositorioReservas;
+import shared.exceptions.ImportacionInterrumpidaException;
+import shared.metricas.MetricaOperacion;
+import shared.metricas.RegistroMetricas;
+import shared.utils.Validaciones;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Clase de servicio de terminal que maneja los casos
  * de la biblioteca por terminal
  */
 public class BibliotecaApplicationService {
+  // Cantidad de elementos que se copian del repositorio por vez al recorrer un listado completo
+  private static final int TAMANO_PAGINA_RECORRIDO = 1000;
+
   private final AgregarLibroCasoUso agregarLibroCasoUso;
   private final BuscarLibroCasoUso buscarLibroCasoUso;
   private final PrestarLibroCasoUso prestarLibroCasoUso;
   private final DevolverLibroCasoUso devolverLibroCasoUso;
-  private final ServicioPersistencia servicioPersistencia;
+  private final ImportarLibrosCasoUso importarLibrosCasoUso;
+  private final ServicioPrestamos servicioPrestamos;
+  private final ServicioJournal servicioJournal;
   private final IRepositorioLibros repositorioLibros;
   private final IRepositorioReservas repositorioReservas;
-  private final String rutaLibrosCsv;
-  private final String rutaReservasCsv;
+  private final IndiceFacetas indiceFacetas;
+  private final IndiceTituloAutor indiceTituloAutor;
+  private final IndiceBusquedaAproximada indiceBusquedaAproximada;
+  private final IndiceAutocompletado indiceAutocompletado;
+  private final MetricaOperacion metricaAgregarLibro;
+  private final MetricaOperacion metricaBuscarLibro;
+  private final MetricaOperacion metricaBuscarLibroAproximado;
+  private final MetricaOperacion metricaSugerirLibros;
+  private final MetricaOperacion metricaPrestarLibro;
+  private final MetricaOperacion metricaDevolverLibro;
+  private final MetricaOperacion metricaImportarLibros;
 
   public BibliotecaApplicationService(
       IRepositorioLibros repositorioLibros,
       ServicioLibros servicioLibros,
       ServicioPrestamos servicioPrestamos,
       ServicioGenerador servicioGenerador,
-      ServicioPersistencia servicioPersistencia,
+      ServicioJournal servicioJournal,
       IRepositorioReservas repositorioReservas,
-      String rutaLibrosCsv,
-      String rutaReservasCsv) {
-    this.agregarLibroCasoUso = new AgregarLibroCasoUso(repositorioLibros, servicioLibros, servicioGenerador);
+      IndiceFacetas indiceFacetas,
+      IndiceTituloAutor indiceTituloAutor,
+      IndiceBusquedaAproximada indiceBusquedaAproximada,
+      IndiceAutocompletado indiceAutocompletado,
+      RegistroMetricas registroMetricas) {
+    this.agregarLibroCasoUso = new AgregarLibroCasoUso(repositorioLibros, servicioGenerador);
     this.buscarLibroCasoUso = new BuscarLibroCasoUso(repositorioLibros);
     this.prestarLibroCasoUso = new PrestarLibroCasoUso(servicioLibros, servicioPrestamos);
     this.devolverLibroCasoUso = new DevolverLibroCasoUso(servicioPrestamos);
-    this.servicioPersistencia = servicioPersistencia;
+    this.importarLibrosCasoUso = new ImportarLibrosCasoUso(repositorioLibros, servicioGenerador);
+    this.servicioPrestamos = servicioPrestamos;
+    this.servicioJournal = servicioJournal;
     this.repositorioLibros = repositorioLibros;
     this.repositorioReservas = repositorioReservas;
-    this.rutaLibrosCsv = rutaLibrosCsv;
-    this.rutaReservasCsv = rutaReservasCsv;
+    this.indiceFacetas = indiceFacetas;
+    this.indiceTituloAutor = indiceTituloAutor;
+    this.indiceBusquedaAproximada = indiceBusquedaAproximada;
+    this.indiceAutocompletado = indiceAutocompletado;
+    this.metricaAgregarLibro = registroMetricas.metrica("AgregarLibroCasoUso.ejecutar");
+    this.metricaBuscarLibro = registroMetricas.metrica("BuscarLibroCasoUso.ejecutar");
+    this.metricaBuscarLibroAproximado = registroMetricas.metrica("IndiceBusquedaAproximada.buscar");
+    this.metricaSugerirLibros = registroMetricas.metrica("IndiceAutocompletado.sugerir");
+    this.metricaPrestarLibro = registroMetricas.metrica("PrestarLibroCasoUso.ejecutar");
+    this.metricaDevolverLibro = registroMetricas.metrica("DevolverLibroCasoUso.ejecutar");
+    this.metricaImportarLibros = registroMetricas.metrica("ImportarLibrosCasoUso.ejecutar");
   }
 
   /**
@@ -63,24 +117,105 @@ public class BibliotecaApplicationService {
    */
   public Libro agrearLibro(String titulo, String autor, String genero, String editorial) {
     // Ejecuta el caso de uso para agregar un libro al sistema
-    Libro libro = this.agregarLibroCasoUso.ejecutar(titulo, autor, genero, editorial);
+    Libro libro = this.metricaAgregarLibro.medir(
+        () -> this.agregarLibroCasoUso.ejecutar(titulo, autor, genero, editorial));
 
-    // Almacena el libro generado dentro del CSV
+    // Registra el libro generado dentro del journal de operaciones
     if (libro != null) {
-      this.servicioPersistencia.guardarLibrosEnCSV(this.rutaLibrosCsv, this.repositorioLibros.obtenerTodosLosLibros());
+      this.servicioJournal.registrarLibroAgregado(libro);
     }
 
     // retorna el libro agregado
     return libro;
   }
 
+  /**
+   * Método que ejecuta el caso de uso de importar libros en forma masiva. Los
+   * libros no se registran uno a uno en el journal, se persisten con un
+   * checkpoint al final o cada filasPorCheckpoint filas
+   * @param filas filas a importar
+   * @param filasPorCheckpoint cada cuántas filas se persiste, 0 para solo al final
+   * @return resultado de la importación con los rechazos por fila
+   * @throws ImportacionInterrumpidaException si la lectura de las filas falla a mitad de camino
+   */
+  public ResultadoImportacion importarLibros(Stream<FilaImportacionLibro> filas, int filasPorCheckpoint) {
+    return this.metricaImportarLibros.medir(() -> this.importarLibrosCasoUso.ejecutar(
+        filas, filasPorCheckpoint, this.servicioJournal::checkpoint));
+  }
+
+  /**
+   * Método que importa libros desde un archivo CSV (titulo;autor;genero;editorial)
+   * @param rutaArchivo ruta del archivo
+   * @param filasPorCheckpoint cada cuántas filas se persiste, 0 para solo al final
+   * @return resultado de la importación con los rechazos por fila
+   * @throws IOException si el archivo no se puede abrir
+   * @throws ImportacionInterrumpidaException si la lectura falla a mitad del archivo
+   */
+  public ResultadoImportacion importarLibrosDesdeArchivo(String rutaArchivo, int filasPorCheckpoint)
+      throws IOException {
+    try (Stream<String> lineas = Files.lines(Path.of(rutaArchivo), StandardCharsets.UTF_8)) {
+      return importarLibros(FilaImportacionLibro.desdeLineasCsv(lineas), filasPorCheckpoint);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Método que entrega un futuro que se completa cuando las operaciones
+   * realizadas hasta ahora (libros agregados, préstamos y devoluciones)
+   * quedaron escritas en el journal. Solo es necesario si se quiere esperar
+   * la durabilidad, con escritura agrupada el journal se escribe en segundo plano
+   * @return futuro de durabilidad de las operaciones
+   */
+  public CompletableFuture<Void> sincronizar() {
+    return this.servicioJournal.sincronizar();
+  }
+
   /**
    * Método que ejecuta el caso de uso para buscar un libro dentro del repo
    * @param criterio criterio de búsqueda
    * @return ArrayList de libros encontrados dentro del sistema
    */
   public ArrayList<Libro> buscarLibro(String criterio) {
-    return this.buscarLibroCasoUso.ejecutar(criterio);
+    return this.metricaBuscarLibro.medir(() -> this.buscarLibroCasoUso.ejecutar(criterio));
+  }
+
+  /**
+   * Método que ejecuta el caso de uso para buscar un libro dentro del repo,
+   * entregando como máximo la cantidad de libros indicada
+   * @param criterio criterio de búsqueda
+   * @param limite cantidad máxima de libros
+   * @return ArrayList de hasta limite libros encontrados
+   */
+  public ArrayList<Libro> buscarLibro(String criterio, int limite) {
+    return this.metricaBuscarLibro.medir(() -> this.buscarLibroCasoUso.ejecutar(criterio, limite));
+  }
+
+  /**
+   * Método que busca libros por título y autor tolerando errores de tipeo,
+   * ordenados del más al menos parecido. Se usa cuando la búsqueda exacta no
+   * encuentra nada
+   * @param criterio criterio de búsqueda
+   * @param limite cantidad máxima de libros
+   * @return ArrayList de los libros más parecidos al criterio
+   */
+  public ArrayList<Libro> buscarLibroAproximado(String criterio, int limite) {
+    // Mismas reglas del criterio que la búsqueda exacta
+    Validaciones.esAlfanumericoFlexible(criterio);
+    return this.metricaBuscarLibroAproximado.medir(
+        () -> this.indiceBusquedaAproximada.buscar(criterio, limite));
+  }
+
+  /**
+   * Método que sugiere títulos y autores mientras se escribe, los que tienen
+   * una palabra que empieza con el prefijo
+   * @param prefijo lo escrito hasta ahora
+   * @param cantidad cantidad máxima de sugerencias
+   * @param orden por popularidad (ejemplares y préstamos) o alfabético
+   * @return List de sugerencias en el orden pedido
+   */
+  public List<SugerenciaLibro> sugerirLibros(String prefijo, int cantidad, OrdenSugerencia orden) {
+    return this.metricaSugerirLibros.medir(() -> this.indiceAutocompletado.sugerir(prefijo, cantidad, orden));
   }
 
   /**
@@ -91,13 +226,11 @@ public class BibliotecaApplicationService {
    */
   public Reserva prestarLibro(String uuid, DocumentoRut rut) {
     // Ejecuta el caso de uso de prestar un libro
-    Reserva reserva = this.prestarLibroCasoUso.ejecutar(uuid, rut);
+    Reserva reserva = this.metricaPrestarLibro.medir(() -> this.prestarLibroCasoUso.ejecutar(uuid, rut));
 
-    // Agrega la persistencia de datos dentro de los CSV
+    // Registra la reserva dentro del journal de operaciones
     if (reserva != null) {
-      this.servicioPersistencia.guardarLibrosEnCSV(this.rutaLibrosCsv, this.repositorioLibros.obtenerTodosLosLibros());
-      this.servicioPersistencia.guardarReservasEnCSV(this.rutaReservasCsv,
-          this.repositorioReservas.obtenerTodasLasReservas());
+      this.servicioJournal.registrarReservaCreada(reserva);
     }
 
     // retorna la reserva generada
@@ -111,17 +244,13 @@ public class BibliotecaApplicationService {
    */
   public Libro devolverLibro(int idReserva) {
     // Ejecuta el caso de uso que devuelve el libro
-    Libro libro = this.devolverLibroCasoUso.ejecutar(idReserva);
+    Reserva reserva = this.metricaDevolverLibro.medir(() -> this.devolverLibroCasoUso.ejecutar(idReserva));
 
-    // Agrega la persistencia dentro de la aplicación
-    if (libro != null) {
-      this.servicioPersistencia.guardarLibrosEnCSV(this.rutaLibrosCsv, this.repositorioLibros.obtenerTodosLosLibros());
-      this.servicioPersistencia.guardarReservasEnCSV(this.rutaReservasCsv,
-          this.repositorioReservas.obtenerTodasLasReservas());
-    }
+    // Registra la devolución dentro del journal de operaciones
+    this.servicioJournal.registrarReservaDevuelta(reserva);
 
     // retorna el libro de la reserva
-    return libro;
+    return reserva.getLibro();
   }
 
   /**
@@ -132,6 +261,82 @@ public class BibliotecaApplicationService {
     return this.repositorioReservas.obtenerTodasLasReservas();
   }
 
+  /**
+   * Método que muestra una página de las reservas activas ordenadas por id
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite tamaño de la página
+   * @return página de reservas con el cursor de la siguiente
+   */
+  public Pagina<Reserva> verPaginaReservasActivas(String cursor, int limite) {
+    return this.repositorioReservas.obtenerPaginaReservas(cursor, limite);
+  }
+
+  /**
+   * Método que recorre todas las reservas activas sin copiarlas todas a la vez
+   * @return Stream de las reservas ordenadas por id
+   */
+  public Stream<Reserva> recorrerReservasActivas() {
+    return this.repositorioReservas.recorrerReservas(TAMANO_PAGINA_RECORRIDO);
+  }
+
+  /**
+   * Método que recorre las reservas activas ordenadas por fecha de vencimiento
+   * pidiendo una página a la vez, sin copiarlas todas a la vez
+   * @return Stream de las reservas ordenadas por vencimiento
+   */
+  public Stream<Reserva> recorrerReservasPorVencimiento() {
+    return Pagina.recorrer(cursor -> verPaginaReservasPorVencimiento(cursor, TAMANO_PAGINA_RECORRIDO));
+  }
+
+  /**
+   * Método que muestra una página de las reservas activas ordenadas por fecha de vencimiento
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite tamaño de la página
+   * @return página de reservas con el cursor de la siguiente
+   */
+  public Pagina<Reserva> verPaginaReservasPorVencimiento(String cursor, int limite) {
+    return this.servicioPrestamos.obtenerPaginaReservasPorVencimiento(cursor, limite);
+  }
+
+  /**
+   * Método que muestra las reservas vencidas a la fecha de hoy
+   * @param despuesDe última reserva de la página anterior, null para la primera página
+   * @param limite tamaño de la página
+   * @return Arraylist de reservas vencidas
+   */
+  public ArrayList<Reserva> verReservasVencidas(Reserva despuesDe, int limite) {
+    return this.servicioPrestamos.obtenerReservasVencidas(LocalDate.now(), despuesDe, limite);
+  }
+
+  /**
+   * Método que muestra las reservas que vencen dentro de los próximos días
+   * @param dias cantidad de días desde hoy
+   * @param despuesDe última reserva de la página anterior, null para la primera página
+   * @param limite tamaño de la página
+   * @return Arraylist de reservas por vencer
+   */
+  public ArrayList<Reserva> verReservasPorVencer(int dias, Reserva despuesDe, int limite) {
+    return this.servicioPrestamos.obtenerReservasPorVencer(LocalDate.now(), dias, despuesDe, limite);
+  }
+
+  /**
+   * Método que muestra las próximas reservas en vencer desde hoy
+   * @param cantidad cantidad de reservas
+   * @return Arraylist de reservas ordenadas por vencimiento
+   */
+  public ArrayList<Reserva> verProximasAVencer(int cantidad) {
+    return this.servicioPrestamos.obtenerProximasAVencer(LocalDate.now(), cantidad);
+  }
+
+  /**
+   * Método que muestra las reservas activas de un usuario
+   * @param rut rut del usuario
+   * @return Arraylist de las reservas del usuario
+   */
+  public ArrayList<Reserva> verReservasDeUsuario(DocumentoRut rut) {
+    return this.servicioPrestamos.obtenerReservasPorUsuario(rut);
+  }
+
   /**
    * Método que muestra todos los libros dentro del sistema
    * @return Arraylist de los libros registrados del sistema
@@ -140,6 +345,24 @@ public class BibliotecaApplicationService {
     return this.repositorioLibros.obtenerTodosLosLibros();
   }
 
+  /**
+   * Método que obtiene una página de los libros del sistema en orden de registro
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite tamaño de la página
+   * @return página de libros con el cursor de la siguiente
+   */
+  public Pagina<Libro> obtenerPaginaLibros(String cursor, int limite) {
+    return this.repositorioLibros.obtenerPaginaLibros(cursor, limite);
+  }
+
+  /**
+   * Método que recorre todos los libros del sistema sin copiarlos todos a la vez
+   * @return Stream de los libros en orden de registro
+   */
+  public Stream<Libro> recorrerLibros() {
+    return this.repositorioLibros.recorrerLibros(TAMANO_PAGINA_RECORRIDO);
+  }
+
   /**
    * Método que obtiene un catálogo único de libros (título y autor)
    * @return Set de libros únicos
@@ -147,4 +370,65 @@ public class BibliotecaApplicationService {
   public Set<LibroCatalogoEntry> obtenerCatalogoDeLibros() {
     return this.repositorioLibros.obtenerCatalogoLibros();
   }
+
+  /**
+   * Método que recorre el catálogo único de libros ordenado por título y
+   * autor según las reglas del español, se lee en orden desde el índice
+   * @return Stream de las entradas del catálogo ordenadas
+   */
+  public Stream<LibroCatalogoEntry> recorrerCatalogoOrdenado() {
+    return this.indiceTituloAutor.recorrerCatalogo();
+  }
+
+  /**
+   * Método que obtiene una página del catálogo único de libros ordenado por
+   * título y autor, se lee en orden desde el índice
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite tamaño de la página
+   * @return página de entradas del catálogo con el cursor de la siguiente
+   */
+  public Pagina<LibroCatalogoEntry> obtenerPaginaCatalogo(String cursor, int limite) {
+    return this.indiceTituloAutor.obtenerPaginaCatalogo(cursor, limite);
+  }
+
+  /**
+   * Método que obtiene una página de los libros ordenados por título y autor
+   * @param cursor cursor de la página anterior, nulo para la primera
+   * @param limite tamaño de la página
+   * @return página de libros con el cursor de la siguiente
+   */
+  public Pagina<Libro> obtenerPaginaLibrosOrdenados(String cursor, int limite) {
+    return this.indiceTituloAutor.obtenerPagina(cursor, limite);
+  }
+
+  /**
+   * Método que recorre todos los libros ordenados por título y autor
+   * @return Stream de los libros ordenados
+   */
+  public Stream<Libro> recorrerLibrosOrdenados() {
+    return this.indiceTituloAutor.recorrer();
+  }
+
+  /**
+   * Método que cuenta los libros con un valor de faceta, por ejemplo las
+   * novelas libres, sin recorrer el catálogo
+   * @param faceta faceta a consultar
+   * @param valor valor de la faceta
+   * @param estado estado de los libros a contar, nulo para todos
+   * @return cantidad de libros
+   */
+  public long contarLibros(FacetaLibro faceta, String valor, EstadoLibro estado) {
+    return this.indiceFacetas.contar(faceta, valor, estado);
+  }
+
+  /**
+   * Método que obtiene los valores de una faceta con más libros
+   * @param faceta faceta a listar
+   * @param estado estado de los libros a contar, nulo para todos
+   * @param limite cantidad máxima de valores
+   * @return conteos ordenados de mayor a menor
+   */
+  public List<ConteoFaceta> obtenerFacetas(FacetaLibro faceta, EstadoLibro estado, int limite) {
+    return this.indiceFacetas.obtenerMasFrecuentes(faceta, estado, limite);
+  }
 }
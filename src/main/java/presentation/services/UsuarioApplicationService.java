@@ -2,36 +2,44 @@ package presentation.services;
 
 import application.usecases.RegistrarUsuarioCasoUso;
 import domain.entities.Usuario;
-import domain.services.ServicioPersistencia;
+import domain.services.ServicioJournal;
 import domain.services.ServicioUsuarios;
 import domain.valueObject.DocumentoRut;
+import domain.valueObject.Pagina;
 import interfaces.infraestructure.IRepositorioUsuarios;
 import domain.entities.Usuario;
 import shared.exceptions.UsuarioNoEncontradoException;
+import shared.metricas.MetricaOperacion;
+import shared.metricas.RegistroMetricas;
 
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Clase que ejecuta los casos de uso relacionados a los usuarios,
  * es la conexión del back y el front de la aplicación
  */
 public class UsuarioApplicationService {
+    // Cantidad de usuarios que se copian del repositorio por vez al recorrer el registro completo
+    private static final int TAMANO_PAGINA_RECORRIDO = 1000;
+
     private final RegistrarUsuarioCasoUso registrarUsuarioCasoUso;
-    private final ServicioPersistencia servicioPersistencia;
+    private final ServicioJournal servicioJournal;
     private final IRepositorioUsuarios repositorioUsuarios;
-    private final String rutaUsuariosCsv;
+    private final MetricaOperacion metricaRegistrarUsuario;
 
     public UsuarioApplicationService(
             ServicioUsuarios servicioUsuarios,
-            ServicioPersistencia servicioPersistencia,
+            ServicioJournal servicioJournal,
             IRepositorioUsuarios repositorioUsuarios,
-            String rutaUsuariosCsv
+            RegistroMetricas registroMetricas
     ) {
         this.registrarUsuarioCasoUso = new RegistrarUsuarioCasoUso(servicioUsuarios);
-        this.servicioPersistencia = servicioPersistencia;
+        this.servicioJournal = servicioJournal;
         this.repositorioUsuarios = repositorioUsuarios;
-        this.rutaUsuariosCsv = rutaUsuariosCsv;
+        this.metricaRegistrarUsuario = registroMetricas.metrica("RegistrarUsuarioCasoUso.ejecutar");
     }
 
     /**
@@ -42,16 +50,25 @@ public class UsuarioApplicationService {
      */
     public Usuario registrarUsuario(String nombre, DocumentoRut rut) {
         // Ejecuta el caso de uso que registra un usuario dentro del sistema
-        Usuario usuario = this.registrarUsuarioCasoUso.ejecutar(nombre, rut);
+        Usuario usuario = this.metricaRegistrarUsuario.medir(() -> this.registrarUsuarioCasoUso.ejecutar(nombre, rut));
 
-        // Agrega la persistencia del servicio almacenando al usuario
+        // Registra el usuario dentro del journal de operaciones
         if (usuario != null) {
-            this.servicioPersistencia.guardarUsuariosEnCSV(this.rutaUsuariosCsv, this.repositorioUsuarios.obtenerTodosLosUsuarios());
+            this.servicioJournal.registrarUsuarioRegistrado(usuario);
         }
 
         return usuario;
     }
 
+    /**
+     * Método que entrega un futuro que se completa cuando los usuarios
+     * registrados hasta ahora quedaron escritos en el journal
+     * @return futuro de durabilidad de los registros
+     */
+    public CompletableFuture<Void> sincronizar() {
+        return this.servicioJournal.sincronizar();
+    }
+
     /**
      * Método que verifica si un usuario está registrado dentro del sistema
      * @param rut rut del usuario
@@ -71,4 +88,40 @@ public class UsuarioApplicationService {
     public ArrayList<Usuario> obtenerTodosLosUsuarios() {
         return this.repositorioUsuarios.obtenerTodosLosUsuarios();
     }
+
+    /**
+     * Método que obtiene una página de los usuarios ordenados por RUT
+     * @param cursor cursor de la página anterior, nulo para la primera
+     * @param limite tamaño de la página
+     * @return página de usuarios con el cursor de la siguiente
+     */
+    public Pagina<Usuario> obtenerPaginaUsuarios(String cursor, int limite) {
+        return this.repositorioUsuarios.obtenerPaginaUsuarios(cursor, limite);
+    }
+
+    /**
+     * Método que recorre todos los usuarios sin copiarlos todos a la vez
+     * @return Stream de los usuarios ordenados por RUT
+     */
+    public Stream<Usuario> recorrerUsuarios() {
+        return this.repositorioUsuarios.recorrerUsuarios(TAMANO_PAGINA_RECORRIDO);
+    }
+
+    /**
+     * Método que obtiene una página de los usuarios ordenados por nombre
+     * @param cursor cursor de la página anterior, nulo para la primera
+     * @param limite tamaño de la página
+     * @return página de usuarios con el cursor de la siguiente
+     */
+    public Pagina<Usuario> obtenerPaginaUsuariosPorNombre(String cursor, int limite) {
+        return this.repositorioUsuarios.obtenerPaginaUsuariosPorNombre(cursor, limite);
+    }
+
+    /**
+     * Método que recorre todos los usuarios ordenados por nombre
+     * @return Stream de los usuarios ordenados por nombre
+     */
+    public Stream<Usuario> recorrerUsuariosPorNombre() {
+        return this.repositorioUsuarios.recorrerUsuariosPorNombre(TAMANO_PAGINA_RECORRIDO);
+    }
 }
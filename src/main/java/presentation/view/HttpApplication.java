@@ -0,0 +1,60 @@
+package presentation.view;
+
+import com.sun.net.httpserver.HttpServer;
+import presentation.controller.LibrosHttpController;
+import presentation.controller.MetricasHttpController;
+import presentation.controller.UsuarioHttpController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Aplicación HTTP (JSON) de la biblioteca construida sobre el servidor
+ * embebido del JDK. Cada petición se atiende en su propio hilo virtual, por
+ * lo que miles de clientes concurrentes no consumen miles de hilos del
+ * sistema operativo.
+ */
+public class HttpApplication {
+  private static final int BACKLOG = 1024;
+  private static final int SEGUNDOS_ESPERA_AL_DETENER = 2;
+
+  private final HttpServer servidor;
+  private final ExecutorService ejecutor;
+
+  public HttpApplication(
+      int puerto,
+      LibrosHttpController librosHttpController,
+      UsuarioHttpController usuarioHttpController,
+      MetricasHttpController metricasHttpController) {
+    try {
+      this.servidor = HttpServer.create(new InetSocketAddress(puerto), BACKLOG);
+    } catch (IOException e) {
+      throw new UncheckedIOException("No se pudo abrir el puerto " + puerto, e);
+    }
+    this.ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    servidor.createContext(LibrosHttpController.CONTEXTO_LIBROS, librosHttpController);
+    servidor.createContext(LibrosHttpController.CONTEXTO_CATALOGO, librosHttpController);
+    servidor.createContext(LibrosHttpController.CONTEXTO_PRESTAMOS, librosHttpController);
+    servidor.createContext(LibrosHttpController.CONTEXTO_FACETAS, librosHttpController);
+    servidor.createContext(UsuarioHttpController.CONTEXTO_USUARIOS, usuarioHttpController);
+    servidor.createContext(MetricasHttpController.CONTEXTO_METRICAS, metricasHttpController);
+    servidor.setExecutor(ejecutor);
+  }
+
+  public void start() {
+    servidor.start();
+    System.out.println("Servidor HTTP escuchando en el puerto " + servidor.getAddress().getPort());
+  }
+
+  /**
+   * Detiene el servidor esperando que terminen las peticiones en curso
+   */
+  public void stop() {
+    servidor.stop(SEGUNDOS_ESPERA_AL_DETENER);
+    ejecutor.shutdown();
+  }
+}
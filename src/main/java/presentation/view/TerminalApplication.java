@@ -1,6 +1,7 @@
 package presentation.view;
 
 import presentation.controller.LibrosTerminalController;
+import presentation.controller.MetricasTerminalController;
 import presentation.controller.UsuarioTerminalController;
 import shared.exceptions.*;
 
@@ -11,13 +12,16 @@ import java.util.Scanner;
 public class TerminalApplication {
   private final LibrosTerminalController librosTerminalController;
   private final UsuarioTerminalController usuarioTerminalController;
+  private final MetricasTerminalController metricasTerminalController;
   private final Scanner scanner = new Scanner(System.in);
 
   public TerminalApplication(
       LibrosTerminalController librosTerminalController,
-      UsuarioTerminalController usuarioTerminalController) {
+      UsuarioTerminalController usuarioTerminalController,
+      MetricasTerminalController metricasTerminalController) {
     this.librosTerminalController = librosTerminalController;
     this.usuarioTerminalController = usuarioTerminalController;
+    this.metricasTerminalController = metricasTerminalController;
   }
 
   public void start() {
@@ -56,6 +60,15 @@ public class TerminalApplication {
           case 8:
             handleMostrarCatalogoLibros();
             break;
+          case 9:
+            handleMostrarMetricas();
+            break;
+          case 10:
+            handleImportarLibros();
+            break;
+          case 11:
+            handleSugerirLibros();
+            break;
           case 0:
             running = false;
             System.out.println("Saliendo del sistema...");
@@ -127,6 +140,28 @@ public class TerminalApplication {
     }
   }
 
+  private void handleImportarLibros() {
+    try {
+      this.librosTerminalController.handleImportarLibros();
+    } catch (NumberFormatException e) {
+      System.out.println("Error: la cantidad de filas por checkpoint debe ser un número.");
+    } catch (IllegalArgumentException e) {
+      System.out.println("Error al importar libros: " + e.getMessage());
+    } catch (RuntimeException e) {
+      System.out.println("Error inesperado al importar libros: " + e.getMessage());
+      e.printStackTrace();
+    }
+  }
+
+  private void handleSugerirLibros() {
+    try {
+      this.librosTerminalController.handleSugerirLibros();
+    } catch (RuntimeException e) {
+      System.out.println("Error inesperado al sugerir libros: " + e.getMessage());
+      e.printStackTrace();
+    }
+  }
+
   private void handleBuscarLibro() {
     try {
       this.librosTerminalController.handleBuscarLibro();
@@ -178,6 +213,15 @@ public class TerminalApplication {
     }
   }
 
+  private void handleMostrarMetricas() {
+    try {
+      this.metricasTerminalController.handleMostrarMetricas();
+    } catch (RuntimeException e) {
+      System.out.println("Error inesperado al mostrar métricas: " + e.getMessage());
+      e.printStackTrace();
+    }
+  }
+
   private void mostrarBanner() {
     System.out.println("=============================");
     System.out.println("=== Sistema de biblioteca ===");
@@ -194,6 +238,9 @@ public class TerminalApplication {
     System.out.println("6. Devolver libro");
     System.out.println("7. Mostrar usuarios registrados");
     System.out.println("8. Mostrar catálogo de libros (títulos únicos)");
+    System.out.println("9. Mostrar métricas del sistema");
+    System.out.println("10. Importar libros desde archivo CSV");
+    System.out.println("11. Sugerencias de títulos y autores");
     System.out.println("0. Salir");
     System.out.println("----------------------");
   }
@@ -0,0 +1,174 @@
+package shared.concurrencia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Escritor en segundo plano con group commit: los productores encolan
+ * elementos en una cola acotada y un único hilo los escribe en lotes. Un lote
+ * se cierra al juntar loteMaximo elementos o al pasar retrasoMaximo desde el
+ * primero, así una ráfaga de operaciones se escribe con una sola llamada. Cada
+ * elemento entrega un CompletableFuture que se completa cuando su lote quedó
+ * escrito. Si la cola está llena el productor espera (contrapresión).
+ *
+ * @param <T> tipo de los elementos a escribir
+ */
+public class EscritorAgrupado<T> {
+  private final BlockingQueue<Pendiente<T>> cola;
+  private final long retrasoMaximoNanos;
+  private final int loteMaximo;
+  private final Consumer<List<T>> escribirLote;
+  private final Thread hilo;
+
+  // Los productores encolan con el candado de lectura (varios a la vez, aunque esperen con la cola
+  // llena), cerrar() toma el de escritura, así ningún elemento se encola después de cerrar
+  private final ReentrantReadWriteLock candadoCierre = new ReentrantReadWriteLock();
+  private volatile boolean cerrado = false;
+  // Se completa cuando todo lo encolado hasta ahora quedó escrito
+  private CompletableFuture<Void> ultimo = CompletableFuture.completedFuture(null);
+
+  /**
+   * @param nombre nombre del hilo escritor
+   * @param capacidad capacidad de la cola
+   * @param retrasoMaximo tiempo máximo que espera un elemento para completar su lote
+   * @param unidad unidad de retrasoMaximo
+   * @param loteMaximo cantidad máxima de elementos por lote
+   * @param escribirLote escribe un lote completo, si lanza excepción los futuros del lote fallan
+   */
+  public EscritorAgrupado(
+      String nombre,
+      int capacidad,
+      long retrasoMaximo,
+      TimeUnit unidad,
+      int loteMaximo,
+      Consumer<List<T>> escribirLote) {
+    if (capacidad <= 0 || loteMaximo <= 0 || retrasoMaximo < 0) {
+      throw new IllegalArgumentException("Capacidad, lote máximo y retraso máximo deben ser positivos");
+    }
+    this.cola = new ArrayBlockingQueue<>(capacidad);
+    this.retrasoMaximoNanos = unidad.toNanos(retrasoMaximo);
+    this.loteMaximo = loteMaximo;
+    this.escribirLote = escribirLote;
+    this.hilo = Thread.ofPlatform().name(nombre).daemon().unstarted(this::ejecutar);
+    this.hilo.start();
+  }
+
+  /**
+   * Encola un elemento para escribir, espera si la cola está llena
+   *
+   * @param elemento elemento a escribir
+   * @return futuro que se completa cuando el elemento quedó escrito
+   * @throws IllegalStateException si el escritor ya fue cerrado
+   */
+  public CompletableFuture<Void> enviar(T elemento) {
+    Pendiente<T> pendiente = new Pendiente<>(elemento, new CompletableFuture<>());
+    candadoCierre.readLock().lock();
+    try {
+      if (cerrado) {
+        throw new IllegalStateException("El escritor agrupado ya fue cerrado");
+      }
+      // Con la cola llena se espera fuera del monitor, sincronizar() y los demás productores no se bloquean
+      cola.put(pendiente);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrumpido al encolar la escritura", e);
+    } finally {
+      candadoCierre.readLock().unlock();
+    }
+
+    // Dos productores pueden encolar en un orden y llegar aquí en el otro, por eso se combinan
+    // los futuros en vez de quedarse con el último que llega
+    synchronized (this) {
+      ultimo = ultimo.isDone() ? pendiente.futuro() : CompletableFuture.allOf(ultimo, pendiente.futuro());
+    }
+    return pendiente.futuro();
+  }
+
+  /**
+   * @return futuro que se completa cuando todo lo encolado hasta ahora quedó escrito
+   */
+  public synchronized CompletableFuture<Void> sincronizar() {
+    return ultimo;
+  }
+
+  /**
+   * Deja de aceptar elementos, escribe los pendientes y detiene el hilo
+   * escritor. Se puede llamar más de una vez.
+   */
+  public void cerrar() {
+    candadoCierre.writeLock().lock();
+    try {
+      cerrado = true;
+    } finally {
+      candadoCierre.writeLock().unlock();
+    }
+    hilo.interrupt();
+    try {
+      hilo.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void ejecutar() {
+    List<Pendiente<T>> lote = new ArrayList<>(loteMaximo);
+    while (!cerrado || !cola.isEmpty()) {
+      try {
+        Pendiente<T> primero = cola.poll(1, TimeUnit.SECONDS);
+        if (primero == null) {
+          continue;
+        }
+        lote.add(primero);
+
+        // Se juntan más elementos hasta llenar el lote o cumplir el retraso máximo
+        long limite = System.nanoTime() + retrasoMaximoNanos;
+        while (lote.size() < loteMaximo) {
+          if (cola.drainTo(lote, loteMaximo - lote.size()) > 0) {
+            continue;
+          }
+          long restante = limite - System.nanoTime();
+          Pendiente<T> siguiente = restante > 0 && !cerrado ? cola.poll(restante, TimeUnit.NANOSECONDS) : null;
+          if (siguiente == null) {
+            break;
+          }
+          lote.add(siguiente);
+        }
+      } catch (InterruptedException e) {
+        // cerrar() interrumpe para no esperar el retraso, se escribe lo que quede
+        cola.drainTo(lote);
+      }
+
+      if (!lote.isEmpty()) {
+        escribir(lote);
+        lote.clear();
+      }
+    }
+  }
+
+  private void escribir(List<Pendiente<T>> lote) {
+    List<T> elementos = new ArrayList<>(lote.size());
+    for (Pendiente<T> pendiente : lote) {
+      elementos.add(pendiente.elemento());
+    }
+
+    try {
+      escribirLote.accept(elementos);
+      for (Pendiente<T> pendiente : lote) {
+        pendiente.futuro().complete(null);
+      }
+    } catch (RuntimeException e) {
+      for (Pendiente<T> pendiente : lote) {
+        pendiente.futuro().completeExceptionally(e);
+      }
+    }
+  }
+
+  private record Pendiente<T>(T elemento, CompletableFuture<Void> futuro) {
+  }
+}
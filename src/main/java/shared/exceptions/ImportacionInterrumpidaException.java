@@ -0,0 +1,22 @@
+package shared.exceptions;
+
+import domain.valueObject.ResultadoImportacion;
+
+import java.io.IOException;
+
+/**
+ * La lectura de las filas de una importación falló a mitad de camino. Los
+ * libros ya agregados quedan persistidos y se informan en el resultado parcial
+ */
+public class ImportacionInterrumpidaException extends RuntimeException {
+    private final ResultadoImportacion resultadoParcial;
+
+    public ImportacionInterrumpidaException(ResultadoImportacion resultadoParcial, IOException causa) {
+        super("La importación se interrumpió al leer las filas: " + causa.getMessage(), causa);
+        this.resultadoParcial = resultadoParcial;
+    }
+
+    public ResultadoImportacion getResultadoParcial() {
+        return resultadoParcial;
+    }
+}
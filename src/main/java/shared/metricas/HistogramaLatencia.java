@@ -0,0 +1,93 @@
+package shared.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales: cada
+ * potencia de dos se divide en 16 cubetas, por lo que el error relativo de
+ * un percentil es a lo más 1/16 (6,25%). Registrar un valor es un solo
+ * incremento atómico sin asignar memoria, lo que permite dejarlo activo en
+ * producción.
+ */
+public class HistogramaLatencia {
+  private static final int BITS_SUBCUBETA = 4;
+  private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+  private static final int CUBETAS = (64 - BITS_SUBCUBETA + 1) * SUBCUBETAS;
+
+  private final AtomicLongArray cuentas = new AtomicLongArray(CUBETAS);
+
+  /**
+   * Registra una latencia
+   *
+   * @param nanos latencia en nanosegundos
+   */
+  public void registrar(long nanos) {
+    cuentas.incrementAndGet(indice(Math.max(0, nanos)));
+  }
+
+  /**
+   * Obtiene una copia de las cuentas de cada cubeta
+   *
+   * @return cuentas por cubeta
+   */
+  public long[] copiarCuentas() {
+    long[] copia = new long[CUBETAS];
+    for (int i = 0; i < CUBETAS; i++) {
+      copia[i] = cuentas.get(i);
+    }
+    return copia;
+  }
+
+  /**
+   * Calcula un percentil sobre una copia de las cuentas
+   *
+   * @param cuentas    cuentas obtenidas con copiarCuentas
+   * @param percentil  percentil entre 0 y 100
+   * @return latencia estimada en nanosegundos, 0 si no hay registros
+   */
+  public static long percentil(long[] cuentas, double percentil) {
+    long total = 0;
+    for (long cuenta : cuentas) {
+      total += cuenta;
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long objetivo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+    long acumulado = 0;
+    for (int i = 0; i < cuentas.length; i++) {
+      acumulado += cuentas[i];
+      if (acumulado >= objetivo) {
+        return valorRepresentativo(i);
+      }
+    }
+    return valorRepresentativo(cuentas.length - 1);
+  }
+
+  /**
+   * Calcula el índice de la cubeta de un valor
+   */
+  private static int indice(long valor) {
+    if (valor < SUBCUBETAS) {
+      return (int) valor;
+    }
+    int exponente = 63 - Long.numberOfLeadingZeros(valor);
+    int subcubeta = (int) (valor >>> (exponente - BITS_SUBCUBETA)) & (SUBCUBETAS - 1);
+    return (exponente - BITS_SUBCUBETA + 1) * SUBCUBETAS + subcubeta;
+  }
+
+  /**
+   * Punto medio del rango de valores de una cubeta
+   */
+  private static long valorRepresentativo(int indice) {
+    if (indice < SUBCUBETAS) {
+      return indice;
+    }
+    int exponente = indice / SUBCUBETAS + BITS_SUBCUBETA - 1;
+    long subcubeta = indice % SUBCUBETAS;
+    long ancho = 1L << (exponente - BITS_SUBCUBETA);
+    long inicio = (1L << exponente) + subcubeta * ancho;
+    return inicio + ancho / 2;
+  }
+}
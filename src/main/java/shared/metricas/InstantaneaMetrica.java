@@ -0,0 +1,14 @@
+package shared.metricas;
+
+/**
+ * Instantánea inmutable de una métrica de operación, latencias en nanosegundos
+ */
+public record InstantaneaMetrica(
+    String nombre,
+    long llamadas,
+    long errores,
+    long p50Nanos,
+    long p99Nanos,
+    long p999Nanos,
+    long maximoNanos) {
+}
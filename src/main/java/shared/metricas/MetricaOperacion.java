@@ -0,0 +1,91 @@
+package shared.metricas;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Métrica de una operación: cantidad de llamadas, cantidad de errores
+ * (excepciones) e histograma de latencias
+ */
+public class MetricaOperacion {
+  private final String nombre;
+  private final LongAdder llamadas = new LongAdder();
+  private final LongAdder errores = new LongAdder();
+  private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+  private final HistogramaLatencia histograma = new HistogramaLatencia();
+
+  public MetricaOperacion(String nombre) {
+    this.nombre = nombre;
+  }
+
+  public String getNombre() {
+    return nombre;
+  }
+
+  /**
+   * Ejecuta y mide una operación que retorna un valor
+   *
+   * @param operacion operación a medir
+   * @return resultado de la operación
+   */
+  public <T> T medir(Supplier<T> operacion) {
+    long inicio = System.nanoTime();
+    boolean error = true;
+    try {
+      T resultado = operacion.get();
+      error = false;
+      return resultado;
+    } finally {
+      registrar(System.nanoTime() - inicio, error);
+    }
+  }
+
+  /**
+   * Ejecuta y mide una operación sin valor de retorno
+   *
+   * @param operacion operación a medir
+   */
+  public void medir(Runnable operacion) {
+    long inicio = System.nanoTime();
+    boolean error = true;
+    try {
+      operacion.run();
+      error = false;
+    } finally {
+      registrar(System.nanoTime() - inicio, error);
+    }
+  }
+
+  /**
+   * Registra una llamada ya medida
+   *
+   * @param nanos latencia en nanosegundos
+   * @param error si la llamada terminó con excepción
+   */
+  public void registrar(long nanos, boolean error) {
+    llamadas.increment();
+    if (error) {
+      errores.increment();
+    }
+    maximo.accumulate(nanos);
+    histograma.registrar(nanos);
+  }
+
+  /**
+   * Obtiene una instantánea de la métrica
+   *
+   * @return instantánea con cuentas y percentiles en nanosegundos
+   */
+  public InstantaneaMetrica instantanea() {
+    long[] cuentas = histograma.copiarCuentas();
+    return new InstantaneaMetrica(
+        nombre,
+        llamadas.sum(),
+        errores.sum(),
+        HistogramaLatencia.percentil(cuentas, 50),
+        HistogramaLatencia.percentil(cuentas, 99),
+        HistogramaLatencia.percentil(cuentas, 99.9),
+        maximo.get());
+  }
+}
@@ -0,0 +1,74 @@
+package shared.metricas;
+
+import shared.utils.Json;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro central de métricas de operaciones, compartido por los
+ * decoradores instrumentados de repositorios y los servicios de aplicación
+ */
+public class RegistroMetricas {
+  private final ConcurrentHashMap<String, MetricaOperacion> metricas = new ConcurrentHashMap<>();
+
+  /**
+   * Obtiene (o crea) la métrica de una operación. Conviene guardarla en un
+   * campo para no buscarla en cada llamada
+   *
+   * @param nombre nombre de la operación, por ejemplo IRepositorioLibros.buscarLibros
+   * @return métrica de la operación
+   */
+  public MetricaOperacion metrica(String nombre) {
+    return metricas.computeIfAbsent(nombre, MetricaOperacion::new);
+  }
+
+  /**
+   * Obtiene una instantánea de todas las métricas ordenada por nombre
+   *
+   * @return lista de instantáneas
+   */
+  public List<InstantaneaMetrica> instantanea() {
+    List<InstantaneaMetrica> instantaneas = new ArrayList<>();
+    for (MetricaOperacion metrica : metricas.values()) {
+      instantaneas.add(metrica.instantanea());
+    }
+    instantaneas.sort(Comparator.comparing(InstantaneaMetrica::nombre));
+    return instantaneas;
+  }
+
+  /**
+   * Formatea las métricas como tabla legible para la terminal,
+   * latencias en microsegundos
+   *
+   * @return tabla de métricas
+   */
+  public String formatearTabla() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("%-50s %10s %8s %10s %10s %10s %10s%n",
+        "Operación", "Llamadas", "Errores", "p50 µs", "p99 µs", "p999 µs", "máx µs"));
+    for (InstantaneaMetrica m : instantanea()) {
+      sb.append(String.format("%-50s %10d %8d %10.1f %10.1f %10.1f %10.1f%n",
+          m.nombre(), m.llamadas(), m.errores(),
+          m.p50Nanos() / 1000.0, m.p99Nanos() / 1000.0, m.p999Nanos() / 1000.0, m.maximoNanos() / 1000.0));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Vuelca las métricas en JSON, latencias en nanosegundos
+   *
+   * @return arreglo JSON de métricas
+   */
+  public String volcarJson() {
+    return Json.arreglo(instantanea(), m -> "{\"nombre\":" + Json.texto(m.nombre())
+        + ",\"llamadas\":" + m.llamadas()
+        + ",\"errores\":" + m.errores()
+        + ",\"p50Nanos\":" + m.p50Nanos()
+        + ",\"p99Nanos\":" + m.p99Nanos()
+        + ",\"p999Nanos\":" + m.p999Nanos()
+        + ",\"maximoNanos\":" + m.maximoNanos() + "}");
+  }
+}
@@ -0,0 +1,42 @@
+package shared.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de cadenas compartidas: cada valor distinto queda una sola vez
+ * en memoria y todos los que lo usan apuntan a la misma instancia. Sirve para
+ * columnas con pocos valores distintos que se repiten en muchas filas (autor,
+ * género, editorial). Los valores no se eliminan, por lo que no se debe usar
+ * con textos que casi no se repiten como los títulos.
+ * Es seguro de usar desde varios hilos.
+ */
+public final class DiccionarioCadenas {
+  private final ConcurrentHashMap<String, String> valores = new ConcurrentHashMap<>();
+
+  /**
+   * Obtiene la instancia compartida de un valor, la registra si es nuevo
+   *
+   * @param valor texto a compartir, puede ser nulo
+   * @return instancia compartida igual al valor, nulo si el valor es nulo
+   */
+  public String internar(String valor) {
+    if (valor == null) {
+      return null;
+    }
+
+    // La lectura no bloquea, solo los valores nuevos pasan por putIfAbsent
+    String existente = valores.get(valor);
+    if (existente != null) {
+      return existente;
+    }
+    existente = valores.putIfAbsent(valor, valor);
+    return existente != null ? existente : valor;
+  }
+
+  /**
+   * @return cantidad de valores distintos registrados
+   */
+  public int cantidad() {
+    return valores.size();
+  }
+}
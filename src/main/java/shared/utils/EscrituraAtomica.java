@@ -0,0 +1,53 @@
+package shared.utils;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Reemplaza un archivo completo sin dejarlo a medio escribir: el contenido va
+ * a un archivo temporal en el mismo directorio, se fuerza al disco y recién
+ * entonces se renombra sobre el original. Una caída a mitad de la escritura
+ * deja el archivo anterior intacto (y a lo más un temporal sobrante).
+ */
+public final class EscrituraAtomica {
+
+  private EscrituraAtomica() {
+  }
+
+  /**
+   * Escribe el contenido del archivo
+   */
+  @FunctionalInterface
+  public interface Contenido {
+    void escribir(BufferedWriter escritor) throws IOException;
+  }
+
+  /**
+   * Reemplaza el archivo con el contenido dado
+   *
+   * @param ruta archivo a reemplazar, se crea si no existe
+   * @param contenido escribe el contenido completo del archivo
+   * @throws IOException si no se pudo escribir, el archivo original queda como estaba
+   */
+  public static void reemplazar(String ruta, Contenido contenido) throws IOException {
+    Path destino = Path.of(ruta).toAbsolutePath();
+    Path temporal = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+    try {
+      try (FileOutputStream salida = new FileOutputStream(temporal.toFile());
+          BufferedWriter escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8))) {
+        contenido.escribir(escritor);
+        escritor.flush();
+        salida.getChannel().force(true);
+      }
+      Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporal);
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package shared.utils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Utilidades mínimas de JSON para la API HTTP, sin dependencias externas.
+ * Solo se leen objetos planos (valores string, número, booleano o null) que
+ * es lo que reciben los casos de uso.
+ */
+public class Json {
+  /**
+   * Serializa un texto como string JSON escapado
+   *
+   * @param valor texto a serializar, puede ser nulo
+   * @return string JSON o null
+   */
+  public static String texto(String valor) {
+    if (valor == null) {
+      return "null";
+    }
+
+    StringBuilder sb = new StringBuilder(valor.length() + 2);
+    sb.append('"');
+    for (int i = 0; i < valor.length(); i++) {
+      char c = valor.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  /**
+   * Serializa una lista como arreglo JSON usando un serializador por elemento
+   *
+   * @param elementos    elementos de la lista
+   * @param serializador función que serializa cada elemento a JSON
+   * @return arreglo JSON
+   */
+  public static <T> String arreglo(List<T> elementos, Function<T, String> serializador) {
+    StringBuilder sb = new StringBuilder();
+    sb.append('[');
+    for (int i = 0; i < elementos.size(); i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(serializador.apply(elementos.get(i)));
+    }
+    return sb.append(']').toString();
+  }
+
+  /**
+   * Lee un objeto JSON plano, los valores se entregan como texto
+   * (los null se omiten)
+   *
+   * @param json texto JSON
+   * @return mapa de claves y valores
+   * @throws IllegalArgumentException si el JSON no es un objeto plano válido
+   */
+  public static Map<String, String> parsearObjetoPlano(String json) {
+    Lector lector = new Lector(json == null ? "" : json);
+    Map<String, String> resultado = new LinkedHashMap<>();
+
+    lector.esperar('{');
+    if (!lector.consumirSi('}')) {
+      do {
+        String clave = lector.leerString();
+        lector.esperar(':');
+        String valor = lector.leerValor();
+        if (valor != null) {
+          resultado.put(clave, valor);
+        }
+      } while (lector.consumirSi(','));
+      lector.esperar('}');
+    }
+    lector.esperarFin();
+
+    return resultado;
+  }
+
+  private static class Lector {
+    private final String json;
+    private int pos = 0;
+
+    Lector(String json) {
+      this.json = json;
+    }
+
+    void saltarEspacios() {
+      while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+        pos++;
+      }
+    }
+
+    boolean consumirSi(char c) {
+      saltarEspacios();
+      if (pos < json.length() && json.charAt(pos) == c) {
+        pos++;
+        return true;
+      }
+      return false;
+    }
+
+    void esperar(char c) {
+      if (!consumirSi(c)) {
+        throw new IllegalArgumentException("JSON inválido: se esperaba '" + c + "' en la posición " + pos);
+      }
+    }
+
+    void esperarFin() {
+      saltarEspacios();
+      if (pos != json.length()) {
+        throw new IllegalArgumentException("JSON inválido: contenido extra en la posición " + pos);
+      }
+    }
+
+    String leerValor() {
+      saltarEspacios();
+      if (pos < json.length() && json.charAt(pos) == '"') {
+        return leerString();
+      }
+
+      // número, booleano o null
+      int inicio = pos;
+      while (pos < json.length() && ",}] \t\r\n".indexOf(json.charAt(pos)) < 0) {
+        pos++;
+      }
+      String literal = json.substring(inicio, pos);
+      if (literal.isEmpty() || literal.equals("{") || literal.startsWith("[")) {
+        throw new IllegalArgumentException("JSON inválido: valor no soportado en la posición " + inicio);
+      }
+      return literal.equals("null") ? null : literal;
+    }
+
+    String leerString() {
+      esperar('"');
+      StringBuilder sb = new StringBuilder();
+      while (pos < json.length()) {
+        char c = json.charAt(pos++);
+        if (c == '"') {
+          return sb.toString();
+        }
+        if (c != '\\') {
+          sb.append(c);
+          continue;
+        }
+        if (pos >= json.length()) {
+          break;
+        }
+        char escape = json.charAt(pos++);
+        switch (escape) {
+          case 'n':
+            sb.append('\n');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          case 't':
+            sb.append('\t');
+            break;
+          case 'b':
+            sb.append('\b');
+            break;
+          case 'f':
+            sb.append('\f');
+            break;
+          case 'u':
+            if (pos + 4 > json.length()) {
+              throw new IllegalArgumentException("JSON inválido: escape unicode incompleto");
+            }
+            sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+            pos += 4;
+            break;
+          default:
+            sb.append(escape);
+        }
+      }
+      throw new IllegalArgumentException("JSON inválido: string sin terminar");
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package shared.utils;
+
+import java.text.Normalizer;
+
+/**
+ * Pliega textos para búsquedas que no distinguen acentos ni mayúsculas:
+ * descompone (NFD), quita las marcas diacríticas y pasa cada carácter a su
+ * forma en minúsculas, así "García", "GARCIA" y "garcia" quedan iguales y
+ * "niño" se encuentra buscando "nino". Los campos se pliegan una vez al
+ * indexar y el término una vez por búsqueda, con la misma función en ambos.
+ * Los textos ASCII, que son la mayoría, se pliegan en una pasada sin
+ * normalizar y sin asignar memoria si ya están en minúsculas.
+ */
+public final class PlegadorTexto {
+
+  private PlegadorTexto() {
+  }
+
+  /**
+   * Pliega un texto
+   *
+   * @param texto texto a plegar, puede ser nulo
+   * @return texto sin acentos y en minúsculas, nulo si el texto es nulo
+   */
+  public static String plegar(String texto) {
+    if (texto == null) {
+      return null;
+    }
+
+    boolean minusculas = true;
+    for (int i = 0; i < texto.length(); i++) {
+      char c = texto.charAt(i);
+      if (c >= 0x80) {
+        return plegarUnicode(texto);
+      }
+      if (c >= 'A' && c <= 'Z') {
+        minusculas = false;
+      }
+    }
+    return minusculas ? texto : plegarAscii(texto);
+  }
+
+  private static String plegarAscii(String texto) {
+    char[] salida = new char[texto.length()];
+    for (int i = 0; i < salida.length; i++) {
+      char c = texto.charAt(i);
+      salida[i] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    return new String(salida);
+  }
+
+  private static String plegarUnicode(String texto) {
+    String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+    StringBuilder salida = new StringBuilder(descompuesto.length());
+    for (int i = 0; i < descompuesto.length(); ) {
+      int codigo = descompuesto.codePointAt(i);
+      i += Character.charCount(codigo);
+      if (Character.getType(codigo) == Character.NON_SPACING_MARK) {
+        continue;
+      }
+      // Pasar por mayúsculas primero une variantes como la sigma final (ς y σ)
+      salida.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codigo)));
+    }
+    return salida.toString();
+  }
+}
@@ -0,0 +1,241 @@
+package shared.utils;
+
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalización y validación de textos ingresados en una sola pasada, sin
+ * expresiones regulares. Reemplaza el par Formateador.normalizarString +
+ * Validaciones.esAlfanumericoFlexible manteniendo su semántica:
+ * - normalizar: trim, palabras separadas por espacios (\s de regex) unidas por
+ *   un solo espacio, cada palabra con la primera letra en mayúscula y el resto
+ *   en minúsculas
+ * - validar: solo letras Unicode, dígitos 0-9, puntos, comas y espacios, y al
+ *   menos un carácter
+ * Las palabras con caracteres fuera de Latin-1 (o la ß) y los idiomas con
+ * reglas especiales de mayúsculas (turco, azerí, lituano) usan los métodos de
+ * String para conservar exactamente el mismo resultado.
+ */
+public final class Sanitizador {
+  public static final String MENSAJE_INPUT_VACIO = "Input vacío, por favor reintentar";
+  public static final String MENSAJE_NO_ALFANUMERICO = "El texto introducido no es alfanumérico";
+
+  private Sanitizador() {
+  }
+
+  /**
+   * Normaliza un texto igual que Formateador.normalizarString
+   *
+   * @param texto texto a normalizar, puede ser nulo
+   * @return texto normalizado, nulo si el texto es nulo
+   */
+  public static String normalizar(String texto) {
+    if (texto == null) {
+      return null;
+    }
+
+    StringBuilder salida = new StringBuilder(texto.length());
+    escribirNormalizado(texto, salida, false);
+    return salida.toString();
+  }
+
+  /**
+   * Valida que un texto sea alfanumérico flexible, igual que
+   * Validaciones.esAlfanumericoFlexible
+   *
+   * @param texto texto a validar
+   * @throws InputMismatchException si es nulo o tiene caracteres no permitidos
+   */
+  public static void validar(String texto) {
+    if (texto == null) {
+      throw new InputMismatchException(MENSAJE_INPUT_VACIO);
+    }
+    if (texto.isEmpty()) {
+      throw new InputMismatchException(MENSAJE_NO_ALFANUMERICO);
+    }
+
+    for (int i = 0; i < texto.length(); ) {
+      int codigo = texto.codePointAt(i);
+      if (!esPermitido(codigo)) {
+        throw new InputMismatchException(MENSAJE_NO_ALFANUMERICO);
+      }
+      i += Character.charCount(codigo);
+    }
+  }
+
+  /**
+   * Normaliza un texto y valida el resultado en la misma pasada
+   *
+   * @param texto texto ingresado
+   * @return texto normalizado y válido
+   * @throws InputMismatchException si es nulo o el resultado no es alfanumérico
+   */
+  public static String sanitizar(String texto) {
+    return sanitizar(texto, new StringBuilder(texto == null ? 0 : texto.length()));
+  }
+
+  /**
+   * Normaliza y valida varios campos compartiendo un solo buffer de salida
+   *
+   * @param campos campos ingresados
+   * @return campos normalizados, en el mismo orden
+   * @throws InputMismatchException en el primer campo nulo o no alfanumérico
+   */
+  public static String[] sanitizar(String... campos) {
+    String[] resultado = new String[campos.length];
+    StringBuilder salida = new StringBuilder(64);
+    for (int i = 0; i < campos.length; i++) {
+      resultado[i] = sanitizar(campos[i], salida);
+    }
+    return resultado;
+  }
+
+  /**
+   * Normaliza y valida un lote de filas (por ejemplo una importación) con un
+   * solo buffer de salida para todo el lote. Una fila con algún campo inválido
+   * no detiene el lote, queda como null en el resultado.
+   *
+   * @param filas filas de campos ingresados
+   * @return filas normalizadas, null en las posiciones de filas inválidas
+   */
+  public static String[][] sanitizarLote(List<String[]> filas) {
+    String[][] resultado = new String[filas.size()][];
+    StringBuilder salida = new StringBuilder(64);
+
+    for (int f = 0; f < resultado.length; f++) {
+      String[] campos = filas.get(f);
+      String[] normalizados = new String[campos.length];
+      boolean valida = true;
+      for (int i = 0; i < campos.length && valida; i++) {
+        valida = campos[i] != null;
+        if (valida) {
+          salida.setLength(0);
+          valida = escribirNormalizado(campos[i], salida, true) && salida.length() > 0;
+          normalizados[i] = salida.toString();
+        }
+      }
+      resultado[f] = valida ? normalizados : null;
+    }
+    return resultado;
+  }
+
+  private static String sanitizar(String texto, StringBuilder salida) {
+    if (texto == null) {
+      throw new InputMismatchException(MENSAJE_INPUT_VACIO);
+    }
+
+    salida.setLength(0);
+    if (!escribirNormalizado(texto, salida, true) || salida.length() == 0) {
+      throw new InputMismatchException(MENSAJE_NO_ALFANUMERICO);
+    }
+    return salida.toString();
+  }
+
+  /**
+   * Escribe el texto normalizado en la salida
+   *
+   * @param validar si se valida cada carácter escrito
+   * @return false si se validaba y apareció un carácter no permitido
+   */
+  private static boolean escribirNormalizado(String texto, StringBuilder salida, boolean validar) {
+    // trim: mismos caracteres que String.trim
+    int inicio = 0;
+    int fin = texto.length();
+    while (inicio < fin && texto.charAt(inicio) <= ' ') {
+      inicio++;
+    }
+    while (fin > inicio && texto.charAt(fin - 1) <= ' ') {
+      fin--;
+    }
+
+    boolean reglasEspeciales = tieneReglasEspecialesDeMayusculas();
+    int i = inicio;
+    while (i < fin) {
+      while (i < fin && esEspacio(texto.charAt(i))) {
+        i++;
+      }
+      int inicioPalabra = i;
+      while (i < fin && !esEspacio(texto.charAt(i))) {
+        i++;
+      }
+
+      if (inicioPalabra > inicio) {
+        salida.append(' ');
+      }
+      boolean valida = reglasEspeciales || !esLatin1Simple(texto, inicioPalabra, i)
+          ? escribirPalabraConString(texto, inicioPalabra, i, salida, validar)
+          : escribirPalabraLatin1(texto, inicioPalabra, i, salida, validar);
+      if (!valida) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean escribirPalabraLatin1(String texto, int desde, int hasta, StringBuilder salida,
+      boolean validar) {
+    for (int i = desde; i < hasta; i++) {
+      char c = i == desde ? Character.toUpperCase(texto.charAt(i)) : Character.toLowerCase(texto.charAt(i));
+      if (validar && !esPermitido(c)) {
+        return false;
+      }
+      salida.append(c);
+    }
+    return true;
+  }
+
+  private static boolean escribirPalabraConString(String texto, int desde, int hasta, StringBuilder salida,
+      boolean validar) {
+    // Mismo resultado que substring(0, 1).toUpperCase() + substring(1).toLowerCase()
+    int inicioSalida = salida.length();
+    salida.append(texto.substring(desde, desde + 1).toUpperCase())
+        .append(texto.substring(desde + 1, hasta).toLowerCase());
+    if (!validar) {
+      return true;
+    }
+
+    for (int i = inicioSalida; i < salida.length(); ) {
+      int codigo = salida.codePointAt(i);
+      if (!esPermitido(codigo)) {
+        return false;
+      }
+      i += Character.charCount(codigo);
+    }
+    return true;
+  }
+
+  /**
+   * Indica si todos los caracteres de la palabra tienen un cambio de
+   * mayúsculas de un solo carácter (Latin-1 salvo la ß)
+   */
+  private static boolean esLatin1Simple(String texto, int desde, int hasta) {
+    for (int i = desde; i < hasta; i++) {
+      char c = texto.charAt(i);
+      if (c > 0xFF || c == 'ß') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean tieneReglasEspecialesDeMayusculas() {
+    String idioma = Locale.getDefault().getLanguage();
+    return idioma.equals("tr") || idioma.equals("az") || idioma.equals("lt");
+  }
+
+  /**
+   * Caracteres permitidos: letras Unicode, dígitos 0-9, punto, coma y espacios
+   */
+  private static boolean esPermitido(int codigo) {
+    return (codigo >= '0' && codigo <= '9') || codigo == '.' || codigo == ','
+        || esEspacio(codigo) || Character.isLetter(codigo);
+  }
+
+  /**
+   * Espacios de \s en expresiones regulares: espacio, tabulaciones, saltos de línea y avance de página
+   */
+  private static boolean esEspacio(int c) {
+    return c == ' ' || (c >= '\t' && c <= '\r');
+  }
+}
@@ -0,0 +1,356 @@
+package shared.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Tokenizador de archivos CSV separados por ';' que recorre los bytes del
+ * archivo mapeado en memoria (FileChannel.map) sin copiar líneas a String.
+ * Cada línea se recorre una sola vez para ubicar los separadores y solo se
+ * decodifican a String los campos que se piden; los enteros, fechas y enums se
+ * leen directo desde los bytes.
+ * Los campos siguen la semántica de String.split(";"): se conservan los campos
+ * vacíos intermedios y se descartan los del final.
+ */
+public final class TokenizadorCsv implements AutoCloseable {
+  private static final byte SEPARADOR = ';';
+  // Tamaño máximo de cada región mapeada, una línea nunca queda cortada entre dos
+  private static final long TAMANO_VENTANA = 1L << 30;
+
+  private final FileChannel canal;
+  private final boolean cerrarCanal;
+  private final long fin;
+
+  private MappedByteBuffer ventana;
+  private long inicioVentana;
+  private long posicion;
+
+  private int inicioLinea;
+  private int finLinea;
+  private int[] separadores = new int[16];
+  private int cantidadSeparadores;
+  private int cantidadCampos;
+  private byte[] bytesCampo = new byte[256];
+
+  /**
+   * Crea un tokenizador sobre el rango [inicio, fin) de un canal ya abierto, el
+   * rango debe empezar al inicio de una línea. El canal no se cierra al cerrar
+   * el tokenizador.
+   * @param canal canal del archivo
+   * @param inicio posición de inicio del rango
+   * @param fin posición de fin (exclusiva) del rango
+   */
+  public TokenizadorCsv(FileChannel canal, long inicio, long fin) {
+    this(canal, inicio, fin, false);
+  }
+
+  private TokenizadorCsv(FileChannel canal, long inicio, long fin, boolean cerrarCanal) {
+    this.canal = canal;
+    this.posicion = inicio;
+    this.fin = fin;
+    this.cerrarCanal = cerrarCanal;
+  }
+
+  /**
+   * Abre un archivo completo para recorrerlo
+   * @param ruta ruta del archivo
+   * @return tokenizador del archivo, se debe cerrar
+   */
+  public static TokenizadorCsv abrir(Path ruta) throws IOException {
+    FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ);
+    return new TokenizadorCsv(canal, 0, canal.size(), true);
+  }
+
+  /**
+   * Avanza a la siguiente línea del archivo
+   * @return false si no quedan líneas
+   */
+  public boolean siguienteLinea() {
+    while (posicion < fin) {
+      asegurarVentana();
+      int inicio = (int) (posicion - inicioVentana);
+      int limite = ventana.limit();
+
+      cantidadSeparadores = 0;
+      int i = inicio;
+      byte b;
+      while (i < limite && (b = ventana.get(i)) != '\n') {
+        if (b == SEPARADOR) {
+          agregarSeparador(i);
+        }
+        i++;
+      }
+
+      if (i == limite && inicioVentana + limite < fin) {
+        // La línea sigue en la próxima región, se vuelve a mapear desde su inicio
+        if (inicio == 0) {
+          throw new UncheckedIOException(new IOException("Línea CSV demasiado larga en la posición " + posicion));
+        }
+        ventana = null;
+        continue;
+      }
+
+      inicioLinea = inicio;
+      finLinea = i > inicio && ventana.get(i - 1) == '\r' ? i - 1 : i;
+      posicion = inicioVentana + i + 1;
+      contarCampos();
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * @return true si la línea actual solo tiene espacios o está vacía
+   */
+  public boolean lineaEnBlanco() {
+    for (int i = inicioLinea; i < finLinea; i++) {
+      if ((ventana.get(i) & 0xFF) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Indica si la línea actual comienza con un prefijo ASCII, sirve para
+   * reconocer las cabeceras sin decodificar la línea
+   * @param prefijo prefijo ASCII
+   * @param ignorarMayusculas si la comparación ignora mayúsculas
+   */
+  public boolean lineaComienzaCon(String prefijo, boolean ignorarMayusculas) {
+    if (finLinea - inicioLinea < prefijo.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefijo.length(); i++) {
+      int b = ventana.get(inicioLinea + i) & 0xFF;
+      int c = prefijo.charAt(i);
+      if (b != c && !(ignorarMayusculas && minusculaAscii(b) == minusculaAscii(c))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return cantidad de campos de la línea actual, igual que split(";").length
+   */
+  public int cantidadCampos() {
+    return cantidadCampos;
+  }
+
+  /**
+   * @return la línea actual completa, para mensajes de error
+   */
+  public String linea() {
+    return decodificar(inicioLinea, finLinea);
+  }
+
+  /**
+   * @param indice índice del campo
+   * @return el campo tal como viene en el archivo
+   */
+  public String campo(int indice) {
+    return decodificar(inicioCampo(indice), finCampo(indice));
+  }
+
+  /**
+   * @param indice índice del campo
+   * @return el campo sin espacios al inicio ni al final, igual que trim()
+   */
+  public String campoRecortado(int indice) {
+    int desde = inicioRecortado(indice);
+    return decodificar(desde, finRecortado(indice, desde));
+  }
+
+  /**
+   * Lee un campo entero directo desde los bytes, con la misma semántica de
+   * Integer.parseInt(campo.trim())
+   * @param indice índice del campo
+   * @return valor entero
+   * @throws NumberFormatException si el campo no es un entero válido
+   */
+  public int campoEntero(int indice) {
+    int desde = inicioRecortado(indice);
+    int hasta = finRecortado(indice, desde);
+
+    int i = desde;
+    boolean negativo = false;
+    if (i < hasta && (ventana.get(i) == '-' || ventana.get(i) == '+')) {
+      negativo = ventana.get(i) == '-';
+      i++;
+    }
+    long valor = 0;
+    boolean valido = i < hasta && hasta - i <= 10;
+    for (; valido && i < hasta; i++) {
+      int digito = ventana.get(i) - '0';
+      valido = digito >= 0 && digito <= 9;
+      valor = valor * 10 + digito;
+    }
+    valor = negativo ? -valor : valor;
+    if (!valido || valor < Integer.MIN_VALUE || valor > Integer.MAX_VALUE) {
+      // Camino lento solo para entregar la misma excepción que Integer.parseInt
+      return Integer.parseInt(campoRecortado(indice));
+    }
+    return (int) valor;
+  }
+
+  /**
+   * Lee un campo fecha en formato ISO (aaaa-mm-dd) directo desde los bytes,
+   * con la misma semántica de LocalDate.parse(campo.trim())
+   * @param indice índice del campo
+   * @return fecha leída
+   * @throws java.time.format.DateTimeParseException si la fecha no es válida
+   */
+  public LocalDate campoFecha(int indice) {
+    int desde = inicioRecortado(indice);
+    int hasta = finRecortado(indice, desde);
+
+    if (hasta - desde == 10 && ventana.get(desde + 4) == '-' && ventana.get(desde + 7) == '-') {
+      int anio = digitos(desde, 4);
+      int mes = digitos(desde + 5, 2);
+      int dia = digitos(desde + 8, 2);
+      if (anio >= 0 && mes >= 0 && dia >= 0) {
+        try {
+          return LocalDate.of(anio, mes, dia);
+        } catch (DateTimeException e) {
+          // Se deja que LocalDate.parse entregue su propia excepción
+        }
+      }
+    }
+    return LocalDate.parse(campoRecortado(indice));
+  }
+
+  /**
+   * Lee un campo enum comparando los bytes con los nombres de las constantes
+   * sin distinguir mayúsculas, igual que Enum.valueOf(campo.trim().toUpperCase())
+   * @param indice índice del campo
+   * @param valores constantes del enum, se recomienda cachear values()
+   * @return constante encontrada
+   * @throws IllegalArgumentException si el campo no corresponde a ninguna constante
+   */
+  public <E extends Enum<E>> E campoEnum(int indice, E[] valores) {
+    int desde = inicioRecortado(indice);
+    int largo = finRecortado(indice, desde) - desde;
+
+    for (E valor : valores) {
+      String nombre = valor.name();
+      if (nombre.length() != largo) {
+        continue;
+      }
+      int i = 0;
+      while (i < largo && minusculaAscii(ventana.get(desde + i) & 0xFF) == minusculaAscii(nombre.charAt(i))) {
+        i++;
+      }
+      if (i == largo) {
+        return valor;
+      }
+    }
+    return Enum.valueOf(valores[0].getDeclaringClass(), campoRecortado(indice).toUpperCase());
+  }
+
+  @Override
+  public void close() throws IOException {
+    ventana = null;
+    if (cerrarCanal) {
+      canal.close();
+    }
+  }
+
+  private void asegurarVentana() {
+    if (ventana != null && posicion < inicioVentana + ventana.limit()) {
+      return;
+    }
+    try {
+      inicioVentana = posicion;
+      ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, Math.min(TAMANO_VENTANA, fin - posicion));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void agregarSeparador(int indice) {
+    if (cantidadSeparadores == separadores.length) {
+      int[] nuevos = new int[separadores.length * 2];
+      System.arraycopy(separadores, 0, nuevos, 0, separadores.length);
+      separadores = nuevos;
+    }
+    separadores[cantidadSeparadores++] = indice;
+  }
+
+  private void contarCampos() {
+    // Igual que split se descartan los campos vacíos del final, salvo si no hay separadores
+    if (cantidadSeparadores == 0) {
+      cantidadCampos = 1;
+      return;
+    }
+    int campos = cantidadSeparadores + 1;
+    while (campos > 0 && inicioCampo(campos - 1) == finCampo(campos - 1)) {
+      campos--;
+    }
+    cantidadCampos = campos;
+  }
+
+  private int inicioCampo(int indice) {
+    validarIndice(indice);
+    return indice == 0 ? inicioLinea : separadores[indice - 1] + 1;
+  }
+
+  private int finCampo(int indice) {
+    return indice < cantidadSeparadores ? separadores[indice] : finLinea;
+  }
+
+  private int inicioRecortado(int indice) {
+    int desde = inicioCampo(indice);
+    int hasta = finCampo(indice);
+    while (desde < hasta && (ventana.get(desde) & 0xFF) <= ' ') {
+      desde++;
+    }
+    return desde;
+  }
+
+  private int finRecortado(int indice, int desde) {
+    int hasta = finCampo(indice);
+    while (hasta > desde && (ventana.get(hasta - 1) & 0xFF) <= ' ') {
+      hasta--;
+    }
+    return hasta;
+  }
+
+  private void validarIndice(int indice) {
+    if (indice < 0 || indice > cantidadSeparadores) {
+      throw new IndexOutOfBoundsException("Campo " + indice + " fuera de la línea CSV");
+    }
+  }
+
+  private int digitos(int desde, int cantidad) {
+    int valor = 0;
+    for (int i = desde; i < desde + cantidad; i++) {
+      int digito = ventana.get(i) - '0';
+      if (digito < 0 || digito > 9) {
+        return -1;
+      }
+      valor = valor * 10 + digito;
+    }
+    return valor;
+  }
+
+  private String decodificar(int desde, int hasta) {
+    int largo = hasta - desde;
+    if (bytesCampo.length < largo) {
+      bytesCampo = new byte[Math.max(largo, bytesCampo.length * 2)];
+    }
+    ventana.get(desde, bytesCampo, 0, largo);
+    return new String(bytesCampo, 0, largo, StandardCharsets.UTF_8);
+  }
+
+  private static int minusculaAscii(int c) {
+    return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+  }
+}
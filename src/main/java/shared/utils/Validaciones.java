@@ -1,22 +1,12 @@
 package shared.utils;
 
-import java.util.InputMismatchException;
-
 public class Validaciones {
     /**
      * Método que valída si un string es alfanumérico, puede contener
-     * puntos, comas y espacios
+     * puntos, comas y espacios. Delegado a Sanitizador, que recorre el texto
+     * sin expresiones regulares
      */
     public static void esAlfanumericoFlexible(String input) {
-        if (input == null) {
-            throw new InputMismatchException("Input vacío, por favor reintentar");
-        }
-
-        // Regex que permite letras Unicode, números, puntos, comas y espacios
-        String regex = "^[\\p{L}0-9.,\\s]+$";
-
-        if (!input.matches(regex)) {
-            throw new InputMismatchException("El texto introducido no es alfanumérico");
-        }
+        Sanitizador.validar(input);
     }
 }
@@ -0,0 +1,233 @@
+package infraestructure.indices;
+
+import domain.entities.Libro;
+import org.junit.jupiter.api.Test;
+import shared.utils.PlegadorTexto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara la búsqueda aproximada con una búsqueda por fuerza bruta que mide
+ * la distancia de cada palabra buscada a cada palabra de cada libro
+ */
+class IndiceBusquedaAproximadaTest {
+  private static final String[] SILABAS = {
+      "ma", "ri", "qui", "jo", "te", "la", "san", "cer", "van", "tes", "ga", "bo", "ña", "lu", "ís"};
+  private static final int MAXIMO_PALABRAS_BUSCADAS = 16;
+
+  @Test
+  void noPierdeElMejorCuandoElRecorridoSeCorta() {
+    IndiceBusquedaAproximada indice = new IndiceBusquedaAproximada();
+    Libro exacto = new Libro("Cervantes cervanzzs", "Autor", "Novela", "Editorial");
+    indice.reconstruir(List.of(
+        new Libro("Cervanzzs", "Autor", "Novela", "Editorial"),
+        exacto,
+        new Libro("Cervantez", "Autor", "Novela", "Editorial")).stream());
+
+    assertEquals(List.of(exacto), indice.buscar("cervantes", 1));
+  }
+
+  @Test
+  void coincideConFuerzaBruta() {
+    Random azar = new Random(7);
+    List<Libro> libros = catalogo(azar, 3000);
+    IndiceBusquedaAproximada indice = new IndiceBusquedaAproximada();
+    indice.reconstruir(libros.stream());
+
+    for (int consulta = 0; consulta < 300; consulta++) {
+      String criterio = criterioConError(azar, libros);
+      Map<Libro, Integer> esperados = fuerzaBruta(libros, criterio);
+
+      // Todos los que contienen las palabras buscadas a la distancia permitida
+      List<Libro> todos = indice.buscar(criterio, Integer.MAX_VALUE);
+      assertEquals(esperados.keySet(), new HashSet<>(todos), criterio);
+      assertEquals(esperados.size(), todos.size(), criterio);
+
+      // Con límite, los de menor distancia total sin perder ninguno por el corte del recorrido
+      List<Integer> distancias = esperados.values().stream().sorted().toList();
+      for (int limite : new int[] {1, 3, 10}) {
+        List<Integer> obtenidas = indice.buscar(criterio, limite).stream().map(esperados::get).toList();
+        assertEquals(distancias.subList(0, Math.min(limite, distancias.size())), obtenidas, criterio);
+      }
+    }
+  }
+
+  @Test
+  void losCambiosDejanElMismoIndiceQueReconstruir() {
+    Random azar = new Random(11);
+    List<Libro> vivos = catalogo(azar, 0);
+    List<Libro> nuevos = catalogo(azar, 6000);
+    IndiceBusquedaAproximada indice = new IndiceBusquedaAproximada();
+
+    for (Libro libro : nuevos) {
+      int operacion = azar.nextInt(10);
+      if (operacion < 6 || vivos.isEmpty()) {
+        vivos.add(libro);
+        libro.setObservador(indice);
+        indice.libroAgregado(libro);
+      } else if (operacion < 8) {
+        Libro eliminado = vivos.remove(azar.nextInt(vivos.size()));
+        eliminado.setObservador(null);
+        indice.libroEliminado(eliminado);
+      } else if (operacion < 9) {
+        vivos.get(azar.nextInt(vivos.size())).setTitulo("La " + palabra(azar));
+      } else {
+        vivos.get(azar.nextInt(vivos.size())).setAutor(palabra(azar) + " " + palabra(azar));
+      }
+    }
+
+    IndiceBusquedaAproximada reconstruido = new IndiceBusquedaAproximada();
+    reconstruido.reconstruir(vivos.stream());
+    for (int consulta = 0; consulta < 300; consulta++) {
+      String criterio = criterioConError(azar, vivos);
+      assertEquals(
+          new HashSet<>(reconstruido.buscar(criterio, Integer.MAX_VALUE)),
+          new HashSet<>(indice.buscar(criterio, Integer.MAX_VALUE)),
+          criterio);
+      assertEquals(reconstruido.buscar(criterio, 7), indice.buscar(criterio, 7), criterio);
+    }
+  }
+
+  /**
+   * Libros con títulos y autores de un vocabulario chico, así hay palabras
+   * parecidas y libros con el mismo título y autor. Algunos títulos llevan
+   * una palabra con un error junto a la original, así un libro tiene varias
+   * candidatas de la misma palabra buscada
+   */
+  private static List<Libro> catalogo(Random azar, int cantidad) {
+    String[] vocabulario = new String[400];
+    for (int i = 0; i < vocabulario.length; i++) {
+      vocabulario[i] = palabra(azar);
+    }
+    String[] autores = new String[100];
+    for (int i = 0; i < autores.length; i++) {
+      autores[i] = vocabulario[azar.nextInt(vocabulario.length)] + " de " + vocabulario[azar.nextInt(vocabulario.length)];
+    }
+
+    List<Libro> libros = new ArrayList<>();
+    for (int i = 0; i < cantidad; i++) {
+      StringBuilder titulo = new StringBuilder("El");
+      for (int palabras = 1 + azar.nextInt(3); palabras > 0; palabras--) {
+        titulo.append(' ').append(vocabulario[azar.nextInt(vocabulario.length)]);
+      }
+      if (azar.nextInt(3) == 0) {
+        titulo.append(' ').append(conError(azar, vocabulario[azar.nextInt(vocabulario.length)]));
+      }
+      libros.add(new Libro(titulo.toString(), autores[azar.nextInt(autores.length)], "Novela", "Editorial"));
+    }
+    return libros;
+  }
+
+  private static String palabra(Random azar) {
+    StringBuilder palabra = new StringBuilder();
+    for (int silabas = 2 + azar.nextInt(3); silabas > 0; silabas--) {
+      palabra.append(SILABAS[azar.nextInt(SILABAS.length)]);
+    }
+    return palabra.toString();
+  }
+
+  /**
+   * Una o dos palabras de un libro, la primera con un error
+   */
+  private static String criterioConError(Random azar, List<Libro> libros) {
+    Libro libro = libros.get(azar.nextInt(libros.size()));
+    List<String> palabras = palabras(libro.getTitulo() + " " + libro.getAutor());
+    String palabra = conError(azar, palabras.get(azar.nextInt(palabras.size())));
+    return azar.nextBoolean() ? palabra : palabra + " " + palabras.get(azar.nextInt(palabras.size()));
+  }
+
+  /**
+   * La palabra con una letra borrada, cambiada o intercambiada con la
+   * siguiente, las de hasta cuatro letras quedan iguales
+   */
+  private static String conError(Random azar, String palabra) {
+    if (palabra.length() <= 4) {
+      return palabra;
+    }
+    int posicion = azar.nextInt(palabra.length() - 1);
+    return switch (azar.nextInt(3)) {
+      case 0 -> palabra.substring(0, posicion) + palabra.substring(posicion + 1);
+      case 1 -> palabra.substring(0, posicion) + 'x' + palabra.substring(posicion + 1);
+      default -> palabra.substring(0, posicion) + palabra.charAt(posicion + 1) + palabra.charAt(posicion)
+          + palabra.substring(posicion + 2);
+    };
+  }
+
+  /**
+   * Libros que tienen cada palabra buscada a la distancia permitida, con la
+   * suma de las menores distancias. Vacío si solo se buscan palabras cortas
+   */
+  private static Map<Libro, Integer> fuerzaBruta(List<Libro> libros, String criterio) {
+    Map<Libro, Integer> encontrados = new HashMap<>();
+    List<String> buscadas = palabras(criterio);
+    buscadas = buscadas.subList(0, Math.min(buscadas.size(), MAXIMO_PALABRAS_BUSCADAS));
+    if (buscadas.stream().allMatch(buscada -> erroresPermitidos(buscada) == 0)) {
+      return encontrados;
+    }
+
+    for (Libro libro : libros) {
+      List<String> propias = palabras(libro.getTitulo() + " " + libro.getAutor());
+      int total = 0;
+      for (String buscada : buscadas) {
+        int menor = Integer.MAX_VALUE;
+        for (String propia : propias) {
+          menor = Math.min(menor, distancia(buscada, propia));
+        }
+        if (menor > erroresPermitidos(buscada)) {
+          total = -1;
+          break;
+        }
+        total += menor;
+      }
+      if (total >= 0) {
+        encontrados.put(libro, total);
+      }
+    }
+    return encontrados;
+  }
+
+  private static List<String> palabras(String texto) {
+    LinkedHashSet<String> palabras = new LinkedHashSet<>();
+    for (String palabra : PlegadorTexto.plegar(texto).split("[^\\p{L}\\p{N}]+")) {
+      if (!palabra.isEmpty()) {
+        palabras.add(palabra);
+      }
+    }
+    return new ArrayList<>(palabras);
+  }
+
+  private static int erroresPermitidos(String palabra) {
+    return palabra.length() <= 3 ? 0 : palabra.length() <= 7 ? 1 : 2;
+  }
+
+  /**
+   * Distancia de edición completa, con intercambio de letras vecinas como un error
+   */
+  private static int distancia(String a, String b) {
+    int[][] d = new int[a.length() + 1][b.length() + 1];
+    for (int i = 0; i <= a.length(); i++) {
+      d[i][0] = i;
+    }
+    for (int j = 0; j <= b.length(); j++) {
+      d[0][j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      for (int j = 1; j <= b.length(); j++) {
+        int cambio = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cambio);
+        if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+          d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+        }
+      }
+    }
+    return d[a.length()][b.length()];
+  }
+}
@@ -0,0 +1,129 @@
+package infraestructure.indices;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compara MapaEnteros con un HashMap aplicando las mismas operaciones
+ */
+class MapaEnterosTest {
+  private static final int CAPACIDAD_MINIMA = 16;
+
+  @Test
+  void coincideConHashMap() {
+    // Pocas claves distintas fuerzan grupos largos y muchas eliminaciones dentro de ellos,
+    // muchas claves fuerzan varias redimensiones
+    for (int rango : new int[] {8, 40, 300, 50_000}) {
+      for (long semilla = 1; semilla <= 5; semilla++) {
+        Random azar = new Random(semilla * 31 + rango);
+        MapaEnteros<Integer> mapa = new MapaEnteros<>();
+        Map<Integer, Integer> esperado = new HashMap<>();
+
+        for (int paso = 0; paso < 20_000; paso++) {
+          int clave = 1 + azar.nextInt(rango);
+          int operacion = azar.nextInt(10);
+          if (operacion < 5) {
+            int valor = azar.nextInt();
+            assertEquals(esperado.put(clave, valor), mapa.guardar(clave, valor), "guardar " + clave);
+          } else if (operacion < 8) {
+            assertEquals(esperado.remove(clave), mapa.eliminar(clave), "eliminar " + clave);
+          } else {
+            assertEquals(esperado.get(clave), mapa.obtener(clave), "obtener " + clave);
+          }
+
+          if (paso % 1_000 == 0) {
+            verificarContenido(esperado, mapa, rango);
+          }
+        }
+        verificarContenido(esperado, mapa, rango);
+      }
+    }
+  }
+
+  @Test
+  void eliminarDentroDeUnGrupoQueDaLaVuelta() {
+    // Claves cuya casilla inicial es la última o la primera de la tabla mínima,
+    // el grupo que forman continúa desde el final al comienzo del arreglo
+    List<Integer> alFinal = clavesConCasilla(CAPACIDAD_MINIMA - 1, 3);
+    List<Integer> alComienzo = clavesConCasilla(0, 2);
+    List<Integer> claves = new ArrayList<>(alFinal);
+    claves.addAll(alComienzo);
+
+    for (int eliminada : claves) {
+      MapaEnteros<Integer> mapa = new MapaEnteros<>();
+      for (int clave : claves) {
+        mapa.guardar(clave, clave * 10);
+      }
+
+      assertEquals(eliminada * 10, mapa.eliminar(eliminada));
+      assertNull(mapa.eliminar(eliminada));
+      for (int clave : claves) {
+        assertEquals(clave == eliminada ? null : clave * 10, mapa.obtener(clave), "clave " + clave);
+      }
+      assertEquals(claves.size() - 1, mapa.cantidad());
+    }
+  }
+
+  @Test
+  void redimensionarConservaLasEntradas() {
+    MapaEnteros<String> mapa = new MapaEnteros<>();
+    for (int clave = 1; clave <= 100_000; clave++) {
+      mapa.guardar(clave, "v" + clave);
+    }
+    mapa.asegurarCapacidad(1_000_000);
+
+    assertEquals(100_000, mapa.cantidad());
+    assertEquals(100_000, mapa.valores().size());
+    for (int clave = 1; clave <= 100_000; clave++) {
+      assertEquals("v" + clave, mapa.obtener(clave));
+    }
+    assertNull(mapa.obtener(100_001));
+  }
+
+  @Test
+  void rechazaClavesNoPositivasYValoresNulos() {
+    MapaEnteros<String> mapa = new MapaEnteros<>();
+
+    assertThrows(IllegalArgumentException.class, () -> mapa.guardar(0, "cero"));
+    assertThrows(IllegalArgumentException.class, () -> mapa.obtener(-1));
+    assertThrows(IllegalArgumentException.class, () -> mapa.eliminar(Integer.MIN_VALUE));
+    assertThrows(IllegalArgumentException.class, () -> mapa.guardar(1, null));
+  }
+
+  private static void verificarContenido(Map<Integer, Integer> esperado, MapaEnteros<Integer> mapa, int rango) {
+    assertEquals(esperado.size(), mapa.cantidad());
+    for (int clave = 1; clave <= Math.min(rango, 1_000); clave++) {
+      assertEquals(esperado.get(clave), mapa.obtener(clave), "clave " + clave);
+    }
+
+    Map<Integer, Integer> repeticiones = new HashMap<>();
+    mapa.recorrer(valor -> repeticiones.merge(valor, 1, Integer::sum));
+    Map<Integer, Integer> esperadas = new HashMap<>();
+    esperado.values().forEach(valor -> esperadas.merge(valor, 1, Integer::sum));
+    assertEquals(esperadas, repeticiones);
+  }
+
+  /**
+   * Busca claves con una casilla inicial dada en la tabla mínima, repite la
+   * mezcla de bits de MapaEnteros
+   */
+  private static List<Integer> clavesConCasilla(int casilla, int cantidad) {
+    List<Integer> claves = new ArrayList<>();
+    for (int clave = 1; claves.size() < cantidad; clave++) {
+      int h = clave * 0x9E3779B9;
+      if (((h ^ (h >>> 16)) & (CAPACIDAD_MINIMA - 1)) == casilla) {
+        claves.add(clave);
+      }
+    }
+    return claves;
+  }
+}
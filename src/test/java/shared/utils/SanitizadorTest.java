@@ -0,0 +1,176 @@
+package shared.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Compara Sanitizador con la implementación anterior basada en expresiones
+ * regulares (Formateador.normalizarString y Validaciones.esAlfanumericoFlexible)
+ */
+class SanitizadorTest {
+  private static final String[] FRAGMENTOS = {
+      "a", "B", "ñ", "Ñ", "á", "É", "ü", "ß", "ÿ", "µ", "İ", "ı", "i", "I", "ǅ", "Σ", "ς", "ﬁ", "Ж", "日本",
+      "𝐀", "😀", "́", "0", "9", "٣", ".", ",", "-", "_", "!", "'", " ", "  ", "\t", "\n", "\r\n", "\u000B",
+      "\f", "\u0001", " ", " ", "garcía", "MÁRQUEZ", "don quijote"};
+  private static final Locale[] IDIOMAS = {
+      Locale.forLanguageTag("es"), Locale.ROOT, Locale.forLanguageTag("tr"), Locale.forLanguageTag("lt")};
+
+  private final Locale idiomaOriginal = Locale.getDefault();
+
+  @AfterEach
+  void restaurarIdioma() {
+    Locale.setDefault(idiomaOriginal);
+  }
+
+  @Test
+  void casosConocidos() {
+    assertEquals("Cien Años De Soledad", Sanitizador.sanitizar("  cien   AÑOS\tde soledad "));
+    assertEquals("J.r.r. Tolkien", Sanitizador.sanitizar("j.r.r. TOLKIEN"));
+    assertNull(Sanitizador.normalizar(null));
+    assertEquals("", Sanitizador.normalizar(" \t "));
+    assertEquals(Sanitizador.MENSAJE_INPUT_VACIO, mensaje(() -> Sanitizador.sanitizar((String) null)));
+    assertEquals(Sanitizador.MENSAJE_NO_ALFANUMERICO, mensaje(() -> Sanitizador.sanitizar("   ")));
+    assertEquals(Sanitizador.MENSAJE_NO_ALFANUMERICO, mensaje(() -> Sanitizador.sanitizar("Harry Potter!")));
+  }
+
+  @Test
+  void coincideConLaVersionConExpresionesRegulares() {
+    Random azar = new Random(3);
+    for (Locale idioma : IDIOMAS) {
+      Locale.setDefault(idioma);
+      for (int i = 0; i < 20_000; i++) {
+        String texto = textoAlAzar(azar);
+        String mensaje = idioma + " \"" + texto + "\"";
+
+        assertEquals(normalizarConRegex(texto), Sanitizador.normalizar(texto), mensaje);
+        assertEquals(resultado(() -> {
+          validarConRegex(texto);
+          return texto;
+        }), resultado(() -> {
+          Sanitizador.validar(texto);
+          return texto;
+        }), mensaje);
+        assertEquals(resultado(() -> sanitizarConRegex(texto)), resultado(() -> Sanitizador.sanitizar(texto)),
+            mensaje);
+      }
+    }
+  }
+
+  @Test
+  void variosCamposYLotesCoincidenConCadaCampo() {
+    Random azar = new Random(5);
+    List<String[]> filas = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      String[] campos = new String[4];
+      for (int c = 0; c < campos.length; c++) {
+        campos[c] = azar.nextInt(50) == 0 ? null : textoAlAzar(azar);
+      }
+      filas.add(campos);
+    }
+
+    String[][] lote = Sanitizador.sanitizarLote(filas);
+    for (int f = 0; f < filas.size(); f++) {
+      String[] campos = filas.get(f);
+      String[] esperados = new String[campos.length];
+      boolean valida = true;
+      for (int c = 0; c < campos.length && valida; c++) {
+        String texto = campos[c];
+        Object campo = resultado(() -> sanitizarConRegex(texto));
+        valida = !(campo instanceof Fallo);
+        esperados[c] = valida ? (String) campo : null;
+      }
+
+      assertArrayEquals(valida ? esperados : null, lote[f], "fila " + f);
+      Object varios = resultado(() -> Sanitizador.sanitizar(campos));
+      if (valida) {
+        assertArrayEquals(esperados, (String[]) varios, "fila " + f);
+      } else {
+        assertEquals(InputMismatchException.class, ((Fallo) varios).tipo(), "fila " + f);
+      }
+    }
+  }
+
+  private static String textoAlAzar(Random azar) {
+    StringBuilder texto = new StringBuilder();
+    int fragmentos = azar.nextInt(8);
+    for (int i = 0; i < fragmentos; i++) {
+      texto.append(FRAGMENTOS[azar.nextInt(FRAGMENTOS.length)]);
+    }
+    return texto.toString();
+  }
+
+  /**
+   * El valor entregado, o la clase y el mensaje de la excepción lanzada
+   */
+  private static Object resultado(Supplier<Object> operacion) {
+    try {
+      return operacion.get();
+    } catch (RuntimeException e) {
+      return new Fallo(e.getClass(), e.getMessage());
+    }
+  }
+
+  private record Fallo(Class<?> tipo, String mensaje) {
+  }
+
+  private static String mensaje(Runnable operacion) {
+    try {
+      operacion.run();
+      return null;
+    } catch (InputMismatchException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static String sanitizarConRegex(String texto) {
+    String normalizado = normalizarConRegex(texto);
+    validarConRegex(normalizado);
+    return normalizado;
+  }
+
+  // Implementación anterior de Formateador.normalizarString
+  private static String normalizarConRegex(String texto) {
+    if (texto == null) {
+      return null;
+    }
+
+    String textoLimpio = texto.trim();
+    if (textoLimpio.isEmpty()) {
+      return "";
+    }
+
+    String[] palabras = textoLimpio.split("\\s+");
+    StringBuilder resultado = new StringBuilder();
+    for (int i = 0; i < palabras.length; i++) {
+      String palabra = palabras[i];
+      if (!palabra.isEmpty()) {
+        resultado.append(palabra.substring(0, 1).toUpperCase()).append(palabra.substring(1).toLowerCase());
+        if (i < palabras.length - 1) {
+          resultado.append(" ");
+        }
+      }
+    }
+    return resultado.toString();
+  }
+
+  // Implementación anterior de Validaciones.esAlfanumericoFlexible
+  private static void validarConRegex(String input) {
+    if (input == null) {
+      throw new InputMismatchException("Input vacío, por favor reintentar");
+    }
+    if (!input.matches("^[\\p{L}0-9.,\\s]+$")) {
+      throw new InputMismatchException("El texto introducido no es alfanumérico");
+    }
+  }
+}
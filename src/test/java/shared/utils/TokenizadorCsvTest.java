@@ -0,0 +1,149 @@
+package shared.utils;
+
+import domain.enums.EstadoLibro;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara el tokenizador con leer cada línea como String y usar
+ * split(";"), trim() y los parse de Java
+ */
+class TokenizadorCsvTest {
+  private static final EstadoLibro[] ESTADOS = EstadoLibro.values();
+  private static final String[] CAMPOS = {
+      "", " ", "\t", "abc", " ñandú ", "árbol;", "+5", "-5", "-", "+", "-0", "007", "12a", " 42 ", "\t7\t",
+      "2147483647", "2147483648", "-2147483648", "-2147483649", "99999999999", "1234567890",
+      "2024-02-29", "2023-02-29", "2024-13-01", "2024-1-01", "2024/05/06", " 2024-05-06 ", "0000-01-01",
+      "libre", " RESERVADO ", "Libre", "prestado"};
+
+  @TempDir
+  Path directorio;
+
+  @Test
+  void lineasEspeciales() throws IOException {
+    List<String> lineas = List.of(
+        "", ";;", ";", " ; ", "a;;b;;", "uuid;titulo", "  ", "12;2024-05-06;libre", "-;+5;2023-02-29");
+
+    // Fin de línea \n y \r\n, con y sin salto después de la última línea
+    verificar(lineas, "\n", false);
+    verificar(lineas, "\r\n", false);
+    verificar(lineas, "\n", true);
+  }
+
+  @Test
+  void archivoVacio() throws IOException {
+    Path archivo = escribir("");
+    try (TokenizadorCsv csv = TokenizadorCsv.abrir(archivo)) {
+      assertFalse(csv.siguienteLinea());
+    }
+  }
+
+  @Test
+  void coincideConSplitEnLineasAlAzar() throws IOException {
+    Random azar = new Random(11);
+    for (int archivo = 0; archivo < 20; archivo++) {
+      List<String> lineas = new ArrayList<>();
+      for (int i = 0; i < 300; i++) {
+        int campos = azar.nextInt(6);
+        StringBuilder linea = new StringBuilder();
+        for (int c = 0; c < campos; c++) {
+          if (c > 0) {
+            linea.append(';');
+          }
+          linea.append(CAMPOS[azar.nextInt(CAMPOS.length)]);
+        }
+        lineas.add(linea.toString());
+      }
+      verificar(lineas, azar.nextBoolean() ? "\n" : "\r\n", azar.nextBoolean());
+    }
+  }
+
+  @Test
+  void recorreUnRangoDelCanal() throws IOException {
+    String primera = "1;a\n";
+    Path archivo = escribir(primera + "2;b\r\n3;c");
+
+    try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+      TokenizadorCsv csv = new TokenizadorCsv(canal, primera.length(), canal.size());
+      assertTrue(csv.siguienteLinea());
+      assertEquals(2, csv.campoEntero(0));
+      assertTrue(csv.siguienteLinea());
+      assertEquals("c", csv.campo(1));
+      assertFalse(csv.siguienteLinea());
+      assertTrue(canal.isOpen());
+    }
+  }
+
+  private void verificar(List<String> lineas, String finDeLinea, boolean saltoFinal) throws IOException {
+    Path archivo = escribir(String.join(finDeLinea, lineas) + (saltoFinal ? finDeLinea : ""));
+    // Igual que BufferedReader.readLine, una última línea vacía sin salto no existe
+    List<String> esperadas = new ArrayList<>(lineas);
+    if (!saltoFinal && esperadas.get(esperadas.size() - 1).isEmpty()) {
+      esperadas.remove(esperadas.size() - 1);
+    }
+    try (TokenizadorCsv csv = TokenizadorCsv.abrir(archivo)) {
+      for (String linea : esperadas) {
+        assertTrue(csv.siguienteLinea(), "faltó la línea " + linea);
+        verificarLinea(csv, linea);
+      }
+      assertFalse(csv.siguienteLinea());
+    }
+  }
+
+  private static void verificarLinea(TokenizadorCsv csv, String linea) {
+    String[] campos = linea.split(";");
+    assertEquals(linea, csv.linea());
+    assertEquals(linea.trim().isEmpty(), csv.lineaEnBlanco(), linea);
+    assertEquals(campos.length, csv.cantidadCampos(), linea);
+    assertEquals(linea.regionMatches(true, 0, "UUID", 0, 4), csv.lineaComienzaCon("UUID", true), linea);
+
+    for (int i = 0; i < campos.length; i++) {
+      String campo = campos[i];
+      int indice = i;
+      String mensaje = "campo " + i + " de \"" + linea + "\"";
+      assertEquals(campo, csv.campo(i), mensaje);
+      assertEquals(campo.trim(), csv.campoRecortado(i), mensaje);
+      mismoResultado(() -> Integer.parseInt(campo.trim()), () -> csv.campoEntero(indice), mensaje);
+      mismoResultado(() -> LocalDate.parse(campo.trim()), () -> csv.campoFecha(indice), mensaje);
+      mismoResultado(() -> EstadoLibro.valueOf(campo.trim().toUpperCase()), () -> csv.campoEnum(indice, ESTADOS),
+          mensaje);
+    }
+  }
+
+  /**
+   * Ambos entregan el mismo valor o lanzan el mismo tipo de excepción
+   */
+  private static void mismoResultado(Supplier<Object> esperado, Supplier<Object> obtenido, String mensaje) {
+    assertEquals(resultado(esperado), resultado(obtenido), mensaje);
+  }
+
+  private static Object resultado(Supplier<Object> operacion) {
+    try {
+      return operacion.get();
+    } catch (RuntimeException e) {
+      return e.getClass();
+    }
+  }
+
+  private Path escribir(String contenido) throws IOException {
+    Path archivo = Files.createTempFile(directorio, "tokenizador", ".csv");
+    Files.writeString(archivo, contenido, StandardCharsets.UTF_8);
+    return archivo;
+  }
+}